@@ -2,13 +2,23 @@ DROP SCHEMA IF EXISTS donnamis CASCADE;
 
 CREATE SCHEMA donnamis;
 
+-- The states of the members, of the objects and their offers and of the interests, stored on 4
+-- bytes and compared without collation.
+CREATE TYPE donnamis.member_status AS ENUM ('pending', 'denied', 'valid', 'prevented');
+
+CREATE TYPE donnamis.offer_status AS ENUM ('available', 'interested', 'assigned', 'given',
+    'cancelled', 'not_collected');
+
+CREATE TYPE donnamis.interest_status AS ENUM ('published', 'prevented', 'assigned', 'received',
+    'not_collected');
+
 CREATE TABLE donnamis.members
 (
     id_member      SERIAL PRIMARY KEY,
     username       VARCHAR(50)  NOT NULL,
     lastname       VARCHAR(50)  NOT NULL,
     firstname      VARCHAR(50)  NOT NULL,
-    status         VARCHAR(15)  NOT NULL,
+    status         donnamis.member_status NOT NULL,
     role           VARCHAR(15)  NOT NULL,
     phone_number   VARCHAR(50)  NULL,
     password       CHAR(60)     NOT NULL,
@@ -41,7 +51,7 @@ CREATE TABLE donnamis.objects
     id_object   SERIAL PRIMARY KEY,
     id_type     INTEGER REFERENCES donnamis.types (id_type)     NOT NULL,
     description VARCHAR(100)                                    NOT NULL,
-    status      VARCHAR(50)                                     NOT NULL,
+    status      donnamis.offer_status                           NOT NULL,
     image       VARCHAR(100)                                    NULL,
     id_offeror  INTEGER REFERENCES donnamis.members (id_member) NOT NULL,
     version     INTEGER                                         NOT NULL
@@ -56,25 +66,236 @@ CREATE TABLE donnamis.ratings
     PRIMARY KEY (id_object)
 );
 
+-- The interests of the objects whose offers are all archived are moved to the archive partition.
+-- An archived interest has no notification : its unread one is cleared when it is archived.
 CREATE TABLE donnamis.interests
 (
     availability_date DATE                                            NOT NULL,
-    status            VARCHAR(15)                                     NOT NULL,
+    status            donnamis.interest_status                        NOT NULL,
     id_member         INTEGER REFERENCES donnamis.members (id_member) NOT NULL,
     id_object         INTEGER REFERENCES donnamis.objects (id_object) NOT NULL,
     send_notification BOOLEAN                                         NOT NULL,
     notification_date TIMESTAMP                                       NOT NULL,
     be_called         BOOLEAN                                         NOT NULL,
     version           INTEGER                                         NOT NULL,
-    PRIMARY KEY (id_object, id_member)
-);
+    archived          BOOLEAN DEFAULT FALSE                           NOT NULL,
+    PRIMARY KEY (id_object, id_member, archived)
+) PARTITION BY LIST (archived);
 
+CREATE TABLE donnamis.interests_active PARTITION OF donnamis.interests FOR VALUES IN (FALSE);
+CREATE TABLE donnamis.interests_archive PARTITION OF donnamis.interests FOR VALUES IN (TRUE);
+
+-- The primary key is only unique in each partition : an interest can't be added next to an
+-- archived one of the same member and object. An object offered again gets back its archived
+-- interests before a member can mark his interest.
+CREATE FUNCTION donnamis.interests_unique() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF EXISTS(SELECT 1
+              FROM donnamis.interests i
+              WHERE i.id_object = NEW.id_object
+                AND i.id_member = NEW.id_member
+                AND i.archived <> NEW.archived) THEN
+        RAISE unique_violation USING MESSAGE = 'interest (' || NEW.id_object || ', '
+            || NEW.id_member || ') already exists in another partition';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER interests_unique
+    BEFORE INSERT
+    ON donnamis.interests
+    FOR EACH ROW
+EXECUTE FUNCTION donnamis.interests_unique();
+
+-- The listings only read the active offers. The cancelled, given and not collected offers are
+-- moved by the archival job to the archive, partitioned by year : offers_archive_<year> is
+-- created by the job for the first offer of its year.
 CREATE TABLE donnamis.offers
 (
-    id_offer  SERIAL PRIMARY KEY,
+    id_offer  SERIAL,
     date      TIMESTAMP                                       NOT NULL,
     time_slot VARCHAR(200)                                    NOT NULL,
-    status    VARCHAR(200)                                    NOT NULL,
+    status    donnamis.offer_status                           NOT NULL,
     id_object INTEGER REFERENCES donnamis.objects (id_object) NOT NULL,
-    version   INTEGER                                         NOT NULL
-);
\ No newline at end of file
+    version   INTEGER                                         NOT NULL,
+    archived  BOOLEAN DEFAULT FALSE                           NOT NULL,
+    PRIMARY KEY (id_offer, archived, date)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE donnamis.offers_active PARTITION OF donnamis.offers FOR VALUES IN (FALSE);
+CREATE TABLE donnamis.offers_archive PARTITION OF donnamis.offers FOR VALUES IN (TRUE)
+    PARTITION BY RANGE (date);
+-- Side effects of a change, written in its transaction and run after its commit by the outbox
+-- workers of any node. An event is claimed for a lease, deleted once done and tried again later
+-- if it fails, until its number of attempts reaches OutboxMaxAttempts.
+CREATE TABLE donnamis.outbox
+(
+    id_event      BIGSERIAL PRIMARY KEY,
+    kind          VARCHAR(50)             NOT NULL,
+    payload       TEXT                    NOT NULL,
+    attempts      INTEGER   DEFAULT 0     NOT NULL,
+    available_at  TIMESTAMP DEFAULT NOW() NOT NULL,
+    creation_date TIMESTAMP DEFAULT NOW() NOT NULL,
+    last_error    TEXT
+);
+
+CREATE INDEX outbox_available ON donnamis.outbox (available_at, id_event);
+
+-- Unread notifications by member, maintained by a trigger on the interests so the count is read
+-- by primary key instead of being computed from the interests.
+CREATE TABLE donnamis.notification_counters
+(
+    id_member INTEGER REFERENCES donnamis.members (id_member),
+    unread    INTEGER NOT NULL,
+    PRIMARY KEY (id_member)
+);
+
+-- The offeror sees the notifications of the published and prevented interests, the interested
+-- member sees the other ones.
+CREATE FUNCTION donnamis.notification_recipient(status donnamis.interest_status,
+                                                id_object INTEGER,
+                                                id_member INTEGER) RETURNS INTEGER AS
+$$
+SELECT CASE
+           WHEN $1 = 'published' OR $1 = 'prevented'
+               THEN (SELECT o.id_offeror FROM donnamis.objects o WHERE o.id_object = $2)
+           ELSE $3 END;
+$$ LANGUAGE SQL STABLE;
+
+CREATE FUNCTION donnamis.count_notification(id_recipient INTEGER, delta INTEGER) RETURNS VOID AS
+$$
+INSERT INTO donnamis.notification_counters AS nc (id_member, unread)
+VALUES ($1, GREATEST($2, 0))
+ON CONFLICT (id_member) DO UPDATE SET unread = GREATEST(nc.unread + $2, 0);
+$$ LANGUAGE SQL;
+
+CREATE FUNCTION donnamis.interests_notification_counter() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.send_notification = NEW.send_notification
+        AND OLD.status = NEW.status THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.send_notification THEN
+        PERFORM donnamis.count_notification(
+                donnamis.notification_recipient(OLD.status, OLD.id_object, OLD.id_member), -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.send_notification THEN
+        PERFORM donnamis.count_notification(
+                donnamis.notification_recipient(NEW.status, NEW.id_object, NEW.id_member), 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER interests_notification_counter
+    AFTER INSERT OR DELETE OR UPDATE OF send_notification, status
+    ON donnamis.interests
+    FOR EACH ROW
+EXECUTE FUNCTION donnamis.interests_notification_counter();
+
+CREATE INDEX interests_unread_member ON donnamis.interests (id_member) WHERE send_notification;
+CREATE INDEX objects_offeror ON donnamis.objects (id_offeror);
+-- The offers of an object by date : its last offer, the previous date of an offer and its history.
+CREATE INDEX offers_object_date ON donnamis.offers (id_object, date);
+
+-- Activity statistics of the members for the profile page, maintained by triggers on the
+-- interests, objects and offers.
+CREATE TABLE donnamis.member_statistics
+(
+    id_member        INTEGER REFERENCES donnamis.members (id_member),
+    nb_received      INTEGER NOT NULL,
+    nb_not_collected INTEGER NOT NULL,
+    nb_given         INTEGER NOT NULL,
+    nb_offers        INTEGER NOT NULL,
+    PRIMARY KEY (id_member)
+);
+
+CREATE FUNCTION donnamis.count_statistics(id_member INTEGER, received INTEGER,
+                                          not_collected INTEGER, given INTEGER,
+                                          offers INTEGER) RETURNS VOID AS
+$$
+INSERT INTO donnamis.member_statistics AS ms (id_member, nb_received, nb_not_collected,
+                                              nb_given, nb_offers)
+VALUES ($1, GREATEST($2, 0), GREATEST($3, 0), GREATEST($4, 0), GREATEST($5, 0))
+ON CONFLICT (id_member) DO UPDATE SET nb_received      = GREATEST(ms.nb_received + $2, 0),
+                                      nb_not_collected = GREATEST(ms.nb_not_collected + $3, 0),
+                                      nb_given         = GREATEST(ms.nb_given + $4, 0),
+                                      nb_offers        = GREATEST(ms.nb_offers + $5, 0);
+$$ LANGUAGE SQL;
+
+CREATE FUNCTION donnamis.interests_statistics() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.status = NEW.status THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE')
+        AND (OLD.status = 'received' OR OLD.status = 'not_collected') THEN
+        PERFORM donnamis.count_statistics(OLD.id_member,
+                                          -(OLD.status = 'received')::INTEGER,
+                                          -(OLD.status = 'not_collected')::INTEGER, 0, 0);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE')
+        AND (NEW.status = 'received' OR NEW.status = 'not_collected') THEN
+        PERFORM donnamis.count_statistics(NEW.id_member,
+                                          (NEW.status = 'received')::INTEGER,
+                                          (NEW.status = 'not_collected')::INTEGER, 0, 0);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER interests_statistics
+    AFTER INSERT OR DELETE OR UPDATE OF status
+    ON donnamis.interests
+    FOR EACH ROW
+EXECUTE FUNCTION donnamis.interests_statistics();
+
+CREATE FUNCTION donnamis.objects_statistics() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.status = NEW.status THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.status = 'given' THEN
+        PERFORM donnamis.count_statistics(OLD.id_offeror, 0, 0, -1, 0);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.status = 'given' THEN
+        PERFORM donnamis.count_statistics(NEW.id_offeror, 0, 0, 1, 0);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER objects_statistics
+    AFTER INSERT OR DELETE OR UPDATE OF status
+    ON donnamis.objects
+    FOR EACH ROW
+EXECUTE FUNCTION donnamis.objects_statistics();
+
+-- An object counts as one offer whatever the number of times it has been offered again.
+CREATE FUNCTION donnamis.offers_statistics() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NOT EXISTS(SELECT 1
+                  FROM donnamis.offers of
+                  WHERE of.id_object = NEW.id_object
+                    AND of.id_offer <> NEW.id_offer) THEN
+        PERFORM donnamis.count_statistics(o.id_offeror, 0, 0, 0, 1)
+        FROM donnamis.objects o
+        WHERE o.id_object = NEW.id_object;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- An offer moved to the archive is inserted in its partition, it is not a new offer.
+CREATE TRIGGER offers_statistics
+    AFTER INSERT
+    ON donnamis.offers
+    FOR EACH ROW
+    WHEN (NOT NEW.archived)
+EXECUTE FUNCTION donnamis.offers_statistics();
@@ -1,6 +1,7 @@
 package be.vinci.pae.business.domain;
 
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
@@ -25,7 +26,7 @@ public class InterestImpl implements InterestDTO {
   @JsonView(Views.Public.class)
   private LocalDate availabilityDate;
   @JsonView(Views.Public.class)
-  private String status;
+  private InterestStatus status;
   @JsonView(Views.Public.class)
   private Boolean isNotificated;
   @JsonView(Views.Public.class)
@@ -106,12 +107,12 @@ public class InterestImpl implements InterestDTO {
   }
 
   @Override
-  public String getStatus() {
+  public InterestStatus getStatus() {
     return status;
   }
 
   @Override
-  public void setStatus(String status) {
+  public void setStatus(InterestStatus status) {
     this.status = status;
   }
 
@@ -15,7 +15,15 @@ public interface Member extends MemberDTO {
    * Hash the password of the member.
    *
    * @param password : password of the member that need to be hashed
+   * @param cost     : log2 of the number of rounds of bcrypt
    */
-  String hashPassword(String password);
+  String hashPassword(String password, int cost);
+
+  /**
+   * Check if the hash of the password of the member was made with another cost.
+   *
+   * @param cost : log2 of the number of rounds of bcrypt
+   */
+  boolean needsRehash(int cost);
 
 }
@@ -1,6 +1,7 @@
 package be.vinci.pae.business.domain;
 
 import be.vinci.pae.business.domain.dto.AddressDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
 import be.vinci.pae.utils.Views;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -18,7 +19,7 @@ public class MemberImpl implements Member {
   @JsonView(Views.Public.class)
   private String firstname;
   @JsonView(Views.Public.class)
-  private String status;
+  private MemberStatus status;
   @JsonView(Views.Public.class)
   private String role;
   @JsonView(Views.Public.class)
@@ -75,12 +76,12 @@ public class MemberImpl implements Member {
   }
 
   @Override
-  public String getStatus() {
+  public MemberStatus getStatus() {
     return status;
   }
 
   @Override
-  public void setStatus(String status) {
+  public void setStatus(MemberStatus status) {
     this.status = status;
   }
 
@@ -168,10 +169,22 @@ public class MemberImpl implements Member {
    * Hash the password of the member.
    *
    * @param password : password of the member that need to be hashed
+   * @param cost     : log2 of the number of rounds of bcrypt
    */
   @Override
-  public String hashPassword(String password) {
-    return BCrypt.hashpw(password, BCrypt.gensalt());
+  public String hashPassword(String password, int cost) {
+    return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+  }
+
+  /**
+   * Check if the hash of the password of the member was made with another cost.
+   *
+   * @param cost : log2 of the number of rounds of bcrypt
+   */
+  @Override
+  public boolean needsRehash(int cost) {
+    // a bcrypt hash starts with $2a$ followed by the cost on two digits
+    return !this.password.startsWith(String.format("$2a$%02d$", cost));
   }
 
 }
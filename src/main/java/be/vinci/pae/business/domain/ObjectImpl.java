@@ -1,6 +1,7 @@
 package be.vinci.pae.business.domain;
 
 import be.vinci.pae.business.domain.dto.ObjectDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.domain.dto.TypeDTO;
 import be.vinci.pae.utils.Views;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -18,7 +19,7 @@ public class ObjectImpl implements ObjectDTO {
   @JsonView(Views.Public.class)
   private String description;
   @JsonView(Views.Public.class)
-  private String status;
+  private OfferStatus status;
   @JsonView(Views.Public.class)
   private String image;
   @JsonView(Views.Public.class)
@@ -68,12 +69,12 @@ public class ObjectImpl implements ObjectDTO {
   }
 
   @Override
-  public String getStatus() {
+  public OfferStatus getStatus() {
     return status;
   }
 
   @Override
-  public void setStatus(String status) {
+  public void setStatus(OfferStatus status) {
     this.status = status;
   }
 
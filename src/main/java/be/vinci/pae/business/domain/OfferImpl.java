@@ -2,6 +2,7 @@ package be.vinci.pae.business.domain;
 
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.utils.Views;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -21,7 +22,7 @@ public class OfferImpl implements OfferDTO {
   @JsonView(Views.Public.class)
   private String timeSlot;
   @JsonView(Views.Public.class)
-  private String status;
+  private OfferStatus status;
   @JsonView(Views.Public.class)
   private ObjectDTO object;
   @JsonView(Views.Public.class)
@@ -88,12 +89,12 @@ public class OfferImpl implements OfferDTO {
   }
 
   @Override
-  public String getStatus() {
+  public OfferStatus getStatus() {
     return status;
   }
 
   @Override
-  public void setStatus(String status) {
+  public void setStatus(OfferStatus status) {
     this.status = status;
   }
 
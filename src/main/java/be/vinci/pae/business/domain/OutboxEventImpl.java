@@ -0,0 +1,51 @@
+package be.vinci.pae.business.domain;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+
+public class OutboxEventImpl implements OutboxEventDTO {
+
+  private Long idEvent;
+  private String kind;
+  private String payload;
+  private Integer attempts;
+
+  @Override
+  public Long getIdEvent() {
+    return idEvent;
+  }
+
+  @Override
+  public void setIdEvent(Long idEvent) {
+    this.idEvent = idEvent;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public void setKind(String kind) {
+    this.kind = kind;
+  }
+
+  @Override
+  public String getPayload() {
+    return payload;
+  }
+
+  @Override
+  public void setPayload(String payload) {
+    this.payload = payload;
+  }
+
+  @Override
+  public Integer getAttempts() {
+    return attempts;
+  }
+
+  @Override
+  public void setAttempts(Integer attempts) {
+    this.attempts = attempts;
+  }
+}
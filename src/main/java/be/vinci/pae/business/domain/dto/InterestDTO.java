@@ -35,9 +35,9 @@ public interface InterestDTO {
 
   void setAvailabilityDate(LocalDate availabilityDate);
 
-  String getStatus();
+  InterestStatus getStatus();
 
-  void setStatus(String status);
+  void setStatus(InterestStatus status);
 
   Integer getVersion();
 
@@ -0,0 +1,56 @@
+package be.vinci.pae.business.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * State of an interest of a member for an object, stored as donnamis.interest_status.
+ */
+public enum InterestStatus {
+  PUBLISHED("published"),
+  PREVENTED("prevented"),
+  ASSIGNED("assigned"),
+  RECEIVED("received"),
+  NOT_COLLECTED("not_collected");
+
+  private final String value;
+
+  InterestStatus(String value) {
+    this.value = value;
+  }
+
+  /**
+   * Get the value of the status, as written in the database and in the JSON.
+   *
+   * @return the value of the status.
+   */
+  @JsonValue
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Get the status of a value, a blank value is no status.
+   *
+   * @param value the value of the status.
+   * @return the status or null if the value is null or blank.
+   * @throws IllegalArgumentException if the value is not a status.
+   */
+  @JsonCreator
+  public static InterestStatus fromValue(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    for (InterestStatus status : values()) {
+      if (status.value.equals(value)) {
+        return status;
+      }
+    }
+    throw new IllegalArgumentException("Statut inconnu : " + value);
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -22,9 +22,9 @@ public interface MemberDTO {
 
   void setFirstname(String firstname);
 
-  String getStatus();
+  MemberStatus getStatus();
 
-  void setStatus(String status);
+  void setStatus(MemberStatus status);
 
   String getRole();
 
@@ -0,0 +1,55 @@
+package be.vinci.pae.business.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * State of the registration of a member, stored as donnamis.member_status.
+ */
+public enum MemberStatus {
+  PENDING("pending"),
+  DENIED("denied"),
+  VALID("valid"),
+  PREVENTED("prevented");
+
+  private final String value;
+
+  MemberStatus(String value) {
+    this.value = value;
+  }
+
+  /**
+   * Get the value of the status, as written in the database and in the JSON.
+   *
+   * @return the value of the status.
+   */
+  @JsonValue
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Get the status of a value, a blank value is no status.
+   *
+   * @param value the value of the status.
+   * @return the status or null if the value is null or blank.
+   * @throws IllegalArgumentException if the value is not a status.
+   */
+  @JsonCreator
+  public static MemberStatus fromValue(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    for (MemberStatus status : values()) {
+      if (status.value.equals(value)) {
+        return status;
+      }
+    }
+    throw new IllegalArgumentException("Statut inconnu : " + value);
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
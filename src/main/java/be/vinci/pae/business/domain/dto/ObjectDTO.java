@@ -22,9 +22,9 @@ public interface ObjectDTO {
 
   void setDescription(String description);
 
-  String getStatus();
+  OfferStatus getStatus();
 
-  void setStatus(String status);
+  void setStatus(OfferStatus status);
 
   String getImage();
 
@@ -31,9 +31,9 @@ public interface OfferDTO {
 
   void setObject(ObjectDTO object);
 
-  String getStatus();
+  OfferStatus getStatus();
 
-  void setStatus(String status);
+  void setStatus(OfferStatus status);
 
   Integer getVersion();
 
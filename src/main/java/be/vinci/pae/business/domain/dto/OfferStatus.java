@@ -0,0 +1,57 @@
+package be.vinci.pae.business.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * State of an object and of its offers, stored as donnamis.offer_status.
+ */
+public enum OfferStatus {
+  AVAILABLE("available"),
+  INTERESTED("interested"),
+  ASSIGNED("assigned"),
+  GIVEN("given"),
+  CANCELLED("cancelled"),
+  NOT_COLLECTED("not_collected");
+
+  private final String value;
+
+  OfferStatus(String value) {
+    this.value = value;
+  }
+
+  /**
+   * Get the value of the status, as written in the database and in the JSON.
+   *
+   * @return the value of the status.
+   */
+  @JsonValue
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Get the status of a value, a blank value is no status.
+   *
+   * @param value the value of the status.
+   * @return the status or null if the value is null or blank.
+   * @throws IllegalArgumentException if the value is not a status.
+   */
+  @JsonCreator
+  public static OfferStatus fromValue(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    for (OfferStatus status : values()) {
+      if (status.value.equals(value)) {
+        return status;
+      }
+    }
+    throw new IllegalArgumentException("Statut inconnu : " + value);
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -0,0 +1,23 @@
+package be.vinci.pae.business.domain.dto;
+
+public interface OutboxEventDTO {
+
+  // delete a replaced picture, the payload is the image as stored, relative to ImagePath
+  String DELETE_IMAGE = "deleteImage";
+
+  Long getIdEvent();
+
+  void setIdEvent(Long idEvent);
+
+  String getKind();
+
+  void setKind(String kind);
+
+  String getPayload();
+
+  void setPayload(String payload);
+
+  Integer getAttempts();
+
+  void setAttempts(Integer attempts);
+}
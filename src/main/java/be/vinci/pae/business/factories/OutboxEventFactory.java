@@ -0,0 +1,14 @@
+package be.vinci.pae.business.factories;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+
+public interface OutboxEventFactory {
+
+  /**
+   * This function is used for the injection, it returns an implementation outbox event.
+   *
+   * @return outbox event implementation
+   */
+  OutboxEventDTO getOutboxEventDTO();
+
+}
@@ -0,0 +1,18 @@
+package be.vinci.pae.business.factories;
+
+import be.vinci.pae.business.domain.OutboxEventImpl;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+
+public class OutboxEventFactoryImpl implements OutboxEventFactory {
+
+  /**
+   * This function is used for the injection, it returns an implementation outbox event.
+   *
+   * @return outbox event implementation
+   */
+  @Override
+  public OutboxEventDTO getOutboxEventDTO() {
+    return new OutboxEventImpl();
+  }
+
+}
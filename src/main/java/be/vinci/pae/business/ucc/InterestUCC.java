@@ -41,6 +41,13 @@ public interface InterestUCC {
    */
   Integer getNotificationCount(MemberDTO member);
 
+  /**
+   * Check the notification counters against the interests and repair the wrong ones.
+   *
+   * @return the number of counters repaired.
+   */
+  Integer rebuildNotificationCounters();
+
   /**
    * Get the number of all interests.
    *
@@ -87,4 +94,11 @@ public interface InterestUCC {
    */
   List<InterestDTO> markAllNotificationsShown(MemberDTO member);
 
+  /**
+   * Write a batch of the notifications marked as seen and not written yet.
+   *
+   * @return the number of interests updated.
+   */
+  int flushNotificationsShown();
+
 }
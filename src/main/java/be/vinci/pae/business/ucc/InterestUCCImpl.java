@@ -1,22 +1,30 @@
 package be.vinci.pae.business.ucc;
 
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
+import be.vinci.pae.business.factories.InterestFactory;
 import be.vinci.pae.dal.dao.InterestDAO;
 import be.vinci.pae.dal.dao.MemberDAO;
 import be.vinci.pae.dal.dao.ObjectDAO;
 import be.vinci.pae.dal.dao.OfferDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ConflictException;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
+import be.vinci.pae.utils.NotificationHub;
+import be.vinci.pae.utils.NotificationSeenBuffer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class InterestUCCImpl implements InterestUCC {
 
@@ -31,6 +39,14 @@ public class InterestUCCImpl implements InterestUCC {
   private ObjectDAO objectDAO;
   @Inject
   private MemberDAO memberDAO;
+  @Inject
+  private NotificationHub notificationHub;
+  @Inject
+  private InvalidationBus invalidationBus;
+  @Inject
+  private InterestFactory interestFactory;
+  @Inject
+  private NotificationSeenBuffer seenBuffer;
 
   /**
    * Find an interest, by the id of the interested member and the id of the object.
@@ -71,7 +87,7 @@ public class InterestUCCImpl implements InterestUCC {
     try {
       dalService.startTransaction();
       interest.setIdMember(authenticatedUser.getMemberId());
-      interest.setStatus("published");
+      interest.setStatus(InterestStatus.PUBLISHED);
       if (interestDAO.getOne(interest.getIdObject(), interest.getIdMember()) != null) {
         //change name exception
         throw new ConflictException("Un intérêt pour cet objet et ce membre existe déjà !");
@@ -80,15 +96,16 @@ public class InterestUCCImpl implements InterestUCC {
       if (objectDTO == null) {
         throw new NotFoundException("Objet non trouvé !");
       }
-      if (!objectDTO.getStatus().equals("interested") && !objectDTO.getStatus()
-          .equals("available")) {
+      if (objectDTO.getStatus() != OfferStatus.INTERESTED
+          && objectDTO.getStatus() != OfferStatus.AVAILABLE) {
         throw new ForbiddenException("L'objet doit être disponible pour marquer son intérêt.");
       }
       OfferDTO offerDTO = offerDAO.getLastObjectOffer(objectDTO.getIdObject());
       if (offerDTO == null) {
         throw new NotFoundException("Offre non trouvée !");
       }
-      if (!offerDTO.getStatus().equals("interested") && !offerDTO.getStatus().equals("available")) {
+      if (offerDTO.getStatus() != OfferStatus.INTERESTED
+          && offerDTO.getStatus() != OfferStatus.AVAILABLE) {
         throw new ForbiddenException("L'objet doit être disponible pour marquer son intérêt.");
       }
 
@@ -100,9 +117,9 @@ public class InterestUCCImpl implements InterestUCC {
         if (!offerDTO.getVersion().equals(interest.getOffer().getVersion())) {
           throw new ForbiddenException("Les versions ne correspondent pas");
         }
-        objectDTO.setStatus("interested");
+        objectDTO.setStatus(OfferStatus.INTERESTED);
         objectDAO.updateOne(objectDTO);
-        offerDTO.setStatus("interested");
+        offerDTO.setStatus(OfferStatus.INTERESTED);
         offerDAO.updateOne(offerDTO);
       }
       interest.setIsNotificated(true);
@@ -116,6 +133,8 @@ public class InterestUCCImpl implements InterestUCC {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    notificationHub.publish(interestDTO);
     return interestDTO;
   }
 
@@ -128,10 +147,10 @@ public class InterestUCCImpl implements InterestUCC {
    */
   @Override
   public InterestDTO assignOffer(InterestDTO interestDTO, MemberDTO owner) {
+    InterestDTO interestDTOFromDB;
     try {
       dalService.startTransaction();
-      InterestDTO interestDTOFromDB =
-          interestDAO.getOne(interestDTO.getIdObject(), interestDTO.getIdMember());
+      interestDTOFromDB = interestDAO.getOne(interestDTO.getIdObject(), interestDTO.getIdMember());
 
       if (interestDTOFromDB == null) {
         throw new NotFoundException("Cet interet n'existe pas");
@@ -154,9 +173,9 @@ public class InterestUCCImpl implements InterestUCC {
         throw new ForbiddenException("Les versions ne correspondent pas");
       }
 
-      if (interestDTOFromDB.getMember().getStatus().equals("prevented")
-          || !offerDTO.getStatus().equals("interested")
-          && !offerDTO.getStatus().equals("not_collected")) {
+      if (interestDTOFromDB.getMember().getStatus() == MemberStatus.PREVENTED
+          || offerDTO.getStatus() != OfferStatus.INTERESTED
+          && offerDTO.getStatus() != OfferStatus.NOT_COLLECTED) {
         throw new ForbiddenException("L'offre n'est pas en mesure d'être assigné");
       }
 
@@ -164,7 +183,7 @@ public class InterestUCCImpl implements InterestUCC {
         throw new ForbiddenException("L'offre est déjà assignée à un membre");
       }
 
-      if (!interestDTOFromDB.getStatus().equals("published")) {
+      if (interestDTOFromDB.getStatus() != InterestStatus.PUBLISHED) {
         throw new ForbiddenException("Le membre n'est pas éligible à l'assignement");
       }
 
@@ -173,13 +192,13 @@ public class InterestUCCImpl implements InterestUCC {
       }
 
       // update offer and object to assigned
-      offerDTO.getObject().setStatus("assigned");
+      offerDTO.getObject().setStatus(OfferStatus.ASSIGNED);
       objectDAO.updateOne(offerDTO.getObject());
-      offerDTO.setStatus("assigned");
+      offerDTO.setStatus(OfferStatus.ASSIGNED);
       offerDAO.updateOne(offerDTO);
 
       // update interest to assigned
-      interestDTOFromDB.setStatus("assigned");
+      interestDTOFromDB.setStatus(InterestStatus.ASSIGNED);
       interestDAO.updateStatus(interestDTOFromDB);
 
       // Send Notification
@@ -190,11 +209,14 @@ public class InterestUCCImpl implements InterestUCC {
       interestDTOFromDB.setMember(memberDAO.getOne(interestDTOFromDB.getIdMember()));
 
       dalService.commitTransaction();
-      return interestDTOFromDB;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    seenBuffer.discard(interestDTOFromDB);
+    notificationHub.publish(interestDTOFromDB);
+    return interestDTOFromDB;
   }
 
   /**
@@ -214,7 +236,27 @@ public class InterestUCCImpl implements InterestUCC {
       dalService.rollBackTransaction();
       throw e;
     }
-    return interests;
+    // the notifications seen and not written yet are not counted anymore
+    return Math.max(0, interests - seenBuffer.getPendingCount(member.getMemberId()));
+  }
+
+  /**
+   * Check the notification counters against the interests and repair the wrong ones.
+   *
+   * @return the number of counters repaired.
+   */
+  @Override
+  public Integer rebuildNotificationCounters() {
+    Integer repaired;
+    try {
+      dalService.startTransaction();
+      repaired = interestDAO.rebuildNotificationCounters();
+      dalService.commitTransaction();
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+    return repaired;
   }
 
   /**
@@ -240,10 +282,6 @@ public class InterestUCCImpl implements InterestUCC {
 
       interestDTOList = interestDAO.getAllPublished(idObject);
 
-      if (interestDTOList == null) {
-        throw new NotFoundException("Aucun intérêt trouvé");
-      }
-
       for (InterestDTO interestDTO : interestDTOList) {
         interestDTO.setObject(objectDAO.getOne(interestDTO.getIdObject()));
         interestDTO.setMember(memberDAO.getOne(interestDTO.getIdMember()));
@@ -302,8 +340,10 @@ public class InterestUCCImpl implements InterestUCC {
     try {
       dalService.startTransaction();
       interestDTOList = interestDAO.getAllNotifications(member.getMemberId());
-      if (interestDTOList == null) {
-        throw new NotFoundException("Aucunes notifications n'est disponible");
+      if (seenBuffer.size() > 0) {
+        interestDTOList = interestDTOList.stream()
+            .filter(interestDTO -> !seenBuffer.isPending(interestDTO))
+            .collect(Collectors.toList());
       }
       for (InterestDTO interestDTO : interestDTOList) {
         interestDTO.setObject(objectDAO.getOne(interestDTO.getIdObject()));
@@ -328,6 +368,8 @@ public class InterestUCCImpl implements InterestUCC {
   @Override
   public InterestDTO markNotificationShown(Integer idObject, MemberDTO member, Integer idMember) {
     InterestDTO interestDTO;
+    InterestDTO mark;
+    int idRecipient;
     try {
       dalService.startTransaction();
 
@@ -349,23 +391,30 @@ public class InterestUCCImpl implements InterestUCC {
             "Cette objet ne vous appartient pas, vous ne pouvez pas modifier la notification.");
       }
 
-      if (!interestDTO.getIsNotificated()) {
+      if (!interestDTO.getIsNotificated() || seenBuffer.isPending(interestDTO)) {
         throw new ForbiddenException("La notification a déjà été marquée comme lue");
       }
 
-      // Send Notification
+      mark = interestFactory.getInterestDTO();
+      mark.setIdObject(interestDTO.getIdObject());
+      mark.setIdMember(interestDTO.getIdMember());
+      mark.setVersion(interestDTO.getVersion());
+      idRecipient = getRecipient(interestDTO, objectDTO);
       interestDTO.setIsNotificated(false);
       interestDTO.setNotificationDate(LocalDate.now());
-      interestDAO.updateNotification(interestDTO);
       interestDTO.setObject(objectDAO.getOne(interestDTO.getIdObject()));
       interestDTO.setMember(memberDAO.getOne(interestDTO.getIdMember()));
 
       dalService.commitTransaction();
-      return interestDTO;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    // the mark is written by the next flush, or at once if the buffer refuses it
+    if (!seenBuffer.add(mark, idRecipient)) {
+      writeNotificationsShown(List.of(mark));
+    }
+    return interestDTO;
   }
 
   /**
@@ -381,9 +430,6 @@ public class InterestUCCImpl implements InterestUCC {
     try {
       dalService.startTransaction();
       interestDTOList = interestDAO.markAllNotificationsShown(member.getMemberId());
-      if (interestDTOList == null) {
-        throw new NotFoundException("Aucunes notifications n'a été trouvé");
-      }
       for (InterestDTO interestDTO : interestDTOList) {
         interestDTO.setObject(objectDAO.getOne(interestDTO.getIdObject()));
         interestDTO.setMember(memberDAO.getOne(interestDTO.getIdMember()));
@@ -397,4 +443,57 @@ public class InterestUCCImpl implements InterestUCC {
 
     return interestDTOList;
   }
+
+  /**
+   * Write a batch of the notifications marked as seen and not written yet. The marks stay in the
+   * buffer until the commit, the reads keep hiding them in the meantime.
+   *
+   * @return the number of interests updated.
+   */
+  @Override
+  public int flushNotificationsShown() {
+    List<InterestDTO> marks = seenBuffer.getPending();
+    if (marks.isEmpty()) {
+      return 0;
+    }
+    int updated = writeNotificationsShown(marks);
+    seenBuffer.remove(marks);
+    return updated;
+  }
+
+  /**
+   * Write marks of notifications seen in one update, a mark whose interest has changed since is
+   * ignored.
+   *
+   * @param marks the id of the object, the id of the member and the version of the interests.
+   * @return the number of notifications marked as seen.
+   */
+  private int writeNotificationsShown(List<InterestDTO> marks) {
+    int updated;
+    try {
+      dalService.startTransaction();
+      updated = interestDAO.updateNotificationsShown(marks);
+      dalService.commitTransaction();
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+    return updated;
+  }
+
+  /**
+   * Get the member that receives the notification of an interest : the offeror for a published or
+   * prevented interest, the interested member otherwise.
+   *
+   * @param interestDTO the interest.
+   * @param objectDTO   the object of the interest.
+   * @return the id of the recipient.
+   */
+  private int getRecipient(InterestDTO interestDTO, ObjectDTO objectDTO) {
+    if (interestDTO.getStatus() == InterestStatus.PUBLISHED
+        || interestDTO.getStatus() == InterestStatus.PREVENTED) {
+      return objectDTO.getIdOfferor();
+    }
+    return interestDTO.getIdMember();
+  }
 }
@@ -2,17 +2,28 @@ package be.vinci.pae.business.ucc;
 
 import be.vinci.pae.business.domain.Member;
 import be.vinci.pae.business.domain.dto.AddressDTO;
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
 import be.vinci.pae.dal.dao.AddressDAO;
 import be.vinci.pae.dal.dao.InterestDAO;
 import be.vinci.pae.dal.dao.MemberDAO;
+import be.vinci.pae.dal.dao.ObjectDAO;
+import be.vinci.pae.dal.dao.OutboxDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ConflictException;
 import be.vinci.pae.exceptions.FatalException;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
 import be.vinci.pae.exceptions.UnauthorizedException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ImageEvent;
+import be.vinci.pae.utils.NotificationHub;
+import be.vinci.pae.utils.NotificationSeenBuffer;
+import be.vinci.pae.utils.PasswordExecutor;
 import jakarta.inject.Inject;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -30,6 +41,20 @@ public class MemberUCCImpl implements MemberUCC {
   private DALService dalService;
   @Inject
   private InterestDAO interestDAO;
+  @Inject
+  private ObjectDAO objectDAO;
+  @Inject
+  private NotificationHub notificationHub;
+  @Inject
+  private InvalidationBus invalidationBus;
+  @Inject
+  private Configuration configuration;
+  @Inject
+  private PasswordExecutor passwordExecutor;
+  @Inject
+  private OutboxDAO outboxDAO;
+  @Inject
+  private NotificationSeenBuffer seenBuffer;
 
   /**
    * Log in a quidam by a username and a password.
@@ -40,39 +65,85 @@ public class MemberUCCImpl implements MemberUCC {
    */
   @Override
   public MemberDTO login(String username, String password) {
+    passwordExecutor.acquire();
+    try {
+      return checkLogin(username, password);
+    } finally {
+      passwordExecutor.release();
+    }
+  }
+
+  /**
+   * Check the password of a member outside of any transaction, then rehash it or update the status
+   * of the member if needed.
+   *
+   * @param username : username of the member.
+   * @param password : password of the member.
+   * @return member having the username and password.
+   */
+  private MemberDTO checkLogin(String username, String password) {
+    MemberDTO memberDTO;
     try {
       dalService.startTransaction();
-      MemberDTO memberDTO = memberDAO.getOne(username);
-      Member member = (Member) memberDTO;
-      if (memberDTO == null) {
-        throw new NotFoundException("Membre non trouvé");
-      }
-      if (!member.checkPassword(password)) {
-        throw new ForbiddenException("Mot de passe invalide");
-      }
-      if (memberDTO.getStatus().equals("denied")) {
-        throw new UnauthorizedException(
-            "Votre inscription est refusé pour la raison suivante : " + member.getReasonRefusal());
-      }
-      if (memberDTO.getStatus().equals("pending")) {
-        throw new UnauthorizedException("Le statut du membre est en attente");
+      memberDTO = memberDAO.getOne(username);
+      dalService.commitTransaction();
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+    if (memberDTO == null) {
+      throw new NotFoundException("Membre non trouvé");
+    }
+    // bcrypt is slow on purpose, the connection is given back to the pool before
+    Member member = (Member) memberDTO;
+    if (!passwordExecutor.execute(() -> member.checkPassword(password))) {
+      throw new ForbiddenException("Mot de passe invalide");
+    }
+    if (memberDTO.getStatus() == MemberStatus.DENIED) {
+      throw new UnauthorizedException(
+          "Votre inscription est refusé pour la raison suivante : " + member.getReasonRefusal());
+    }
+    if (memberDTO.getStatus() == MemberStatus.PENDING) {
+      throw new UnauthorizedException("Le statut du membre est en attente");
+    }
+    int passwordCost = configuration.getSettings().getPasswordCost();
+    String newHash = null;
+    if (member.needsRehash(passwordCost)) {
+      newHash = passwordExecutor.execute(() -> member.hashPassword(password, passwordCost));
+    }
+    boolean prevented = memberDTO.getStatus() == MemberStatus.PREVENTED;
+    if (newHash == null && !prevented) {
+      return memberDTO;
+    }
+
+    List<InterestDTO> notifiedInterests = null;
+    try {
+      dalService.startTransaction();
+      // the hash is kept if the password was changed since it was read
+      if (newHash != null && memberDAO.updatePassword(memberDTO.getMemberId(),
+          memberDTO.getPassword(), newHash)) {
+        memberDTO.setPassword(newHash);
       }
-      if (memberDTO.getStatus().equals("prevented")) {
-        memberDTO.setStatus("valid");
+      if (prevented) {
+        memberDTO.setStatus(MemberStatus.VALID);
         memberDTO.setPassword(null); // we don't want to change the password
         memberDTO = memberDAO.updateOne(memberDTO);
-        interestDAO.updateAllInterestsStatus(memberDTO.getMemberId(),
-            "prevented", "assigned");
+        notifiedInterests = interestDAO.updateAllInterestsStatus(memberDTO.getMemberId(),
+            InterestStatus.PREVENTED, InterestStatus.ASSIGNED);
       }
       dalService.commitTransaction();
-      return memberDTO;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
-
+    if (prevented) {
+      invalidationBus.publish("members");
+    }
+    publishNotifications(notifiedInterests);
+    return memberDTO;
   }
 
+
   /**
    * Update the profil picture of the member.
    *
@@ -94,18 +165,19 @@ public class MemberUCCImpl implements MemberUCC {
         throw new ForbiddenException("Vous ne possédez pas une version à jour du membre.");
       }
 
-      File f = new File(Config.getProperty("ImagePath") + memberDTO.getImage());
-      if (f.exists()) {
-        f.delete();
-      }
-
+      String oldImage = memberDTO.getImage();
       memberDTO = memberDAO.updateProfilPicture(path, id);
+      // the old picture is deleted after the commit, unless the new one has been written over it
+      if (oldImage != null && !oldImage.equals(memberDTO.getImage())) {
+        outboxDAO.addEvent(OutboxEventDTO.DELETE_IMAGE, oldImage);
+      }
       dalService.commitTransaction();
-      return memberDTO;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("members");
+    return memberDTO;
   }
 
   /**
@@ -139,6 +211,12 @@ public class MemberUCCImpl implements MemberUCC {
   @Override
   public MemberDTO register(MemberDTO memberDTO) {
     MemberDTO memberFromDao;
+    // hashed before the transaction, the connection isn't held during bcrypt
+    Member member = (Member) memberDTO;
+    int passwordCost = configuration.getSettings().getPasswordCost();
+    String password = memberDTO.getPassword();
+    memberDTO.setPassword(
+        passwordExecutor.execute(() -> member.hashPassword(password, passwordCost)));
     try {
       dalService.startTransaction();
 
@@ -151,10 +229,7 @@ public class MemberUCCImpl implements MemberUCC {
       memberDTO.setUsername(memberDTO.getUsername().replaceAll(" ", ""));
 
       //set the MemberDTO
-      Member member = (Member) memberDTO;
-      memberDTO.setPassword(
-          member.hashPassword(memberDTO.getPassword())); //hashPassword of the member
-      memberDTO.setStatus("pending");
+      memberDTO.setStatus(MemberStatus.PENDING);
       memberDTO.setRole("member");
       memberDTO.setReasonRefusal(null);
       memberDTO.setImage(null);
@@ -200,9 +275,6 @@ public class MemberUCCImpl implements MemberUCC {
     try {
       dalService.startTransaction();
       List<MemberDTO> memberDTOList = memberDAO.getAll(search, status);
-      if (memberDTOList == null || memberDTOList.isEmpty()) {
-        throw new NotFoundException("Aucun membre trouvé");
-      }
       dalService.commitTransaction();
       return memberDTOList;
     } catch (Exception e) {
@@ -228,11 +300,15 @@ public class MemberUCCImpl implements MemberUCC {
         throw new NotFoundException("Membre non trouvé");
       }
 
+      ImageEvent event = new ImageEvent("read", memberDTO.getImage());
+      event.begin();
       try {
         File file = new File(memberDTO.getImage());
         picture = ImageIO.read(file);
       } catch (IOException e) {
         throw new NotFoundException("Image inexistante sur le disque");
+      } finally {
+        event.commit();
       }
       dalService.commitTransaction();
     } catch (Exception e) {
@@ -250,6 +326,15 @@ public class MemberUCCImpl implements MemberUCC {
    */
   @Override
   public MemberDTO updateMember(MemberDTO memberDTO) {
+    if (memberDTO.getPassword() != null && !memberDTO.getPassword().isBlank()) {
+      // hashed before the transaction, the connection isn't held during bcrypt
+      Member member = (Member) memberDTO;
+      int passwordCost = configuration.getSettings().getPasswordCost();
+      String password = memberDTO.getPassword();
+      memberDTO.setPassword(
+          passwordExecutor.execute(() -> member.hashPassword(password, passwordCost)));
+    }
+    MemberDTO modifierMemberDTO;
     try {
       dalService.startTransaction();
       MemberDTO memberInDB = memberDAO.getOne(memberDTO.getMemberId());
@@ -281,14 +366,15 @@ public class MemberUCCImpl implements MemberUCC {
         addressDTO = addressDAO.updateOne(memberDTO.getAddress());
       }
 
-      MemberDTO modifierMemberDTO = memberDAO.updateOne(memberDTO);
+      modifierMemberDTO = memberDAO.updateOne(memberDTO);
       modifierMemberDTO.setAddress(addressDTO);
       dalService.commitTransaction();
-      return modifierMemberDTO;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("members");
+    return modifierMemberDTO;
   }
 
   /**
@@ -299,6 +385,8 @@ public class MemberUCCImpl implements MemberUCC {
    */
   @Override
   public MemberDTO preventMember(MemberDTO memberDTO) {
+    MemberDTO memberUpdated;
+    List<InterestDTO> notifiedInterests;
     try {
       dalService.startTransaction();
       MemberDTO memberExist = memberDAO.getOne(memberDTO.getMemberId());
@@ -309,17 +397,38 @@ public class MemberUCCImpl implements MemberUCC {
         throw new ForbiddenException(
             "Vous ne possédez pas une version à jour du membre.");
       }
-      memberDTO.setStatus("prevented");
-      MemberDTO memberUpdated = memberDAO.updateOne(memberDTO);
-      interestDAO.updateAllInterestsStatus(memberUpdated.getMemberId(),
-          "assigned", "prevented");
+      memberDTO.setStatus(MemberStatus.PREVENTED);
+      memberUpdated = memberDAO.updateOne(memberDTO);
+      notifiedInterests = interestDAO.updateAllInterestsStatus(
+          memberUpdated.getMemberId(), InterestStatus.ASSIGNED, InterestStatus.PREVENTED);
+      // the offerors are notified of a prevented interest
+      for (InterestDTO interestDTO : notifiedInterests) {
+        interestDTO.setObject(objectDAO.getOne(interestDTO.getIdObject()));
+      }
       memberUpdated.setAddress(addressDAO.getAddressByMemberId(memberUpdated.getMemberId()));
       dalService.commitTransaction();
-      return memberUpdated;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("members");
+    publishNotifications(notifiedInterests);
+    return memberUpdated;
 
   }
+
+  /**
+   * Push the notifications of the interests updated by a committed transaction.
+   *
+   * @param interestDTOList the notified interests, can be null.
+   */
+  private void publishNotifications(List<InterestDTO> interestDTOList) {
+    if (interestDTOList == null) {
+      return;
+    }
+    for (InterestDTO interestDTO : interestDTOList) {
+      seenBuffer.discard(interestDTO);
+      notificationHub.publish(interestDTO);
+    }
+  }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package be.vinci.pae.business.ucc;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import java.awt.image.BufferedImage;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ObjectUCC {
 
@@ -50,4 +51,11 @@ public interface ObjectUCC {
    */
   ObjectDTO updateObjectPicture(String internalPath, int id, Integer memberId, int version);
 
+  /**
+   * Read the images referenced by the objects and the members, as they are stored relative to
+   * ImagePath, in one transaction.
+   *
+   * @param consumer receives each image.
+   */
+  void forEachReferencedImage(Consumer<String> consumer);
 }
@@ -1,16 +1,21 @@
 package be.vinci.pae.business.ucc;
 
 import be.vinci.pae.business.domain.dto.ObjectDTO;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.dal.dao.MemberDAO;
 import be.vinci.pae.dal.dao.ObjectDAO;
+import be.vinci.pae.dal.dao.OutboxDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.ImageEvent;
 import jakarta.inject.Inject;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.imageio.ImageIO;
 
 public class ObjectUCCImpl implements ObjectUCC {
@@ -18,7 +23,13 @@ public class ObjectUCCImpl implements ObjectUCC {
   @Inject
   private ObjectDAO objectDAO;
   @Inject
+  private MemberDAO memberDAO;
+  @Inject
   private DALService dalService;
+  @Inject
+  private InvalidationBus invalidationBus;
+  @Inject
+  private OutboxDAO outboxDAO;
 
   /**
    * Get the picture of an object.
@@ -37,11 +48,15 @@ public class ObjectUCCImpl implements ObjectUCC {
         throw new NotFoundException("Objet non trouvé");
       }
 
+      ImageEvent event = new ImageEvent("read", objectDTO.getImage());
+      event.begin();
       try {
         File file = new File(objectDTO.getImage());
         picture = ImageIO.read(file);
       } catch (IOException e) {
         throw new NotFoundException("Image inexistante sur le disque");
+      } finally {
+        event.commit();
       }
       dalService.commitTransaction();
     } catch (Exception e) {
@@ -87,10 +102,6 @@ public class ObjectUCCImpl implements ObjectUCC {
     try {
       dalService.startTransaction();
       objectDTOList = objectDAO.getAllObjectOfMember(idMember);
-
-      if (objectDTOList.isEmpty()) {
-        throw new NotFoundException("Aucun objet pour ce membre");
-      }
       dalService.commitTransaction();
     } catch (Exception e) {
       dalService.rollBackTransaction();
@@ -123,6 +134,7 @@ public class ObjectUCCImpl implements ObjectUCC {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
     return object;
   }
 
@@ -154,19 +166,37 @@ public class ObjectUCCImpl implements ObjectUCC {
         throw new ForbiddenException("Vous n'avez pas la dernière version de l'objet.");
       }
 
-      File f = new File(Config.getProperty("ImagePath") + objectDTO.getImage());
-      if (f.exists()) {
-        f.delete();
-      }
-
+      String oldImage = objectDTO.getImage();
       objectDTO = objectDAO.updateObjectPicture(internalPath, id);
+      // the old picture is deleted after the commit, unless the new one is written over it
+      if (oldImage != null && !oldImage.equals(objectDTO.getImage())) {
+        outboxDAO.addEvent(OutboxEventDTO.DELETE_IMAGE, oldImage);
+      }
       dalService.commitTransaction();
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
     return objectDTO;
   }
 
-
+  /**
+   * Read the images referenced by the objects and the members, as they are stored relative to
+   * ImagePath, in one transaction.
+   *
+   * @param consumer receives each image.
+   */
+  @Override
+  public void forEachReferencedImage(Consumer<String> consumer) {
+    try {
+      dalService.startTransaction();
+      objectDAO.forEachImage(consumer);
+      memberDAO.forEachImage(consumer);
+      dalService.commitTransaction();
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+  }
 }
@@ -2,6 +2,7 @@ package be.vinci.pae.business.ucc;
 
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import java.util.List;
 import java.util.Map;
 
@@ -45,11 +46,11 @@ public interface OfferUCC {
    * @param search       the search pattern (empty -> all) according to their type, description
    * @param idMember     the member id if you want only your offers (0 -> all)
    * @param type         the type of object that we want
-   * @param objectStatus the status of object that we want
+   * @param objectStatus the status of object that we want (null -> all)
    * @param dateText      the max date late
    * @return list of offers
    */
-  List<OfferDTO> getOffers(String search, int idMember, String type, String objectStatus,
+  List<OfferDTO> getOffers(String search, int idMember, String type, OfferStatus objectStatus,
       String dateText);
 
   /**
@@ -60,6 +61,14 @@ public interface OfferUCC {
    */
   OfferDTO getLastOffer(int idObject);
 
+  /**
+   * Get all the offers of an object from the first one, each with the date of the previous one.
+   *
+   * @param idObject the id of the object.
+   * @return the offers of the object by date.
+   */
+  List<OfferDTO> getOfferHistory(int idObject);
+
   /**
    * Get all offers received by a member.
    *
@@ -114,6 +123,21 @@ public interface OfferUCC {
    */
   Map<String, Integer> getOffersCount(int idReceiver);
 
+  /**
+   * Check the activity statistics of all the members and repair the wrong ones.
+   *
+   * @return the number of members whose statistics have been repaired.
+   */
+  Integer rebuildOffersCount();
+
+  /**
+   * Move the offers finished for more than ArchiveAfterDays to the archive, with the interests of
+   * the objects whose offers are all archived.
+   *
+   * @return the number of offers and of interests archived.
+   */
+  Map<String, Integer> archiveOffers();
+
   /**
    * Make an Object with his offer.
    *
@@ -1,21 +1,31 @@
 package be.vinci.pae.business.ucc;
 
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.domain.dto.TypeDTO;
 import be.vinci.pae.dal.dao.InterestDAO;
 import be.vinci.pae.dal.dao.ObjectDAO;
 import be.vinci.pae.dal.dao.OfferDAO;
 import be.vinci.pae.dal.dao.TypeDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.NotificationHub;
+import be.vinci.pae.utils.NotificationSeenBuffer;
+import be.vinci.pae.utils.Settings;
+import be.vinci.pae.utils.SingleFlight;
 import jakarta.inject.Inject;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntSupplier;
 
 public class OfferUCCImpl implements OfferUCC {
 
@@ -29,6 +39,16 @@ public class OfferUCCImpl implements OfferUCC {
   private InterestDAO interestDAO;
   @Inject
   private TypeDAO typeDAO;
+  @Inject
+  private NotificationHub notificationHub;
+  @Inject
+  private InvalidationBus invalidationBus;
+  @Inject
+  private SingleFlight singleFlight;
+  @Inject
+  private Configuration configuration;
+  @Inject
+  private NotificationSeenBuffer seenBuffer;
 
   /**
    * Get the last six offers posted.
@@ -40,9 +60,6 @@ public class OfferUCCImpl implements OfferUCC {
     try {
       dalService.startTransaction();
       List<OfferDTO> offers = offerDAO.getAllLast();
-      if (offers.isEmpty()) {
-        throw new NotFoundException("Aucune offres");
-      }
       dalService.commitTransaction();
       return offers;
     } catch (Exception e) {
@@ -52,25 +69,28 @@ public class OfferUCCImpl implements OfferUCC {
   }
 
   /**
-   * Get the offer with a specific id.
+   * Get the offer with a specific id. The identical reads running at the same time share one
+   * transaction, the offer returned must not be modified.
    *
    * @param idOffer the id of the offer
    * @return an offer that match with the idOffer or an error if offer not found
    */
   @Override
   public OfferDTO getOfferById(int idOffer) {
-    try {
-      dalService.startTransaction();
-      OfferDTO offerDTO = offerDAO.getOne(idOffer);
-      if (offerDTO == null) {
-        throw new NotFoundException("Aucune offres");
+    return singleFlight.execute("getOfferById:" + idOffer, "offers", () -> {
+      try {
+        dalService.startTransaction();
+        OfferDTO offerDTO = offerDAO.getOne(idOffer);
+        if (offerDTO == null) {
+          throw new NotFoundException("Aucune offres");
+        }
+        dalService.commitTransaction();
+        return offerDTO;
+      } catch (Exception e) {
+        dalService.rollBackTransaction();
+        throw e;
       }
-      dalService.commitTransaction();
-      return offerDTO;
-    } catch (Exception e) {
-      dalService.rollBackTransaction();
-      throw e;
-    }
+    });
   }
 
   /**
@@ -95,31 +115,34 @@ public class OfferUCCImpl implements OfferUCC {
         throw new ForbiddenException("Cet objet ne vous appartient pas");
       }
 
-      if (!offerDTO.getStatus().equals("cancelled") && !offerDTO.getStatus()
-          .equals("not_collected")) {
+      if (offerDTO.getStatus() != OfferStatus.CANCELLED
+          && offerDTO.getStatus() != OfferStatus.NOT_COLLECTED) {
         throw new ForbiddenException("La dernière offre n'est pas encore terminer vous ne pouvez "
             + "en créer de nouveau");
       }
 
+      // an object offered again gets back its archived interests, a member keeps one interest
+      interestDAO.restoreInterests(offerDTO.getObject().getIdObject());
       int nbInterests = interestDAO.getAllCount(offerDTO.getObject().getIdObject());
 
       if (nbInterests < 1) {
-        offerDTO.getObject().setStatus("available"); // object
-        offerDTO.setStatus("available"); // offer
+        offerDTO.getObject().setStatus(OfferStatus.AVAILABLE); // object
+        offerDTO.setStatus(OfferStatus.AVAILABLE); // offer
       } else {
-        offerDTO.getObject().setStatus("interested"); // object
-        offerDTO.setStatus("interested"); // offer
+        offerDTO.getObject().setStatus(OfferStatus.INTERESTED); // object
+        offerDTO.setStatus(OfferStatus.INTERESTED); // offer
       }
 
       offerDTO = offerDAO.addOne(offerDTO);
       objectDAO.updateOne(offerDTO.getObject());
 
       dalService.commitTransaction();
-      return offerDTO;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    return offerDTO;
   }
 
   /**
@@ -130,6 +153,7 @@ public class OfferUCCImpl implements OfferUCC {
    */
   @Override
   public OfferDTO updateOffer(OfferDTO offerDTO) {
+    OfferDTO updatedOffer;
     try {
       dalService.startTransaction();
 
@@ -142,7 +166,7 @@ public class OfferUCCImpl implements OfferUCC {
         throw new ForbiddenException("Les versions de l'offre ne correspondent pas");
       }
 
-      OfferDTO updatedOffer = offerDAO.updateOne(offerDTO);
+      updatedOffer = offerDAO.updateOne(offerDTO);
       if (offerDTO.getObject() != null) {
         if (!updatedOffer.getObject().getVersion().equals(offerDTO.getObject().getVersion())) {
           throw new ForbiddenException("Les versions de l'objet ne correspondent pas");
@@ -152,11 +176,12 @@ public class OfferUCCImpl implements OfferUCC {
       }
 
       dalService.commitTransaction();
-      return updatedOffer;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    return updatedOffer;
   }
 
 
@@ -166,19 +191,16 @@ public class OfferUCCImpl implements OfferUCC {
    * @param search       the search pattern (empty -> all) according to their type, description
    * @param idMember     the member id if you want only your offers (0 -> all)
    * @param type         the type of object that we want
-   * @param objectStatus the status of object that we want
+   * @param objectStatus the status of object that we want (null -> all)
    * @param dateText      the max date late
    * @return list of offers
    */
   @Override
-  public List<OfferDTO> getOffers(String search, int idMember, String type, String objectStatus,
-      String dateText) {
+  public List<OfferDTO> getOffers(String search, int idMember, String type,
+      OfferStatus objectStatus, String dateText) {
     try {
       dalService.startTransaction();
       List<OfferDTO> offerDTO = offerDAO.getAll(search, idMember, type, objectStatus, dateText);
-      if (offerDTO.isEmpty()) {
-        throw new NotFoundException("Aucune offre");
-      }
       dalService.commitTransaction();
       return offerDTO;
     } catch (Exception e) {
@@ -188,21 +210,46 @@ public class OfferUCCImpl implements OfferUCC {
   }
 
   /**
-   * Return the last offer of an object.
+   * Return the last offer of an object. The identical reads running at the same time share one
+   * transaction, the offer returned must not be modified.
    *
    * @param idObject to search.
    * @return last offer.
    */
   @Override
   public OfferDTO getLastOffer(int idObject) {
+    return singleFlight.execute("getLastOffer:" + idObject, "offers", () -> {
+      try {
+        dalService.startTransaction();
+        OfferDTO offerDTO = offerDAO.getLastObjectOffer(idObject);
+        if (offerDTO == null) {
+          throw new NotFoundException("Aucune offre");
+        }
+        dalService.commitTransaction();
+        return offerDTO;
+      } catch (Exception e) {
+        dalService.rollBackTransaction();
+        throw e;
+      }
+    });
+  }
+
+  /**
+   * Get all the offers of an object from the first one, each with the date of the previous one.
+   *
+   * @param idObject the id of the object.
+   * @return the offers of the object by date.
+   */
+  @Override
+  public List<OfferDTO> getOfferHistory(int idObject) {
     try {
       dalService.startTransaction();
-      OfferDTO offerDTO = offerDAO.getLastObjectOffer(idObject);
-      if (offerDTO == null) {
+      List<OfferDTO> offerDTOList = offerDAO.getHistory(idObject);
+      if (offerDTOList.isEmpty()) {
         throw new NotFoundException("Aucune offre");
       }
       dalService.commitTransaction();
-      return offerDTO;
+      return offerDTOList;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
@@ -220,9 +267,6 @@ public class OfferUCCImpl implements OfferUCC {
     try {
       dalService.startTransaction();
       List<OfferDTO> givenOffers = offerDAO.getAllGivenOffers(idReceiver);
-      if (givenOffers.isEmpty()) {
-        throw new NotFoundException("Aucune offre");
-      }
       dalService.commitTransaction();
       return givenOffers;
     } catch (Exception e) {
@@ -244,9 +288,6 @@ public class OfferUCCImpl implements OfferUCC {
       dalService.startTransaction();
       List<OfferDTO> givenOffers =
           offerDAO.getAllGivenAndAssignedOffers(receiver.getMemberId(), searchPattern);
-      if (givenOffers.isEmpty()) {
-        throw new NotFoundException("Aucune offre");
-      }
       dalService.commitTransaction();
       return givenOffers;
     } catch (Exception e) {
@@ -265,6 +306,8 @@ public class OfferUCCImpl implements OfferUCC {
    */
   @Override
   public OfferDTO cancelOffer(OfferDTO offerDTO, MemberDTO ownerDTO) {
+    OfferDTO updatedOffer;
+    InterestDTO interestDTO;
     try {
       dalService.startTransaction();
 
@@ -280,7 +323,8 @@ public class OfferUCCImpl implements OfferUCC {
       }
 
       // Check if the offer has the correct status
-      if (offerFromDB.getStatus().equals("given") || offerFromDB.getStatus().equals("cancelled")) {
+      if (offerFromDB.getStatus() == OfferStatus.GIVEN
+          || offerFromDB.getStatus() == OfferStatus.CANCELLED) {
         throw new ForbiddenException("Impossible d'annuler l'offre");
       }
 
@@ -295,16 +339,15 @@ public class OfferUCCImpl implements OfferUCC {
       }
 
       // Change offerDB status and update
-      offerFromDB.setStatus("cancelled");
-      OfferDTO updatedOffer = offerDAO.updateOne(offerFromDB);
+      offerFromDB.setStatus(OfferStatus.CANCELLED);
+      updatedOffer = offerDAO.updateOne(offerFromDB);
 
       // Change object from offerDB status, add version to the object and update
-      offerFromDB.getObject().setStatus("cancelled");
+      offerFromDB.getObject().setStatus(OfferStatus.CANCELLED);
       updatedOffer.setObject(objectDAO.updateOne(offerFromDB.getObject()));
 
       // Retrieve assigned interest for the object
-      InterestDTO interestDTO
-          = interestDAO.getAssignedInterest(offerFromDB.getObject().getIdObject());
+      interestDTO = interestDAO.getAssignedInterest(offerFromDB.getObject().getIdObject());
 
       if (interestDTO != null) {
         // Update notification of the interest
@@ -313,16 +356,22 @@ public class OfferUCCImpl implements OfferUCC {
         interestDAO.updateNotification(interestDTO);
 
         // Update status of the interest
-        interestDTO.setStatus("published");
+        interestDTO.setStatus(InterestStatus.PUBLISHED);
         interestDAO.updateStatus(interestDTO);
+        interestDTO.setObject(offerFromDB.getObject());
       }
 
       dalService.commitTransaction();
-      return updatedOffer;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    if (interestDTO != null) {
+      seenBuffer.discard(interestDTO);
+      notificationHub.publish(interestDTO);
+    }
+    return updatedOffer;
   }
 
 
@@ -335,6 +384,8 @@ public class OfferUCCImpl implements OfferUCC {
    */
   @Override
   public OfferDTO notCollectedOffer(OfferDTO offerDTO, MemberDTO ownerDTO) {
+    OfferDTO updatedOffer;
+    InterestDTO interestDTO;
     try {
       dalService.startTransaction();
 
@@ -361,8 +412,7 @@ public class OfferUCCImpl implements OfferUCC {
       }
 
       // Check if the object is assigned
-      InterestDTO interestDTO =
-          interestDAO.getAssignedInterest(offerFromDB.getObject().getIdObject());
+      interestDTO = interestDAO.getAssignedInterest(offerFromDB.getObject().getIdObject());
       if (interestDTO == null) {
         throw new NotFoundException("aucun membre n'a été assigner");
       }
@@ -371,7 +421,7 @@ public class OfferUCCImpl implements OfferUCC {
       offerFromDB = offerDAO.getLastObjectOffer(offerFromDB.getObject().getIdObject());
 
       // Check if the offer is assigned
-      if (!offerFromDB.getStatus().equals("assigned")) {
+      if (offerFromDB.getStatus() != OfferStatus.ASSIGNED) {
         throw new ForbiddenException(
             "aucune offre attribuée n'existe pour que l'objet puisse être non collecté");
       }
@@ -382,23 +432,26 @@ public class OfferUCCImpl implements OfferUCC {
       interestDAO.updateNotification(interestDTO);
 
       // Update status of the interest
-      interestDTO.setStatus("not_collected");
+      interestDTO.setStatus(InterestStatus.NOT_COLLECTED);
       interestDAO.updateStatus(interestDTO);
 
       // Update the status of the offer
-      offerFromDB.setStatus("not_collected");
-      OfferDTO updatedOffer = offerDAO.updateOne(offerFromDB);
+      offerFromDB.setStatus(OfferStatus.NOT_COLLECTED);
+      updatedOffer = offerDAO.updateOne(offerFromDB);
 
       // Update the status of the object
-      offerFromDB.getObject().setStatus("not_collected");
+      offerFromDB.getObject().setStatus(OfferStatus.NOT_COLLECTED);
       updatedOffer.setObject(objectDAO.updateOne(offerFromDB.getObject()));
 
       dalService.commitTransaction();
-      return updatedOffer;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    seenBuffer.discard(interestDTO);
+    notificationHub.publish(interestDTO);
+    return updatedOffer;
   }
 
 
@@ -411,6 +464,8 @@ public class OfferUCCImpl implements OfferUCC {
    */
   @Override
   public OfferDTO giveOffer(OfferDTO offerDTO, MemberDTO ownerDTO) {
+    OfferDTO updatedOffer;
+    InterestDTO interestDTO;
     try {
       dalService.startTransaction();
 
@@ -436,15 +491,14 @@ public class OfferUCCImpl implements OfferUCC {
       }
 
       // Get the assigned interest
-      InterestDTO interestDTO =
-          interestDAO.getAssignedInterest(offerFromDB.getObject().getIdObject());
+      interestDTO = interestDAO.getAssignedInterest(offerFromDB.getObject().getIdObject());
       if (interestDTO == null) {
         throw new NotFoundException("aucun membre n'a été assigner");
       }
 
       // Get offer from db
       offerFromDB = offerDAO.getLastObjectOffer(offerFromDB.getObject().getIdObject());
-      if (!offerFromDB.getStatus().equals("assigned")) {
+      if (offerFromDB.getStatus() != OfferStatus.ASSIGNED) {
         throw new ForbiddenException(
             "aucune offre attribuée n'existe pour que l'objet puisse être donné");
       }
@@ -455,23 +509,26 @@ public class OfferUCCImpl implements OfferUCC {
       interestDAO.updateNotification(interestDTO);
 
       // Update interest status
-      interestDTO.setStatus("received");
+      interestDTO.setStatus(InterestStatus.RECEIVED);
       interestDAO.updateStatus(interestDTO);
 
       // Update offer
-      offerFromDB.setStatus("given");
-      OfferDTO updatedOffer = offerDAO.updateOne(offerFromDB);
+      offerFromDB.setStatus(OfferStatus.GIVEN);
+      updatedOffer = offerDAO.updateOne(offerFromDB);
 
       // Update object
-      offerFromDB.getObject().setStatus("given");
+      offerFromDB.getObject().setStatus(OfferStatus.GIVEN);
       updatedOffer.setObject(objectDAO.updateOne(offerFromDB.getObject()));
 
       dalService.commitTransaction();
-      return updatedOffer;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("offers");
+    seenBuffer.discard(interestDTO);
+    notificationHub.publish(interestDTO);
+    return updatedOffer;
   }
 
   /**
@@ -497,6 +554,72 @@ public class OfferUCCImpl implements OfferUCC {
     }
   }
 
+  /**
+   * Check the activity statistics of all the members and repair the wrong ones.
+   *
+   * @return the number of members whose statistics have been repaired.
+   */
+  @Override
+  public Integer rebuildOffersCount() {
+    try {
+      dalService.startTransaction();
+      Integer repaired = offerDAO.rebuildOffersCount();
+      dalService.commitTransaction();
+      return repaired;
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+  }
+
+  /**
+   * Move the offers finished for more than ArchiveAfterDays to the archive, with the interests of
+   * the objects whose offers are all archived. The rows are moved by batches of ArchiveBatchSize,
+   * each in its own transaction : a failure keeps the batches already committed.
+   *
+   * @return the number of offers and of interests archived.
+   */
+  @Override
+  public Map<String, Integer> archiveOffers() {
+    Settings settings = configuration.getSettings();
+    LocalDate before = LocalDate.now().minusDays(settings.getArchiveAfterDays());
+    int batchSize = Math.max(1, settings.getArchiveBatchSize());
+    Map<String, Integer> archived = new LinkedHashMap<>();
+    archived.put("offers", archiveByBatches(() -> offerDAO.archiveOffers(before, batchSize),
+        batchSize, true));
+    archived.put("interests", archiveByBatches(() -> interestDAO.archiveInterests(batchSize),
+        batchSize, false));
+    return archived;
+  }
+
+  /**
+   * Run the batches of an archival until one of them is not full.
+   *
+   * @param batch           archives one batch and returns its number of rows.
+   * @param batchSize       the maximum number of rows of a batch.
+   * @param invalidateOffers true if the batches change the listings of offers.
+   * @return the number of rows archived.
+   */
+  private int archiveByBatches(IntSupplier batch, int batchSize, boolean invalidateOffers) {
+    int total = 0;
+    int archived;
+    do {
+      try {
+        dalService.startTransaction();
+        archived = batch.getAsInt();
+        dalService.commitTransaction();
+      } catch (Exception e) {
+        dalService.rollBackTransaction();
+        throw e;
+      }
+      if (archived > 0 && invalidateOffers) {
+        invalidationBus.publish("offers");
+      }
+      total += archived;
+    } while (archived >= batchSize);
+    return total;
+  }
+
   /**
    * Make an Object with his offer.
    *
@@ -505,19 +628,22 @@ public class OfferUCCImpl implements OfferUCC {
    */
   @Override
   public OfferDTO addObject(OfferDTO offerDTO) {
+    OfferDTO offer;
     try {
       dalService.startTransaction();
       setCorrectType(offerDTO.getObject());
       ObjectDTO objectDTO = objectDAO.addOne(offerDTO.getObject());
       offerDTO.setObject(objectDTO);
-      offerDTO.setStatus("available");
-      OfferDTO offer = offerDAO.addOne(offerDTO);
+      offerDTO.setStatus(OfferStatus.AVAILABLE);
+      offer = offerDAO.addOne(offerDTO);
       dalService.commitTransaction();
-      return offer;
     } catch (Exception e) {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("types");
+    invalidationBus.publish("offers");
+    return offer;
   }
 
   /**
@@ -0,0 +1,32 @@
+package be.vinci.pae.business.ucc;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import java.util.List;
+
+public interface OutboxUCC {
+
+  /**
+   * Claim at most OutboxBatchSize available events for OutboxLeaseSeconds. The events claimed by
+   * the workers of the other nodes are skipped.
+   *
+   * @return the claimed events.
+   */
+  List<OutboxEventDTO> claimEvents();
+
+  /**
+   * Remove an event that has been run.
+   *
+   * @param idEvent the id of the event.
+   */
+  void completeEvent(long idEvent);
+
+  /**
+   * Record a failed attempt of an event, it is tried again after a delay that doubles with each
+   * attempt.
+   *
+   * @param outboxEventDTO the event that failed.
+   * @param error          the error of the attempt.
+   * @return true if the event has reached OutboxMaxAttempts and will not be tried again.
+   */
+  boolean failEvent(OutboxEventDTO outboxEventDTO, String error);
+}
@@ -0,0 +1,82 @@
+package be.vinci.pae.business.ucc;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.dal.dao.OutboxDAO;
+import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import jakarta.inject.Inject;
+import java.util.List;
+
+public class OutboxUCCImpl implements OutboxUCC {
+
+  private static final int MAX_RETRY_DELAY_SECONDS = 300;
+
+  @Inject
+  private OutboxDAO outboxDAO;
+  @Inject
+  private DALService dalService;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Claim at most OutboxBatchSize available events for OutboxLeaseSeconds. The events claimed by
+   * the workers of the other nodes are skipped.
+   *
+   * @return the claimed events.
+   */
+  @Override
+  public List<OutboxEventDTO> claimEvents() {
+    Settings settings = configuration.getSettings();
+    try {
+      dalService.startTransaction();
+      List<OutboxEventDTO> events = outboxDAO.claimEvents(settings.getOutboxBatchSize(),
+          settings.getOutboxLeaseSeconds(), settings.getOutboxMaxAttempts());
+      dalService.commitTransaction();
+      return events;
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+  }
+
+  /**
+   * Remove an event that has been run.
+   *
+   * @param idEvent the id of the event.
+   */
+  @Override
+  public void completeEvent(long idEvent) {
+    try {
+      dalService.startTransaction();
+      outboxDAO.deleteEvent(idEvent);
+      dalService.commitTransaction();
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+  }
+
+  /**
+   * Record a failed attempt of an event, it is tried again after a delay that doubles with each
+   * attempt.
+   *
+   * @param outboxEventDTO the event that failed.
+   * @param error          the error of the attempt.
+   * @return true if the event has reached OutboxMaxAttempts and will not be tried again.
+   */
+  @Override
+  public boolean failEvent(OutboxEventDTO outboxEventDTO, String error) {
+    int attempts = outboxEventDTO.getAttempts();
+    int delaySeconds = (int) Math.min(1L << Math.min(attempts, 30), MAX_RETRY_DELAY_SECONDS);
+    try {
+      dalService.startTransaction();
+      outboxDAO.retryEvent(outboxEventDTO.getIdEvent(), error, delaySeconds);
+      dalService.commitTransaction();
+    } catch (Exception e) {
+      dalService.rollBackTransaction();
+      throw e;
+    }
+    return attempts >= configuration.getSettings().getOutboxMaxAttempts();
+  }
+}
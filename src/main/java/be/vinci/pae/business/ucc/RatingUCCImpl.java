@@ -1,11 +1,13 @@
 package be.vinci.pae.business.ucc;
 
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.RatingDTO;
 import be.vinci.pae.dal.dao.InterestDAO;
 import be.vinci.pae.dal.dao.MemberDAO;
 import be.vinci.pae.dal.dao.RatingDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
 import jakarta.inject.Inject;
@@ -20,6 +22,8 @@ public class RatingUCCImpl implements RatingUCC {
   private InterestDAO interestDAO;
   @Inject
   private DALService dalService;
+  @Inject
+  private InvalidationBus invalidationBus;
 
   /**
    * Find a rating by the id of the object.
@@ -61,7 +65,7 @@ public class RatingUCCImpl implements RatingUCC {
       }
       InterestDTO interestDTO =
           interestDAO.getOne(ratingDTO.getIdObject(), ratingDTO.getIdMember());
-      if (interestDTO == null || !interestDTO.getStatus().equals("received")) {
+      if (interestDTO == null || interestDTO.getStatus() != InterestStatus.RECEIVED) {
         throw new ForbiddenException("Ce membre n'a pas reçu cet objet.");
       }
       rating = ratingDAO.addOne(ratingDTO);
@@ -71,6 +75,7 @@ public class RatingUCCImpl implements RatingUCC {
       dalService.rollBackTransaction();
       throw e;
     }
+    invalidationBus.publish("rating:" + rating.getIdObject());
     return rating;
   }
 }
@@ -70,9 +70,6 @@ public class TypeUCCImpl implements TypeUCC {
     try {
       dalService.startTransaction();
       typeDTO = typeDAO.getAllDefaultTypes();
-      if (typeDTO.isEmpty()) {
-        throw new NotFoundException("Pas de types par défaut trouvé");
-      }
       dalService.commitTransaction();
     } catch (Exception e) {
       dalService.rollBackTransaction();
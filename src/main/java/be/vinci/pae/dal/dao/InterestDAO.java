@@ -1,6 +1,7 @@
 package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import java.util.List;
 
 public interface InterestDAO {
@@ -30,6 +31,31 @@ public interface InterestDAO {
    */
   Integer getNotificationCount(Integer idMember);
 
+  /**
+   * Rebuild the notification counters from the interests.
+   *
+   * @return the number of counters that were wrong and have been repaired.
+   */
+  Integer rebuildNotificationCounters();
+
+  /**
+   * Move a batch of the interests of the objects whose offers are all archived to the archive.
+   * Their unread notifications are cleared, an archived interest has no notification.
+   *
+   * @param limit the maximum number of interests to archive.
+   * @return the number of interests archived, less than the limit once all of them are archived.
+   */
+  int archiveInterests(int limit);
+
+  /**
+   * Move the archived interests of an object back to the active ones, ie when it is offered
+   * again.
+   *
+   * @param idObject the id of the object.
+   * @return the number of interests restored.
+   */
+  int restoreInterests(int idObject);
+
   /**
    * Get an interest we want to retrieve by the id of the interested member and the id of the
    * object.
@@ -48,6 +74,14 @@ public interface InterestDAO {
    */
   InterestDTO updateNotification(InterestDTO interestDTO);
 
+  /**
+   * Mark notifications as seen in one update.
+   *
+   * @param marks the id of the object, the id of the member and the version of the interests.
+   * @return the number of interests updated.
+   */
+  int updateNotificationsShown(List<InterestDTO> marks);
+
   /**
    * Get an assign interest.
    *
@@ -102,6 +136,8 @@ public interface InterestDAO {
    * @param idMember   update all interests of this member.
    * @param statusFrom actual status of the interests
    * @param statusTo   status updated
+   * @return interestDTOs updated, empty if there is none.
    */
-  void updateAllInterestsStatus(int idMember, String statusFrom, String statusTo);
+  List<InterestDTO> updateAllInterestsStatus(int idMember, InterestStatus statusFrom,
+      InterestStatus statusTo);
 }
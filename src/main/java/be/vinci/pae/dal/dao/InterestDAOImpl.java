@@ -1,10 +1,12 @@
 package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.factories.InterestFactory;
 import be.vinci.pae.dal.services.DALBackendService;
 import be.vinci.pae.exceptions.FatalException;
 import jakarta.inject.Inject;
+import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -34,7 +36,7 @@ public class InterestDAOImpl implements InterestDAO {
             + "i.status, i.send_notification, "
             + "i.version, i.be_called, i.notification_date "
             + "from donnamis.interests i "
-            + "WHERE i.id_object=? AND i.id_member=?";
+            + "WHERE i.id_object=? AND i.id_member=? AND NOT i.archived";
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setInt(1, idObject);
@@ -61,13 +63,14 @@ public class InterestDAOImpl implements InterestDAO {
         "select i.id_object, i.id_member, i.availability_date, "
             + "i.status, i.send_notification, "
             + "i.be_called, i.version,i.notification_date "
-            + "from donnamis.interests i WHERE i.id_object=? "
-            + "AND (i.status=? OR i.status=?) ";
+            + "from donnamis.interests i WHERE i.id_object=? AND NOT i.archived "
+            + "AND (i.status=?::donnamis.interest_status "
+            + "OR i.status=?::donnamis.interest_status) ";
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setInt(1, idObject);
-      preparedStatement.setString(2, "assigned");
-      preparedStatement.setString(3, "prevented");
+      preparedStatement.setString(2, InterestStatus.ASSIGNED.getValue());
+      preparedStatement.setString(3, InterestStatus.PREVENTED.getValue());
       preparedStatement.executeQuery();
       ResultSet resultSet = preparedStatement.getResultSet();
       return getInterestDTO(resultSet);
@@ -94,7 +97,7 @@ public class InterestDAOImpl implements InterestDAO {
       interestDTO.setIdMember(resultSet.getInt("id_member"));
       interestDTO.setAvailabilityDate(
           resultSet.getDate("availability_date").toLocalDate());
-      interestDTO.setStatus(resultSet.getString("status"));
+      interestDTO.setStatus(InterestStatus.fromValue(resultSet.getString("status")));
       interestDTO.setIsNotificated(resultSet.getBoolean("send_notification"));
       interestDTO.setIsCalled(resultSet.getBoolean("be_called"));
       interestDTO.setVersion(resultSet.getInt("version"));
@@ -123,7 +126,7 @@ public class InterestDAOImpl implements InterestDAO {
         InterestDTO interestDTO = interestFactory.getInterestDTO();
         interestDTO.setIdMember(resultSet.getInt("id_member"));
         interestDTO.setAvailabilityDate(resultSet.getDate(3).toLocalDate());
-        interestDTO.setStatus(resultSet.getString(4));
+        interestDTO.setStatus(InterestStatus.fromValue(resultSet.getString(4)));
         interestDTO.setVersion(resultSet.getInt("version"));
         interestDTO.setIdObject(resultSet.getInt("id_object"));
         interestDTO.setIsCalled(resultSet.getBoolean("be_called"));
@@ -133,9 +136,6 @@ public class InterestDAOImpl implements InterestDAO {
         interestDTOList.add(interestDTO);
       }
       resultSet.close();
-      if (interestDTOList.isEmpty()) {
-        return null;
-      }
       return interestDTOList;
     } catch (SQLException e) {
       throw new FatalException(e);
@@ -154,7 +154,7 @@ public class InterestDAOImpl implements InterestDAO {
     String query = "INSERT INTO donnamis.interests "
         + "(id_object, id_member, availability_date, "
         + "status,send_notification,be_called, version,notification_date) "
-        + "VALUES (?,?,?,?,?,?,?,NOW()) "
+        + "VALUES (?,?,?,?::donnamis.interest_status,?,?,?,NOW()) "
         + "RETURNING id_object, id_member, "
         + "availability_date, status, send_notification, "
         + "version, be_called, notification_date";
@@ -163,7 +163,7 @@ public class InterestDAOImpl implements InterestDAO {
       preparedStatement.setInt(1, interestDTO.getIdObject());
       preparedStatement.setInt(2, interestDTO.getIdMember());
       preparedStatement.setDate(3, Date.valueOf(interestDTO.getAvailabilityDate()));
-      preparedStatement.setString(4, interestDTO.getStatus());
+      preparedStatement.setString(4, interestDTO.getStatus().getValue());
       preparedStatement.setBoolean(5, true);
       preparedStatement.setBoolean(6, interestDTO.getIsCalled());
       preparedStatement.setInt(7, 1);
@@ -185,7 +185,7 @@ public class InterestDAOImpl implements InterestDAO {
   public int getAllCount(int idObject) {
 
     String query = "SELECT count(*) as nb "
-        + " FROM donnamis.interests WHERE id_object = ? ";
+        + " FROM donnamis.interests WHERE id_object = ? AND NOT archived ";
 
     return getnbInterests(idObject, query);
   }
@@ -259,15 +259,19 @@ public class InterestDAOImpl implements InterestDAO {
   public List<InterestDTO> getAllNotifications(int idMember) {
 
     String query =
-        "SELECT DISTINCT i.id_member, i.id_object, i.availability_date, i.status, i.version "
-            + ",i.send_notification,i.be_called, i.notification_date "
-            + "FROM donnamis.interests i , donnamis.objects o "
-            + "WHERE (i.id_object = o.id_object AND o.id_offeror = ? "
-            + "AND ( i.status = 'published' OR i.status = 'prevented') "
-            + "AND i.send_notification = true) "
-            + "   OR (i.id_member = ? AND i.send_notification = true "
-            + "AND i.status != 'published' AND i.status != 'prevented') "
-            + "ORDER BY i.notification_date DESC";
+        "SELECT i.id_member, i.id_object, i.availability_date, i.status, i.version, "
+            + "i.send_notification, i.be_called, i.notification_date "
+            + "FROM donnamis.interests i, donnamis.objects o "
+            + "WHERE i.id_object = o.id_object AND o.id_offeror = ? "
+            + "AND (i.status = 'published' OR i.status = 'prevented') "
+            + "AND i.send_notification = true "
+            + "UNION ALL "
+            + "SELECT i.id_member, i.id_object, i.availability_date, i.status, i.version, "
+            + "i.send_notification, i.be_called, i.notification_date "
+            + "FROM donnamis.interests i "
+            + "WHERE i.id_member = ? AND i.send_notification = true "
+            + "AND i.status != 'published' AND i.status != 'prevented' "
+            + "ORDER BY notification_date DESC";
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setInt(1, idMember);
@@ -289,13 +293,11 @@ public class InterestDAOImpl implements InterestDAO {
    */
   @Override
   public List<InterestDTO> markAllNotificationsShown(Integer idMember) {
-    String query = "UPDATE donnamis.interests SET send_notification = ? "
-        + "FROM donnamis.objects o, donnamis.interests i "
-        + "WHERE (i.id_member = ? AND i.send_notification = true "
-        + "AND i.status != 'published'  AND i.status != 'prevented' ) OR "
-        + "(i.id_object = o.id_object AND o.id_offeror = ? "
-        + "AND (i.status = 'published' or i.status = 'prevented') "
-        + " AND i.send_notification = true)"
+    String query = "UPDATE donnamis.interests i SET send_notification = ? "
+        + "FROM donnamis.objects o "
+        + "WHERE i.id_object = o.id_object AND i.send_notification = true "
+        + "AND ((i.id_member = ? AND i.status != 'published' AND i.status != 'prevented') "
+        + "OR (o.id_offeror = ? AND (i.status = 'published' OR i.status = 'prevented'))) "
         + "RETURNING i.id_object, i.id_member, i.availability_date, i.status,"
         + " i.send_notification, i.version, i.be_called, i.notification_date ";
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
@@ -311,24 +313,17 @@ public class InterestDAOImpl implements InterestDAO {
   }
 
   /**
-   * Get notification count.
+   * Get notification count. The counters are maintained by a trigger on the interests.
    *
    * @param idMember of the member.
    * @return count of notification
    */
   @Override
   public Integer getNotificationCount(Integer idMember) {
-    String query = "SELECT count(DISTINCT i.*) "
-        + "FROM donnamis.interests i , donnamis.objects o "
-        + "WHERE (i.id_object = o.id_object AND o.id_offeror = ? "
-        + "AND ( i.status = 'published' OR i.status = 'prevented') "
-        + "AND i.send_notification = true) "
-        + "   OR (i.id_member = ? AND i.send_notification = true "
-        + "AND i.status != 'published' AND i.status != 'prevented' )";
-    Integer notificationCount = null;
+    String query = "SELECT unread FROM donnamis.notification_counters WHERE id_member = ?";
+    int notificationCount = 0;
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setInt(1, idMember);
-      preparedStatement.setInt(2, idMember);
       preparedStatement.executeQuery();
       ResultSet resultSet = preparedStatement.getResultSet();
       if (resultSet.next()) {
@@ -342,6 +337,77 @@ public class InterestDAOImpl implements InterestDAO {
     return notificationCount;
   }
 
+  /**
+   * Rebuild the notification counters from the interests. The interests are locked against the
+   * writes until the end of the transaction so no notification is missed during the rebuild.
+   *
+   * @return the number of counters that were wrong and have been repaired.
+   */
+  @Override
+  public Integer rebuildNotificationCounters() {
+    String lock = "LOCK TABLE donnamis.interests IN SHARE MODE";
+    String query = "INSERT INTO donnamis.notification_counters AS nc (id_member, unread) "
+        + "SELECT m.id_member, count(n.id_recipient) FROM donnamis.members m "
+        + "LEFT JOIN (SELECT donnamis.notification_recipient(i.status, i.id_object, i.id_member) "
+        + "AS id_recipient FROM donnamis.interests i WHERE i.send_notification = true) n "
+        + "ON n.id_recipient = m.id_member "
+        + "GROUP BY m.id_member "
+        + "HAVING count(n.id_recipient) <> COALESCE((SELECT nc2.unread "
+        + "FROM donnamis.notification_counters nc2 WHERE nc2.id_member = m.id_member), 0) "
+        + "ON CONFLICT (id_member) DO UPDATE SET unread = EXCLUDED.unread";
+    try (PreparedStatement lockStatement = dalBackendService.getPreparedStatement(lock,
+        DALBackendService.MAINTENANCE_QUERIES);
+        PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+            DALBackendService.MAINTENANCE_QUERIES)) {
+      lockStatement.execute();
+      return preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Move a batch of the interests of the objects whose offers are all archived to the archive.
+   * Their unread notifications are cleared, an archived interest has no notification.
+   *
+   * @param limit the maximum number of interests to archive.
+   * @return the number of interests archived, less than the limit once all of them are archived.
+   */
+  @Override
+  public int archiveInterests(int limit) {
+    String query = "UPDATE donnamis.interests SET archived = TRUE, send_notification = FALSE "
+        + "WHERE NOT archived AND (id_object, id_member) IN (SELECT i.id_object, i.id_member "
+        + "FROM donnamis.interests_active i WHERE NOT EXISTS (SELECT 1 FROM donnamis.offers of "
+        + "WHERE of.id_object = i.id_object AND NOT of.archived) "
+        + "ORDER BY i.id_object, i.id_member LIMIT ? FOR UPDATE)";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+        DALBackendService.MAINTENANCE_QUERIES)) {
+      preparedStatement.setInt(1, limit);
+      return preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Move the archived interests of an object back to the active ones, ie when it is offered
+   * again.
+   *
+   * @param idObject the id of the object.
+   * @return the number of interests restored.
+   */
+  @Override
+  public int restoreInterests(int idObject) {
+    String query = "UPDATE donnamis.interests SET archived = FALSE "
+        + "WHERE id_object = ? AND archived";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setInt(1, idObject);
+      return preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
 
   /**
    * Update the notification field to know if we have to send one.
@@ -354,9 +420,9 @@ public class InterestDAOImpl implements InterestDAO {
     String query =
         "UPDATE donnamis.interests "
             + "SET send_notification = ?, version= version+1 , notification_date = NOW() "
-            + "WHERE id_object= ? AND id_member = ? RETURNING id_object, id_member,"
-            + " availability_date, status, send_notification, version, be_called, "
-            + "notification_date ";
+            + "WHERE id_object= ? AND id_member = ? AND NOT archived "
+            + "RETURNING id_object, id_member, availability_date, status, send_notification, "
+            + "version, be_called, notification_date ";
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
 
       preparedStatement.setBoolean(1, interestDTO.getIsNotificated());
@@ -370,6 +436,40 @@ public class InterestDAOImpl implements InterestDAO {
     }
   }
 
+  /**
+   * Mark notifications as seen in one update. An interest whose version changed since the mark, ie
+   * notified again, is left as it is.
+   *
+   * @param marks the id of the object, the id of the member and the version of the interests.
+   * @return the number of interests updated.
+   */
+  @Override
+  public int updateNotificationsShown(List<InterestDTO> marks) {
+    String query = "UPDATE donnamis.interests i "
+        + "SET send_notification = false, version = i.version + 1, notification_date = NOW() "
+        + "FROM unnest(?::INTEGER[], ?::INTEGER[], ?::INTEGER[]) "
+        + "AS m(id_object, id_member, version) "
+        + "WHERE i.id_object = m.id_object AND i.id_member = m.id_member "
+        + "AND i.version = m.version AND i.send_notification AND NOT i.archived";
+    Integer[] idObjects = new Integer[marks.size()];
+    Integer[] idMembers = new Integer[marks.size()];
+    Integer[] versions = new Integer[marks.size()];
+    for (int i = 0; i < marks.size(); i++) {
+      idObjects[i] = marks.get(i).getIdObject();
+      idMembers[i] = marks.get(i).getIdMember();
+      versions[i] = marks.get(i).getVersion();
+    }
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      Connection connection = preparedStatement.getConnection();
+      preparedStatement.setArray(1, connection.createArrayOf("integer", idObjects));
+      preparedStatement.setArray(2, connection.createArrayOf("integer", idMembers));
+      preparedStatement.setArray(3, connection.createArrayOf("integer", versions));
+      return preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
 
   /**
    * Update the status of an interest.
@@ -381,13 +481,14 @@ public class InterestDAOImpl implements InterestDAO {
   public InterestDTO updateStatus(InterestDTO interestDTO) {
 
     String query = "UPDATE donnamis.interests "
-        + "SET status = ?, version = version+1 "
-        + "WHERE id_object = ? AND id_member = ? RETURNING id_object, id_member, "
+        + "SET status = ?::donnamis.interest_status, version = version+1 "
+        + "WHERE id_object = ? AND id_member = ? AND NOT archived "
+        + "RETURNING id_object, id_member, "
         + "availability_date, status, send_notification, version, be_called, notification_date ";
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
 
-      preparedStatement.setString(1, interestDTO.getStatus());
+      preparedStatement.setString(1, interestDTO.getStatus().getValue());
       preparedStatement.setInt(2, interestDTO.getIdObject());
       preparedStatement.setInt(3, interestDTO.getIdMember());
       preparedStatement.executeQuery();
@@ -404,27 +505,29 @@ public class InterestDAOImpl implements InterestDAO {
    * @param idMember   update all interests of this member.
    * @param statusFrom actual status of the interests
    * @param statusTo   status updated
+   * @return interestDTOs updated, empty if there is none.
    */
   @Override
-  public void updateAllInterestsStatus(int idMember, String statusFrom, String statusTo) {
+  public List<InterestDTO> updateAllInterestsStatus(int idMember, InterestStatus statusFrom,
+      InterestStatus statusTo) {
     String query = " UPDATE donnamis.interests "
-        + "SET status= ?, version= version+1, "
+        + "SET status= ?::donnamis.interest_status, version= version+1, "
         + "send_notification = true , notification_date=NOW()"
-        + "WHERE id_member = ? AND status= ? "
+        + "WHERE id_member = ? AND status= ?::donnamis.interest_status AND NOT archived "
         + "RETURNING id_object, id_member, availability_date, status, "
         + " send_notification, version, be_called,notification_date ";
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
 
-      preparedStatement.setString(1, statusTo);
+      preparedStatement.setString(1, statusTo.getValue());
       preparedStatement.setInt(2, idMember);
-      preparedStatement.setString(3, statusFrom);
+      preparedStatement.setString(3, statusFrom.getValue());
       preparedStatement.executeQuery();
+      ResultSet resultSet = preparedStatement.getResultSet();
+      return getInterestsDTOSList(resultSet);
     } catch (SQLException e) {
       throw new FatalException(e);
     }
-
-
   }
 
 
@@ -2,6 +2,7 @@ package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MemberDAO {
 
@@ -48,6 +49,16 @@ public interface MemberDAO {
    */
   MemberDTO updateOne(MemberDTO memberDTO);
 
+  /**
+   * Replace the hash of the password of a member if it wasn't changed since it was read.
+   *
+   * @param id      of the member
+   * @param oldHash the hash read with the member
+   * @param newHash the new hash of the same password
+   * @return true if the hash was replaced
+   */
+  boolean updatePassword(int id, String oldHash, String newHash);
+
   /**
    * Update the profil picture of the member.
    *
@@ -56,4 +67,12 @@ public interface MemberDAO {
    * @return memberDTO updated
    */
   MemberDTO updateProfilPicture(String path, int id);
+
+  /**
+   * Read the images of all the members as they are stored, relative to ImagePath. The rows are
+   * fetched by batches and never held in a list.
+   *
+   * @param consumer receives each image.
+   */
+  void forEachImage(Consumer<String> consumer);
 }
@@ -1,13 +1,13 @@
 package be.vinci.pae.dal.dao;
 
-import be.vinci.pae.business.domain.Member;
 import be.vinci.pae.business.domain.dto.AddressDTO;
 import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
 import be.vinci.pae.business.factories.AddressFactory;
 import be.vinci.pae.business.factories.MemberFactory;
 import be.vinci.pae.dal.services.DALBackendService;
 import be.vinci.pae.exceptions.FatalException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.Configuration;
 import jakarta.inject.Inject;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -15,15 +15,20 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MemberDAOImpl implements MemberDAO {
 
+  private static final int IMAGE_FETCH_SIZE = 1000;
+
   @Inject
   private DALBackendService dalBackendService;
   @Inject
   private MemberFactory memberFactory;
   @Inject
   private AddressFactory addressFactory;
+  @Inject
+  private Configuration configuration;
 
   /**
    * Get a member we want to retrieve by his username.
@@ -99,7 +104,8 @@ public class MemberDAOImpl implements MemberDAO {
   @Override
   public MemberDTO createOneMember(MemberDTO member) {
     String query = "INSERT INTO donnamis.members (username, lastname, firstname, status, role, "
-        + "phone_number, password, refusal_reason,image, version) values (?,?,?,?,?,?,?,?,?,1) "
+        + "phone_number, password, refusal_reason,image, version) "
+        + "values (?,?,?,?::donnamis.member_status,?,?,?,?,?,1) "
         + "RETURNING id_member, username, lastname, firstname, status, role, phone_number, "
         + "password, refusal_reason, image, version";
 
@@ -107,7 +113,7 @@ public class MemberDAOImpl implements MemberDAO {
       preparedStatement.setString(1, member.getUsername());
       preparedStatement.setString(2, member.getLastname());
       preparedStatement.setString(3, member.getFirstname());
-      preparedStatement.setString(4, member.getStatus());
+      preparedStatement.setString(4, member.getStatus().getValue());
       preparedStatement.setString(5, member.getRole());
       preparedStatement.setString(6, member.getPhone());
       preparedStatement.setString(7, member.getPassword());
@@ -153,7 +159,8 @@ public class MemberDAOImpl implements MemberDAO {
       query += "AND (lower(a.postcode) LIKE ? OR lower(a.commune) LIKE ? "
           + "OR lower(m.username) LIKE ? OR lower(m.lastname) LIKE ?)";
     }
-    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+        DALBackendService.SEARCH_QUERIES)) {
       if (search != null && !search.isEmpty()) {
         for (int i = 1; i <= 4; i++) {
           preparedStatement.setString(i, "%" + search.toLowerCase() + "%");
@@ -187,9 +194,9 @@ public class MemberDAOImpl implements MemberDAO {
       query += "firstname = ?,";
       memberDTOList.addLast(memberDTO.getFirstname());
     }
-    if (memberDTO.getStatus() != null && !memberDTO.getStatus().isBlank()) {
-      query += "status = ?,";
-      memberDTOList.addLast(memberDTO.getStatus());
+    if (memberDTO.getStatus() != null) {
+      query += "status = ?::donnamis.member_status,";
+      memberDTOList.addLast(memberDTO.getStatus().getValue());
     }
     if (memberDTO.getRole() != null && !memberDTO.getRole().isBlank()) {
       query += "role = ?,";
@@ -204,9 +211,9 @@ public class MemberDAOImpl implements MemberDAO {
       memberDTOList.addLast(memberDTO.getReasonRefusal());
     }
     if (memberDTO.getPassword() != null && !memberDTO.getPassword().isBlank()) {
+      // already hashed by the caller
       query += "password = ?,";
-      Member member = (Member) memberDTO;
-      memberDTOList.addLast(member.hashPassword(member.getPassword()));
+      memberDTOList.addLast(memberDTO.getPassword());
     }
     if (memberDTO.getImage() != null && !memberDTO.getImage().isBlank()) {
       query += "image = ?,";
@@ -235,6 +242,27 @@ public class MemberDAOImpl implements MemberDAO {
     }
   }
 
+  /**
+   * Replace the hash of the password of a member if it wasn't changed since it was read.
+   *
+   * @param id      of the member
+   * @param oldHash the hash read with the member
+   * @param newHash the new hash of the same password
+   * @return true if the hash was replaced
+   */
+  @Override
+  public boolean updatePassword(int id, String oldHash, String newHash) {
+    String query = "UPDATE donnamis.members SET password = ? WHERE id_member = ? AND password = ?";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setString(1, newHash);
+      preparedStatement.setInt(2, id);
+      preparedStatement.setString(3, oldHash);
+      return preparedStatement.executeUpdate() == 1;
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
   /**
    * Update the profil picture of the member.
    *
@@ -337,14 +365,14 @@ public class MemberDAOImpl implements MemberDAO {
     try {
       String image = resultSet.getString(10);
       if (image != null) {
-        image = Config.getProperty("ImagePath") + image;
+        image = configuration.getSettings().getImagePath() + image;
       }
       MemberDTO memberDTO = memberFactory.getMemberDTO();
       memberDTO.setMemberId(resultSet.getInt(1));
       memberDTO.setUsername(resultSet.getString(2));
       memberDTO.setLastname(resultSet.getString(3));
       memberDTO.setFirstname(resultSet.getString(4));
-      memberDTO.setStatus(resultSet.getString(5));
+      memberDTO.setStatus(MemberStatus.fromValue(resultSet.getString(5)));
       memberDTO.setRole(resultSet.getString(6));
       memberDTO.setPhone(resultSet.getString(7));
       memberDTO.setPassword(resultSet.getString(8));
@@ -356,4 +384,26 @@ public class MemberDAOImpl implements MemberDAO {
       throw new FatalException(e);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Read the images of all the members as they are stored, relative to ImagePath. The rows are
+   * fetched by batches and never held in a list.
+   *
+   * @param consumer receives each image.
+   */
+  @Override
+  public void forEachImage(Consumer<String> consumer) {
+    String query = "SELECT image FROM donnamis.members WHERE image IS NOT NULL";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+        DALBackendService.MAINTENANCE_QUERIES)) {
+      preparedStatement.setFetchSize(IMAGE_FETCH_SIZE);
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          consumer.accept(resultSet.getString(1));
+        }
+      }
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+}
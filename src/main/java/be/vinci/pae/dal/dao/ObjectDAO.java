@@ -2,6 +2,7 @@ package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ObjectDAO {
 
@@ -28,7 +29,7 @@ public interface ObjectDAO {
    * Get all objects of a member that we want to retrieve by his id.
    *
    * @param idMember : take all object of this member.
-   * @return list object of this member.
+   * @return list object of this member, empty if he has none.
    */
   List<ObjectDTO> getAllObjectOfMember(int idMember);
 
@@ -47,4 +48,12 @@ public interface ObjectDAO {
    * @return object updated
    */
   ObjectDTO updateOne(ObjectDTO objectDTO);
+
+  /**
+   * Read the images of all the objects as they are stored, relative to ImagePath. The rows are
+   * fetched by batches and never held in a list.
+   *
+   * @param consumer receives each image.
+   */
+  void forEachImage(Consumer<String> consumer);
 }
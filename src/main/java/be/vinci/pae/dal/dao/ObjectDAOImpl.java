@@ -1,10 +1,11 @@
 package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.ObjectDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.factories.ObjectFactory;
 import be.vinci.pae.dal.services.DALBackendService;
 import be.vinci.pae.exceptions.FatalException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.Configuration;
 import jakarta.inject.Inject;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,15 +14,20 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ObjectDAOImpl implements ObjectDAO {
 
+  private static final int IMAGE_FETCH_SIZE = 1000;
+
   @Inject
   private DALBackendService dalBackendService;
   @Inject
   private ObjectFactory objectFactory;
   @Inject
   private TypeDAO typeDAO;
+  @Inject
+  private Configuration configuration;
 
   /**
    * Update the object picture.
@@ -68,7 +74,7 @@ public class ObjectDAOImpl implements ObjectDAO {
    * Get all objects of a member that we want to retrieve by his id.
    *
    * @param idMember : take all object of this member.
-   * @return list object of this member.
+   * @return list object of this member, empty if he has none.
    */
   @Override
   public List<ObjectDTO> getAllObjectOfMember(int idMember) {
@@ -126,9 +132,9 @@ public class ObjectDAOImpl implements ObjectDAO {
       query += "description = ?,";
       objectDTODeque.addLast(objectDTO.getDescription());
     }
-    if (objectDTO.getStatus() != null && !objectDTO.getStatus().isEmpty()) {
-      query += "status = ?,";
-      objectDTODeque.addLast(objectDTO.getStatus());
+    if (objectDTO.getStatus() != null) {
+      query += "status = ?::donnamis.offer_status,";
+      objectDTODeque.addLast(objectDTO.getStatus().getValue());
     }
 
     query = query.substring(0, query.length() - 1);
@@ -174,10 +180,10 @@ public class ObjectDAOImpl implements ObjectDAO {
       objectDTO.setIdObject(resultSet.getInt("id_object"));
       objectDTO.setIdType(resultSet.getInt("id_type"));
       objectDTO.setDescription(resultSet.getString("description"));
-      objectDTO.setStatus(resultSet.getString("status"));
+      objectDTO.setStatus(OfferStatus.fromValue(resultSet.getString("status")));
       String img = resultSet.getString("image");
       if (img != null) {
-        objectDTO.setImage(Config.getProperty("ImagePath") + img);
+        objectDTO.setImage(configuration.getSettings().getImagePath() + img);
       }
       objectDTO.setIdOfferor(resultSet.getInt("id_offeror"));
       objectDTO.setVersion(resultSet.getInt("version"));
@@ -198,14 +204,31 @@ public class ObjectDAOImpl implements ObjectDAO {
       }
       resultSet.close();
       preparedStatement.close();
-      if (objectDTOList.isEmpty()) {
-        return null;
-      } else {
-        return objectDTOList;
-      }
+      return objectDTOList;
     } catch (SQLException e) {
       throw new FatalException(e);
     }
   }
 
+  /**
+   * Read the images of all the objects as they are stored, relative to ImagePath. The rows are
+   * fetched by batches and never held in a list.
+   *
+   * @param consumer receives each image.
+   */
+  @Override
+  public void forEachImage(Consumer<String> consumer) {
+    String query = "SELECT image FROM donnamis.objects WHERE image IS NOT NULL";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+        DALBackendService.MAINTENANCE_QUERIES)) {
+      preparedStatement.setFetchSize(IMAGE_FETCH_SIZE);
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          consumer.accept(resultSet.getString(1));
+        }
+      }
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
 }
@@ -1,6 +1,8 @@
 package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -14,10 +16,10 @@ public interface OfferDAO {
    * @param idMember      the member id if you want only your offers (0 -> all)
    * @param type          the type of object that we want
    * @param dateText      the max date late
-   * @param objectStatus  the status of object that we want
+   * @param objectStatus  the status of object that we want (null -> all)
    * @return list of offers
    */
-  List<OfferDTO> getAll(String searchPattern, int idMember, String type, String objectStatus,
+  List<OfferDTO> getAll(String searchPattern, int idMember, String type, OfferStatus objectStatus,
                           String dateText);
 
   /**
@@ -28,13 +30,31 @@ public interface OfferDAO {
   List<OfferDTO> getAllLast();
 
   /**
-   * Get the offer with a specific id.
+   * Get the offer with a specific id and the date of the previous offer of its object.
    *
    * @param idOffer the id of the offer
    * @return an offer that match with the idOffer or null
    */
   OfferDTO getOne(int idOffer);
 
+  /**
+   * Get all the offers of an object from the first one, each with the date of the previous one.
+   *
+   * @param idObject the id of the object
+   * @return the offers of the object by date, empty if the object has no offer
+   */
+  List<OfferDTO> getHistory(int idObject);
+
+  /**
+   * Move a batch of the cancelled, given and not collected offers posted before a date to the
+   * archive. The partition of the year of an offer is created with its first offer.
+   *
+   * @param before the date before which the finished offers are archived
+   * @param limit  the maximum number of offers to archive
+   * @return the number of offers archived, less than the limit once all of them are archived
+   */
+  int archiveOffers(LocalDate before, int limit);
+
 
   /**
    * Get last offer of an object.
@@ -85,4 +105,11 @@ public interface OfferDAO {
    * @return a map with all th datas.
    */
   Map<String, Integer> getOffersCount(int idReceiver);
+
+  /**
+   * Rebuild the activity statistics of all the members from the interests, objects and offers.
+   *
+   * @return the number of members whose statistics were wrong and have been repaired.
+   */
+  Integer rebuildOffersCount();
 }
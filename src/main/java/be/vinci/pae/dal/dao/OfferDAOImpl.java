@@ -2,6 +2,7 @@ package be.vinci.pae.dal.dao;
 
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.domain.dto.TypeDTO;
 import be.vinci.pae.business.factories.ObjectFactory;
 import be.vinci.pae.business.factories.OfferFactory;
@@ -18,6 +19,8 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class OfferDAOImpl implements OfferDAO {
 
@@ -38,20 +41,21 @@ public class OfferDAOImpl implements OfferDAO {
    *                      username and lastname
    * @param idMember      the member id if you want only your offers (0 -> all)
    * @param type          the type of object that we want
-   * @param objectStatus  the status of object that we want
+   * @param objectStatus  the status of object that we want (null -> all)
    * @param dateText      the max date late
    * @return list of offers
    */
   @Override
   public List<OfferDTO> getAll(String searchPattern, int idMember, String type,
-      String objectStatus, String dateText) {
+      OfferStatus objectStatus, String dateText) {
     String query = "SELECT of.id_offer, of.date, of.time_slot, of.id_object, "
         + "       ty.id_type, ob.description, ob.status, ob.image, ob.id_offeror, ty.type_name, "
         + "       ty.is_default, of.status, of.version, ob.version "
         + "FROM donnamis.offers of, donnamis.objects ob, donnamis.types ty, donnamis.members mb "
-        + "WHERE ob.id_object = of.id_object AND mb.id_member = ob.id_offeror "
+        + "WHERE ob.id_object = of.id_object AND mb.id_member = ob.id_offeror AND NOT of.archived "
         + "AND ty.id_type = ob.id_type AND of.date = (SELECT max(of2.date) "
-        + "FROM donnamis.offers of2 WHERE of2.id_object = of.id_object ORDER BY of.date DESC)";
+        + "FROM donnamis.offers of2 WHERE of2.id_object = of.id_object AND NOT of2.archived "
+        + "ORDER BY of.date DESC)";
 
     if (searchPattern != null && !searchPattern.isEmpty()) {
       query += "AND (LOWER(mb.username) LIKE ? OR LOWER(of.time_slot) LIKE ?"
@@ -63,15 +67,16 @@ public class OfferDAOImpl implements OfferDAO {
     if (idMember != 0) {
       query += "AND ob.id_offeror = ? ";
     }
-    if (objectStatus != null && !objectStatus.isEmpty()) {
-      query += "AND LOWER(of.status) LIKE ? ";
+    if (objectStatus != null) {
+      query += "AND of.status = ?::donnamis.offer_status ";
     }
     if (dateText != null && !dateText.isBlank()) {
       query += "AND of.date >= ? ";
     }
     query += " ORDER BY of.date DESC";
 
-    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+        DALBackendService.SEARCH_QUERIES)) {
       int argCounter = 1;
       if (searchPattern != null && !searchPattern.isEmpty()) {
         for (argCounter = 1; argCounter <= 4; argCounter++) {
@@ -86,8 +91,8 @@ public class OfferDAOImpl implements OfferDAO {
         preparedStatement.setInt(argCounter, idMember);
         argCounter++;
       }
-      if (objectStatus != null && !objectStatus.isEmpty()) {
-        preparedStatement.setString(argCounter, objectStatus);
+      if (objectStatus != null) {
+        preparedStatement.setString(argCounter, objectStatus.getValue());
         argCounter++;
       }
       if (dateText != null && !dateText.isBlank()) {
@@ -110,8 +115,9 @@ public class OfferDAOImpl implements OfferDAO {
         + "ty.id_type, ob.description, ob.status, ob.image, ob.id_offeror, ty.type_name, "
         + "ty.is_default, of.status, of.version, ob.version FROM donnamis.offers of, "
         + "donnamis.objects ob, donnamis.types ty WHERE of.id_object = ob.id_object "
-        + "AND ty.id_type = ob.id_type AND of.date = (SELECT max(of2.date) "
-        + "FROM donnamis.offers of2 WHERE of2.id_object = of.id_object ORDER BY of.date DESC) "
+        + "AND NOT of.archived AND ty.id_type = ob.id_type AND of.date = (SELECT max(of2.date) "
+        + "FROM donnamis.offers of2 WHERE of2.id_object = of.id_object AND NOT of2.archived "
+        + "ORDER BY of.date DESC) "
         + "AND of.status != 'not_collected' "
         + "AND of.status != 'cancelled' "
         + "ORDER BY of.date DESC LIMIT 6";
@@ -124,7 +130,8 @@ public class OfferDAOImpl implements OfferDAO {
   }
 
   /**
-   * Get the offer with a specific id.
+   * Get the offer with a specific id and the date of the previous offer of its object, read by
+   * the index on the object and the date.
    *
    * @param idOffer the id of the offer
    * @return an offer that match with the idOffer or null
@@ -133,33 +140,61 @@ public class OfferDAOImpl implements OfferDAO {
   public OfferDTO getOne(int idOffer) {
     String query = "SELECT of.id_offer, of.date, of.time_slot, of.id_object, "
         + "    ty.id_type, ob.description, ob.status, ob.image, ob.id_offeror, ty.type_name, "
-        + "    ty.is_default, of.status, of.version, ob.version "
+        + "    ty.is_default, of.status, of.version, ob.version, "
+        + "    (SELECT max(pr.date) FROM donnamis.offers pr "
+        + "     WHERE pr.id_object = of.id_object AND pr.date < of.date) "
         + "FROM donnamis.types ty , donnamis.objects ob, donnamis.offers of "
-        + "WHERE ty.id_type = ob.id_type AND of.id_object = ob.id_object  "
-        + "AND of.id_object = (SELECT id_object FROM donnamis.offers "
-        + "    WHERE id_offer = ? AND date >= of.date) ORDER BY of.date DESC LIMIT 2";
-    return getOfferDTOWithOldDate(idOffer, query);
+        + "WHERE ty.id_type = ob.id_type AND of.id_object = ob.id_object AND of.id_offer = ?";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setInt(1, idOffer);
+      List<OfferDTO> offerDTOList = getOffersWithOldDate(preparedStatement.executeQuery());
+      return offerDTOList.isEmpty() ? null : offerDTOList.get(0);
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
   }
 
   /**
-   * Construct an offer with its old date on base of a query.
+   * Get all the offers of an object from the first one, each with the date of the previous one.
    *
    * @param idObject the id of the object
-   * @param query the SQL query to execute
-   * @return the constructed offerDTO
+   * @return the offers of the object by date, empty if the object has no offer
    */
-  private OfferDTO getOfferDTOWithOldDate(int idObject, String query) {
+  @Override
+  public List<OfferDTO> getHistory(int idObject) {
+    String query = "SELECT of.id_offer, of.date, of.time_slot, of.id_object, "
+        + "    ty.id_type, ob.description, ob.status, ob.image, ob.id_offeror, ty.type_name, "
+        + "    ty.is_default, of.status, of.version, ob.version, "
+        + "    LAG(of.date) OVER (ORDER BY of.date, of.id_offer) "
+        + "FROM donnamis.types ty , donnamis.objects ob, donnamis.offers of "
+        + "WHERE ty.id_type = ob.id_type AND of.id_object = ob.id_object AND of.id_object = ? "
+        + "ORDER BY of.date, of.id_offer";
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setInt(1, idObject);
-      List<OfferDTO> offerDTOList = getOffersWithResultSet(preparedStatement.executeQuery());
-      if (offerDTOList.isEmpty()) {
-        return null;
-      }
-      if (offerDTOList.size() == 2) {
-        LocalDate oldDate = offerDTOList.get(1).getDate();
-        offerDTOList.get(0).setOldDate(oldDate);
+      return getOffersWithOldDate(preparedStatement.executeQuery());
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Construct the offers of a result set whose 15th column is the date of the previous offer.
+   *
+   * @param resultSet that contains the offers and the dates of their previous offer
+   * @return the constructed offers
+   */
+  private List<OfferDTO> getOffersWithOldDate(ResultSet resultSet) {
+    try (resultSet) {
+      List<OfferDTO> offerDTOList = new ArrayList<>();
+      while (resultSet.next()) {
+        OfferDTO offerDTO = getOfferWithResultSet(resultSet);
+        Date oldDate = resultSet.getDate(15);
+        if (oldDate != null) {
+          offerDTO.setOldDate(oldDate.toLocalDate());
+        }
+        offerDTOList.add(offerDTO);
       }
-      return offerDTOList.get(0);
+      return offerDTOList;
     } catch (SQLException e) {
       throw new FatalException(e);
     }
@@ -208,13 +243,13 @@ public class OfferDAOImpl implements OfferDAO {
   @Override
   public OfferDTO addOne(OfferDTO offerDTO) {
     String query = "INSERT INTO donnamis.offers (date, time_slot, id_object, status, version) "
-        + "VALUES (NOW(), ?, ?, ?, 1) "
+        + "VALUES (NOW(), ?, ?, ?::donnamis.offer_status, 1) "
         + "RETURNING id_offer, date, time_slot, id_object, status, version";
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setString(1, offerDTO.getTimeSlot());
       preparedStatement.setInt(2, offerDTO.getObject().getIdObject());
-      preparedStatement.setString(3, offerDTO.getStatus());
+      preparedStatement.setString(3, offerDTO.getStatus().getValue());
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (!resultSet.next()) {
@@ -225,7 +260,7 @@ public class OfferDAOImpl implements OfferDAO {
         offerDTO.setDate(resultSet.getDate(2).toLocalDate());
         offerDTO.setTimeSlot(resultSet.getString(3));
         offerDTO.getObject().setIdObject(resultSet.getInt(4));
-        offerDTO.setStatus(resultSet.getString(5));
+        offerDTO.setStatus(OfferStatus.fromValue(resultSet.getString(5)));
         offerDTO.setVersion(resultSet.getInt(6));
 
         return offerDTO;
@@ -243,7 +278,8 @@ public class OfferDAOImpl implements OfferDAO {
    */
   @Override
   public OfferDTO updateOne(OfferDTO offerDTO) {
-    String query = "UPDATE donnamis.offers SET time_slot = ?, status = ?, version = version + 1";
+    String query = "UPDATE donnamis.offers SET time_slot = ?, status = ?::donnamis.offer_status, "
+        + "version = version + 1";
 
     if (offerDTO.getTimeSlot() != null && !offerDTO.getTimeSlot().isEmpty()) {
       query += " WHERE id_offer = ? RETURNING id_offer, date, time_slot, id_object, status";
@@ -253,7 +289,7 @@ public class OfferDAOImpl implements OfferDAO {
 
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setString(1, offerDTO.getTimeSlot());
-      preparedStatement.setString(2, offerDTO.getStatus());
+      preparedStatement.setString(2, offerDTO.getStatus().getValue());
       preparedStatement.setInt(3, offerDTO.getIdOffer());
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (!resultSet.next()) {
@@ -263,7 +299,7 @@ public class OfferDAOImpl implements OfferDAO {
         offerDTOUpdated.setIdOffer(resultSet.getInt(1));
         offerDTOUpdated.setDate(resultSet.getDate(2).toLocalDate());
         offerDTOUpdated.setTimeSlot(resultSet.getString(3));
-        offerDTOUpdated.setStatus(resultSet.getString(5));
+        offerDTOUpdated.setStatus(OfferStatus.fromValue(resultSet.getString(5)));
         offerDTOUpdated.setObject(offerDTO.getObject());
         return offerDTOUpdated;
       }
@@ -287,9 +323,9 @@ public class OfferDAOImpl implements OfferDAO {
         + "WHERE ob.id_object = of.id_object AND ob.id_type = ty.id_type "
         + "AND it.id_object = ob.id_object AND it.status = 'received' AND it.id_member = ? "
         + "AND of.status = 'given' "
-        + "GROUP BY of.id_offer, of.date, of.time_slot, of.id_object, ty.id_type, ob.description, "
-        + "of.version, ob.version, ob.status, ob.image, ob.id_offeror, ty.type_name, ty.is_default "
-        + "ORDER BY date_premiere_offre DESC";
+        + "GROUP BY of.id_offer, of.archived, of.date, of.time_slot, of.id_object, ty.id_type, "
+        + "ob.description, of.version, ob.version, ob.status, ob.image, ob.id_offeror, "
+        + "ty.type_name, ty.is_default ORDER BY date_premiere_offre DESC";
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
       preparedStatement.setInt(1, idReceiver);
       return getOffersWithResultSet(preparedStatement.executeQuery());
@@ -318,7 +354,7 @@ public class OfferDAOImpl implements OfferDAO {
     if (searchPattern != null && !searchPattern.isBlank()) {
       query += "AND (LOWER(of.time_slot) LIKE ? OR LOWER(ob.description) LIKE ?) ";
     }
-    query += "GROUP BY of.id_offer, of.date, of.time_slot, of.id_object, ty.id_type, "
+    query += "GROUP BY of.id_offer, of.archived, of.date, of.time_slot, of.id_object, ty.id_type, "
         + "ob.description, of.version, ob.version, ob.status, ob.image, ob.id_offeror, "
         + "ty.type_name, ty.is_default ORDER BY date_premiere_offre DESC";
 
@@ -338,29 +374,21 @@ public class OfferDAOImpl implements OfferDAO {
 
   /**
    * Get a map of data about a member (nb of received object, nb of not colected objects, nb of
-   * given objects and nb of total offers).
+   * given objects and nb of total offers). The statistics are maintained by triggers.
    *
    * @param idReceiver the id of the member
    * @return a map with all th datas.
    */
   @Override
   public Map<String, Integer> getOffersCount(int idReceiver) {
-    String query = "SELECT count(case i.status when 'received' then 1 end) as nbReceived, "
-        + "count(case i.status when 'not_collected' then 1 end) as nbNotCollected, "
-        + "(SELECT count(o.*) FROM donnamis.objects o WHERE o.id_offeror = ? "
-        + "AND o.status = 'given') as nbGiven, (SELECT count(o2.*) FROM donnamis.objects o2, "
-        + "donnamis.offers of2 WHERE o2.id_offeror = ? AND of2.id_object = o2.id_object "
-        + "AND of2.date = (SELECT MAX(of21.date) FROM donnamis.offers of21 "
-        + "WHERE of21.id_object = of2.id_object)) as nbOffers FROM donnamis.interests i "
-        + "WHERE i.id_member = ?";
+    String query = "SELECT nb_received, nb_not_collected, nb_given, nb_offers "
+        + "FROM donnamis.member_statistics WHERE id_member = ?";
     try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
-      for (int i = 1; i <= 3; i++) {
-        preparedStatement.setInt(i, idReceiver);
-      }
-      preparedStatement.execute();
-      try (ResultSet resultSet = preparedStatement.getResultSet()) {
+      preparedStatement.setInt(1, idReceiver);
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (!resultSet.next()) {
-          return null;
+          // no activity yet
+          return Map.of("nbReceived", 0, "nbNotCollected", 0, "nbGiven", 0, "nbOffers", 0);
         }
         return Map.of(
             "nbReceived", resultSet.getInt(1),
@@ -374,6 +402,115 @@ public class OfferDAOImpl implements OfferDAO {
     }
   }
 
+  /**
+   * Rebuild the activity statistics of all the members from the interests, objects and offers.
+   * The tables are locked against the writes until the end of the transaction.
+   *
+   * @return the number of members whose statistics were wrong and have been repaired.
+   */
+  @Override
+  public Integer rebuildOffersCount() {
+    String lock = "LOCK TABLE donnamis.interests, donnamis.objects, donnamis.offers "
+        + "IN SHARE MODE";
+    String query = "INSERT INTO donnamis.member_statistics (id_member, nb_received, "
+        + "nb_not_collected, nb_given, nb_offers) "
+        + "SELECT s.id_member, s.nb_received, s.nb_not_collected, s.nb_given, s.nb_offers "
+        + "FROM (SELECT m.id_member, "
+        + "(SELECT count(*) FROM donnamis.interests i WHERE i.id_member = m.id_member "
+        + "AND i.status = 'received') AS nb_received, "
+        + "(SELECT count(*) FROM donnamis.interests i WHERE i.id_member = m.id_member "
+        + "AND i.status = 'not_collected') AS nb_not_collected, "
+        + "(SELECT count(*) FROM donnamis.objects o WHERE o.id_offeror = m.id_member "
+        + "AND o.status = 'given') AS nb_given, "
+        + "(SELECT count(*) FROM donnamis.objects o WHERE o.id_offeror = m.id_member "
+        + "AND EXISTS(SELECT 1 FROM donnamis.offers of WHERE of.id_object = o.id_object)) "
+        + "AS nb_offers, "
+        + "COALESCE(ms.nb_received, 0) AS old_received, "
+        + "COALESCE(ms.nb_not_collected, 0) AS old_not_collected, "
+        + "COALESCE(ms.nb_given, 0) AS old_given, COALESCE(ms.nb_offers, 0) AS old_offers "
+        + "FROM donnamis.members m "
+        + "LEFT JOIN donnamis.member_statistics ms ON ms.id_member = m.id_member) s "
+        + "WHERE (s.nb_received, s.nb_not_collected, s.nb_given, s.nb_offers) "
+        + "<> (s.old_received, s.old_not_collected, s.old_given, s.old_offers) "
+        + "ON CONFLICT (id_member) DO UPDATE SET nb_received = EXCLUDED.nb_received, "
+        + "nb_not_collected = EXCLUDED.nb_not_collected, nb_given = EXCLUDED.nb_given, "
+        + "nb_offers = EXCLUDED.nb_offers";
+    try (PreparedStatement lockStatement = dalBackendService.getPreparedStatement(lock,
+        DALBackendService.MAINTENANCE_QUERIES);
+        PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+            DALBackendService.MAINTENANCE_QUERIES)) {
+      lockStatement.execute();
+      return preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Move a batch of the cancelled, given and not collected offers posted before a date to the
+   * archive. The offers of the batch are locked until the end of the transaction, and the
+   * partition of the year of an offer is created with its first offer.
+   *
+   * @param before the date before which the finished offers are archived
+   * @param limit  the maximum number of offers to archive
+   * @return the number of offers archived, less than the limit once all of them are archived
+   */
+  @Override
+  public int archiveOffers(LocalDate before, int limit) {
+    String batch = "SELECT of.id_offer, date_part('year', of.date)::INTEGER "
+        + "FROM donnamis.offers_active of WHERE of.date < ? "
+        + "AND of.status IN ('cancelled', 'given', 'not_collected') "
+        + "ORDER BY of.id_offer LIMIT ? FOR UPDATE";
+    String archive = "UPDATE donnamis.offers SET archived = TRUE "
+        + "WHERE NOT archived AND id_offer = ANY (?)";
+    List<Integer> idOffers = new ArrayList<>();
+    Set<Integer> years = new TreeSet<>();
+    try (PreparedStatement batchStatement = dalBackendService.getPreparedStatement(batch,
+        DALBackendService.MAINTENANCE_QUERIES)) {
+      batchStatement.setDate(1, Date.valueOf(before));
+      batchStatement.setInt(2, limit);
+      try (ResultSet resultSet = batchStatement.executeQuery()) {
+        while (resultSet.next()) {
+          idOffers.add(resultSet.getInt(1));
+          years.add(resultSet.getInt(2));
+        }
+      }
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+    if (idOffers.isEmpty()) {
+      return 0;
+    }
+    for (int year : years) {
+      addArchivePartition(year);
+    }
+    try (PreparedStatement archiveStatement = dalBackendService.getPreparedStatement(archive,
+        DALBackendService.MAINTENANCE_QUERIES)) {
+      archiveStatement.setArray(1, archiveStatement.getConnection()
+          .createArrayOf("integer", idOffers.toArray()));
+      return archiveStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Create the archive partition of a year if it doesn't exist yet.
+   *
+   * @param year the year of the offers of the partition
+   */
+  private void addArchivePartition(int year) {
+    String query = "CREATE TABLE IF NOT EXISTS donnamis.offers_archive_" + year
+        + " PARTITION OF donnamis.offers_archive "
+        + "FOR VALUES FROM ('" + year + "-01-01') TO ('" + (year + 1) + "-01-01')";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query,
+        DALBackendService.MAINTENANCE_QUERIES)) {
+      preparedStatement.execute();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
   /**
    * Get a list of offers according to the resultSet.
    *
@@ -407,7 +544,7 @@ public class OfferDAOImpl implements OfferDAO {
       offerDTO.setIdOffer(resultSet.getInt(1));
       offerDTO.setDate(resultSet.getDate(2).toLocalDate());
       offerDTO.setTimeSlot(resultSet.getString(3));
-      offerDTO.setStatus(resultSet.getString(12));
+      offerDTO.setStatus(OfferStatus.fromValue(resultSet.getString(12)));
       offerDTO.setVersion(resultSet.getInt(13));
       offerDTO.setIdObject(resultSet.getInt(4));
 
@@ -419,7 +556,7 @@ public class OfferDAOImpl implements OfferDAO {
       ObjectDTO objectDTO = objectFactory.getObjectDTO();
       objectDTO.setIdObject(resultSet.getInt(4));
       objectDTO.setDescription(resultSet.getString(6));
-      objectDTO.setStatus(resultSet.getString(7));
+      objectDTO.setStatus(OfferStatus.fromValue(resultSet.getString(7)));
       objectDTO.setImage(resultSet.getString(8));
       objectDTO.setIdOfferor(resultSet.getInt(9));
       objectDTO.setVersion(resultSet.getInt(14));
@@ -0,0 +1,42 @@
+package be.vinci.pae.dal.dao;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import java.util.List;
+
+public interface OutboxDAO {
+
+  /**
+   * Add an event to the outbox, in the transaction of the change that needs it.
+   *
+   * @param kind    the kind of the event, ie OutboxEventDTO.DELETE_IMAGE.
+   * @param payload the data of the event.
+   */
+  void addEvent(String kind, String payload);
+
+  /**
+   * Claim the oldest available events for a lease. The events locked by another worker are
+   * skipped, the claimed ones are not available again before the end of their lease.
+   *
+   * @param limit        the maximum number of events.
+   * @param leaseSeconds the time given to run the events.
+   * @param maxAttempts  the events tried this number of times are not claimed anymore.
+   * @return the claimed events, their number of attempts includes this one.
+   */
+  List<OutboxEventDTO> claimEvents(int limit, int leaseSeconds, int maxAttempts);
+
+  /**
+   * Delete an event that has been run.
+   *
+   * @param idEvent the id of the event.
+   */
+  void deleteEvent(long idEvent);
+
+  /**
+   * Make a failed event available again after a delay.
+   *
+   * @param idEvent      the id of the event.
+   * @param error        the error of the failed attempt.
+   * @param delaySeconds the delay before the next attempt.
+   */
+  void retryEvent(long idEvent, String error, int delaySeconds);
+}
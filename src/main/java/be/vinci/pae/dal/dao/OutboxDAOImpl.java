@@ -0,0 +1,113 @@
+package be.vinci.pae.dal.dao;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.business.factories.OutboxEventFactory;
+import be.vinci.pae.dal.services.DALBackendService;
+import be.vinci.pae.exceptions.FatalException;
+import jakarta.inject.Inject;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OutboxDAOImpl implements OutboxDAO {
+
+  @Inject
+  private DALBackendService dalBackendService;
+  @Inject
+  private OutboxEventFactory outboxEventFactory;
+
+  /**
+   * Add an event to the outbox, in the transaction of the change that needs it.
+   *
+   * @param kind    the kind of the event, ie OutboxEventDTO.DELETE_IMAGE.
+   * @param payload the data of the event.
+   */
+  @Override
+  public void addEvent(String kind, String payload) {
+    String query = "INSERT INTO donnamis.outbox (kind, payload) VALUES (?, ?)";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setString(1, kind);
+      preparedStatement.setString(2, payload);
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Claim the oldest available events for a lease. The events locked by another worker are
+   * skipped, the claimed ones are not available again before the end of their lease.
+   *
+   * @param limit        the maximum number of events.
+   * @param leaseSeconds the time given to run the events.
+   * @param maxAttempts  the events tried this number of times are not claimed anymore.
+   * @return the claimed events, their number of attempts includes this one.
+   */
+  @Override
+  public List<OutboxEventDTO> claimEvents(int limit, int leaseSeconds, int maxAttempts) {
+    String query = "UPDATE donnamis.outbox SET attempts = attempts + 1, "
+        + "available_at = NOW() + make_interval(secs => ?) "
+        + "WHERE id_event IN (SELECT id_event FROM donnamis.outbox "
+        + "WHERE available_at <= NOW() AND attempts < ? ORDER BY available_at, id_event "
+        + "LIMIT ? FOR UPDATE SKIP LOCKED) "
+        + "RETURNING id_event, kind, payload, attempts";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setInt(1, leaseSeconds);
+      preparedStatement.setInt(2, maxAttempts);
+      preparedStatement.setInt(3, limit);
+      List<OutboxEventDTO> events = new ArrayList<>();
+      try (ResultSet resultSet = preparedStatement.executeQuery()) {
+        while (resultSet.next()) {
+          OutboxEventDTO event = outboxEventFactory.getOutboxEventDTO();
+          event.setIdEvent(resultSet.getLong("id_event"));
+          event.setKind(resultSet.getString("kind"));
+          event.setPayload(resultSet.getString("payload"));
+          event.setAttempts(resultSet.getInt("attempts"));
+          events.add(event);
+        }
+      }
+      return events;
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Delete an event that has been run.
+   *
+   * @param idEvent the id of the event.
+   */
+  @Override
+  public void deleteEvent(long idEvent) {
+    String query = "DELETE FROM donnamis.outbox WHERE id_event = ?";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setLong(1, idEvent);
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Make a failed event available again after a delay.
+   *
+   * @param idEvent      the id of the event.
+   * @param error        the error of the failed attempt.
+   * @param delaySeconds the delay before the next attempt.
+   */
+  @Override
+  public void retryEvent(long idEvent, String error, int delaySeconds) {
+    String query = "UPDATE donnamis.outbox SET last_error = ?, "
+        + "available_at = NOW() + make_interval(secs => ?) WHERE id_event = ?";
+    try (PreparedStatement preparedStatement = dalBackendService.getPreparedStatement(query)) {
+      preparedStatement.setString(1, error);
+      preparedStatement.setInt(2, delaySeconds);
+      preparedStatement.setLong(3, idEvent);
+      preparedStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
+}
@@ -5,10 +5,34 @@ import java.sql.PreparedStatement;
 public interface DALBackendService {
 
   /**
-   * Get a prepared statement for a query.
+   * Class of the queries that have the default timeout.
+   */
+  String DEFAULT_QUERIES = "default";
+
+  /**
+   * Class of the searches by pattern, see the StatementTimeouts setting.
+   */
+  String SEARCH_QUERIES = "search";
+
+  /**
+   * Class of the maintenance jobs on whole tables, see the MaintenanceTimeoutMillis setting.
+   */
+  String MAINTENANCE_QUERIES = "maintenance";
+
+  /**
+   * Get a prepared statement for a query, with the timeout of the default class of queries.
    *
    * @param query the query you need to be executed
    * @return a prepared statement of your query
    */
   PreparedStatement getPreparedStatement(String query);
+
+  /**
+   * Get a prepared statement for a query, with the timeout of its class of queries.
+   *
+   * @param query      the query you need to be executed
+   * @param queryClass the class of the query, ie {@link #SEARCH_QUERIES}
+   * @return a prepared statement of your query
+   */
+  PreparedStatement getPreparedStatement(String query, String queryClass);
 }
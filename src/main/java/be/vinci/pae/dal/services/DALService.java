@@ -14,6 +14,25 @@ public interface DALService {
 
   /**
    * RollBack the transaction, close the connection & remove the connection in the ThreadLocal.
+   * Nothing is done if the transaction couldn't start.
    */
   void rollBackTransaction();
+
+  /**
+   * Open the initial connections of the pool so that the first transactions don't wait for them.
+   */
+  void fillPool();
+
+  /**
+   * Make the statements of the current thread cancellable until closeCancellation, ie for the
+   * time of a request.
+   *
+   * @return the handle that cancels the statements, from any thread.
+   */
+  QueryCancellation openCancellation();
+
+  /**
+   * Stop the cancellation of the statements of the current thread.
+   */
+  void closeCancellation();
 }
@@ -1,52 +1,143 @@
 package be.vinci.pae.dal.services;
 
 import be.vinci.pae.exceptions.FatalException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.exceptions.ServiceUnavailableException;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.RequestTimings;
+import be.vinci.pae.utils.Settings;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.NoSuchElementException;
 import org.apache.commons.dbcp2.BasicDataSource;
+import org.postgresql.jdbc.PgStatement;
 
 public class DALServiceImpl implements DALBackendService, DALService {
 
   private ThreadLocal<Connection> connection;
+  private ThreadLocal<TransactionEvent> transactionEvent;
+  private ThreadLocal<QueryCancellation> cancellation;
   private BasicDataSource dataSource;
+  @Inject
+  private QueryStatistics queryStatistics;
+  @Inject
+  private Configuration configuration;
 
   /**
-   * Establish the connection of the db.
+   * Make the ThreadLocals of the connection, of its flight recorder event and of the cancellation
+   * of the request.
    */
   public DALServiceImpl() {
     connection = new ThreadLocal<>();
+    transactionEvent = new ThreadLocal<>();
+    cancellation = new ThreadLocal<>();
+  }
 
+  /**
+   * Establish the connection of the db. The sizes of the pool are applied again on each reload of
+   * the configuration.
+   */
+  @PostConstruct
+  public void init() {
+    Settings settings = configuration.getSettings();
     dataSource = new BasicDataSource();
     dataSource.setDriverClassName("org.postgresql.Driver");
-    dataSource.setUrl(Config.getProperty("dbUrl"));
-    dataSource.setUsername(Config.getProperty("dbUser"));
-    dataSource.setPassword(Config.getProperty("dbPassword"));
+    dataSource.setUrl(settings.getDbUrl());
+    dataSource.setUsername(settings.getDbUser());
+    dataSource.setPassword(settings.getDbPassword());
+    dataSource.setInitialSize(settings.getPoolInitialSize());
+    applyPoolSizes(settings);
+    configuration.subscribe(this::applyPoolSizes);
+  }
 
+  /**
+   * Resize the pool, the connections over the new maximum are closed when they are returned. The
+   * wait for a connection is bounded.
+   *
+   * @param settings the settings with the sizes of the pool.
+   */
+  private void applyPoolSizes(Settings settings) {
+    dataSource.setMaxTotal(settings.getPoolMaxTotal());
+    dataSource.setMaxIdle(settings.getPoolMaxIdle());
+    dataSource.setMinIdle(settings.getPoolMinIdle());
+    dataSource.setMaxWaitMillis(settings.getPoolMaxWaitMillis());
   }
 
   /**
-   * Get a prepared statement for a query.
+   * Get a prepared statement for a query, with the timeout of the default class of queries.
    *
    * @param query the query you need to be executed
    * @return a prepared statement of your query
    */
   @Override
   public PreparedStatement getPreparedStatement(String query) {
+    return getPreparedStatement(query, DEFAULT_QUERIES);
+  }
+
+  /**
+   * Get a prepared statement for a query, its executions are timed and stopped by the database
+   * after the timeout of its class of queries or when the request is cancelled.
+   *
+   * @param query      the query you need to be executed
+   * @param queryClass the class of the query, ie {@link #SEARCH_QUERIES}
+   * @return a prepared statement of your query
+   */
+  @Override
+  public PreparedStatement getPreparedStatement(String query, String queryClass) {
     PreparedStatement ps;
     try {
+      Settings settings = configuration.getSettings();
       Connection conn = connection.get();
       ps = conn.prepareStatement(query);
-      return ps;
+      StatementCounter.current().countStatement();
+      // the driver cancels the statement itself, without a round trip to set statement_timeout
+      ps.unwrap(PgStatement.class).setQueryTimeoutMs(
+          settings.getStatementTimeoutMillis(queryClass));
+      return TimedStatement.wrap(ps, query, queryStatistics, cancellation.get(),
+          settings.getRetryAfterSeconds());
     } catch (SQLException e) {
       throw new FatalException(e);
     }
   }
 
+  /**
+   * Open the initial connections of the pool so that the first transactions don't wait for them.
+   */
+  @Override
+  public void fillPool() {
+    try {
+      dataSource.start();
+    } catch (SQLException e) {
+      throw new FatalException(e);
+    }
+  }
 
   /**
-   * Start a transaction. Get a connection from the BasicDataSource & set it the ThreadLocal.
+   * Make the statements of the current thread cancellable until closeCancellation, ie for the
+   * time of a request.
+   *
+   * @return the handle that cancels the statements, from any thread.
+   */
+  @Override
+  public QueryCancellation openCancellation() {
+    QueryCancellation queryCancellation = new QueryCancellation();
+    cancellation.set(queryCancellation);
+    return queryCancellation;
+  }
+
+  /**
+   * Stop the cancellation of the statements of the current thread.
+   */
+  @Override
+  public void closeCancellation() {
+    cancellation.remove();
+  }
+
+  /**
+   * Start a transaction. Get a connection from the BasicDataSource & set it the ThreadLocal. A
+   * cancelled request doesn't take a connection.
    */
   @Override
   public void startTransaction() {
@@ -54,10 +145,29 @@ public class DALServiceImpl implements DALBackendService, DALService {
       if (connection.get() != null) {
         throw new FatalException("Connection deja ouverte");
       }
+      QueryCancellation queryCancellation = cancellation.get();
+      if (queryCancellation != null && queryCancellation.isCancelled()) {
+        throw new ServiceUnavailableException("Requête annulée, le client s'est déconnecté",
+            configuration.getSettings().getRetryAfterSeconds());
+      }
+      long waitStart = System.nanoTime();
       Connection conn = dataSource.getConnection();
+      long waitNanos = System.nanoTime() - waitStart;
       conn.setAutoCommit(false);
       connection.set(conn);
+      RequestTimings timings = RequestTimings.current();
+      timings.addPoolWait(waitNanos);
+      timings.startTransaction();
+      StatementCounter.current().startTransaction();
+      TransactionEvent event = new TransactionEvent();
+      event.begin();
+      transactionEvent.set(event);
     } catch (SQLException e) {
+      if (e.getCause() instanceof NoSuchElementException) {
+        // the pool stayed exhausted during PoolMaxWaitMillis
+        throw new ServiceUnavailableException("Base de données surchargée",
+            configuration.getSettings().getRetryAfterSeconds());
+      }
       throw new FatalException(e);
     }
   }
@@ -71,27 +181,58 @@ public class DALServiceImpl implements DALBackendService, DALService {
     Connection conn = connection.get();
     try {
       conn.commit();
+      StatementCounter.current().countRoundTrip();
       conn.close();
     } catch (SQLException e) {
       throw new FatalException(e);
     } finally {
       connection.remove();
+      RequestTimings.current().endTransaction();
+      commitEvent("commit");
     }
   }
 
   /**
    * RollBack the transaction, close the connection & remove the connection in the ThreadLocal.
+   * Nothing is done if the transaction couldn't start.
    */
   @Override
   public void rollBackTransaction() {
     Connection conn = connection.get();
+    if (conn == null) {
+      return;
+    }
     try {
       conn.rollback();
+      StatementCounter.current().countRoundTrip();
       conn.close();
     } catch (SQLException e) {
       throw new FatalException(e);
     } finally {
       connection.remove();
+      RequestTimings.current().endTransaction();
+      commitEvent("rollback");
+    }
+  }
+
+  /**
+   * Commit the flight recorder event of the transaction of the current thread.
+   *
+   * @param outcome "commit" or "rollback".
+   */
+  private void commitEvent(String outcome) {
+    TransactionEvent event = transactionEvent.get();
+    if (event == null) {
+      return;
+    }
+    transactionEvent.remove();
+    event.end();
+    if (event.shouldCommit()) {
+      StatementCounter counter = StatementCounter.current();
+      event.outcome = outcome;
+      event.statements = counter.getTransactionStatements();
+      event.roundTrips = counter.getTransactionRoundTrips();
+      event.commit();
     }
   }
 }
@@ -0,0 +1,28 @@
+package be.vinci.pae.dal.services;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface InvalidationBus {
+
+  /**
+   * Tag received by the listeners when everything must be evicted, after a (re)connection to the
+   * database some events of the other nodes may have been missed.
+   */
+  String ALL = "*";
+
+  /**
+   * Evict a tag on this node and on all the other nodes. Must be called after the commit of the
+   * transaction that changed the data, it never throws.
+   *
+   * @param tag the tag of the changed data, ie "offers" or "rating:3".
+   */
+  void publish(String tag);
+
+  /**
+   * Register a listener that evicts the local data of the tags it receives.
+   *
+   * @param listener the listener of the changed tags.
+   */
+  void subscribe(Consumer<Set<String>> listener);
+}
@@ -0,0 +1,198 @@
+package be.vinci.pae.dal.services;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Share the evictions between the nodes with PostgreSQL LISTEN/NOTIFY. One daemon thread holds
+ * its own connection : it waits for the notifications of the other nodes and sends the tags
+ * published on this node, all the tags published during a wait are sent in one notification.
+ */
+public class InvalidationBusImpl implements InvalidationBus {
+
+  private static final String CHANNEL = "donnamis_invalidation";
+  private static final int WAIT_MILLIS = 50;
+  // NOTIFY payloads must stay under 8000 bytes
+  private static final int MAX_PAYLOAD_LENGTH = 7000;
+  private static final long MIN_RETRY_MILLIS = 1000;
+  private static final long MAX_RETRY_MILLIS = 30000;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final List<Consumer<Set<String>>> listeners = new CopyOnWriteArrayList<>();
+  private final Set<String> pendingTags = ConcurrentHashMap.newKeySet();
+
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Start the thread that listens and sends the notifications.
+   */
+  @PostConstruct
+  public void start() {
+    Thread thread = new Thread(this::run, "invalidation-bus");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Evict a tag on this node at once and queue it for the other nodes. Must be called after the
+   * commit of the transaction that changed the data, it never throws.
+   *
+   * @param tag the tag of the changed data, ie "offers" or "rating:3".
+   */
+  @Override
+  public void publish(String tag) {
+    dispatch(Set.of(tag));
+    pendingTags.add(tag);
+  }
+
+  /**
+   * Register a listener that evicts the local data of the tags it receives.
+   *
+   * @param listener the listener of the changed tags.
+   */
+  @Override
+  public void subscribe(Consumer<Set<String>> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Listen to the channel until the connection breaks, then connect again with a growing delay.
+   * Everything is evicted after each connection because the notifications sent while this node
+   * wasn't listening are lost.
+   */
+  private void run() {
+    long retryMillis = MIN_RETRY_MILLIS;
+    Settings settings = configuration.getSettings();
+    while (!Thread.currentThread().isInterrupted()) {
+      try (Connection connection = DriverManager.getConnection(settings.getDbUrl(),
+          settings.getDbUser(), settings.getDbPassword());
+          Statement statement = connection.createStatement();
+          PreparedStatement notify = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+        statement.execute("LISTEN " + CHANNEL);
+        dispatch(Set.of(ALL));
+        retryMillis = MIN_RETRY_MILLIS;
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (!Thread.currentThread().isInterrupted()) {
+          receive(pgConnection.getNotifications(WAIT_MILLIS));
+          send(notify);
+        }
+      } catch (SQLException e) {
+        Logger.getLogger("Log").log(Level.WARNING,
+            "InvalidationBus connection lost, retry in {0} ms : {1}",
+            new Object[]{retryMillis, e.getMessage()});
+        try {
+          Thread.sleep(retryMillis);
+        } catch (InterruptedException interruptedException) {
+          return;
+        }
+        retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+      }
+    }
+  }
+
+  /**
+   * Dispatch the tags of the other nodes, the tags of all the notifications are merged.
+   *
+   * @param notifications the notifications received, can be null.
+   */
+  private void receive(PGNotification[] notifications) {
+    if (notifications == null) {
+      return;
+    }
+    Set<String> tags = new HashSet<>();
+    for (PGNotification notification : notifications) {
+      String[] lines = notification.getParameter().split("\n");
+      if (lines[0].equals(nodeId)) {
+        continue;
+      }
+      for (int i = 1; i < lines.length; i++) {
+        tags.add(lines[i]);
+      }
+    }
+    if (!tags.isEmpty()) {
+      dispatch(tags);
+    }
+  }
+
+  /**
+   * Send the pending tags, as few notifications as possible. The tags come back in the queue if
+   * the connection breaks.
+   *
+   * @param notify the statement that sends a notification.
+   * @throws SQLException if the notification can't be sent.
+   */
+  private void send(PreparedStatement notify) throws SQLException {
+    if (pendingTags.isEmpty()) {
+      return;
+    }
+    List<String> tags = new ArrayList<>();
+    Iterator<String> iterator = pendingTags.iterator();
+    while (iterator.hasNext()) {
+      tags.add(iterator.next());
+      iterator.remove();
+    }
+    StringBuilder payload = new StringBuilder(nodeId);
+    try {
+      for (int i = 0; i < tags.size(); i++) {
+        if (payload.length() + tags.get(i).length() + 1 > MAX_PAYLOAD_LENGTH) {
+          sendNotification(notify, payload.toString());
+          payload = new StringBuilder(nodeId);
+        }
+        payload.append('\n').append(tags.get(i));
+      }
+      sendNotification(notify, payload.toString());
+    } catch (SQLException e) {
+      pendingTags.addAll(tags);
+      throw e;
+    }
+  }
+
+  /**
+   * Send one notification on the channel.
+   *
+   * @param notify  the statement that sends a notification.
+   * @param payload the node id followed by the tags, one by line.
+   * @throws SQLException if the notification can't be sent.
+   */
+  private void sendNotification(PreparedStatement notify, String payload) throws SQLException {
+    notify.setString(1, CHANNEL);
+    notify.setString(2, payload);
+    notify.execute();
+  }
+
+  /**
+   * Give tags to all the listeners of this node.
+   *
+   * @param tags the tags to evict.
+   */
+  private void dispatch(Set<String> tags) {
+    for (Consumer<Set<String>> listener : listeners) {
+      try {
+        listener.accept(tags);
+      } catch (RuntimeException e) {
+        Logger.getLogger("Log").log(Level.WARNING, "InvalidationBus listener failed", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package be.vinci.pae.dal.services;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Handle that cancels the statements of a request from another thread, ie when its client
+ * disconnects. The statement running is cancelled on the database and the next ones are refused,
+ * the transaction is then rolled back by the UCC like after any other error.
+ */
+public class QueryCancellation {
+
+  private volatile boolean cancelled;
+  private volatile Statement running;
+
+  /**
+   * Cancel the statement running and refuse the next ones. It can be called from any thread and
+   * never throws.
+   */
+  public void cancel() {
+    cancelled = true;
+    Statement statement = running;
+    if (statement == null) {
+      return;
+    }
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      // the statement ended in the meantime
+    }
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Keep the statement that starts executing, it's refused if the request is already cancelled.
+   *
+   * @param statement the statement of the driver.
+   * @throws SQLException if the request is cancelled.
+   */
+  void begin(Statement statement) throws SQLException {
+    running = statement;
+    // checked after running is set : a cancel between both either sees it or is seen here
+    if (cancelled) {
+      running = null;
+      throw new SQLException("Requête annulée", TimedStatement.QUERY_CANCELED);
+    }
+  }
+
+  /**
+   * Forget the statement that stopped executing.
+   */
+  void end() {
+    running = null;
+  }
+}
@@ -0,0 +1,24 @@
+package be.vinci.pae.dal.services;
+
+import java.util.List;
+import java.util.Map;
+
+public interface QueryStatistics {
+
+  /**
+   * Record an execution of a statement, it is logged if it's slower than the threshold.
+   *
+   * @param query      the SQL of the statement.
+   * @param nanos      the duration of the execution.
+   * @param parameters the bind parameters by index, can contain nulls.
+   */
+  void record(String query, long nanos, Object[] parameters);
+
+  /**
+   * Get the count, the total and the max duration of each normalized statement, the slowest in
+   * total first.
+   *
+   * @return the statistics of the statements.
+   */
+  List<Map<String, Object>> getStatistics();
+}
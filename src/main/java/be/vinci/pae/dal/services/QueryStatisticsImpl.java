@@ -0,0 +1,152 @@
+package be.vinci.pae.dal.services;
+
+import be.vinci.pae.utils.Configuration;
+import jakarta.inject.Inject;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregate the executions of the statements by normalized SQL : the literals are replaced by ?
+ * and the blanks are collapsed, so the queries built with values are grouped. The executions
+ * slower than the SlowQueryMillis property (200 ms by default) are logged.
+ */
+public class QueryStatisticsImpl implements QueryStatistics {
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern BLANKS = Pattern.compile("\\s+");
+  private static final String UCC_PACKAGE = "be.vinci.pae.business.ucc.";
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  @Inject
+  private Configuration configuration;
+  // the normalization is done once by distinct query
+  private final Map<String, StatementStatistics> byQuery = new ConcurrentHashMap<>();
+  private final Map<String, StatementStatistics> byStatement = new ConcurrentHashMap<>();
+
+  /**
+   * Record an execution of a statement, it is logged with its redacted parameters and the UCC
+   * method that issued it if it's slower than the threshold.
+   *
+   * @param query      the SQL of the statement.
+   * @param nanos      the duration of the execution.
+   * @param parameters the bind parameters by index, can contain nulls.
+   */
+  @Override
+  public void record(String query, long nanos, Object[] parameters) {
+    StatementStatistics statistics = byQuery.get(query);
+    if (statistics == null) {
+      statistics = byStatement.computeIfAbsent(normalize(query), StatementStatistics::new);
+      byQuery.put(query, statistics);
+    }
+    statistics.count.increment();
+    statistics.totalNanos.add(nanos);
+    statistics.maxNanos.accumulateAndGet(nanos, Math::max);
+    if (nanos >= TimeUnit.MILLISECONDS.toNanos(configuration.getSettings().getSlowQueryMillis())) {
+      Logger.getLogger("Log").log(Level.WARNING, "Slow query {0} ms from {1} : {2} {3}",
+          new Object[]{nanos / NANOS_PER_MILLI, getCaller(), statistics.statement,
+              redact(parameters)});
+    }
+  }
+
+  /**
+   * Describe the parameters of a slow statement for the log. The strings are replaced by their
+   * length and the arrays are hidden : they can be password hashes, emails or phone numbers.
+   *
+   * @param parameters the bind parameters by index, can contain nulls.
+   * @return the description of the parameters, ie {@code [3, <string:12>, null]}.
+   */
+  static String redact(Object[] parameters) {
+    StringBuilder text = new StringBuilder("[");
+    for (int i = 0; i < parameters.length; i++) {
+      if (i > 0) {
+        text.append(", ");
+      }
+      Object parameter = parameters[i];
+      if (parameter instanceof String) {
+        text.append("<string:").append(((String) parameter).length()).append('>');
+      } else if (parameter instanceof Array || parameter instanceof Object[]) {
+        text.append("<array>");
+      } else {
+        text.append(parameter);
+      }
+    }
+    return text.append(']').toString();
+  }
+
+  /**
+   * Get the count, the total and the max duration of each normalized statement, the slowest in
+   * total first.
+   *
+   * @return the statistics of the statements.
+   */
+  @Override
+  public List<Map<String, Object>> getStatistics() {
+    List<StatementStatistics> statementStatistics = new ArrayList<>(byStatement.values());
+    statementStatistics.sort(
+        Comparator.comparingLong((StatementStatistics s) -> s.totalNanos.sum()).reversed());
+    List<Map<String, Object>> list = new ArrayList<>();
+    for (StatementStatistics statistics : statementStatistics) {
+      long count = statistics.count.sum();
+      long totalNanos = statistics.totalNanos.sum();
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("statement", statistics.statement);
+      map.put("count", count);
+      map.put("totalMillis", totalNanos / NANOS_PER_MILLI);
+      map.put("meanMillis", count == 0 ? 0 : totalNanos / NANOS_PER_MILLI / count);
+      map.put("maxMillis", statistics.maxNanos.get() / NANOS_PER_MILLI);
+      list.add(map);
+    }
+    return list;
+  }
+
+  /**
+   * Replace the literals of a query by ? and collapse its blanks.
+   *
+   * @param query the SQL of the statement.
+   * @return the normalized statement.
+   */
+  private String normalize(String query) {
+    String statement = STRING_LITERAL.matcher(query).replaceAll("?");
+    statement = NUMBER_LITERAL.matcher(statement).replaceAll("?");
+    return BLANKS.matcher(statement).replaceAll(" ").trim();
+  }
+
+  /**
+   * Find the UCC method that is executing the statement.
+   *
+   * @return the class and the method, or "unknown" outside of a UCC.
+   */
+  private String getCaller() {
+    Optional<String> caller = StackWalker.getInstance().walk(frames -> frames
+        .filter(frame -> frame.getClassName().startsWith(UCC_PACKAGE))
+        .map(frame -> frame.getClassName().substring(UCC_PACKAGE.length()) + "."
+            + frame.getMethodName())
+        .findFirst());
+    return caller.orElse("unknown");
+  }
+
+  private static class StatementStatistics {
+
+    private final String statement;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    StatementStatistics(String statement) {
+      this.statement = statement;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package be.vinci.pae.dal.services;
+
+/**
+ * Count the statements prepared and the round trips to the database done by the current thread,
+ * in total and in its last transaction. The round trips are the executions of the statements and
+ * the commits or rollbacks.
+ */
+public class StatementCounter {
+
+  private static final ThreadLocal<StatementCounter> counters =
+      ThreadLocal.withInitial(StatementCounter::new);
+
+  private long statements;
+  private long roundTrips;
+  private long transactionStatements;
+  private long transactionRoundTrips;
+
+  /**
+   * Get the counter of the current thread.
+   *
+   * @return the counter.
+   */
+  public static StatementCounter current() {
+    return counters.get();
+  }
+
+  /**
+   * Set all the counts to 0.
+   */
+  public void reset() {
+    statements = 0;
+    roundTrips = 0;
+    transactionStatements = 0;
+    transactionRoundTrips = 0;
+  }
+
+  /**
+   * Start counting a new transaction.
+   */
+  void startTransaction() {
+    transactionStatements = 0;
+    transactionRoundTrips = 0;
+  }
+
+  /**
+   * Count a prepared statement.
+   */
+  void countStatement() {
+    statements++;
+    transactionStatements++;
+  }
+
+  /**
+   * Count a round trip to the database.
+   */
+  void countRoundTrip() {
+    roundTrips++;
+    transactionRoundTrips++;
+  }
+
+  /**
+   * Get the number of statements prepared since the last reset.
+   *
+   * @return the number of statements.
+   */
+  public long getStatements() {
+    return statements;
+  }
+
+  /**
+   * Get the number of round trips since the last reset.
+   *
+   * @return the number of round trips.
+   */
+  public long getRoundTrips() {
+    return roundTrips;
+  }
+
+  /**
+   * Get the number of statements prepared in the current or last transaction.
+   *
+   * @return the number of statements.
+   */
+  public long getTransactionStatements() {
+    return transactionStatements;
+  }
+
+  /**
+   * Get the number of round trips of the current or last transaction.
+   *
+   * @return the number of round trips.
+   */
+  public long getTransactionRoundTrips() {
+    return transactionRoundTrips;
+  }
+}
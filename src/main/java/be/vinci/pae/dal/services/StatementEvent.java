@@ -0,0 +1,19 @@
+package be.vinci.pae.dal.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the execution of a statement.
+ */
+@Name("donnamis.Statement")
+@Label("SQL Statement")
+@Category({"Donnamis", "Database"})
+@Description("Execution of a prepared statement")
+class StatementEvent extends jdk.jfr.Event {
+
+  @Label("SQL")
+  String sql;
+}
@@ -0,0 +1,124 @@
+package be.vinci.pae.dal.services;
+
+import be.vinci.pae.exceptions.ServiceUnavailableException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Proxy of a prepared statement that keeps its bind parameters and times its executions, they are
+ * also recorded by the flight recorder. An execution cancelled by its timeout or by the
+ * cancellation of its request is turned into a 503.
+ */
+class TimedStatement implements InvocationHandler {
+
+  // SQLState of a statement cancelled by PostgreSQL
+  static final String QUERY_CANCELED = "57014";
+
+  private final PreparedStatement statement;
+  private final String query;
+  private final QueryStatistics queryStatistics;
+  private final QueryCancellation cancellation;
+  private final int retryAfterSeconds;
+  private Object[] parameters = new Object[0];
+
+  private TimedStatement(PreparedStatement statement, String query,
+      QueryStatistics queryStatistics, QueryCancellation cancellation, int retryAfterSeconds) {
+    this.statement = statement;
+    this.query = query;
+    this.queryStatistics = queryStatistics;
+    this.cancellation = cancellation;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Wrap a prepared statement.
+   *
+   * @param statement         the statement of the driver.
+   * @param query             the SQL of the statement.
+   * @param queryStatistics   the statistics that record the executions.
+   * @param cancellation      the cancellation of the request, null outside of a request.
+   * @param retryAfterSeconds the Retry-After of the 503 sent for a cancelled statement.
+   * @return the timed statement.
+   */
+  static PreparedStatement wrap(PreparedStatement statement, String query,
+      QueryStatistics queryStatistics, QueryCancellation cancellation, int retryAfterSeconds) {
+    return (PreparedStatement) Proxy.newProxyInstance(TimedStatement.class.getClassLoader(),
+        new Class<?>[]{PreparedStatement.class},
+        new TimedStatement(statement, query, queryStatistics, cancellation, retryAfterSeconds));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    String name = method.getName();
+    if (name.startsWith("set") && args != null && args.length >= 2
+        && method.getParameterTypes()[0] == int.class) {
+      keepParameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+    } else if (name.equals("clearParameters")) {
+      parameters = new Object[0];
+    }
+    if (!name.startsWith("execute")) {
+      return invokeStatement(method, args);
+    }
+    StatementCounter.current().countRoundTrip();
+    StatementEvent event = new StatementEvent();
+    event.begin();
+    long start = System.nanoTime();
+    try {
+      if (cancellation != null) {
+        cancellation.begin(statement);
+      }
+      return invokeStatement(method, args);
+    } catch (SQLException e) {
+      if (!QUERY_CANCELED.equals(e.getSQLState())) {
+        throw e;
+      }
+      throw new ServiceUnavailableException(cancellation != null && cancellation.isCancelled()
+          ? "Requête annulée, le client s'est déconnecté"
+          : "La requête a pris trop de temps, veuillez réessayer plus tard", retryAfterSeconds);
+    } finally {
+      if (cancellation != null) {
+        cancellation.end();
+      }
+      queryStatistics.record(query, System.nanoTime() - start, parameters);
+      event.end();
+      if (event.shouldCommit()) {
+        event.sql = query;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Keep the value of a bind parameter.
+   *
+   * @param index the index of the parameter, starting at 1.
+   * @param value the value.
+   */
+  private void keepParameter(int index, Object value) {
+    if (index > parameters.length) {
+      parameters = Arrays.copyOf(parameters, index);
+    }
+    parameters[index - 1] = value;
+  }
+
+  /**
+   * Call the method on the statement of the driver.
+   *
+   * @param method the method.
+   * @param args   the arguments.
+   * @return the result of the method.
+   * @throws Throwable the exception thrown by the method.
+   */
+  private Object invokeStatement(Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(statement, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
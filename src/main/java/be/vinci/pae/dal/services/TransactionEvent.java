@@ -0,0 +1,25 @@
+package be.vinci.pae.dal.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a transaction, from its start to its commit or rollback.
+ */
+@Name("donnamis.Transaction")
+@Label("Transaction")
+@Category({"Donnamis", "Database"})
+@Description("Transaction of a UCC method, from its start to its commit or rollback")
+class TransactionEvent extends jdk.jfr.Event {
+
+  @Label("Outcome")
+  String outcome;
+
+  @Label("Statements")
+  long statements;
+
+  @Label("Round Trips")
+  long roundTrips;
+}
@@ -1,9 +1,8 @@
 package be.vinci.pae.exceptions;
 
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
-public class BadRequestException extends WebApplicationException {
+public class BadRequestException extends BusinessException {
 
   /**
    * Make a BadRequestException.
@@ -0,0 +1,45 @@
+package be.vinci.pae.exceptions;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Expected outcome of a use case that is sent back to the client. It has no stack trace : filling
+ * it is costly and it isn't logged.
+ */
+public abstract class BusinessException extends WebApplicationException {
+
+  /**
+   * Make a BusinessException.
+   *
+   * @param status the status of the response
+   */
+  protected BusinessException(Response.Status status) {
+    super(status);
+  }
+
+  /**
+   * Make a BusinessException with the custom message.
+   *
+   * @param message custom error message
+   * @param status  the status of the response
+   */
+  protected BusinessException(String message, Response.Status status) {
+    super(message, status);
+  }
+
+  /**
+   * Make a BusinessException with the custom message and a prepared response, ie with headers.
+   *
+   * @param message  custom error message
+   * @param response the response sent to the client
+   */
+  protected BusinessException(String message, Response response) {
+    super(message, response);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
@@ -1,9 +1,8 @@
 package be.vinci.pae.exceptions;
 
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
-public class ConflictException extends WebApplicationException {
+public class ConflictException extends BusinessException {
 
   /**
    * Make a ConflictException.
@@ -22,11 +22,11 @@ public class FatalException extends WebApplicationException {
   }
 
   /**
-   * Make an InternalServerErrorException with the Throwable.
+   * Make an InternalServerErrorException with the Throwable, it is kept as the cause.
    *
    * @param e Throwable.
    */
   public FatalException(Throwable e) {
-    super(e.getMessage(), Response.Status.INTERNAL_SERVER_ERROR);
+    super(e.getMessage(), e, Response.Status.INTERNAL_SERVER_ERROR);
   }
 }
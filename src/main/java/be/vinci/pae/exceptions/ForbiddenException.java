@@ -1,9 +1,8 @@
 package be.vinci.pae.exceptions;
 
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
-public class ForbiddenException extends WebApplicationException {
+public class ForbiddenException extends BusinessException {
 
   /**
    * Make a ForbiddenException.
@@ -1,9 +1,8 @@
 package be.vinci.pae.exceptions;
 
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
-public class NotFoundException extends WebApplicationException {
+public class NotFoundException extends BusinessException {
 
   /**
    * Make a NotFoundException.
@@ -0,0 +1,20 @@
+package be.vinci.pae.exceptions;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+public class ServiceUnavailableException extends BusinessException {
+
+  /**
+   * Make a ServiceUnavailableException that tells the client when to try again.
+   *
+   * @param message           custom error message
+   * @param retryAfterSeconds the number of seconds sent in the Retry-After header
+   */
+  public ServiceUnavailableException(String message, int retryAfterSeconds) {
+    super(message, Response.status(Response.Status.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+        .build());
+  }
+
+}
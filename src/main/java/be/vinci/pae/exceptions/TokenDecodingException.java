@@ -1,9 +1,8 @@
 package be.vinci.pae.exceptions;
 
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
-public class TokenDecodingException extends WebApplicationException {
+public class TokenDecodingException extends BusinessException {
 
   /**
    * Make a TokenDecodingException.
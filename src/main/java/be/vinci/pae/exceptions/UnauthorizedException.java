@@ -1,9 +1,8 @@
 package be.vinci.pae.exceptions;
 
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
-public class UnauthorizedException extends WebApplicationException {
+public class UnauthorizedException extends BusinessException {
 
   /**
    * Make an UnauthorizedException.
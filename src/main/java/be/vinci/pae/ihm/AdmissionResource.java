@@ -0,0 +1,34 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.filters.Admin;
+import be.vinci.pae.ihm.manager.AdmissionControl;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/admission")
+public class AdmissionResource {
+
+  @Inject
+  private AdmissionControl admissionControl;
+
+  /**
+   * Get the concurrency limit, the requests in flight and the rejections of each route.
+   *
+   * @return a json with the state of the routes.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Map<String, Number>> getLimits() {
+    Logger.getLogger("Log").log(Level.INFO, "AdmissionResource getLimits");
+    return admissionControl.getLimits();
+  }
+}
@@ -0,0 +1,35 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.filters.Admin;
+import be.vinci.pae.ihm.manager.ResponseCache;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/cache")
+public class CacheResource {
+
+  @Inject
+  private ResponseCache responseCache;
+
+  /**
+   * Get the hits, the misses and the number of cached responses of each cached endpoint.
+   *
+   * @return a json with the metrics by endpoint.
+   */
+  @GET
+  @Path("/metrics")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Map<String, Long>> getMetrics() {
+    Logger.getLogger("Log").log(Level.INFO, "CacheResource getMetrics");
+    return responseCache.getMetrics();
+  }
+}
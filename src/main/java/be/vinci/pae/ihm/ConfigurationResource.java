@@ -0,0 +1,49 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.filters.Admin;
+import be.vinci.pae.utils.Configuration;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/configuration")
+public class ConfigurationResource {
+
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Get the current values of the tunable settings.
+   *
+   * @return a json with the tunable settings by name.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Object> getTunables() {
+    Logger.getLogger("Log").log(Level.INFO, "ConfigurationResource getTunables");
+    return configuration.getSettings().getTunables();
+  }
+
+  /**
+   * Read the configuration file again and apply its tunable settings without a restart.
+   *
+   * @return a json with the new tunable settings by name.
+   */
+  @POST
+  @Path("/reload")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Object> reload() {
+    Logger.getLogger("Log").log(Level.INFO, "ConfigurationResource reload");
+    return configuration.reload().getTunables();
+  }
+}
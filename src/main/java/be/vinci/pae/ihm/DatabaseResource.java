@@ -0,0 +1,37 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.dal.services.QueryStatistics;
+import be.vinci.pae.ihm.filters.Admin;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/database")
+public class DatabaseResource {
+
+  @Inject
+  private QueryStatistics queryStatistics;
+
+  /**
+   * Get the count, the total, the mean and the max duration of each statement, the slowest in
+   * total first.
+   *
+   * @return a json list of the statement statistics.
+   */
+  @GET
+  @Path("/statements")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public List<Map<String, Object>> getStatementStatistics() {
+    Logger.getLogger("Log").log(Level.INFO, "DatabaseResource getStatementStatistics");
+    return queryStatistics.getStatistics();
+  }
+}
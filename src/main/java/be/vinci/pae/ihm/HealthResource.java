@@ -0,0 +1,37 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.manager.Warmup;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/health")
+public class HealthResource {
+
+  @Inject
+  private Warmup warmup;
+
+  /**
+   * Tell the load balancer if this node can receive requests. A warm-up that failed at startup is
+   * run again.
+   *
+   * @return 200 if the node is warmed up, 503 otherwise.
+   */
+  @GET
+  @Path("/ready")
+  @Produces(MediaType.TEXT_PLAIN)
+  public Response isReady() {
+    Logger.getLogger("Log").log(Level.INFO, "HealthResource isReady");
+    if (warmup.warmUp()) {
+      return Response.ok("ready").build();
+    }
+    return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("not ready").build();
+  }
+}
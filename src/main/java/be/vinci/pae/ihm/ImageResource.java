@@ -0,0 +1,41 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.filters.Admin;
+import be.vinci.pae.ihm.manager.ImageGc;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/images")
+public class ImageResource {
+
+  @Inject
+  private ImageGc imageGc;
+
+  /**
+   * Collect the orphaned images now. The json can set "dryRun" to false to delete them, by
+   * default they are only reported.
+   *
+   * @param json the parameters of the collection, can be null.
+   * @return a json with the report of the collection.
+   */
+  @POST
+  @Path("/gc")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Object> collect(JsonNode json) {
+    Logger.getLogger("Log").log(Level.INFO, "ImageResource collect");
+    boolean dryRun = json == null || json.path("dryRun").asBoolean(true);
+    return imageGc.collect(dryRun);
+  }
+}
@@ -5,9 +5,15 @@ import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.ucc.InterestUCC;
 import be.vinci.pae.exceptions.BadRequestException;
+import be.vinci.pae.exceptions.UnauthorizedException;
+import be.vinci.pae.ihm.filters.Admin;
 import be.vinci.pae.ihm.filters.Authorize;
+import be.vinci.pae.ihm.manager.Token;
 import be.vinci.pae.utils.JsonViews;
+import be.vinci.pae.utils.NotificationHub;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.Consumes;
@@ -21,6 +27,8 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,8 +38,14 @@ import org.glassfish.jersey.server.ContainerRequest;
 @Path("/interest")
 public class InterestResource {
 
+  private static final ObjectMapper jsonMapper = new ObjectMapper();
+
   @Inject
   private InterestUCC interestUCC;
+  @Inject
+  private NotificationHub notificationHub;
+  @Inject
+  private Token tokenManager;
 
   /**
    * Get notifications count.
@@ -49,6 +63,68 @@ public class InterestResource {
     return interestUCC.getNotificationCount(authenticatedUser);
   }
 
+  /**
+   * Check the notification counters of all the members and repair the wrong ones.
+   *
+   * @return a json with the number of counters repaired.
+   */
+  @POST
+  @Path("/notificationCounters/rebuild")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public ObjectNode rebuildNotificationCounters() {
+    Logger.getLogger("Log").log(Level.INFO, "InterestResource rebuildNotificationCounters");
+    return jsonMapper.createObjectNode()
+        .put("repaired", interestUCC.rebuildNotificationCounters());
+  }
+
+  /**
+   * Get a ticket that opens the notification stream of the member for a few seconds.
+   *
+   * @param request data of the member.
+   * @return a json with the ticket.
+   */
+  @POST
+  @Path("/notifications/ticket")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Authorize
+  public ObjectNode getNotificationsTicket(@Context ContainerRequest request) {
+    Logger.getLogger("Log").log(Level.INFO, "InterestResource getNotificationsTicket");
+    MemberDTO authenticatedUser = (MemberDTO) request.getProperty("user");
+    return jsonMapper.createObjectNode()
+        .put("ticket", tokenManager.withStreamTicket(authenticatedUser));
+  }
+
+  /**
+   * Open an SSE stream that pushes the notifications of the member. The browsers' EventSource
+   * can't send the Authorization header : they give a ticket from /notifications/ticket instead,
+   * the token itself must never be put in the url.
+   *
+   * @param ticket    the ticket of the member if there is no Authorization header.
+   * @param request   data of the request.
+   * @param eventSink the SSE connection.
+   * @param sse       the SSE context.
+   */
+  @GET
+  @Path("/notifications/stream")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void subscribeNotifications(@QueryParam("ticket") String ticket,
+      @Context ContainerRequest request, @Context SseEventSink eventSink, @Context Sse sse) {
+    Logger.getLogger("Log").log(Level.INFO, "InterestResource subscribeNotifications");
+    String authorization = request.getHeaderString("Authorization");
+    MemberDTO authenticatedUser = authorization != null
+        ? tokenManager.verifyToken(authorization) : tokenManager.verifyStreamTicket(ticket);
+    if (authenticatedUser == null) {
+      throw new UnauthorizedException("A token is needed to access this resource");
+    }
+    // subscribed before the count is read, a notification published in between isn't lost
+    notificationHub.subscribe(authenticatedUser.getMemberId(), eventSink);
+    eventSink.send(sse.newEventBuilder()
+        .name("count")
+        .data(String.class, String.valueOf(interestUCC.getNotificationCount(authenticatedUser)))
+        .build());
+  }
+
   /**
    * Get an interest, by the id of the interested member and the id of the object.
    *
@@ -0,0 +1,33 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.filters.Admin;
+import be.vinci.pae.ihm.manager.Metrics;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/metrics")
+public class MetricsResource {
+
+  @Inject
+  private Metrics metrics;
+
+  /**
+   * Get the metrics of all the routes for Prometheus. They describe the load and the routes of the
+   * server, only an administrator can read them.
+   *
+   * @return the metrics in the Prometheus text format.
+   */
+  @GET
+  @Produces("text/plain; version=0.0.4")
+  @Admin
+  public String getMetrics() {
+    Logger.getLogger("Log").log(Level.INFO, "MetricsResource getMetrics");
+    return metrics.scrape();
+  }
+}
@@ -2,12 +2,17 @@ package be.vinci.pae.ihm;
 
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.ucc.OfferUCC;
 import be.vinci.pae.exceptions.BadRequestException;
 import be.vinci.pae.exceptions.UnauthorizedException;
 import be.vinci.pae.ihm.filters.Admin;
 import be.vinci.pae.ihm.filters.Authorize;
+import be.vinci.pae.ihm.filters.Cached;
+import be.vinci.pae.ihm.manager.LastOffersFeed;
 import be.vinci.pae.utils.JsonViews;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.Consumes;
@@ -32,8 +37,12 @@ import org.glassfish.jersey.server.ContainerRequest;
 @Path("/offers")
 public class OfferResource {
 
+  private static final ObjectMapper jsonMapper = new ObjectMapper();
+
   @Inject
   private OfferUCC offerUcc;
+  @Inject
+  private LastOffersFeed lastOffersFeed;
 
 
   /**
@@ -45,6 +54,7 @@ public class OfferResource {
   @GET
   @Path("/last/{idObject}")
   @Authorize
+  @Cached(ttl = 30, tags = "offers")
   @Produces(MediaType.APPLICATION_JSON)
   public OfferDTO getLastOffer(@PathParam("idObject") Integer idObject) {
     Logger.getLogger("Log").log(Level.INFO, "OfferResource getLastOffer");
@@ -53,6 +63,23 @@ public class OfferResource {
     return offerDTO;
   }
 
+  /**
+   * Get the offers of an object from the first one, each with the date of the previous one.
+   *
+   * @param idObject the id of the object.
+   * @return the offers of the object by date.
+   */
+  @GET
+  @Path("/history/{idObject}")
+  @Authorize
+  @Cached(ttl = 30, tags = "offers")
+  @Produces(MediaType.APPLICATION_JSON)
+  public List<OfferDTO> getOfferHistory(@PathParam("idObject") int idObject) {
+    Logger.getLogger("Log").log(Level.INFO, "OfferResource getOfferHistory");
+    List<OfferDTO> offerDTOList = offerUcc.getOfferHistory(idObject);
+    return JsonViews.filterPublicJsonViewAsList(offerDTOList, OfferDTO.class);
+  }
+
   /**
    * Get all offers.
    *
@@ -82,23 +109,28 @@ public class OfferResource {
         idOfferor = Integer.parseInt(offeror);
       } catch (Exception ignored) { /* ignore this exception */ }
     }
+    OfferStatus status;
+    try {
+      status = OfferStatus.fromValue(objectStatus);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException(e.getMessage());
+    }
     List<OfferDTO> offerDTOList =
-        offerUcc.getOffers(searchPattern, idOfferor, type, objectStatus, dateText);
+        offerUcc.getOffers(searchPattern, idOfferor, type, status, dateText);
     return JsonViews.filterPublicJsonViewAsList(offerDTOList, OfferDTO.class);
   }
 
   /**
-   * Get the last six offers posted.
+   * Get the last six offers posted, they are kept in memory by the feed.
    *
-   * @return a list of six offerDTO
+   * @return the json of a list of six offerDTO
    */
   @GET
   @Path("/lasts")
   @Produces(MediaType.APPLICATION_JSON)
-  public List<OfferDTO> getLastOffers() {
+  public byte[] getLastOffers() {
     Logger.getLogger("Log").log(Level.INFO, "OfferResource getLastOffers");
-    List<OfferDTO> offerDTOList = offerUcc.getLastOffers();
-    return JsonViews.filterPublicJsonViewAsList(offerDTOList, OfferDTO.class);
+    return lastOffersFeed.getJson();
   }
 
   /**
@@ -110,6 +142,7 @@ public class OfferResource {
   @GET
   @Path("/getById/{idOffer}")
   @Authorize
+  @Cached(ttl = 30, tags = "offers")
   @Produces(MediaType.APPLICATION_JSON)
   public OfferDTO getOfferById(@PathParam("idOffer") int idOffer) {
     Logger.getLogger("Log").log(Level.INFO, "OfferResource getOfferById");
@@ -304,6 +337,37 @@ public class OfferResource {
     return offerUcc.getOffersCount(idReceiver);
   }
 
+  /**
+   * Check the activity statistics of all the members and repair the wrong ones.
+   *
+   * @return a json with the number of members whose statistics have been repaired.
+   */
+  @POST
+  @Path("/countOffers/rebuild")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public ObjectNode rebuildOffersCount() {
+    Logger.getLogger("Log").log(Level.INFO, "OfferResource rebuildOffersCount");
+    return jsonMapper.createObjectNode().put("repaired", offerUcc.rebuildOffersCount());
+  }
+
+  /**
+   * Archive now the offers finished for more than ArchiveAfterDays.
+   *
+   * @return a json with the number of offers and of interests archived.
+   */
+  @POST
+  @Path("/archive")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public ObjectNode archiveOffers() {
+    Logger.getLogger("Log").log(Level.INFO, "OfferResource archiveOffers");
+    Map<String, Integer> archived = offerUcc.archiveOffers();
+    return jsonMapper.createObjectNode()
+        .put("offers", archived.get("offers"))
+        .put("interests", archived.get("interests"));
+  }
+
   /**
    * Make an Object with his offer.
    *
@@ -5,6 +5,7 @@ import be.vinci.pae.business.domain.dto.RatingDTO;
 import be.vinci.pae.business.ucc.RatingUCC;
 import be.vinci.pae.exceptions.BadRequestException;
 import be.vinci.pae.ihm.filters.Authorize;
+import be.vinci.pae.ihm.filters.Cached;
 import be.vinci.pae.utils.JsonViews;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -37,6 +38,7 @@ public class RatingResource {
   @Path("/{id}")
   @Produces(MediaType.APPLICATION_JSON)
   @Authorize
+  @Cached(ttl = 300, tags = {"rating:{id}", "members"})
   public RatingDTO getOne(@PathParam("id") int idObject) {
     Logger.getLogger("Log").log(Level.INFO, "RatingResource getOne");
     RatingDTO ratingDTO = ratingUCC.getOne(idObject);
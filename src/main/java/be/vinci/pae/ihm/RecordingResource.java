@@ -0,0 +1,104 @@
+package be.vinci.pae.ihm;
+
+import be.vinci.pae.ihm.filters.Admin;
+import be.vinci.pae.ihm.manager.FlightRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Path("/recordings")
+public class RecordingResource {
+
+  @Inject
+  private FlightRecorder flightRecorder;
+
+  /**
+   * Start a flight recording, the json can give its duration in seconds (60 by default), the JFR
+   * settings (profile by default) and the threshold in milliseconds of the recorded transactions
+   * and statements (0 by default).
+   *
+   * @param json the parameters of the recording, can be null.
+   * @return a json with the status of the recording.
+   */
+  @POST
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Object> start(JsonNode json) {
+    Logger.getLogger("Log").log(Level.INFO, "RecordingResource start");
+    int seconds = 60;
+    String settings = "profile";
+    int thresholdMillis = 0;
+    if (json != null) {
+      seconds = json.path("duration").asInt(seconds);
+      settings = json.path("settings").asText(settings);
+      thresholdMillis = json.path("thresholdMillis").asInt(thresholdMillis);
+    }
+    return flightRecorder.start(seconds, settings, thresholdMillis);
+  }
+
+  /**
+   * Get the status of the last recording.
+   *
+   * @return a json with the status of the recording.
+   */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Object> getStatus() {
+    Logger.getLogger("Log").log(Level.INFO, "RecordingResource getStatus");
+    return flightRecorder.getStatus();
+  }
+
+  /**
+   * Stop the current recording.
+   *
+   * @return a json with the status of the recording.
+   */
+  @POST
+  @Path("/stop")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Admin
+  public Map<String, Object> stop() {
+    Logger.getLogger("Log").log(Level.INFO, "RecordingResource stop");
+    return flightRecorder.stop();
+  }
+
+  /**
+   * Download the events of the last recording as a .jfr file.
+   *
+   * @return the .jfr file.
+   */
+  @GET
+  @Path("/download")
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  @Admin
+  public Response download() {
+    Logger.getLogger("Log").log(Level.INFO, "RecordingResource download");
+    java.nio.file.Path file = flightRecorder.dump();
+    StreamingOutput output = out -> {
+      try {
+        Files.copy(file, out);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    };
+    return Response.ok(output)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"donnamis.jfr\"")
+        .build();
+  }
+}
@@ -3,6 +3,7 @@ package be.vinci.pae.ihm;
 import be.vinci.pae.business.domain.dto.TypeDTO;
 import be.vinci.pae.business.ucc.TypeUCC;
 import be.vinci.pae.ihm.filters.Authorize;
+import be.vinci.pae.ihm.filters.Cached;
 import be.vinci.pae.utils.JsonViews;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -36,6 +37,7 @@ public class TypeResource {
   @Path("/id/{id}")
   @Produces(MediaType.APPLICATION_JSON)
   @Authorize
+  @Cached(ttl = 300, tags = "types")
   public ObjectNode getType(@PathParam("id") int id) {
     Logger.getLogger("Log").log(Level.INFO, "TypeResource getType by id");
     TypeDTO typeDTO = typeUCC.getType(id);
@@ -53,6 +55,7 @@ public class TypeResource {
   @Path("/type_name/{typeName}")
   @Produces(MediaType.APPLICATION_JSON)
   @Authorize
+  @Cached(ttl = 300, tags = "types")
   public ObjectNode getType(@PathParam("typeName") String typeName) {
     Logger.getLogger("Log").log(Level.INFO, "TypeResource getType by name");
 
@@ -70,6 +73,7 @@ public class TypeResource {
   @Path("/allDefault")
   @Produces(MediaType.APPLICATION_JSON)
   @Authorize
+  @Cached(ttl = 300, tags = "types")
   public ObjectNode getAllDefaultTypes() {
     Logger.getLogger("Log").log(Level.INFO, "TypeResource getAllDefaultTypes");
 
@@ -0,0 +1,86 @@
+package be.vinci.pae.ihm.filters;
+
+import be.vinci.pae.ihm.manager.AdmissionControl;
+import be.vinci.pae.utils.Configuration;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Admit the matched requests through the AdmissionControl before the authentication, which
+ * already needs the database. A request that isn't admitted gets a 503 with Retry-After at once,
+ * the admitted ones are released when they are finished.
+ */
+@Singleton
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class AdmissionFilter implements ContainerRequestFilter, ApplicationEventListener,
+    RequestEventListener {
+
+  private static final String ROUTE = "admission.route";
+  private static final String ADMITTED_AT = "admission.admittedAt";
+
+  @Inject
+  private AdmissionControl admissionControl;
+  @Inject
+  private Configuration configuration;
+  @Context
+  private ResourceInfo resourceInfo;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    String route = Routes.getRoute(requestContext.getMethod(),
+        (ExtendedUriInfo) requestContext.getUriInfo());
+    Method method = resourceInfo.getResourceMethod();
+    boolean admin = method != null && (method.isAnnotationPresent(Admin.class)
+        || resourceInfo.getResourceClass().isAnnotationPresent(Admin.class));
+    if (!admissionControl.acquire(route, admin)) {
+      requestContext.abortWith(Response.status(Status.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, configuration.getSettings().getRetryAfterSeconds())
+          .type(MediaType.TEXT_PLAIN)
+          .entity("Serveur surchargé, veuillez réessayer plus tard")
+          .build());
+      return;
+    }
+    requestContext.setProperty(ROUTE, route);
+    requestContext.setProperty(ADMITTED_AT, System.nanoTime());
+  }
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    return this;
+  }
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+  }
+
+  @Override
+  public void onEvent(RequestEvent event) {
+    if (event.getType() != RequestEvent.Type.FINISHED) {
+      return;
+    }
+    ContainerRequest request = event.getContainerRequest();
+    String route = (String) request.getProperty(ROUTE);
+    if (route != null) {
+      admissionControl.release(route, System.nanoTime() - (Long) request.getProperty(ADMITTED_AT));
+    }
+  }
+}
@@ -2,6 +2,7 @@ package be.vinci.pae.ihm.filters;
 
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.ihm.manager.Token;
+import be.vinci.pae.utils.LogContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.container.ContainerRequestContext;
@@ -26,6 +27,7 @@ public class AuthorizationRequestFilter implements ContainerRequestFilter {
           .entity("A token is needed to access this resource").build());
     } else {
       requestContext.setProperty("user", memberDTO);
+      LogContext.current().setMemberId(memberDTO.getMemberId());
     }
   }
 }
@@ -0,0 +1,24 @@
+package be.vinci.pae.ihm.filters;
+
+import jakarta.ws.rs.NameBinding;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@NameBinding
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+
+  /**
+   * Get the number of seconds a response stays in the cache.
+   *
+   * @return the time to live of the responses.
+   */
+  int ttl() default 60;
+
+  /**
+   * Get the tags used to invalidate the responses, "{name}" is replaced by the path parameter.
+   *
+   * @return the tags of the responses.
+   */
+  String[] tags() default {};
+}
@@ -0,0 +1,95 @@
+package be.vinci.pae.ihm.filters;
+
+import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.QueryCancellation;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.ws.rs.HttpMethod;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import org.glassfish.grizzly.CloseListener;
+import org.glassfish.grizzly.Closeable;
+import org.glassfish.grizzly.Connection;
+import org.glassfish.grizzly.ICloseType;
+import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Cancel the statements of a request when its client disconnects : a search the browser gave up
+ * on stops holding its connection and the CPU of the database. The transaction is rolled back by
+ * the UCC.
+ */
+@jakarta.ws.rs.ext.Provider
+public class CancellationListener implements ApplicationEventListener {
+
+  @Inject
+  private DALService dalService;
+  @Inject
+  private Provider<Request> grizzlyRequest;
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+  }
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    return new RequestCancellation();
+  }
+
+  private class RequestCancellation implements RequestEventListener {
+
+    private QueryCancellation cancellation;
+    private Connection<?> connection;
+    private CloseListener<Closeable, ICloseType> closeListener;
+
+    @Override
+    public void onEvent(RequestEvent event) {
+      switch (event.getType()) {
+        case REQUEST_MATCHED:
+          cancellation = dalService.openCancellation();
+          break;
+        case RESOURCE_METHOD_START:
+          // a GET has no body, the connection can be read without taking it from the resource
+          if (HttpMethod.GET.equals(event.getContainerRequest().getMethod())) {
+            watchConnection();
+          }
+          break;
+        case RESOURCE_METHOD_FINISHED:
+          if (connection != null) {
+            ClientDisconnectAddOn.stopReading(connection);
+          }
+          break;
+        case FINISHED:
+          if (connection != null) {
+            connection.removeCloseListener(closeListener);
+            ClientDisconnectAddOn.release(connection);
+          }
+          if (cancellation != null) {
+            dalService.closeCancellation();
+          }
+          break;
+        default:
+          break;
+      }
+    }
+
+    /**
+     * Cancel the statements of the request when its connection closes.
+     */
+    private void watchConnection() {
+      QueryCancellation requestCancellation = cancellation;
+      // the driver opens a connection to send the cancel, not on the selector thread
+      closeListener = (closeable, type) -> CompletableFuture.runAsync(requestCancellation::cancel);
+      connection = grizzlyRequest.get().getContext().getConnection();
+      connection.addCloseListener(closeListener);
+      try {
+        ClientDisconnectAddOn.startReading(connection);
+      } catch (IOException e) {
+        cancellation.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package be.vinci.pae.ihm.filters;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.glassfish.grizzly.Buffer;
+import org.glassfish.grizzly.Connection;
+import org.glassfish.grizzly.IOEvent;
+import org.glassfish.grizzly.filterchain.BaseFilter;
+import org.glassfish.grizzly.filterchain.FilterChainBuilder;
+import org.glassfish.grizzly.filterchain.FilterChainContext;
+import org.glassfish.grizzly.filterchain.NextAction;
+import org.glassfish.grizzly.filterchain.TransportFilter;
+import org.glassfish.grizzly.http.server.AddOn;
+import org.glassfish.grizzly.http.server.NetworkListener;
+
+/**
+ * Let the selector read a connection while its request is in the resource method : Grizzly stops
+ * reading it while a worker processes the request, a client that disconnects would only be seen
+ * when the response is written. The end of the stream closes the connection and fires its close
+ * listeners. The bytes of a request pipelined meanwhile are dropped before the HTTP filter and the
+ * connection is closed after the response, the client sends the request again as it must for the
+ * unanswered pipelined requests.
+ */
+public class ClientDisconnectAddOn implements AddOn {
+
+  private static final Set<Connection<?>> watched = ConcurrentHashMap.newKeySet();
+  private static final Set<Connection<?>> pipelined = ConcurrentHashMap.newKeySet();
+
+  @Override
+  public void setup(NetworkListener networkListener, FilterChainBuilder builder) {
+    builder.add(builder.indexOfType(TransportFilter.class) + 1, new WatchFilter());
+  }
+
+  /**
+   * Read the connection of a request until stopReading.
+   *
+   * @param connection the connection of the request.
+   * @throws IOException if the connection is already closed.
+   */
+  static void startReading(Connection<?> connection) throws IOException {
+    watched.add(connection);
+    connection.enableIOEvent(IOEvent.READ);
+  }
+
+  /**
+   * Stop reading the connection before the response is written. The bytes read until release are
+   * still dropped, a read may already be running.
+   *
+   * @param connection the connection of the request.
+   */
+  static void stopReading(Connection<?> connection) {
+    try {
+      connection.disableIOEvent(IOEvent.READ);
+    } catch (IOException e) {
+      // the connection is closed, the response is lost anyway
+    }
+  }
+
+  /**
+   * Forget the connection once the response is written, it's closed if a pipelined request was
+   * dropped.
+   *
+   * @param connection the connection of the request.
+   */
+  static void release(Connection<?> connection) {
+    watched.remove(connection);
+    if (pipelined.remove(connection)) {
+      connection.closeSilently();
+    }
+  }
+
+  private static class WatchFilter extends BaseFilter {
+
+    @Override
+    public NextAction handleRead(FilterChainContext ctx) {
+      Connection<?> connection = ctx.getConnection();
+      if (!watched.contains(connection)) {
+        return ctx.getInvokeAction();
+      }
+      pipelined.add(connection);
+      ((Buffer) ctx.getMessage()).tryDispose();
+      return ctx.getStopAction();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package be.vinci.pae.ihm.filters;
+
+import be.vinci.pae.ihm.manager.Metrics;
+import be.vinci.pae.utils.RequestTimings;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Time every request : total, database, connection pool and serialization. The timings are sent
+ * to the client in a Server-Timing header and recorded in the metrics of the route.
+ */
+@Provider
+public class MetricsListener implements ApplicationEventListener, RequestEventListener {
+
+  private static final double NANOS_PER_MICRO = 1e3;
+  private static final long MICROS_PER_MILLI = 1000;
+
+  @Inject
+  private Metrics metrics;
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    RequestTimings.current().start();
+    return this;
+  }
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+  }
+
+  @Override
+  public void onEvent(RequestEvent event) {
+    RequestTimings timings = RequestTimings.current();
+    switch (event.getType()) {
+      case RESP_FILTERS_START:
+        event.getContainerResponse().getHeaders().add("Server-Timing", serverTiming(timings));
+        break;
+      case RESP_FILTERS_FINISHED:
+        timings.startWrite();
+        break;
+      case FINISHED:
+        ContainerResponse response = event.getContainerResponse();
+        metrics.record(Routes.getRoute(event), response == null ? 500 : response.getStatus(),
+            timings.getElapsedNanos(), timings.getDatabaseNanos(), timings.getPoolWaitNanos(),
+            timings.getWriteNanos());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Write the Server-Timing header in milliseconds with 3 decimals, without String.format that
+   * parses its pattern on every request.
+   *
+   * @param timings the timings of the request.
+   * @return the value of the header.
+   */
+  private static String serverTiming(RequestTimings timings) {
+    StringBuilder header = new StringBuilder(64);
+    appendMillis(header.append("db;dur="), timings.getDatabaseNanos());
+    appendMillis(header.append(", pool;dur="), timings.getPoolWaitNanos());
+    appendMillis(header.append(", app;dur="), timings.getElapsedNanos());
+    return header.toString();
+  }
+
+  private static void appendMillis(StringBuilder header, long nanos) {
+    long micros = Math.round(nanos / NANOS_PER_MICRO);
+    header.append(micros / MICROS_PER_MILLI).append('.');
+    long fraction = micros % MICROS_PER_MILLI;
+    if (fraction < 100) {
+      header.append('0');
+    }
+    if (fraction < 10) {
+      header.append('0');
+    }
+    header.append(fraction);
+  }
+}
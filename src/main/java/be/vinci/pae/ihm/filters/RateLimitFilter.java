@@ -0,0 +1,88 @@
+package be.vinci.pae.ihm.filters;
+
+import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.ihm.manager.RateLimiter;
+import be.vinci.pae.utils.Configuration;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+
+/**
+ * Limit the rate of the requests of each client on each route through the RateLimiter. Runs after
+ * the authorization filters : an authenticated request is counted for its member, an anonymous
+ * one for the address of its client, taken from X-Forwarded-For behind a trusted proxy. A request
+ * over the budget gets a 429 with Retry-After, before the cache and the resource.
+ */
+@Singleton
+@jakarta.ws.rs.ext.Provider
+@Priority(Priorities.USER + 50)
+public class RateLimitFilter implements ContainerRequestFilter {
+
+  @Inject
+  private RateLimiter rateLimiter;
+  @Inject
+  private Provider<Request> grizzlyRequest;
+  @Inject
+  private Configuration configuration;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    String route = Routes.getRoute(requestContext.getMethod(),
+        (ExtendedUriInfo) requestContext.getUriInfo());
+    MemberDTO memberDTO = (MemberDTO) requestContext.getProperty("user");
+    String client = memberDTO != null ? "member:" + memberDTO.getMemberId()
+        : "address:" + getClientAddress(grizzlyRequest.get().getRemoteAddr(),
+            requestContext.getHeaderString("X-Forwarded-For"),
+            configuration.getSettings().getTrustedProxies());
+    long waitNanos = rateLimiter.acquire(route, client);
+    if (waitNanos > 0) {
+      // Retry-After is in whole seconds
+      long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+          / TimeUnit.SECONDS.toNanos(1));
+      requestContext.abortWith(Response.status(Status.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+          .type(MediaType.TEXT_PLAIN)
+          .entity("Trop de requêtes, veuillez réessayer plus tard")
+          .build());
+    }
+  }
+
+  /**
+   * Get the address of the client of a request. Behind a trusted proxy, it is the last address of
+   * X-Forwarded-For that isn't a trusted proxy : the addresses before it are written by the client
+   * and can be forged.
+   *
+   * @param remoteAddr     the address of the peer of the connection.
+   * @param forwardedFor   the X-Forwarded-For header, can be null.
+   * @param trustedProxies the addresses of the trusted proxies.
+   * @return the address of the client.
+   */
+  static String getClientAddress(String remoteAddr, String forwardedFor,
+      Set<String> trustedProxies) {
+    String address = remoteAddr;
+    if (forwardedFor == null) {
+      return address;
+    }
+    String[] hops = forwardedFor.split(",");
+    for (int i = hops.length - 1; i >= 0 && trustedProxies.contains(address); i--) {
+      String hop = hops[i].trim();
+      if (hop.isEmpty()) {
+        break;
+      }
+      address = hop;
+    }
+    return address;
+  }
+}
@@ -0,0 +1,50 @@
+package be.vinci.pae.ihm.filters;
+
+import be.vinci.pae.utils.LogContext;
+import jakarta.ws.rs.ext.Provider;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Give an id to every request and fill the LogContext of its thread, so its log records carry the
+ * request id and the route. The id is sent back in the X-Request-Id header.
+ */
+@Provider
+public class RequestLogListener implements ApplicationEventListener, RequestEventListener {
+
+  // the ids of the nodes don't collide thanks to the random start
+  private final AtomicLong nextId = new AtomicLong(
+      ThreadLocalRandom.current().nextLong(1L << 40) << 20);
+
+  @Override
+  public RequestEventListener onRequest(RequestEvent requestEvent) {
+    LogContext.current().start(Long.toString(nextId.incrementAndGet(), 36));
+    return this;
+  }
+
+  @Override
+  public void onEvent(ApplicationEvent event) {
+  }
+
+  @Override
+  public void onEvent(RequestEvent event) {
+    switch (event.getType()) {
+      case REQUEST_MATCHED:
+        LogContext.current().setRoute(Routes.getRoute(event));
+        break;
+      case RESP_FILTERS_START:
+        event.getContainerResponse().getHeaders()
+            .putSingle("X-Request-Id", LogContext.current().getRequestId());
+        break;
+      case FINISHED:
+        LogContext.current().clear();
+        break;
+      default:
+        break;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package be.vinci.pae.ihm.filters;
+
+import be.vinci.pae.ihm.manager.ResponseCache;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+
+/**
+ * Serve the GET requests of the methods annotated with {@link Cached} from the ResponseCache. On
+ * a miss, the bytes written by Jersey for a 200 response are kept. Runs after the authorization
+ * filters, so only the authorized requests can read the cache.
+ */
+@Singleton
+@Provider
+@Cached
+@Priority(Priorities.USER + 100)
+public class ResponseCacheFilter implements ContainerRequestFilter, ContainerResponseFilter,
+    WriterInterceptor {
+
+  private static final String ENDPOINT = "responseCache.endpoint";
+  private static final String KEY = "responseCache.key";
+  private static final String TAGS = "responseCache.tags";
+  private static final String VERSION = "responseCache.version";
+  private static final String STORE = "responseCache.store";
+
+  @Inject
+  private ResponseCache responseCache;
+  @Context
+  private ResourceInfo resourceInfo;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    if (!requestContext.getMethod().equals(HttpMethod.GET)) {
+      return;
+    }
+    String endpoint = Routes.getRoute(requestContext.getMethod(),
+        (ExtendedUriInfo) requestContext.getUriInfo());
+    URI uri = requestContext.getUriInfo().getRequestUri();
+    String key = endpoint + " " + uri.getRawPath()
+        + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    Response cachedResponse = responseCache.get(endpoint, key);
+    if (cachedResponse != null) {
+      requestContext.abortWith(cachedResponse);
+      return;
+    }
+    requestContext.setProperty(ENDPOINT, endpoint);
+    requestContext.setProperty(KEY, key);
+    requestContext.setProperty(TAGS, getTags(requestContext));
+    requestContext.setProperty(VERSION, responseCache.getVersion());
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext,
+      ContainerResponseContext responseContext) {
+    if (requestContext.getProperty(KEY) == null || !responseContext.hasEntity()
+        || responseContext.getStatus() != Status.OK.getStatusCode()) {
+      return;
+    }
+    responseContext.getHeaders().putSingle(ResponseCache.CACHE_HEADER, "MISS");
+    requestContext.setProperty(STORE, true);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    if (context.getProperty(STORE) == null) {
+      context.proceed();
+      return;
+    }
+    OutputStream outputStream = context.getOutputStream();
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    context.setOutputStream(buffer);
+    try {
+      context.proceed();
+    } finally {
+      context.setOutputStream(outputStream);
+    }
+    byte[] body = buffer.toByteArray();
+    outputStream.write(body);
+    responseCache.put((String) context.getProperty(ENDPOINT), (String) context.getProperty(KEY),
+        body, context.getMediaType(), resourceInfo.getResourceMethod().getAnnotation(Cached.class)
+            .ttl(), (List<String>) context.getProperty(TAGS),
+        (Long) context.getProperty(VERSION));
+  }
+
+  /**
+   * Resolve the tags of the method with the path parameters of the request.
+   *
+   * @param requestContext the request.
+   * @return the tags of the response.
+   */
+  private List<String> getTags(ContainerRequestContext requestContext) {
+    MultivaluedMap<String, String> pathParameters =
+        requestContext.getUriInfo().getPathParameters();
+    List<String> tags = new ArrayList<>();
+    for (String tag : resourceInfo.getResourceMethod().getAnnotation(Cached.class).tags()) {
+      for (Entry<String, List<String>> pathParameter : pathParameters.entrySet()) {
+        tag = tag.replace("{" + pathParameter.getKey() + "}", pathParameter.getValue().get(0));
+      }
+      tags.add(tag);
+    }
+    return tags;
+  }
+}
@@ -0,0 +1,52 @@
+package be.vinci.pae.ihm.filters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+
+class Routes {
+
+  private static final Map<ResourceMethod, String> routes = new ConcurrentHashMap<>();
+
+  /**
+   * Get the route of a request event, it is computed once by resource method.
+   *
+   * @param event an event of a matched request.
+   * @return the route or "unmatched" if no resource method matched.
+   */
+  static String getRoute(RequestEvent event) {
+    ResourceMethod resourceMethod = event.getUriInfo().getMatchedResourceMethod();
+    if (resourceMethod == null) {
+      return "unmatched";
+    }
+    String route = routes.get(resourceMethod);
+    if (route == null) {
+      route = getRoute(event.getContainerRequest().getMethod(), event.getUriInfo());
+      routes.put(resourceMethod, route);
+    }
+    return route;
+  }
+
+  /**
+   * Get the matched route of a request, used to name the endpoints in the metrics.
+   *
+   * @param method  the HTTP method of the request.
+   * @param uriInfo the uri info of the matched request.
+   * @return the method and the route template, ie "GET /type/id/{id}".
+   */
+  static String getRoute(String method, ExtendedUriInfo uriInfo) {
+    StringBuilder route = new StringBuilder();
+    // the matched templates go from the method to the resource
+    for (int i = uriInfo.getMatchedTemplates().size() - 1; i >= 0; i--) {
+      String template = uriInfo.getMatchedTemplates().get(i).getTemplate();
+      if (!template.startsWith("/") && route.length() > 0 && route.charAt(route.length() - 1)
+          != '/') {
+        route.append('/');
+      }
+      route.append(template);
+    }
+    return method + " " + route;
+  }
+}
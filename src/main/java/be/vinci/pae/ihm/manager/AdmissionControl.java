@@ -0,0 +1,32 @@
+package be.vinci.pae.ihm.manager;
+
+import java.util.Map;
+
+public interface AdmissionControl {
+
+  /**
+   * Admit a request if its route and the server are under their concurrency limits. An
+   * interactive request waits at most AdmissionMaxWaitMillis for a place, an admin request only
+   * gets the places left under AdmissionAdminPercent of the server limit and never waits.
+   *
+   * @param route the route of the request.
+   * @param admin true if the route is reserved to the administrators.
+   * @return true if the request is admitted, it must then be released.
+   */
+  boolean acquire(String route, boolean admin);
+
+  /**
+   * Release the place of an admitted request and adapt the limit of its route to its latency.
+   *
+   * @param route the route of the request.
+   * @param nanos the time the request took once admitted.
+   */
+  void release(String route, long nanos);
+
+  /**
+   * Get the limit, the requests in flight and the number of rejections of each route.
+   *
+   * @return the state of the routes.
+   */
+  Map<String, Map<String, Number>> getLimits();
+}
@@ -0,0 +1,146 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import jakarta.inject.Inject;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limits by route, adapted from the observed latencies : a route whose requests get
+ * slower than AdmissionLatencyFactor times its best recent latency loses 10% of its limit, a route
+ * used at more than half of its limit with normal latencies slowly gains places. Under the route
+ * limits, the whole server is capped by AdmissionMaxInflight.
+ */
+public class AdmissionControlImpl implements AdmissionControl {
+
+  private static final double DECREASE = 0.9;
+  private static final int MIN_LIMIT = 1;
+  // the best latency is measured again on each window of requests
+  private static final int WINDOW = 500;
+  // below this latency a request is never considered slow
+  private static final long MIN_SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  @Inject
+  private Configuration configuration;
+
+  // guarded by this
+  private final Map<String, RouteLimit> routes = new HashMap<>();
+  private int inflight;
+
+  /**
+   * Admit a request if its route and the server are under their concurrency limits. An
+   * interactive request waits at most AdmissionMaxWaitMillis for a place, an admin request only
+   * gets the places left under AdmissionAdminPercent of the server limit and never waits.
+   *
+   * @param route the route of the request.
+   * @param admin true if the route is reserved to the administrators.
+   * @return true if the request is admitted, it must then be released.
+   */
+  @Override
+  public synchronized boolean acquire(String route, boolean admin) {
+    Settings settings = configuration.getSettings();
+    RouteLimit routeLimit = routes.computeIfAbsent(route,
+        r -> new RouteLimit(settings.getAdmissionInitialLimit()));
+    int serverLimit = settings.getAdmissionMaxInflight();
+    long waitNanos = TimeUnit.MILLISECONDS.toNanos(settings.getAdmissionMaxWaitMillis());
+    if (admin) {
+      serverLimit = serverLimit * settings.getAdmissionAdminPercent() / 100;
+      waitNanos = 0;
+    }
+    long deadline = System.nanoTime() + waitNanos;
+    while (routeLimit.inflight >= (int) routeLimit.limit || inflight >= serverLimit) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        routeLimit.rejected++;
+        return false;
+      }
+      try {
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        routeLimit.rejected++;
+        return false;
+      }
+    }
+    routeLimit.inflight++;
+    inflight++;
+    return true;
+  }
+
+  /**
+   * Release the place of an admitted request and adapt the limit of its route to its latency.
+   *
+   * @param route the route of the request.
+   * @param nanos the time the request took once admitted.
+   */
+  @Override
+  public synchronized void release(String route, long nanos) {
+    RouteLimit routeLimit = routes.get(route);
+    routeLimit.inflight--;
+    inflight--;
+    Settings settings = configuration.getSettings();
+    routeLimit.adapt(nanos, settings.getAdmissionLatencyFactor(),
+        settings.getAdmissionMaxInflight());
+    notifyAll();
+  }
+
+  /**
+   * Get the limit, the requests in flight and the number of rejections of each route.
+   *
+   * @return the state of the routes.
+   */
+  @Override
+  public synchronized Map<String, Map<String, Number>> getLimits() {
+    Map<String, Map<String, Number>> limits = new TreeMap<>();
+    routes.forEach((route, routeLimit) -> {
+      Map<String, Number> state = new LinkedHashMap<>();
+      state.put("limit", (int) routeLimit.limit);
+      state.put("inflight", routeLimit.inflight);
+      state.put("rejected", routeLimit.rejected);
+      limits.put(route, state);
+    });
+    return limits;
+  }
+
+  private static class RouteLimit {
+
+    private double limit;
+    private int inflight;
+    private long rejected;
+    private long bestNanos = Long.MAX_VALUE;
+    private long windowBestNanos = Long.MAX_VALUE;
+    private int windowCount;
+
+    RouteLimit(int limit) {
+      this.limit = limit;
+    }
+
+    /**
+     * Shrink the limit when a request is slow compared to the best recent latency, grow it when
+     * the route is busy and fast.
+     *
+     * @param nanos    the latency of the request.
+     * @param factor   the latency factor over which a request is slow.
+     * @param maxLimit the maximum limit.
+     */
+    void adapt(long nanos, int factor, int maxLimit) {
+      windowBestNanos = Math.min(windowBestNanos, nanos);
+      long baseline = Math.min(bestNanos, windowBestNanos);
+      if (++windowCount >= WINDOW) {
+        bestNanos = windowBestNanos;
+        windowBestNanos = Long.MAX_VALUE;
+        windowCount = 0;
+      }
+      if (nanos > Math.max(baseline * factor, MIN_SLOW_NANOS)) {
+        limit = Math.max(MIN_LIMIT, limit * DECREASE);
+      } else if (inflight + 1 >= limit / 2) {
+        // about one place more each time a full limit of requests was fast
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package be.vinci.pae.ihm.manager;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+public interface FlightRecorder {
+
+  /**
+   * Start a flight recording that stops by itself after the given duration, the previous
+   * recording is discarded.
+   *
+   * @param seconds         the duration of the recording.
+   * @param settings        the name of the JFR settings, "default" or "profile".
+   * @param thresholdMillis the minimum duration of the recorded transactions and statements.
+   * @return the status of the recording.
+   */
+  Map<String, Object> start(int seconds, String settings, int thresholdMillis);
+
+  /**
+   * Stop the current recording before the end of its duration.
+   *
+   * @return the status of the recording.
+   */
+  Map<String, Object> stop();
+
+  /**
+   * Get the state, the settings, the start, the duration and the size of the last recording.
+   *
+   * @return the status of the recording.
+   */
+  Map<String, Object> getStatus();
+
+  /**
+   * Write the events of the last recording, running or not, in a temporary file.
+   *
+   * @return the path of the .jfr file, to delete after use.
+   */
+  Path dump();
+}
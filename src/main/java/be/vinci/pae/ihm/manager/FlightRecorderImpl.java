@@ -0,0 +1,108 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.exceptions.BadRequestException;
+import be.vinci.pae.exceptions.ConflictException;
+import be.vinci.pae.exceptions.FatalException;
+import be.vinci.pae.exceptions.NotFoundException;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Flight recordings started on demand, one at a time. They last at most RecordingMaxSeconds
+ * (600 by default) and include the transactions, statements, JSON view filterings and image
+ * reads and writes of the application.
+ */
+public class FlightRecorderImpl implements FlightRecorder {
+
+  private static final String[] THRESHOLD_EVENTS = {"donnamis.Transaction", "donnamis.Statement"};
+
+  // jdk.jfr.Configuration is the one imported
+  @Inject
+  private be.vinci.pae.utils.Configuration appConfiguration;
+  private Recording recording;
+  private String settings;
+
+  @Override
+  public synchronized Map<String, Object> start(int seconds, String settings,
+      int thresholdMillis) {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      throw new ConflictException("Un enregistrement est déjà en cours");
+    }
+    int maxSeconds = appConfiguration.getSettings().getRecordingMaxSeconds();
+    if (seconds < 1 || seconds > maxSeconds) {
+      throw new BadRequestException(
+          "La durée doit être comprise entre 1 et " + maxSeconds + " secondes");
+    }
+    if (thresholdMillis < 0) {
+      throw new BadRequestException("Le seuil ne peut pas être négatif");
+    }
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings);
+    } catch (IOException | ParseException e) {
+      throw new BadRequestException("Paramètres d'enregistrement inconnus : " + settings);
+    }
+    if (recording != null) {
+      recording.close();
+    }
+    recording = new Recording(configuration);
+    recording.setName("donnamis");
+    recording.setDuration(Duration.ofSeconds(seconds));
+    recording.setToDisk(true);
+    for (String event : THRESHOLD_EVENTS) {
+      recording.enable(event).withThreshold(Duration.ofMillis(thresholdMillis));
+    }
+    recording.start();
+    this.settings = settings;
+    return getStatus();
+  }
+
+  @Override
+  public synchronized Map<String, Object> stop() {
+    if (recording == null) {
+      throw new NotFoundException("Aucun enregistrement");
+    }
+    if (recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+    }
+    return getStatus();
+  }
+
+  @Override
+  public synchronized Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    if (recording == null) {
+      status.put("state", "none");
+      return status;
+    }
+    status.put("state", recording.getState().name().toLowerCase());
+    status.put("settings", settings);
+    status.put("start", String.valueOf(recording.getStartTime()));
+    status.put("durationSeconds", recording.getDuration().toSeconds());
+    status.put("size", recording.getSize());
+    return status;
+  }
+
+  @Override
+  public synchronized Path dump() {
+    if (recording == null || recording.getState() == RecordingState.NEW) {
+      throw new NotFoundException("Aucun enregistrement");
+    }
+    try {
+      Path file = Files.createTempFile("donnamis-", ".jfr");
+      recording.dump(file);
+      return file;
+    } catch (IOException e) {
+      throw new FatalException(e);
+    }
+  }
+}
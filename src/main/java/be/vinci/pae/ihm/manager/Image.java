@@ -34,4 +34,11 @@ public interface Image {
    * @return true if authorized.
    */
   boolean isAuthorized(FormDataBodyPart fileMime);
+
+  /**
+   * Delete an image replaced by another one, nothing is done if it doesn't exist anymore.
+   *
+   * @param imageFile the path of the image on disk.
+   */
+  void deleteImage(String imageFile);
 }
@@ -0,0 +1,21 @@
+package be.vinci.pae.ihm.manager;
+
+import java.util.Map;
+
+public interface ImageGc {
+
+  /**
+   * Schedule a collection every ImageGcIntervalMinutes, the interval follows the reloads of the
+   * configuration and 0 disables the collections.
+   */
+  void start();
+
+  /**
+   * Find the images of img/objects and img/profils that no object and no member references and
+   * that are older than ImageGcGraceMinutes, and delete them unless it is a dry run.
+   *
+   * @param dryRun true to only report the orphaned images.
+   * @return the report of the collection.
+   */
+  Map<String, Object> collect(boolean dryRun);
+}
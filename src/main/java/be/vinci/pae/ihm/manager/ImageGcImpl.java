@@ -0,0 +1,224 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.ucc.ObjectUCC;
+import be.vinci.pae.exceptions.FatalException;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Delete the pictures that no row references anymore : the old extension of a replaced picture,
+ * the picture of a failed transaction. The references are kept as the sorted 64-bit hashes of
+ * their paths, 8 bytes each ; a collision can only keep an orphaned image on the disk.
+ */
+public class ImageGcImpl implements ImageGc {
+
+  private static final String[] DIRECTORIES = {"objects", "profils"};
+  private static final int MAX_REPORTED_FILES = 100;
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final ScheduledExecutorService executor;
+  private ScheduledFuture<?> task;
+  private int intervalMinutes;
+
+  @Inject
+  private ObjectUCC objectUCC;
+  @Inject
+  private Image image;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Make the thread of the collections.
+   */
+  public ImageGcImpl() {
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "image-gc");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Schedule a collection every ImageGcIntervalMinutes, the interval follows the reloads of the
+   * configuration and 0 disables the collections.
+   */
+  @Override
+  public void start() {
+    schedule(configuration.getSettings());
+    configuration.subscribe(this::schedule);
+  }
+
+  /**
+   * Schedule the collections again if their interval has changed, the first one runs after an
+   * interval so that it doesn't slow down the startup.
+   *
+   * @param settings the settings of the reload.
+   */
+  private synchronized void schedule(Settings settings) {
+    int minutes = settings.getImageGcIntervalMinutes();
+    if (task != null && minutes == intervalMinutes) {
+      return;
+    }
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+    intervalMinutes = minutes;
+    if (minutes > 0) {
+      task = executor.scheduleWithFixedDelay(this::run, minutes, minutes, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * Run a scheduled collection, it never throws or the next ones would be cancelled.
+   */
+  private void run() {
+    try {
+      Map<String, Object> report = collect(configuration.getSettings().isImageGcDryRun());
+      report.remove("files");
+      Logger.getLogger("Log").log(Level.INFO, "ImageGc " + report);
+    } catch (RuntimeException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "ImageGc failed", e);
+    }
+  }
+
+  /**
+   * Find the images of img/objects and img/profils that no object and no member references and
+   * that are older than ImageGcGraceMinutes, and delete them unless it is a dry run.
+   *
+   * @param dryRun true to only report the orphaned images.
+   * @return the report of the collection.
+   */
+  @Override
+  public synchronized Map<String, Object> collect(boolean dryRun) {
+    final long start = System.nanoTime();
+    Settings settings = configuration.getSettings();
+    Instant graceLimit = Instant.now().minus(settings.getImageGcGraceMinutes(), ChronoUnit.MINUTES);
+    long[] references = readReferences();
+
+    LongAdder scanned = new LongAdder();
+    LongAdder recent = new LongAdder();
+    LongAdder orphans = new LongAdder();
+    LongAdder orphanBytes = new LongAdder();
+    LongAdder deleted = new LongAdder();
+    LongAdder failed = new LongAdder();
+    AtomicInteger reported = new AtomicInteger();
+    Queue<String> files = new ConcurrentLinkedQueue<>();
+    Arrays.stream(DIRECTORIES).parallel().forEach(directory -> {
+      Path path = Paths.get(settings.getImagePath(), "img", directory);
+      if (!Files.isDirectory(path)) {
+        return;
+      }
+      try (Stream<Path> listing = Files.list(path)) {
+        listing.parallel().forEach(file -> {
+          BasicFileAttributes attributes;
+          try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+          } catch (NoSuchFileException e) {
+            return;
+          } catch (IOException e) {
+            failed.increment();
+            return;
+          }
+          if (!attributes.isRegularFile()) {
+            return;
+          }
+          scanned.increment();
+          String name = "img\\" + directory + "\\" + file.getFileName();
+          if (Arrays.binarySearch(references, hash(name)) >= 0) {
+            return;
+          }
+          if (attributes.lastModifiedTime().toInstant().isAfter(graceLimit)) {
+            recent.increment();
+            return;
+          }
+          orphans.increment();
+          orphanBytes.add(attributes.size());
+          if (reported.getAndIncrement() < MAX_REPORTED_FILES) {
+            files.add(name);
+          }
+          if (!dryRun) {
+            try {
+              image.deleteImage(file.toString());
+              deleted.increment();
+            } catch (FatalException e) {
+              failed.increment();
+            }
+          }
+        });
+      } catch (IOException | UncheckedIOException e) {
+        Logger.getLogger("Log").log(Level.WARNING, "ImageGc can't list " + path, e);
+        failed.increment();
+      }
+    });
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("dryRun", dryRun);
+    report.put("references", references.length);
+    report.put("scanned", scanned.sum());
+    report.put("recent", recent.sum());
+    report.put("orphans", orphans.sum());
+    report.put("orphanBytes", orphanBytes.sum());
+    report.put("deleted", deleted.sum());
+    report.put("failed", failed.sum());
+    report.put("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    report.put("files", List.copyOf(files));
+    return report;
+  }
+
+  /**
+   * Read the images referenced by the objects and the members as the sorted hashes of their
+   * paths.
+   *
+   * @return the sorted hashes.
+   */
+  private long[] readReferences() {
+    LongStream.Builder hashes = LongStream.builder();
+    objectUCC.forEachReferencedImage(reference -> hashes.add(hash(reference)));
+    return hashes.build().sorted().toArray();
+  }
+
+  /**
+   * Hash a path with FNV-1a, the separators and the case are ignored like on the disk of the
+   * server.
+   *
+   * @param path the path of an image relative to ImagePath.
+   * @return the 64-bit hash.
+   */
+  private static long hash(String path) {
+    String normalized = path.replace('/', '\\').toLowerCase(Locale.ROOT);
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < normalized.length(); i++) {
+      hash = (hash ^ normalized.charAt(i)) * FNV_PRIME;
+    }
+    return hash;
+  }
+}
@@ -1,6 +1,9 @@
 package be.vinci.pae.ihm.manager;
 
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.exceptions.FatalException;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ImageEvent;
+import jakarta.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,6 +15,9 @@ public class ImageImpl implements Image {
 
   private static String[] typesAllowed = {"png", "jpg", "jpeg"};
 
+  @Inject
+  private Configuration configuration;
+
   /**
    * Write image on disk.
    *
@@ -27,10 +33,9 @@ public class ImageImpl implements Image {
       return;
     }
 
+    String imagePath = configuration.getSettings().getImagePath();
     for (String extension : typesAllowed) {
-      String testPath =
-          Config.getProperty("ImagePath") + "img\\" + path + filename + "."
-              + extension;
+      String testPath = imagePath + "img\\" + path + filename + "." + extension;
       File f = new File(testPath);
       if (f.exists()) {
         f.delete();
@@ -39,13 +44,18 @@ public class ImageImpl implements Image {
 
     try {
 
-      String finalPath =
-          Config.getProperty("ImagePath") + getInternalPath(path, filename, fileMime);
+      String finalPath = imagePath + getInternalPath(path, filename, fileMime);
       File f = new File(finalPath);
       if (f.exists()) {
         f.delete();
       }
-      Files.copy(file, Paths.get(finalPath));
+      ImageEvent event = new ImageEvent("write", finalPath);
+      event.begin();
+      try {
+        Files.copy(file, Paths.get(finalPath));
+      } finally {
+        event.commit();
+      }
     } catch (IOException e) {
       e.printStackTrace();
     }
@@ -82,4 +92,22 @@ public class ImageImpl implements Image {
     }
     return authorized;
   }
+
+  /**
+   * Delete an image replaced by another one, nothing is done if it doesn't exist anymore.
+   *
+   * @param imageFile the path of the image on disk.
+   */
+  @Override
+  public void deleteImage(String imageFile) {
+    ImageEvent event = new ImageEvent("delete", imageFile);
+    event.begin();
+    try {
+      Files.deleteIfExists(Paths.get(imageFile));
+    } catch (IOException e) {
+      throw new FatalException(e);
+    } finally {
+      event.commit();
+    }
+  }
 }
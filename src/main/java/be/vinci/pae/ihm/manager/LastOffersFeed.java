@@ -0,0 +1,17 @@
+package be.vinci.pae.ihm.manager;
+
+public interface LastOffersFeed {
+
+  /**
+   * Get the latest offers of the homepage, already serialized with the public view.
+   *
+   * @return the json of the latest offers.
+   */
+  byte[] getJson();
+
+  /**
+   * Reload the latest offers in the background, it is called by the invalidation bus when the
+   * offers change. It never throws.
+   */
+  void refresh();
+}
@@ -0,0 +1,110 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.ucc.OfferUCC;
+import be.vinci.pae.dal.services.InvalidationBus;
+import be.vinci.pae.utils.JsonViews;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keep the json of the homepage offers in memory. The visitors only read the bytes, the database
+ * is queried again by one daemon thread when a write changed the offers.
+ */
+public class LastOffersFeedImpl implements LastOffersFeed {
+
+  @Inject
+  private OfferUCC offerUCC;
+  @Inject
+  private InvalidationBus invalidationBus;
+
+  private final ExecutorService executor;
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+  private volatile byte[] json;
+
+  /**
+   * Start the thread that reloads the offers.
+   */
+  public LastOffersFeedImpl() {
+    executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "last-offers-feed");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Reload the offers when they change on this node or on the others.
+   */
+  @PostConstruct
+  public void subscribe() {
+    invalidationBus.subscribe(tags -> {
+      if (tags.contains("offers") || tags.contains(InvalidationBus.ALL)) {
+        refresh();
+      }
+    });
+  }
+
+  /**
+   * Get the latest offers of the homepage, already serialized with the public view. Only the first
+   * call loads them from the database.
+   *
+   * @return the json of the latest offers, an empty array if there is none.
+   */
+  @Override
+  public byte[] getJson() {
+    byte[] current = json;
+    if (current == null) {
+      current = load();
+    }
+    return current;
+  }
+
+  /**
+   * Reload the latest offers in the background. The refreshes asked during a reload are merged
+   * in one, it never throws.
+   */
+  @Override
+  public void refresh() {
+    if (!refreshPending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(this::reload);
+    } catch (RejectedExecutionException e) {
+      refreshPending.set(false);
+      Logger.getLogger("Log").log(Level.WARNING, "LastOffersFeed refresh rejected");
+    }
+  }
+
+  /**
+   * Reload the offers, the old json is kept if the database can't be reached.
+   */
+  private void reload() {
+    refreshPending.set(false);
+    try {
+      load();
+    } catch (Exception e) {
+      Logger.getLogger("Log").log(Level.WARNING, "LastOffersFeed reload failed", e);
+    }
+  }
+
+  /**
+   * Query the latest offers and serialize them. Synchronized so that a load can't overwrite the
+   * json of a more recent one.
+   *
+   * @return the new json.
+   */
+  private synchronized byte[] load() {
+    byte[] loaded = JsonViews.serializePublicJsonViewAsList(offerUCC.getLastOffers(),
+        OfferDTO.class);
+    json = loaded;
+    return loaded;
+  }
+}
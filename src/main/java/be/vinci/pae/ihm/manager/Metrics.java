@@ -0,0 +1,24 @@
+package be.vinci.pae.ihm.manager;
+
+public interface Metrics {
+
+  /**
+   * Record a finished request.
+   *
+   * @param route               the route of the request, ie "GET /offers/getById/{idOffer}".
+   * @param status              the status of the response.
+   * @param totalNanos          the total duration.
+   * @param databaseNanos       the time spent in transactions.
+   * @param poolWaitNanos       the time spent waiting for a connection.
+   * @param serializationNanos  the time spent writing the response.
+   */
+  void record(String route, int status, long totalNanos, long databaseNanos, long poolWaitNanos,
+      long serializationNanos);
+
+  /**
+   * Write all the metrics in the Prometheus text format.
+   *
+   * @return the text of the metrics.
+   */
+  String scrape();
+}
@@ -0,0 +1,210 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.utils.LatencyHistogram;
+import be.vinci.pae.utils.PasswordExecutor;
+import be.vinci.pae.utils.SingleFlight;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keep a latency histogram of each route. Recording a request on a known route allocates nothing,
+ * the quantiles are only computed when the metrics are scraped.
+ */
+public class MetricsImpl implements Metrics {
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+  @Inject
+  private ResponseCache responseCache;
+  @Inject
+  private PasswordExecutor passwordExecutor;
+  @Inject
+  private RateLimiter rateLimiter;
+  @Inject
+  private SingleFlight singleFlight;
+  @Inject
+  private OutboxWorker outboxWorker;
+  @Inject
+  private NotificationFlusher notificationFlusher;
+
+  /**
+   * Record a finished request.
+   *
+   * @param route               the route of the request, ie "GET /offers/getById/{idOffer}".
+   * @param status              the status of the response.
+   * @param totalNanos          the total duration.
+   * @param databaseNanos       the time spent in transactions.
+   * @param poolWaitNanos       the time spent waiting for a connection.
+   * @param serializationNanos  the time spent writing the response.
+   */
+  @Override
+  public void record(String route, int status, long totalNanos, long databaseNanos,
+      long poolWaitNanos, long serializationNanos) {
+    RouteMetrics routeMetrics = routes.get(route);
+    if (routeMetrics == null) {
+      routeMetrics = routes.computeIfAbsent(route, r -> new RouteMetrics());
+    }
+    routeMetrics.total.record(totalNanos);
+    routeMetrics.database.record(databaseNanos);
+    routeMetrics.poolWait.record(poolWaitNanos);
+    routeMetrics.serialization.record(serializationNanos);
+    if (status >= 500) {
+      routeMetrics.serverErrors.increment();
+    } else if (status >= 400) {
+      routeMetrics.clientErrors.increment();
+    }
+  }
+
+  /**
+   * Write all the metrics in the Prometheus text format.
+   *
+   * @return the text of the metrics.
+   */
+  @Override
+  public String scrape() {
+    Map<String, RouteMetrics> sortedRoutes = new TreeMap<>(routes);
+    StringBuilder text = new StringBuilder();
+    writeSummary(text, sortedRoutes, "donnamis_http_request_duration_seconds",
+        "Duration of the requests.", routeMetrics -> routeMetrics.total);
+    writeSummary(text, sortedRoutes, "donnamis_http_database_duration_seconds",
+        "Time spent in database transactions by request.", routeMetrics -> routeMetrics.database);
+    writeSummary(text, sortedRoutes, "donnamis_http_pool_wait_seconds",
+        "Time spent waiting for a database connection by request.",
+        routeMetrics -> routeMetrics.poolWait);
+    writeSummary(text, sortedRoutes, "donnamis_http_serialization_duration_seconds",
+        "Time spent writing the response body by request.",
+        routeMetrics -> routeMetrics.serialization);
+
+    text.append("# HELP donnamis_http_errors_total Responses with an error status.\n")
+        .append("# TYPE donnamis_http_errors_total counter\n");
+    for (Entry<String, RouteMetrics> route : sortedRoutes.entrySet()) {
+      text.append("donnamis_http_errors_total{route=\"").append(escape(route.getKey()))
+          .append("\",class=\"4xx\"} ").append(route.getValue().clientErrors.sum()).append('\n')
+          .append("donnamis_http_errors_total{route=\"").append(escape(route.getKey()))
+          .append("\",class=\"5xx\"} ").append(route.getValue().serverErrors.sum()).append('\n');
+    }
+
+    Map<String, Map<String, Long>> cacheMetrics = responseCache.getMetrics();
+    text.append("# HELP donnamis_response_cache_requests_total Lookups of the response cache.\n")
+        .append("# TYPE donnamis_response_cache_requests_total counter\n");
+    for (Entry<String, Map<String, Long>> route : cacheMetrics.entrySet()) {
+      text.append("donnamis_response_cache_requests_total{route=\"")
+          .append(escape(route.getKey())).append("\",result=\"hit\"} ")
+          .append(route.getValue().get("hits")).append('\n')
+          .append("donnamis_response_cache_requests_total{route=\"")
+          .append(escape(route.getKey())).append("\",result=\"miss\"} ")
+          .append(route.getValue().get("misses")).append('\n');
+    }
+
+    Map<String, Number> passwordStatistics = passwordExecutor.getStatistics();
+    text.append("# HELP donnamis_password_queued Password checks and hashes waiting for a "
+            + "thread.\n")
+        .append("# TYPE donnamis_password_queued gauge\n")
+        .append("donnamis_password_queued ").append(passwordStatistics.get("queued")).append('\n')
+        .append("# HELP donnamis_password_duration_seconds Average time of a password check or "
+            + "hash.\n")
+        .append("# TYPE donnamis_password_duration_seconds gauge\n")
+        .append("donnamis_password_duration_seconds ")
+        .append(passwordStatistics.get("averageSeconds")).append('\n')
+        .append("# HELP donnamis_password_rejected_total Password checks and hashes refused with a "
+            + "503.\n")
+        .append("# TYPE donnamis_password_rejected_total counter\n")
+        .append("donnamis_password_rejected_total ").append(passwordStatistics.get("rejected"))
+        .append('\n');
+
+    Map<String, Number> rateLimitStatistics = rateLimiter.getStatistics();
+    text.append("# HELP donnamis_rate_limit_buckets Token buckets of the clients in memory.\n")
+        .append("# TYPE donnamis_rate_limit_buckets gauge\n")
+        .append("donnamis_rate_limit_buckets ").append(rateLimitStatistics.get("buckets"))
+        .append('\n')
+        .append("# HELP donnamis_rate_limited_total Requests refused with a 429.\n")
+        .append("# TYPE donnamis_rate_limited_total counter\n")
+        .append("donnamis_rate_limited_total ").append(rateLimitStatistics.get("limited"))
+        .append('\n');
+
+    Map<String, Number> singleFlightStatistics = singleFlight.getStatistics();
+    text.append("# HELP donnamis_coalesced_reads_total Reads that waited for an identical read "
+            + "instead of querying the database.\n")
+        .append("# TYPE donnamis_coalesced_reads_total counter\n")
+        .append("donnamis_coalesced_reads_total ").append(singleFlightStatistics.get("coalesced"))
+        .append('\n');
+
+    Map<String, Number> outboxStatistics = outboxWorker.getStatistics();
+    text.append("# HELP donnamis_outbox_events_total Outbox events run, failed attempts and "
+            + "events given up after OutboxMaxAttempts.\n")
+        .append("# TYPE donnamis_outbox_events_total counter\n");
+    for (Entry<String, Number> result : outboxStatistics.entrySet()) {
+      text.append("donnamis_outbox_events_total{result=\"").append(result.getKey())
+          .append("\"} ").append(result.getValue()).append('\n');
+    }
+
+    Map<String, Number> flusherStatistics = notificationFlusher.getStatistics();
+    text.append("# HELP donnamis_notification_marks_pending Notifications marked as seen and not "
+            + "written yet.\n")
+        .append("# TYPE donnamis_notification_marks_pending gauge\n")
+        .append("donnamis_notification_marks_pending ").append(flusherStatistics.get("pending"))
+        .append('\n')
+        .append("# HELP donnamis_notification_marks_written_total Interests updated by the "
+            + "flushes of the notifications seen.\n")
+        .append("# TYPE donnamis_notification_marks_written_total counter\n")
+        .append("donnamis_notification_marks_written_total ")
+        .append(flusherStatistics.get("written")).append('\n');
+    return text.toString();
+  }
+
+  /**
+   * Write a histogram of each route as a summary.
+   *
+   * @param text      the text to complete.
+   * @param routes    the routes sorted by name.
+   * @param name      the name of the metric.
+   * @param help      the description of the metric.
+   * @param histogram the histogram of the metric in the route metrics.
+   */
+  private void writeSummary(StringBuilder text, Map<String, RouteMetrics> routes, String name,
+      String help, Function<RouteMetrics, LatencyHistogram> histogram) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+        .append("# TYPE ").append(name).append(" summary\n");
+    for (Entry<String, RouteMetrics> route : routes.entrySet()) {
+      LatencyHistogram latencyHistogram = histogram.apply(route.getValue());
+      String label = "route=\"" + escape(route.getKey()) + "\"";
+      for (double quantile : QUANTILES) {
+        text.append(name).append('{').append(label).append(",quantile=\"").append(quantile)
+            .append("\"} ").append(latencyHistogram.getQuantile(quantile) / NANOS_PER_SECOND)
+            .append('\n');
+      }
+      text.append(name).append("_sum{").append(label).append("} ")
+          .append(latencyHistogram.getSum() / NANOS_PER_SECOND).append('\n')
+          .append(name).append("_count{").append(label).append("} ")
+          .append(latencyHistogram.getCount()).append('\n');
+    }
+  }
+
+  /**
+   * Escape a label value.
+   *
+   * @param value the value.
+   * @return the value with its backslashes and quotes escaped.
+   */
+  private String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private static class RouteMetrics {
+
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram database = new LatencyHistogram();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+    private final LatencyHistogram serialization = new LatencyHistogram();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+  }
+}
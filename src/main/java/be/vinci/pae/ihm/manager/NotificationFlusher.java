@@ -0,0 +1,24 @@
+package be.vinci.pae.ihm.manager;
+
+import java.util.Map;
+
+public interface NotificationFlusher {
+
+  /**
+   * Write the notifications marked as seen every NotificationFlushMillis, or at once when
+   * NotificationFlushBatch marks wait. The marks left are written when the JVM stops.
+   */
+  void start();
+
+  /**
+   * Refuse the next marks, stop the thread and write the marks left.
+   */
+  void close();
+
+  /**
+   * Get the number of marks not written yet, of interests updated and of batches written.
+   *
+   * @return the state of the flusher.
+   */
+  Map<String, Number> getStatistics();
+}
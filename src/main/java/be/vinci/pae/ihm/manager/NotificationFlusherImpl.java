@@ -0,0 +1,128 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.ucc.InterestUCC;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.NotificationSeenBuffer;
+import jakarta.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write the notifications marked as seen on one daemon thread : opening the notifications fires a
+ * mark by notification, they are written by batches of one update instead of a transaction each.
+ * A batch that fails stays in the buffer and is tried again at the next flush.
+ */
+public class NotificationFlusherImpl implements NotificationFlusher {
+
+  // the delay of the flushes while the marks are written at once, for the marks left
+  private static final long IDLE_MILLIS = 1000;
+  private static final long CLOSE_WAIT_SECONDS = 5;
+
+  private final ScheduledThreadPoolExecutor executor;
+  private final LongAdder written = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+
+  @Inject
+  private InterestUCC interestUCC;
+  @Inject
+  private NotificationSeenBuffer seenBuffer;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Make the thread of the flushes.
+   */
+  public NotificationFlusherImpl() {
+    executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "notification-flush");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // the shutdown only waits for the running flush, not for the next one
+    executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+  }
+
+  /**
+   * Write the notifications marked as seen every NotificationFlushMillis, or at once when
+   * NotificationFlushBatch marks wait. The marks left are written when the JVM stops.
+   */
+  @Override
+  public void start() {
+    seenBuffer.subscribe(() -> {
+      try {
+        executor.execute(this::flush);
+      } catch (RejectedExecutionException e) {
+        Logger.getLogger("Log").log(Level.WARNING, "NotificationFlusher stopped");
+      }
+    });
+    executor.execute(this::poll);
+    Runtime.getRuntime().addShutdownHook(new Thread(this::close, "notification-flush-close"));
+  }
+
+  /**
+   * Write the marks then schedule the next flush, the delay follows the reloads of the
+   * configuration.
+   */
+  private void poll() {
+    flush();
+    int millis = configuration.getSettings().getNotificationFlushMillis();
+    try {
+      executor.schedule(this::poll, millis > 0 ? millis : IDLE_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "NotificationFlusher stopped");
+    }
+  }
+
+  /**
+   * Write batches until no mark is left, it never throws or the next flushes would be cancelled.
+   */
+  private synchronized void flush() {
+    try {
+      while (seenBuffer.size() > 0) {
+        written.add(interestUCC.flushNotificationsShown());
+        batches.increment();
+      }
+    } catch (RuntimeException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "NotificationFlusher failed", e);
+    }
+  }
+
+  /**
+   * Refuse the next marks, stop the thread and write the marks left.
+   */
+  @Override
+  public void close() {
+    seenBuffer.close();
+    executor.shutdown();
+    try {
+      executor.awaitTermination(CLOSE_WAIT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    if (seenBuffer.size() > 0) {
+      Logger.getLogger("Log").log(Level.SEVERE,
+          "NotificationFlusher lost " + seenBuffer.size() + " marks");
+    }
+  }
+
+  /**
+   * Get the number of marks not written yet, of interests updated and of batches written.
+   *
+   * @return the state of the flusher.
+   */
+  @Override
+  public Map<String, Number> getStatistics() {
+    Map<String, Number> statistics = new LinkedHashMap<>();
+    statistics.put("pending", seenBuffer.size());
+    statistics.put("written", written.sum());
+    statistics.put("batches", batches.sum());
+    return statistics;
+  }
+}
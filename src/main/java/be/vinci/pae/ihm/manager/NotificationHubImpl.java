@@ -0,0 +1,183 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
+import be.vinci.pae.utils.NotificationHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+/**
+ * Keep the open SSE connections by member. The connections are held by Grizzly without any
+ * thread, only one daemon thread is used to push the events and the heartbeats. The events are
+ * built by Jersey, they don't depend on the context of a connection.
+ */
+public class NotificationHubImpl implements NotificationHub {
+
+  private static final long HEARTBEAT_SECONDS = 30;
+  private static final ObjectMapper jsonMapper = new ObjectMapper();
+
+  private final Map<Integer, Set<SseEventSink>> subscribers = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Start the thread that pushes the events and the heartbeats.
+   */
+  public NotificationHubImpl() {
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "notification-hub");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS,
+        TimeUnit.SECONDS);
+  }
+
+  /**
+   * Register an SSE connection of a member, it will receive the notifications of this member.
+   *
+   * @param idMember  the member that is listening.
+   * @param eventSink the open SSE connection.
+   */
+  @Override
+  public void subscribe(int idMember, SseEventSink eventSink) {
+    subscribers.computeIfAbsent(idMember, id -> ConcurrentHashMap.newKeySet()).add(eventSink);
+  }
+
+  /**
+   * Push a notification to the open connections of its recipient : the offeror for a published or
+   * prevented interest (the object must be set), the interested member otherwise. Must be called
+   * after the commit of the transaction that set the notification, it never throws.
+   *
+   * @param interestDTO the interest that has been notified.
+   */
+  @Override
+  public void publish(InterestDTO interestDTO) {
+    Integer idRecipient = getRecipient(interestDTO);
+    if (idRecipient == null || !subscribers.containsKey(idRecipient)) {
+      return;
+    }
+    String data = jsonMapper.createObjectNode()
+        .put("idObject", interestDTO.getIdObject())
+        .put("idMember", interestDTO.getIdMember())
+        .put("status", interestDTO.getStatus().getValue())
+        .toString();
+    try {
+      executor.execute(() -> send(idRecipient, data));
+    } catch (RejectedExecutionException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "NotificationHub publish rejected");
+    }
+  }
+
+  /**
+   * Get the number of open SSE connections.
+   *
+   * @return the number of subscribers.
+   */
+  @Override
+  public int getSubscriberCount() {
+    return subscribers.values().stream().mapToInt(Set::size).sum();
+  }
+
+  /**
+   * Find the member that sees the notification of an interest, same rule as the notification
+   * queries of the InterestDAO.
+   *
+   * @param interestDTO the notified interest.
+   * @return the id of the recipient or null if it can't be found.
+   */
+  private Integer getRecipient(InterestDTO interestDTO) {
+    if (interestDTO == null || interestDTO.getStatus() == null) {
+      return null;
+    }
+    if (interestDTO.getStatus() == InterestStatus.PUBLISHED
+        || interestDTO.getStatus() == InterestStatus.PREVENTED) {
+      return interestDTO.getObject() == null ? null : interestDTO.getObject().getIdOfferor();
+    }
+    return interestDTO.getIdMember();
+  }
+
+  /**
+   * Send a notification event to all the connections of a member.
+   *
+   * @param idMember the member to notify.
+   * @param data     the json of the event.
+   */
+  private void send(int idMember, String data) {
+    Set<SseEventSink> eventSinks = subscribers.get(idMember);
+    if (eventSinks == null) {
+      return;
+    }
+    OutboundSseEvent event = new OutboundEvent.Builder()
+        .name("notification")
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(String.class, data)
+        .build();
+    for (SseEventSink eventSink : eventSinks) {
+      sendTo(idMember, eventSink, event);
+    }
+  }
+
+  /**
+   * Send a comment to every connection, it keeps the proxies from closing them and detects the
+   * clients that are gone.
+   */
+  private void heartbeat() {
+    OutboundSseEvent ping = new OutboundEvent.Builder().comment("ping").build();
+    subscribers.forEach((idMember, eventSinks) -> {
+      for (SseEventSink eventSink : eventSinks) {
+        sendTo(idMember, eventSink, ping);
+      }
+    });
+  }
+
+  /**
+   * Send an event to one connection and forget it if the client is gone.
+   *
+   * @param idMember  the member of the connection.
+   * @param eventSink the connection.
+   * @param event     the event to send.
+   */
+  private void sendTo(int idMember, SseEventSink eventSink, OutboundSseEvent event) {
+    if (eventSink.isClosed()) {
+      unsubscribe(idMember, eventSink);
+      return;
+    }
+    try {
+      eventSink.send(event).whenComplete((result, throwable) -> {
+        if (throwable != null) {
+          unsubscribe(idMember, eventSink);
+        }
+      });
+    } catch (IllegalStateException e) {
+      unsubscribe(idMember, eventSink);
+    }
+  }
+
+  /**
+   * Remove a connection of a member.
+   *
+   * @param idMember  the member of the connection.
+   * @param eventSink the connection to remove.
+   */
+  private void unsubscribe(int idMember, SseEventSink eventSink) {
+    subscribers.computeIfPresent(idMember, (id, eventSinks) -> {
+      eventSinks.remove(eventSink);
+      return eventSinks.isEmpty() ? null : eventSinks;
+    });
+    try {
+      eventSink.close();
+    } catch (Exception ignored) { /* the connection is already gone */ }
+  }
+}
@@ -0,0 +1,10 @@
+package be.vinci.pae.ihm.manager;
+
+public interface OfferArchiver {
+
+  /**
+   * Schedule the archival of the finished offers every ArchiveIntervalMinutes, the interval
+   * follows the reloads of the configuration and 0 disables the archival.
+   */
+  void start();
+}
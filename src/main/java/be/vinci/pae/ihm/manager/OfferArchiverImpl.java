@@ -0,0 +1,82 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.ucc.OfferUCC;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import jakarta.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Move the finished offers to the archive partitions on one daemon thread, so that the listings
+ * only scan the active offers. An archival that fails is tried again at the next interval.
+ */
+public class OfferArchiverImpl implements OfferArchiver {
+
+  private final ScheduledExecutorService executor;
+  private ScheduledFuture<?> task;
+  private int intervalMinutes;
+
+  @Inject
+  private OfferUCC offerUCC;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Make the thread of the archival.
+   */
+  public OfferArchiverImpl() {
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "offer-archiver");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Schedule the archival of the finished offers every ArchiveIntervalMinutes, the interval
+   * follows the reloads of the configuration and 0 disables the archival.
+   */
+  @Override
+  public void start() {
+    schedule(configuration.getSettings());
+    configuration.subscribe(this::schedule);
+  }
+
+  /**
+   * Schedule the archival again if its interval has changed, the first one runs at once.
+   *
+   * @param settings the settings of the reload.
+   */
+  private synchronized void schedule(Settings settings) {
+    int minutes = settings.getArchiveIntervalMinutes();
+    if (task != null && minutes == intervalMinutes) {
+      return;
+    }
+    if (task != null) {
+      task.cancel(false);
+      task = null;
+    }
+    intervalMinutes = minutes;
+    if (minutes > 0) {
+      task = executor.scheduleWithFixedDelay(this::archive, 0, minutes, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * Archive the finished offers, it never throws or the next runs would be cancelled.
+   */
+  private void archive() {
+    try {
+      Map<String, Integer> archived = offerUCC.archiveOffers();
+      Logger.getLogger("Log").log(Level.INFO, "OfferArchiver archived " + archived);
+    } catch (RuntimeException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "OfferArchiver failed", e);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package be.vinci.pae.ihm.manager;
+
+import java.util.Map;
+
+public interface OutboxWorker {
+
+  /**
+   * Start the OutboxThreads workers, each of them claims a batch of events every
+   * OutboxPollMillis, or at once after a full batch.
+   */
+  void start();
+
+  /**
+   * Get the number of events run, of failed attempts and of events given up.
+   *
+   * @return the counters of the workers.
+   */
+  Map<String, Number> getStatistics();
+}
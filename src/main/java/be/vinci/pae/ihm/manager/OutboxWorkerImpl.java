@@ -0,0 +1,128 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.business.ucc.OutboxUCC;
+import be.vinci.pae.utils.Configuration;
+import jakarta.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Run the events of the outbox after the commit of their transaction, out of the requests. The
+ * events are claimed with SKIP LOCKED, the workers of several nodes share them without running
+ * one twice while its lease lasts.
+ */
+public class OutboxWorkerImpl implements OutboxWorker {
+
+  private final Map<String, Consumer<String>> handlers = new LinkedHashMap<>();
+  private final LongAdder done = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder dead = new LongAdder();
+  private ScheduledExecutorService executor;
+
+  @Inject
+  private OutboxUCC outboxUCC;
+  @Inject
+  private Image image;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Start the OutboxThreads workers, each of them claims a batch of events every
+   * OutboxPollMillis, or at once after a full batch.
+   */
+  @Override
+  public void start() {
+    handlers.put(OutboxEventDTO.DELETE_IMAGE, storedImage -> image.deleteImage(
+        configuration.getSettings().getImagePath() + storedImage));
+    int threads = configuration.getSettings().getOutboxThreads();
+    AtomicInteger count = new AtomicInteger();
+    executor = Executors.newScheduledThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "outbox-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int i = 0; i < threads; i++) {
+      executor.execute(this::poll);
+    }
+  }
+
+  /**
+   * Run a batch of events then schedule the next one, the delay follows the reloads of the
+   * configuration.
+   */
+  private void poll() {
+    boolean fullBatch = false;
+    try {
+      List<OutboxEventDTO> events = outboxUCC.claimEvents();
+      fullBatch = events.size() >= configuration.getSettings().getOutboxBatchSize();
+      for (OutboxEventDTO event : events) {
+        run(event);
+      }
+    } catch (RuntimeException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "OutboxWorker claim failed", e);
+    }
+    try {
+      executor.schedule(this::poll,
+          fullBatch ? 0 : configuration.getSettings().getOutboxPollMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      Logger.getLogger("Log").log(Level.WARNING, "OutboxWorker stopped");
+    }
+  }
+
+  /**
+   * Run an event and remove it, or record the failed attempt. An event that isn't completed is
+   * claimed again at the end of its lease.
+   *
+   * @param event the claimed event.
+   */
+  private void run(OutboxEventDTO event) {
+    try {
+      Consumer<String> handler = handlers.get(event.getKind());
+      if (handler == null) {
+        throw new IllegalStateException("Unknown outbox event " + event.getKind());
+      }
+      handler.accept(event.getPayload());
+      outboxUCC.completeEvent(event.getIdEvent());
+      done.increment();
+    } catch (RuntimeException e) {
+      failed.increment();
+      try {
+        if (outboxUCC.failEvent(event, e.toString())) {
+          dead.increment();
+          Logger.getLogger("Log").log(Level.SEVERE, "OutboxWorker gave up event "
+              + event.getIdEvent() + " " + event.getKind(), e);
+        } else {
+          Logger.getLogger("Log").log(Level.WARNING, "OutboxWorker event "
+              + event.getIdEvent() + " " + event.getKind() + " failed", e);
+        }
+      } catch (RuntimeException retryError) {
+        Logger.getLogger("Log").log(Level.WARNING, "OutboxWorker retry failed", retryError);
+      }
+    }
+  }
+
+  /**
+   * Get the number of events run, of failed attempts and of events given up.
+   *
+   * @return the counters of the workers.
+   */
+  @Override
+  public Map<String, Number> getStatistics() {
+    Map<String, Number> statistics = new LinkedHashMap<>();
+    statistics.put("done", done.sum());
+    statistics.put("failed", failed.sum());
+    statistics.put("dead", dead.sum());
+    return statistics;
+  }
+}
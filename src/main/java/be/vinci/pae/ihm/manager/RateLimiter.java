@@ -0,0 +1,23 @@
+package be.vinci.pae.ihm.manager;
+
+import java.util.Map;
+
+public interface RateLimiter {
+
+  /**
+   * Take a token from the bucket of a client on a route, the budget of the route comes from the
+   * RateLimit and RateLimitRoutes settings.
+   *
+   * @param route  the route of the request.
+   * @param client the member or the address that sent the request.
+   * @return 0 if the request is allowed, else the nanoseconds before the client gets a token.
+   */
+  long acquire(String route, String client);
+
+  /**
+   * Get the number of buckets in memory and the number of limited requests.
+   *
+   * @return the state of the rate limiter.
+   */
+  Map<String, Number> getStatistics();
+}
@@ -0,0 +1,107 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.RateBudget;
+import jakarta.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets by client and route, without any lock. A bucket is a single AtomicLong holding the
+ * time at which it will be full again (the generic cell rate algorithm) : taking a token is one
+ * compare-and-set. The buckets are spread over stripes, each stripe drops its full buckets every
+ * SWEEP_PERIOD requests since a full bucket is the same as a missing one.
+ */
+public class RateLimiterImpl implements RateLimiter {
+
+  private static final int STRIPES = 16;
+  private static final int SWEEP_PERIOD = 4096;
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+  private final LongAdder limited = new LongAdder();
+
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Make the empty stripes.
+   */
+  public RateLimiterImpl() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Take a token from the bucket of a client on a route, the budget of the route comes from the
+   * RateLimit and RateLimitRoutes settings.
+   *
+   * @param route  the route of the request.
+   * @param client the member or the address that sent the request.
+   * @return 0 if the request is allowed, else the nanoseconds before the client gets a token.
+   */
+  @Override
+  public long acquire(String route, String client) {
+    RateBudget budget = configuration.getSettings().getRateLimit(route);
+    if (budget.isUnlimited()) {
+      return 0;
+    }
+    String key = route + ' ' + client;
+    int hash = key.hashCode();
+    Stripe stripe = stripes[(hash ^ hash >>> 16) & (STRIPES - 1)];
+    long now = System.nanoTime();
+    if (stripe.requests.incrementAndGet() % SWEEP_PERIOD == 0) {
+      stripe.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+    AtomicLong bucket = stripe.buckets.get(key);
+    if (bucket == null) {
+      AtomicLong newBucket = new AtomicLong(now);
+      bucket = stripe.buckets.putIfAbsent(key, newBucket);
+      if (bucket == null) {
+        bucket = newBucket;
+      }
+    }
+    long interval = (long) (NANOS_PER_SECOND / budget.getPerSecond());
+    long tolerance = interval * budget.getBurst();
+    while (true) {
+      long fullAt = bucket.get();
+      long newFullAt = Math.max(fullAt - now, 0) + now + interval;
+      long waitNanos = newFullAt - now - tolerance;
+      if (waitNanos > 0) {
+        limited.increment();
+        return waitNanos;
+      }
+      if (bucket.compareAndSet(fullAt, newFullAt)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Get the number of buckets in memory and the number of limited requests.
+   *
+   * @return the state of the rate limiter.
+   */
+  @Override
+  public Map<String, Number> getStatistics() {
+    long buckets = 0;
+    for (Stripe stripe : stripes) {
+      buckets += stripe.buckets.size();
+    }
+    Map<String, Number> statistics = new LinkedHashMap<>();
+    statistics.put("buckets", buckets);
+    statistics.put("limited", limited.sum());
+    return statistics;
+  }
+
+  private static class Stripe {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+  }
+}
@@ -0,0 +1,56 @@
+package be.vinci.pae.ihm.manager;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+import java.util.Map;
+
+public interface ResponseCache {
+
+  String CACHE_HEADER = "X-Cache";
+
+  /**
+   * Get the cached response of a request and count a hit or a miss for its endpoint.
+   *
+   * @param endpoint the endpoint of the request.
+   * @param key      the key of the request.
+   * @return the cached response or null if there is none.
+   */
+  Response get(String endpoint, String key);
+
+  /**
+   * Get the number of invalidations done, a response computed before an invalidation isn't kept.
+   *
+   * @return the current version of the cache.
+   */
+  long getVersion();
+
+  /**
+   * Keep the body of a response.
+   *
+   * @param endpoint  the endpoint of the request.
+   * @param key       the key of the request.
+   * @param body      the serialized body.
+   * @param mediaType the media type of the body.
+   * @param ttl       the number of seconds the response stays in the cache.
+   * @param tags      the tags used to invalidate the response.
+   * @param version   the version of the cache when the request started.
+   */
+  void put(String endpoint, String key, byte[] body, MediaType mediaType, int ttl,
+      List<String> tags, long version);
+
+  /**
+   * Remove all the responses with a tag, or all the responses for the tag
+   * {@link be.vinci.pae.dal.services.InvalidationBus#ALL}. It never throws.
+   *
+   * @param tag the tag of the responses to remove.
+   */
+  void invalidate(String tag);
+
+  /**
+   * Get the hits, the misses and the number of responses kept by endpoint.
+   *
+   * @return the metrics of each endpoint.
+   */
+  Map<String, Map<String, Long>> getMetrics();
+}
@@ -0,0 +1,219 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.dal.services.InvalidationBus;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keep the serialized responses in memory, the least recently used ones are removed when the
+ * bodies exceed the memory budget.
+ */
+public class ResponseCacheImpl implements ResponseCache {
+
+  private static final int MAX_ENTRY_BYTES = 256 * 1024;
+
+  // access order, the first entry is the least recently used
+  private final LinkedHashMap<String, CachedResponse> responses =
+      new LinkedHashMap<>(64, 0.75f, true);
+  private final Map<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+  private final AtomicLong version = new AtomicLong();
+  private long totalBytes;
+
+  @Inject
+  private InvalidationBus invalidationBus;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Evict the responses of the tags changed on this node or on the others.
+   */
+  @PostConstruct
+  public void subscribe() {
+    invalidationBus.subscribe(tags -> tags.forEach(this::invalidate));
+  }
+
+  /**
+   * Get the cached response of a request and count a hit or a miss for its endpoint.
+   *
+   * @param endpoint the endpoint of the request.
+   * @param key      the key of the request.
+   * @return the cached response or null if there is none.
+   */
+  @Override
+  public Response get(String endpoint, String key) {
+    CachedResponse cachedResponse;
+    synchronized (responses) {
+      cachedResponse = responses.get(key);
+      if (cachedResponse != null && cachedResponse.expiresAt - System.nanoTime() < 0) {
+        remove(key);
+        cachedResponse = null;
+      }
+    }
+    EndpointMetrics endpointMetrics = getEndpointMetrics(endpoint);
+    if (cachedResponse == null) {
+      endpointMetrics.misses.increment();
+      return null;
+    }
+    endpointMetrics.hits.increment();
+    return Response.ok(cachedResponse.body, cachedResponse.mediaType)
+        .header(CACHE_HEADER, "HIT")
+        .build();
+  }
+
+  /**
+   * Get the number of invalidations done, a response computed before an invalidation isn't kept.
+   *
+   * @return the current version of the cache.
+   */
+  @Override
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Keep the body of a response, unless it's too big or an invalidation happened since the request
+   * started. The time to live is capped by the CacheMaxTtlSeconds setting, and the memory budget
+   * is the CacheMaxBytes one.
+   *
+   * @param endpoint  the endpoint of the request.
+   * @param key       the key of the request.
+   * @param body      the serialized body.
+   * @param mediaType the media type of the body.
+   * @param ttl       the number of seconds the response stays in the cache.
+   * @param tags      the tags used to invalidate the response.
+   * @param version   the version of the cache when the request started.
+   */
+  @Override
+  public void put(String endpoint, String key, byte[] body, MediaType mediaType, int ttl,
+      List<String> tags, long version) {
+    Settings settings = configuration.getSettings();
+    ttl = Math.min(ttl, settings.getCacheMaxTtlSeconds());
+    if (body.length > MAX_ENTRY_BYTES || ttl <= 0) {
+      return;
+    }
+    CachedResponse cachedResponse = new CachedResponse(endpoint, body, mediaType,
+        System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl), tags);
+    synchronized (responses) {
+      if (this.version.get() != version) {
+        return;
+      }
+      remove(key);
+      responses.put(key, cachedResponse);
+      totalBytes += body.length;
+      getEndpointMetrics(endpoint).entries.increment();
+      Iterator<CachedResponse> leastRecentlyUsed = responses.values().iterator();
+      while (totalBytes > settings.getCacheMaxBytes() && leastRecentlyUsed.hasNext()) {
+        CachedResponse oldResponse = leastRecentlyUsed.next();
+        leastRecentlyUsed.remove();
+        forget(oldResponse);
+      }
+    }
+  }
+
+  /**
+   * Remove all the responses with a tag, or all the responses for the tag
+   * {@link InvalidationBus#ALL}. It never throws.
+   *
+   * @param tag the tag of the responses to remove.
+   */
+  @Override
+  public void invalidate(String tag) {
+    synchronized (responses) {
+      version.incrementAndGet();
+      Iterator<CachedResponse> iterator = responses.values().iterator();
+      while (iterator.hasNext()) {
+        CachedResponse cachedResponse = iterator.next();
+        if (tag.equals(InvalidationBus.ALL) || cachedResponse.tags.contains(tag)) {
+          iterator.remove();
+          forget(cachedResponse);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the hits, the misses and the number of responses kept by endpoint.
+   *
+   * @return the metrics of each endpoint.
+   */
+  @Override
+  public Map<String, Map<String, Long>> getMetrics() {
+    Map<String, Map<String, Long>> allMetrics = new TreeMap<>();
+    metrics.forEach((endpoint, endpointMetrics) -> allMetrics.put(endpoint, Map.of(
+        "hits", endpointMetrics.hits.sum(),
+        "misses", endpointMetrics.misses.sum(),
+        "entries", endpointMetrics.entries.sum()
+    )));
+    return allMetrics;
+  }
+
+  /**
+   * Remove the response of a key, the lock of the responses must be held.
+   *
+   * @param key the key of the response.
+   */
+  private void remove(String key) {
+    forget(responses.remove(key));
+  }
+
+  /**
+   * Update the memory and the metrics after the removal of a response.
+   *
+   * @param cachedResponse the removed response, can be null.
+   */
+  private void forget(CachedResponse cachedResponse) {
+    if (cachedResponse == null) {
+      return;
+    }
+    totalBytes -= cachedResponse.body.length;
+    getEndpointMetrics(cachedResponse.endpoint).entries.decrement();
+  }
+
+  /**
+   * Get the metrics of an endpoint, they are created at the first request.
+   *
+   * @param endpoint the endpoint.
+   * @return the metrics of the endpoint.
+   */
+  private EndpointMetrics getEndpointMetrics(String endpoint) {
+    return metrics.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+  }
+
+  private static class CachedResponse {
+
+    private final String endpoint;
+    private final byte[] body;
+    private final MediaType mediaType;
+    private final long expiresAt;
+    private final List<String> tags;
+
+    CachedResponse(String endpoint, byte[] body, MediaType mediaType, long expiresAt,
+        List<String> tags) {
+      this.endpoint = endpoint;
+      this.body = body;
+      this.mediaType = mediaType;
+      this.expiresAt = expiresAt;
+      this.tags = tags;
+    }
+  }
+
+  private static class EndpointMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder entries = new LongAdder();
+  }
+}
@@ -27,4 +27,20 @@ public interface Token {
    * @return the member bound to the given token or null
    */
   MemberDTO verifyToken(String token);
+
+  /**
+   * Make a ticket that only opens the notification stream of a member, for a short time.
+   *
+   * @param memberDTO the member that opens the stream.
+   * @return a ticket.
+   */
+  String withStreamTicket(MemberDTO memberDTO);
+
+  /**
+   * Verify a ticket of the notification stream.
+   *
+   * @param ticket the ticket given.
+   * @return the member bound to the ticket or null
+   */
+  MemberDTO verifyStreamTicket(String ticket);
 }
@@ -3,11 +3,12 @@ package be.vinci.pae.ihm.manager;
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.ucc.MemberUCC;
 import be.vinci.pae.exceptions.TokenDecodingException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.Configuration;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -15,12 +16,25 @@ import java.util.Date;
 
 public class TokenImpl implements Token {
 
-  private final Algorithm jwtAlgorithm = Algorithm.HMAC256(Config.getProperty("JWTSecret"));
-  private final JWTVerifier jwtVerifier = JWT.require(this.jwtAlgorithm).withIssuer("auth0")
-      .build();
+  // the ticket is given in the url of the stream, it ends in the logs : it must expire soon
+  private static final long STREAM_TICKET_SECONDS = 30;
+
+  private Algorithm jwtAlgorithm;
+  private JWTVerifier jwtVerifier;
 
   @Inject
   private MemberUCC memberUCC;
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Make the algorithm and the verifier of the tokens with the secret of the configuration.
+   */
+  @PostConstruct
+  public void init() {
+    jwtAlgorithm = Algorithm.HMAC256(configuration.getSettings().getJwtSecret());
+    jwtVerifier = JWT.require(jwtAlgorithm).withIssuer("auth0").build();
+  }
 
   /**
    * Make a token with an expiration date.
@@ -85,4 +99,42 @@ public class TokenImpl implements Token {
     }
     return null;
   }
+
+  /**
+   * Make a ticket that only opens the notification stream of a member, for a short time. It has no
+   * "user" claim, it isn't accepted as a token.
+   *
+   * @param memberDTO the member that opens the stream.
+   * @return a ticket.
+   */
+  @Override
+  public String withStreamTicket(MemberDTO memberDTO) {
+    try {
+      return JWT.create().withIssuer("auth0")
+          .withClaim("stream", memberDTO.getMemberId())
+          .withExpiresAt(Date.from(Instant.now().plusSeconds(STREAM_TICKET_SECONDS)))
+          .sign(this.jwtAlgorithm);
+    } catch (Exception e) {
+      throw new TokenDecodingException("Impossibilité de créer un ticket");
+    }
+  }
+
+  /**
+   * Verify a ticket of the notification stream.
+   *
+   * @param ticket the ticket given.
+   * @return the member bound to the ticket or null
+   */
+  @Override
+  public MemberDTO verifyStreamTicket(String ticket) {
+    if (ticket != null) {
+      try {
+        DecodedJWT decodedTicket = this.jwtVerifier.verify(ticket);
+        return memberUCC.getMember(decodedTicket.getClaim("stream").asInt());
+      } catch (Exception e) {
+        throw new TokenDecodingException(e);
+      }
+    }
+    return null;
+  }
 }
@@ -0,0 +1,19 @@
+package be.vinci.pae.ihm.manager;
+
+public interface Warmup {
+
+  /**
+   * Fill the connection pool, run the hot queries and serialize their results so that the first
+   * requests don't pay for it. It never throws, a failed warm-up can be run again.
+   *
+   * @return true if the application is warmed up.
+   */
+  boolean warmUp();
+
+  /**
+   * Tell if a warm-up has succeeded.
+   *
+   * @return true if the application is ready to serve requests.
+   */
+  boolean isReady();
+}
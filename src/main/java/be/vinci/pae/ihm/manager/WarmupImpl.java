@@ -0,0 +1,121 @@
+package be.vinci.pae.ihm.manager;
+
+import be.vinci.pae.business.domain.Member;
+import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.TypeDTO;
+import be.vinci.pae.business.factories.MemberFactory;
+import be.vinci.pae.business.ucc.OfferUCC;
+import be.vinci.pae.business.ucc.TypeUCC;
+import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.JsonViews;
+import be.vinci.pae.utils.PasswordExecutor;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+
+/**
+ * Warm the application up before the port opens : the connections of the pool, the statements
+ * of the homepage and the Jackson serializers of the responses.
+ */
+public class WarmupImpl implements Warmup {
+
+  private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+  @Inject
+  private DALService dalService;
+  @Inject
+  private OfferUCC offerUCC;
+  @Inject
+  private TypeUCC typeUCC;
+  @Inject
+  private LastOffersFeed lastOffersFeed;
+  @Inject
+  private MessageBodyWorkers workers;
+  @Inject
+  private Configuration configuration;
+  @Inject
+  private MemberFactory memberFactory;
+  @Inject
+  private PasswordExecutor passwordExecutor;
+
+  private volatile boolean ready;
+
+  /**
+   * Fill the connection pool, run the hot queries, serialize their results and run bcrypt so that
+   * the first requests don't pay for it. It never throws, a failed warm-up can be run again.
+   *
+   * @return true if the application is warmed up.
+   */
+  @Override
+  public synchronized boolean warmUp() {
+    if (ready) {
+      return true;
+    }
+    long start = System.nanoTime();
+    try {
+      dalService.fillPool();
+      List<OfferDTO> offers = List.of();
+      List<TypeDTO> types = List.of();
+      for (int i = configuration.getSettings().getWarmupRounds(); i > 0; i--) {
+        offers = JsonViews.filterPublicJsonViewAsList(offerUCC.getOffers("", 0, "", null, ""),
+            OfferDTO.class);
+        types = typeUCC.getAllDefaultTypes();
+      }
+      lastOffersFeed.getJson();
+      // compiles bcrypt and measures its time before the first logins are admitted
+      Member member = (Member) memberFactory.getMemberDTO();
+      int passwordCost = configuration.getSettings().getPasswordCost();
+      member.setPassword(
+          passwordExecutor.execute(() -> member.hashPassword("warm-up", passwordCost)));
+      for (int i = configuration.getSettings().getWarmupRounds(); i > 0; i--) {
+        passwordExecutor.execute(() -> member.checkPassword("warm-up"));
+      }
+      write(offers, new GenericType<List<OfferDTO>>() {
+      });
+      write(types, new GenericType<List<TypeDTO>>() {
+      });
+      ready = true;
+      Logger.getLogger("Log").log(Level.INFO,
+          "Warm-up done in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    } catch (Exception e) {
+      Logger.getLogger("Log").log(Level.WARNING, "Warm-up failed : " + e.getMessage());
+    }
+    return ready;
+  }
+
+  /**
+   * Tell if a warm-up has succeeded.
+   *
+   * @return true if the application is ready to serve requests.
+   */
+  @Override
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Serialize an entity with the json writer of the responses and discard the bytes.
+   *
+   * @param entity the entity to serialize.
+   * @param type   the type of the entity.
+   * @throws IOException if the entity can't be serialized.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void write(Object entity, GenericType<?> type) throws IOException {
+    MessageBodyWriter writer = workers.getMessageBodyWriter(type.getRawType(), type.getType(),
+        NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE);
+    writer.writeTo(entity, type.getRawType(), type.getType(), NO_ANNOTATIONS,
+        MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(),
+        OutputStream.nullOutputStream());
+  }
+}
@@ -1,16 +1,49 @@
 package be.vinci.pae.main;
 
+import be.vinci.pae.ihm.AdmissionResource;
+import be.vinci.pae.ihm.AuthResource;
+import be.vinci.pae.ihm.CacheResource;
+import be.vinci.pae.ihm.ConfigurationResource;
+import be.vinci.pae.ihm.DatabaseResource;
+import be.vinci.pae.ihm.HealthResource;
+import be.vinci.pae.ihm.ImageResource;
+import be.vinci.pae.ihm.InterestResource;
+import be.vinci.pae.ihm.MemberResource;
+import be.vinci.pae.ihm.MetricsResource;
+import be.vinci.pae.ihm.ObjectResource;
+import be.vinci.pae.ihm.OfferResource;
+import be.vinci.pae.ihm.RatingResource;
+import be.vinci.pae.ihm.RecordingResource;
+import be.vinci.pae.ihm.TypeResource;
+import be.vinci.pae.ihm.filters.AdminRequestFilter;
+import be.vinci.pae.ihm.filters.AdmissionFilter;
+import be.vinci.pae.ihm.filters.AuthorizationRequestFilter;
+import be.vinci.pae.ihm.filters.CancellationListener;
+import be.vinci.pae.ihm.filters.ClientDisconnectAddOn;
+import be.vinci.pae.ihm.filters.MetricsListener;
+import be.vinci.pae.ihm.filters.RateLimitFilter;
+import be.vinci.pae.ihm.filters.RequestLogListener;
+import be.vinci.pae.ihm.filters.ResponseCacheFilter;
+import be.vinci.pae.ihm.manager.ImageGc;
+import be.vinci.pae.ihm.manager.NotificationFlusher;
+import be.vinci.pae.ihm.manager.OfferArchiver;
+import be.vinci.pae.ihm.manager.OutboxWorker;
+import be.vinci.pae.ihm.manager.Warmup;
 import be.vinci.pae.utils.ApplicationBinder;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
 import be.vinci.pae.utils.Log;
 import be.vinci.pae.utils.WebExceptionMapper;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpContainer;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.glassfish.jersey.server.ContainerFactory;
 import org.glassfish.jersey.server.ResourceConfig;
 
 /**
@@ -19,48 +52,101 @@ import org.glassfish.jersey.server.ResourceConfig;
 public class Main {
 
   /**
-   * Starts Grizzly HTTP server exposing JAX-RS resources defined in this application.
+   * Starts Grizzly HTTP server exposing JAX-RS resources defined in this application. The
+   * application is warmed up before the port opens.
    *
+   * @param configuration the configuration of the server.
    * @return Grizzly HTTP server.
+   * @throws IOException if the port can't be opened.
    */
-  public static HttpServer startServer() {
-    // create a resource config that scans for JAX-RS resources and providers
-    // in vinci.be package
-    final ResourceConfig rc = new ResourceConfig().packages("be.vinci.pae.ihm")
+  public static HttpServer startServer(Configuration configuration) throws IOException {
+    // the resources and providers are registered one by one : scanning the classpath of the
+    // package slows the startup down
+    final ResourceConfig rc = new ResourceConfig()
+        .register(AdmissionResource.class)
+        .register(AuthResource.class)
+        .register(CacheResource.class)
+        .register(ConfigurationResource.class)
+        .register(DatabaseResource.class)
+        .register(HealthResource.class)
+        .register(ImageResource.class)
+        .register(InterestResource.class)
+        .register(MemberResource.class)
+        .register(MetricsResource.class)
+        .register(ObjectResource.class)
+        .register(OfferResource.class)
+        .register(RatingResource.class)
+        .register(RecordingResource.class)
+        .register(TypeResource.class)
+        .register(AdmissionFilter.class)
+        .register(AdminRequestFilter.class)
+        .register(AuthorizationRequestFilter.class)
+        .register(CancellationListener.class)
+        .register(MetricsListener.class)
+        .register(RateLimitFilter.class)
+        .register(RequestLogListener.class)
+        .register(ResponseCacheFilter.class)
         .register(JacksonFeature.class)
-        .register(ApplicationBinder.class)
+        .register(new ApplicationBinder(configuration))
         .register(WebExceptionMapper.class)
         .register(MultiPartFeature.class);
 
-    // create and start a new instance of grizzly http server
-    // exposing the Jersey application at BASE_URI
-    return GrizzlyHttpServerFactory.createHttpServer(URI.create(Config.getProperty("BaseUri")), rc);
+    // create the jersey application, warm it up then start the grizzly http server
+    // exposing it at BASE_URI
+    GrizzlyHttpContainer container = ContainerFactory.createContainer(GrizzlyHttpContainer.class,
+        rc);
+    container.getApplicationHandler().getInjectionManager().getInstance(Warmup.class).warmUp();
+    container.getApplicationHandler().getInjectionManager().getInstance(OfferArchiver.class)
+        .start();
+    container.getApplicationHandler().getInjectionManager().getInstance(OutboxWorker.class)
+        .start();
+    container.getApplicationHandler().getInjectionManager().getInstance(ImageGc.class).start();
+    container.getApplicationHandler().getInjectionManager()
+        .getInstance(NotificationFlusher.class).start();
+    HttpServer server = GrizzlyHttpServerFactory.createHttpServer(
+        URI.create(configuration.getSettings().getBaseUri()), container, false, null, false);
+    // a fixed number of workers, the admission control keeps some of them free to answer 503
+    int workerThreads = configuration.getSettings().getWorkerThreads();
+    for (NetworkListener listener : server.getListeners()) {
+      listener.getTransport().getWorkerThreadPoolConfig()
+          .setCorePoolSize(workerThreads)
+          .setMaxPoolSize(workerThreads);
+      // the statements of a client that disconnects are cancelled
+      listener.registerAddOn(new ClientDisconnectAddOn());
+    }
+    server.start();
+    return server;
   }
 
   /**
    * Main method.
    *
-   * @param args : Array of arguments
+   * @param args : Array of arguments, "--training" stops the server once it is started to
+   *             record the classes of an AppCDS archive
    * @throws IOException : If properties file not find
    */
   public static void main(String[] args) throws IOException {
 
-    Config.load("prod.properties");
-    Log.config();
+    Configuration configuration = new ConfigurationImpl("prod.properties");
+    Log.config(configuration);
 
     //Création des dossiers possiblement manquants
     String[] paths = {"img//", "img//profils//", "img//objects//"};
     for (String p : paths) {
-      String directoryName = Config.getProperty("ImagePath") + p;
+      String directoryName = configuration.getSettings().getImagePath() + p;
       File directory = new File(directoryName);
       if (!directory.exists()) {
         directory.mkdir();
       }
     }
 
-    final HttpServer server = startServer();
+    final HttpServer server = startServer(configuration);
+    if (args.length > 0 && args[0].equals("--training")) {
+      server.shutdownNow();
+      return;
+    }
     System.out.println(String.format("Jersey app started with WADL available at "
-        + "%sapplication.wadl\nHit enter to stop it...", Config.getProperty("BaseUri")));
+        + "%sapplication.wadl\nHit enter to stop it...", configuration.getSettings().getBaseUri()));
     System.in.read();
     server.stop();
   }
@@ -10,6 +10,8 @@ import be.vinci.pae.business.factories.ObjectFactory;
 import be.vinci.pae.business.factories.ObjectFactoryImpl;
 import be.vinci.pae.business.factories.OfferFactory;
 import be.vinci.pae.business.factories.OfferFactoryImpl;
+import be.vinci.pae.business.factories.OutboxEventFactory;
+import be.vinci.pae.business.factories.OutboxEventFactoryImpl;
 import be.vinci.pae.business.factories.RatingFactory;
 import be.vinci.pae.business.factories.RatingFactoryImpl;
 import be.vinci.pae.business.factories.TypeFactory;
@@ -22,6 +24,8 @@ import be.vinci.pae.business.ucc.ObjectUCC;
 import be.vinci.pae.business.ucc.ObjectUCCImpl;
 import be.vinci.pae.business.ucc.OfferUCC;
 import be.vinci.pae.business.ucc.OfferUCCImpl;
+import be.vinci.pae.business.ucc.OutboxUCC;
+import be.vinci.pae.business.ucc.OutboxUCCImpl;
 import be.vinci.pae.business.ucc.RatingUCC;
 import be.vinci.pae.business.ucc.RatingUCCImpl;
 import be.vinci.pae.business.ucc.TypeUCC;
@@ -36,6 +40,8 @@ import be.vinci.pae.dal.dao.ObjectDAO;
 import be.vinci.pae.dal.dao.ObjectDAOImpl;
 import be.vinci.pae.dal.dao.OfferDAO;
 import be.vinci.pae.dal.dao.OfferDAOImpl;
+import be.vinci.pae.dal.dao.OutboxDAO;
+import be.vinci.pae.dal.dao.OutboxDAOImpl;
 import be.vinci.pae.dal.dao.RatingDAO;
 import be.vinci.pae.dal.dao.RatingDAOImpl;
 import be.vinci.pae.dal.dao.TypeDAO;
@@ -43,10 +49,37 @@ import be.vinci.pae.dal.dao.TypeDAOImpl;
 import be.vinci.pae.dal.services.DALBackendService;
 import be.vinci.pae.dal.services.DALService;
 import be.vinci.pae.dal.services.DALServiceImpl;
+import be.vinci.pae.dal.services.InvalidationBus;
+import be.vinci.pae.dal.services.InvalidationBusImpl;
+import be.vinci.pae.dal.services.QueryStatistics;
+import be.vinci.pae.dal.services.QueryStatisticsImpl;
+import be.vinci.pae.ihm.manager.AdmissionControl;
+import be.vinci.pae.ihm.manager.AdmissionControlImpl;
+import be.vinci.pae.ihm.manager.FlightRecorder;
+import be.vinci.pae.ihm.manager.FlightRecorderImpl;
 import be.vinci.pae.ihm.manager.Image;
+import be.vinci.pae.ihm.manager.ImageGc;
+import be.vinci.pae.ihm.manager.ImageGcImpl;
 import be.vinci.pae.ihm.manager.ImageImpl;
+import be.vinci.pae.ihm.manager.LastOffersFeed;
+import be.vinci.pae.ihm.manager.LastOffersFeedImpl;
+import be.vinci.pae.ihm.manager.Metrics;
+import be.vinci.pae.ihm.manager.MetricsImpl;
+import be.vinci.pae.ihm.manager.NotificationFlusher;
+import be.vinci.pae.ihm.manager.NotificationFlusherImpl;
+import be.vinci.pae.ihm.manager.NotificationHubImpl;
+import be.vinci.pae.ihm.manager.OfferArchiver;
+import be.vinci.pae.ihm.manager.OfferArchiverImpl;
+import be.vinci.pae.ihm.manager.OutboxWorker;
+import be.vinci.pae.ihm.manager.OutboxWorkerImpl;
+import be.vinci.pae.ihm.manager.RateLimiter;
+import be.vinci.pae.ihm.manager.RateLimiterImpl;
+import be.vinci.pae.ihm.manager.ResponseCache;
+import be.vinci.pae.ihm.manager.ResponseCacheImpl;
 import be.vinci.pae.ihm.manager.Token;
 import be.vinci.pae.ihm.manager.TokenImpl;
+import be.vinci.pae.ihm.manager.Warmup;
+import be.vinci.pae.ihm.manager.WarmupImpl;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.ext.Provider;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -54,13 +87,30 @@ import org.glassfish.hk2.utilities.binding.AbstractBinder;
 @Provider
 public class ApplicationBinder extends AbstractBinder {
 
+  private final Configuration configuration;
+
+  /**
+   * Make the binder of the services, they share the configuration loaded at startup.
+   *
+   * @param configuration the configuration of the server.
+   */
+  public ApplicationBinder(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
   @Override
   protected void configure() {
+    bind(configuration).to(Configuration.class);
     bind(MemberFactoryImpl.class).to(MemberFactory.class).in(Singleton.class);
     bind(TypeFactoryImpl.class).to(TypeFactory.class).in(Singleton.class);
     bind(AddressFactoryImpl.class).to(AddressFactory.class).in(Singleton.class);
     bind(InterestFactoryImpl.class).to(InterestFactory.class).in(Singleton.class);
     bind(DALServiceImpl.class).to(DALBackendService.class).to(DALService.class).in(Singleton.class);
+    bind(InvalidationBusImpl.class).to(InvalidationBus.class).in(Singleton.class);
+    bind(QueryStatisticsImpl.class).to(QueryStatistics.class).in(Singleton.class);
+    bind(PasswordExecutorImpl.class).to(PasswordExecutor.class).in(Singleton.class);
+    bind(SingleFlightImpl.class).to(SingleFlight.class).in(Singleton.class);
+    bind(NotificationSeenBufferImpl.class).to(NotificationSeenBuffer.class).in(Singleton.class);
 
     bind(MemberUCCImpl.class).to(MemberUCC.class).in(Singleton.class);
     bind(TypeUCCImpl.class).to(TypeUCC.class).in(Singleton.class);
@@ -81,7 +131,23 @@ public class ApplicationBinder extends AbstractBinder {
     bind(RatingDAOImpl.class).to(RatingDAO.class).in(Singleton.class);
     bind(RatingUCCImpl.class).to(RatingUCC.class).in(Singleton.class);
 
+    bind(OutboxEventFactoryImpl.class).to(OutboxEventFactory.class).in(Singleton.class);
+    bind(OutboxDAOImpl.class).to(OutboxDAO.class).in(Singleton.class);
+    bind(OutboxUCCImpl.class).to(OutboxUCC.class).in(Singleton.class);
+
     bind(TokenImpl.class).to(Token.class).in(Singleton.class);
     bind(ImageImpl.class).to(Image.class).in(Singleton.class);
+    bind(NotificationHubImpl.class).to(NotificationHub.class).in(Singleton.class);
+    bind(LastOffersFeedImpl.class).to(LastOffersFeed.class).in(Singleton.class);
+    bind(ResponseCacheImpl.class).to(ResponseCache.class).in(Singleton.class);
+    bind(MetricsImpl.class).to(Metrics.class).in(Singleton.class);
+    bind(FlightRecorderImpl.class).to(FlightRecorder.class).in(Singleton.class);
+    bind(WarmupImpl.class).to(Warmup.class).in(Singleton.class);
+    bind(OfferArchiverImpl.class).to(OfferArchiver.class).in(Singleton.class);
+    bind(OutboxWorkerImpl.class).to(OutboxWorker.class).in(Singleton.class);
+    bind(NotificationFlusherImpl.class).to(NotificationFlusher.class).in(Singleton.class);
+    bind(ImageGcImpl.class).to(ImageGc.class).in(Singleton.class);
+    bind(AdmissionControlImpl.class).to(AdmissionControl.class).in(Singleton.class);
+    bind(RateLimiterImpl.class).to(RateLimiter.class).in(Singleton.class);
   }
 }
@@ -0,0 +1,213 @@
+package be.vinci.pae.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Handler that puts the records in a bounded ring buffer and returns, one background thread
+ * formats them and gives them to the real handlers. The slots of the ring are allocated once.
+ * When the ring is full the overflow policy decides, but SEVERE records always wait for room.
+ */
+public class AsyncLogHandler extends Handler {
+
+  /**
+   * What to do with a record when the ring buffer is full.
+   */
+  public enum OverflowPolicy {
+    BLOCK, DROP_NEWEST, DROP_OLDEST
+  }
+
+  private static final int BATCH_SIZE = 256;
+  private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+  private final Handler[] handlers;
+  private final OverflowPolicy overflowPolicy;
+  private final Slot[] ring;
+  // only used by the writer thread
+  private final Slot[] batch;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final Thread writer;
+  private int head;
+  private int size;
+  private long dropped;
+  private boolean closed;
+
+  /**
+   * Create the ring buffer and start the writer thread.
+   *
+   * @param capacity       the number of records the ring can hold.
+   * @param overflowPolicy what to do when the ring is full.
+   * @param handlers       the handlers that write the records.
+   */
+  public AsyncLogHandler(int capacity, OverflowPolicy overflowPolicy, Handler... handlers) {
+    this.handlers = handlers;
+    this.overflowPolicy = overflowPolicy;
+    ring = new Slot[capacity];
+    for (int i = 0; i < capacity; i++) {
+      ring[i] = new Slot();
+    }
+    batch = new Slot[Math.min(BATCH_SIZE, capacity)];
+    for (int i = 0; i < batch.length; i++) {
+      batch[i] = new Slot();
+    }
+    writer = new Thread(this::run, "log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Put a record in the ring with the fields of the current request.
+   *
+   * @param record the record to write.
+   */
+  @Override
+  public void publish(LogRecord record) {
+    if (record == null || !isLoggable(record)) {
+      return;
+    }
+    lock.lock();
+    try {
+      while (size == ring.length && !closed) {
+        if (overflowPolicy == OverflowPolicy.BLOCK
+            || record.getLevel().intValue() >= Level.SEVERE.intValue()) {
+          notFull.awaitUninterruptibly();
+        } else if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+          dropped++;
+          return;
+        } else {
+          ring[head].clear();
+          head = (head + 1) % ring.length;
+          size--;
+          dropped++;
+        }
+      }
+      if (closed) {
+        return;
+      }
+      ring[(head + size) % ring.length].set(record, LogContext.current());
+      size++;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Flush the real handlers, the records still in the ring aren't written.
+   */
+  @Override
+  public void flush() {
+    for (Handler handler : handlers) {
+      handler.flush();
+    }
+  }
+
+  /**
+   * Write the records left in the ring and close the real handlers.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signalAll();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (Handler handler : handlers) {
+      handler.close();
+    }
+  }
+
+  /**
+   * Take the records by batch and write them, until the handler is closed and the ring is empty.
+   */
+  private void run() {
+    LogContext writerContext = LogContext.current();
+    while (true) {
+      int count;
+      long droppedRecords;
+      lock.lock();
+      try {
+        while (size == 0 && !closed) {
+          notEmpty.awaitUninterruptibly();
+        }
+        if (size == 0) {
+          return;
+        }
+        count = Math.min(size, batch.length);
+        for (int i = 0; i < count; i++) {
+          batch[i].copy(ring[head]);
+          ring[head].clear();
+          head = (head + 1) % ring.length;
+        }
+        size -= count;
+        droppedRecords = dropped;
+        dropped = 0;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      if (droppedRecords > 0) {
+        writerContext.clear();
+        LogRecord warning = new LogRecord(Level.WARNING, "{0} log records dropped, the buffer was"
+            + " full");
+        warning.setParameters(new Object[]{droppedRecords});
+        write(warning);
+      }
+      for (int i = 0; i < count; i++) {
+        // the formatters read the fields of the request in the context of this thread
+        writerContext.copy(batch[i].context);
+        write(batch[i].record);
+        batch[i].clear();
+      }
+      flush();
+    }
+  }
+
+  /**
+   * Give a record to all the real handlers.
+   *
+   * @param record the record.
+   */
+  private void write(LogRecord record) {
+    for (Handler handler : handlers) {
+      try {
+        handler.publish(record);
+      } catch (RuntimeException e) {
+        reportError(e.getMessage(), e, 0);
+      }
+    }
+  }
+
+  private static class Slot {
+
+    private final LogContext context = new LogContext();
+    private LogRecord record;
+
+    private void set(LogRecord record, LogContext context) {
+      this.record = record;
+      this.context.copy(context);
+    }
+
+    private void copy(Slot other) {
+      set(other.record, other.context);
+    }
+
+    private void clear() {
+      record = null;
+    }
+  }
+}
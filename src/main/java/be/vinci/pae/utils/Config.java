@@ -1,43 +0,0 @@
-package be.vinci.pae.utils;
-
-import jakarta.ws.rs.WebApplicationException;
-import jakarta.ws.rs.core.Response;
-import jakarta.ws.rs.core.Response.Status;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
-
-public class Config {
-
-  private static Properties props;
-
-  /**
-   * Load the properties file found.
-   *
-   * @param file : the path of file
-   */
-  public static void load(String file) {
-    props = new Properties();
-    try (InputStream input = new FileInputStream(file)) {
-      props.load(input);
-    } catch (IOException e) {
-      throw new WebApplicationException(
-          Response.status(Status.INTERNAL_SERVER_ERROR).entity(e.getMessage()).type("text/plain")
-              .build());
-    }
-  }
-
-  public static String getProperty(String key) {
-    return props.getProperty(key);
-  }
-
-  public static Integer getIntProperty(String key) {
-    return Integer.parseInt(props.getProperty(key));
-  }
-
-  public static boolean getBoolProperty(String key) {
-    return Boolean.parseBoolean(props.getProperty(key));
-  }
-
-}
@@ -0,0 +1,28 @@
+package be.vinci.pae.utils;
+
+import java.util.function.Consumer;
+
+public interface Configuration {
+
+  /**
+   * Get the current snapshot of the settings, it never changes : a reload replaces it.
+   *
+   * @return the current settings.
+   */
+  Settings getSettings();
+
+  /**
+   * Read the configuration file again and replace the tunable settings at once, the other ones
+   * are kept until the server restarts.
+   *
+   * @return the new settings.
+   */
+  Settings reload();
+
+  /**
+   * Register a listener that applies the settings of each reload.
+   *
+   * @param listener the listener of the new settings.
+   */
+  void subscribe(Consumer<Settings> listener);
+}
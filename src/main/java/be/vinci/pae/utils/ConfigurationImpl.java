@@ -0,0 +1,91 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.exceptions.FatalException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hold the snapshot of the configuration file. The readers get the current snapshot without any
+ * lock, a reload swaps it.
+ */
+public class ConfigurationImpl implements Configuration {
+
+  private final String file;
+  private final AtomicReference<Settings> settings;
+  private final List<Consumer<Settings>> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Load the configuration file.
+   *
+   * @param file the path of the file.
+   */
+  public ConfigurationImpl(String file) {
+    this.file = file;
+    this.settings = new AtomicReference<>(new Settings(read()));
+  }
+
+  /**
+   * Get the current snapshot of the settings, it never changes : a reload replaces it.
+   *
+   * @return the current settings.
+   */
+  @Override
+  public Settings getSettings() {
+    return settings.get();
+  }
+
+  /**
+   * Read the configuration file again and replace the tunable settings at once, the other ones
+   * are kept until the server restarts.
+   *
+   * @return the new settings.
+   */
+  @Override
+  public synchronized Settings reload() {
+    Settings reloaded;
+    try {
+      reloaded = settings.get().withTunables(read());
+    } catch (IllegalArgumentException e) {
+      throw new FatalException("Configuration invalide : " + e.getMessage());
+    }
+    settings.set(reloaded);
+    for (Consumer<Settings> listener : listeners) {
+      listener.accept(reloaded);
+    }
+    Logger.getLogger("Log").log(Level.INFO, "Configuration reloaded : " + reloaded.getTunables());
+    return reloaded;
+  }
+
+  /**
+   * Register a listener that applies the settings of each reload.
+   *
+   * @param listener the listener of the new settings.
+   */
+  @Override
+  public void subscribe(Consumer<Settings> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Read the properties of the configuration file.
+   *
+   * @return the properties.
+   */
+  private Properties read() {
+    Properties properties = new Properties();
+    try (InputStream input = new FileInputStream(file)) {
+      properties.load(input);
+    } catch (IOException e) {
+      throw new FatalException(e);
+    }
+    return properties;
+  }
+}
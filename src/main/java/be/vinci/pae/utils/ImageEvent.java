@@ -0,0 +1,33 @@
+package be.vinci.pae.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the read, the write or the delete of an image on the disk.
+ */
+@Name("donnamis.Image")
+@Label("Image I/O")
+@Category({"Donnamis", "Image"})
+@Description("Read, write or delete of an image on the disk")
+public class ImageEvent extends jdk.jfr.Event {
+
+  @Label("Operation")
+  private String operation;
+
+  @Label("Path")
+  private String path;
+
+  /**
+   * Make the event of an operation on an image, call begin() before the operation.
+   *
+   * @param operation "read", "write" or "delete".
+   * @param path      the path of the image.
+   */
+  public ImageEvent(String operation, String path) {
+    this.operation = operation;
+    this.path = path;
+  }
+}
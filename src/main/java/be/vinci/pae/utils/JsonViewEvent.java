@@ -0,0 +1,22 @@
+package be.vinci.pae.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the filtering of objects by the public JSON view.
+ */
+@Name("donnamis.JsonView")
+@Label("JSON View Filtering")
+@Category({"Donnamis", "JSON"})
+@Description("Filtering of objects by the public JSON view")
+class JsonViewEvent extends jdk.jfr.Event {
+
+  @Label("Type")
+  Class<?> type;
+
+  @Label("Items")
+  int items;
+}
@@ -1,5 +1,6 @@
 package be.vinci.pae.utils;
 
+import be.vinci.pae.exceptions.FatalException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
@@ -30,6 +31,8 @@ public class JsonViews<T> {
    * @return a filtered list
    */
   public static <T> List<T> filterPublicJsonViewAsList(List<T> list, Class<T> type) {
+    JsonViewEvent event = new JsonViewEvent();
+    event.begin();
     try {
       JavaType javaType = jsonMapper.getTypeFactory().constructCollectionType(List.class, type);
       // serialize using JSON Views : public view (all fields not required in the
@@ -43,6 +46,8 @@ public class JsonViews<T> {
     } catch (JsonProcessingException e) {
       e.printStackTrace();
       return null;
+    } finally {
+      commitEvent(event, type, list == null ? 0 : list.size());
     }
 
   }
@@ -56,6 +61,8 @@ public class JsonViews<T> {
    * @return a filtered object
    */
   public static <T> T filterPublicJsonView(T item, Class<T> type) {
+    JsonViewEvent event = new JsonViewEvent();
+    event.begin();
     try {
       // serialize using JSON Views : public view (all fields not required in the
       // views are not serialized)
@@ -68,7 +75,41 @@ public class JsonViews<T> {
     } catch (JsonProcessingException e) {
       e.printStackTrace();
       return null;
+    } finally {
+      commitEvent(event, type, 1);
     }
 
   }
+
+  /**
+   * Filter a list of object and serialize it.
+   *
+   * @param list a list that need to be filtered
+   * @param type : class type to filter
+   * @param <T>  the type of the list
+   * @return the json of the filtered list
+   */
+  public static <T> byte[] serializePublicJsonViewAsList(List<T> list, Class<T> type) {
+    try {
+      return jsonMapper.writeValueAsBytes(filterPublicJsonViewAsList(list, type));
+    } catch (JsonProcessingException e) {
+      throw new FatalException(e);
+    }
+  }
+
+  /**
+   * Commit the flight recorder event of a filtering.
+   *
+   * @param event the event.
+   * @param type  the class of the filtered objects.
+   * @param items the number of filtered objects.
+   */
+  private static void commitEvent(JsonViewEvent event, Class<?> type, int items) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.type = type;
+      event.items = items;
+      event.commit();
+    }
+  }
 }
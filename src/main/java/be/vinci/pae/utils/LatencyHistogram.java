@@ -0,0 +1,103 @@
+package be.vinci.pae.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds with log-linear buckets : each power of two is split in 8
+ * buckets, so a quantile is known within 12.5%. Recording is lock-free and allocates nothing.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * Record a duration.
+   *
+   * @param nanos the duration in nanoseconds, negative values count as 0.
+   */
+  public void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    counts.incrementAndGet(getIndex(value));
+    count.increment();
+    sum.add(value);
+  }
+
+  /**
+   * Get the number of recorded durations.
+   *
+   * @return the count.
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Get the sum of the recorded durations.
+   *
+   * @return the sum in nanoseconds.
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /**
+   * Get the duration under which a part of the recorded durations are.
+   *
+   * @param quantile the part, between 0 and 1.
+   * @return the upper bound of the bucket of the quantile in nanoseconds, 0 if nothing recorded.
+   */
+  public long getQuantile(double quantile) {
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS && total > 0; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return getUpperBound(i);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Get the bucket of a value, the values under 8 have their own bucket.
+   *
+   * @param value a positive value.
+   * @return the index of its bucket.
+   */
+  private static int getIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Get the greatest value of a bucket.
+   *
+   * @param index the index of the bucket.
+   * @return the upper bound of the bucket.
+   */
+  private static long getUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = index % SUB_BUCKETS;
+    long upperBound = ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    // the last bucket overflows
+    return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+  }
+}
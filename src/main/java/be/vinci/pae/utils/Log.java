@@ -1,24 +1,43 @@
 package be.vinci.pae.utils;
 
+import be.vinci.pae.utils.AsyncLogHandler.OverflowPolicy;
 import java.io.IOException;
+import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.logging.SimpleFormatter;
 
 public class Log {
 
   private static Logger logger;
 
   /**
-   * Config the Logger for the files & console log.
+   * Config the Logger for the files & console log. The records are written by a background
+   * thread, the request threads only put them in a ring buffer. The properties LogLevel,
+   * LogBufferSize, LogOverflowPolicy (BLOCK, DROP_NEWEST or DROP_OLDEST), LogFileSize and
+   * LogFileCount are optional, LogLevel is applied again on each reload.
+   *
+   * @param configuration the configuration of the server.
    */
-  public static void config() {
+  public static void config(Configuration configuration) {
+    Settings settings = configuration.getSettings();
     logger = Logger.getLogger("Log");
+    // the disabled levels are refused before any formatting
+    logger.setLevel(settings.getLogLevel());
+    configuration.subscribe(reloaded -> logger.setLevel(reloaded.getLogLevel()));
+    logger.setUseParentHandlers(false);
     try {
-      FileHandler fileHandler = new FileHandler("LogFile%g.log", 75000, 5, true);
-      logger.addHandler(fileHandler);
-      SimpleFormatter formatter = new SimpleFormatter();
-      fileHandler.setFormatter(formatter);
+      FileHandler fileHandler = new FileHandler("LogFile%g.log",
+          settings.getLogFileSize(), settings.getLogFileCount(), true);
+      fileHandler.setFormatter(new LogFormatter());
+      ConsoleHandler consoleHandler = new ConsoleHandler();
+      consoleHandler.setLevel(Level.ALL);
+      consoleHandler.setFormatter(new LogFormatter());
+      AsyncLogHandler asyncLogHandler = new AsyncLogHandler(
+          settings.getLogBufferSize(), OverflowPolicy.valueOf(settings.getLogOverflowPolicy()),
+          fileHandler, consoleHandler);
+      logger.addHandler(asyncLogHandler);
+      Runtime.getRuntime().addShutdownHook(new Thread(asyncLogHandler::close, "log-close"));
       logger.info("Init Logger");
     } catch (IOException e) {
       e.printStackTrace();
@@ -0,0 +1,72 @@
+package be.vinci.pae.utils;
+
+/**
+ * Fields of the request handled by the current thread, they are added to its log records. The
+ * async log handler copies them when a record is published, no object is allocated.
+ */
+public class LogContext {
+
+  private static final ThreadLocal<LogContext> contexts = ThreadLocal.withInitial(LogContext::new);
+
+  private String requestId;
+  private String route;
+  private int memberId;
+
+  /**
+   * Get the context of the current thread.
+   *
+   * @return the context.
+   */
+  public static LogContext current() {
+    return contexts.get();
+  }
+
+  /**
+   * Forget the previous request and start a new one.
+   *
+   * @param requestId the id of the new request.
+   */
+  public void start(String requestId) {
+    this.requestId = requestId;
+    this.route = null;
+    this.memberId = 0;
+  }
+
+  /**
+   * Forget the current request.
+   */
+  public void clear() {
+    start(null);
+  }
+
+  /**
+   * Copy the fields of another context.
+   *
+   * @param other the context to copy.
+   */
+  public void copy(LogContext other) {
+    this.requestId = other.requestId;
+    this.route = other.route;
+    this.memberId = other.memberId;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public String getRoute() {
+    return route;
+  }
+
+  public void setRoute(String route) {
+    this.route = route;
+  }
+
+  public int getMemberId() {
+    return memberId;
+  }
+
+  public void setMemberId(int memberId) {
+    this.memberId = memberId;
+  }
+}
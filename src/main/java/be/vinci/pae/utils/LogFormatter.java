@@ -0,0 +1,44 @@
+package be.vinci.pae.utils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Format a record on one line with the fields of its request, ie
+ * "2022-04-21 13:00:00.123 INFO [req=1a member=3 route=GET /offers] OfferResource getOffers". The
+ * fields are read from the LogContext of the thread that formats the record.
+ */
+public class LogFormatter extends Formatter {
+
+  private static final DateTimeFormatter dateFormatter =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+  @Override
+  public String format(LogRecord record) {
+    StringBuilder line = new StringBuilder(128);
+    line.append(dateFormatter.format(record.getInstant())).append(' ')
+        .append(record.getLevel().getName()).append(' ');
+    LogContext context = LogContext.current();
+    if (context.getRequestId() != null) {
+      line.append("[req=").append(context.getRequestId());
+      if (context.getMemberId() != 0) {
+        line.append(" member=").append(context.getMemberId());
+      }
+      if (context.getRoute() != null) {
+        line.append(" route=").append(context.getRoute());
+      }
+      line.append("] ");
+    }
+    line.append(formatMessage(record)).append(System.lineSeparator());
+    if (record.getThrown() != null) {
+      StringWriter stackTrace = new StringWriter();
+      record.getThrown().printStackTrace(new PrintWriter(stackTrace));
+      line.append(stackTrace);
+    }
+    return line.toString();
+  }
+}
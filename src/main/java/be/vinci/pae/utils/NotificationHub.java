@@ -0,0 +1,31 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import jakarta.ws.rs.sse.SseEventSink;
+
+public interface NotificationHub {
+
+  /**
+   * Register an SSE connection of a member, it will receive the notifications of this member.
+   *
+   * @param idMember  the member that is listening.
+   * @param eventSink the open SSE connection.
+   */
+  void subscribe(int idMember, SseEventSink eventSink);
+
+  /**
+   * Push a notification to the open connections of its recipient : the offeror for a published or
+   * prevented interest (the object must be set), the interested member otherwise. Must be called
+   * after the commit of the transaction that set the notification, it never throws.
+   *
+   * @param interestDTO the interest that has been notified.
+   */
+  void publish(InterestDTO interestDTO);
+
+  /**
+   * Get the number of open SSE connections.
+   *
+   * @return the number of subscribers.
+   */
+  int getSubscriberCount();
+}
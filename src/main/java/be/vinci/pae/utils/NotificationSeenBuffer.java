@@ -0,0 +1,75 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import java.util.List;
+
+public interface NotificationSeenBuffer {
+
+  /**
+   * Record a notification marked as seen, it is written by the next flush.
+   *
+   * @param mark        the id of the object, the id of the member and the version of the interest
+   *                    read before the mark.
+   * @param idRecipient the member that received the notification.
+   * @return false if the marks are written at once or the buffer is closed, the caller must write
+   *     the mark itself.
+   */
+  boolean add(InterestDTO mark, int idRecipient);
+
+  /**
+   * Check if an interest read from the database has a mark that isn't written yet.
+   *
+   * @param interestDTO the interest read.
+   * @return true if the notification of this version of the interest is already seen.
+   */
+  boolean isPending(InterestDTO interestDTO);
+
+  /**
+   * Get the number of marks not written yet of the notifications received by a member.
+   *
+   * @param idRecipient the member.
+   * @return the number of notifications seen but still unread in the database.
+   */
+  int getPendingCount(int idRecipient);
+
+  /**
+   * Get at most NotificationFlushBatch marks to write. They stay visible until they are removed.
+   *
+   * @return the marks to write.
+   */
+  List<InterestDTO> getPending();
+
+  /**
+   * Remove the written marks, a mark replaced in the meantime is kept.
+   *
+   * @param written the marks returned by getPending and written.
+   */
+  void remove(List<InterestDTO> written);
+
+  /**
+   * Drop the mark of an interest notified again, its new notification is unread. Called after the
+   * commit of the notification.
+   *
+   * @param interestDTO the interest notified again.
+   */
+  void discard(InterestDTO interestDTO);
+
+  /**
+   * Get the number of marks not written yet.
+   *
+   * @return the number of marks.
+   */
+  int size();
+
+  /**
+   * Register a listener called when NotificationFlushBatch marks wait.
+   *
+   * @param listener the listener, it must not block.
+   */
+  void subscribe(Runnable listener);
+
+  /**
+   * Refuse the next marks, the callers write them at once. Called before the last flush.
+   */
+  void close();
+}
@@ -0,0 +1,160 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * The notifications marked as seen and not written yet, by interest. The reads of the
+ * notifications hide them so the member sees the mark at once, and the flusher writes them in one
+ * update. A mark only applies to the version of the interest it was made on : a notification sent
+ * again in the meantime is neither hidden nor cleared.
+ */
+public class NotificationSeenBufferImpl implements NotificationSeenBuffer {
+
+  private final Map<Long, Mark> marks = new ConcurrentHashMap<>();
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  private boolean closed;
+
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Record a notification marked as seen, it is written by the next flush.
+   *
+   * @param mark        the id of the object, the id of the member and the version of the interest
+   *                    read before the mark.
+   * @param idRecipient the member that received the notification.
+   * @return false if the marks are written at once or the buffer is closed, the caller must write
+   *     the mark itself.
+   */
+  @Override
+  public synchronized boolean add(InterestDTO mark, int idRecipient) {
+    Settings settings = configuration.getSettings();
+    if (closed || settings.getNotificationFlushMillis() <= 0) {
+      return false;
+    }
+    marks.put(key(mark.getIdObject(), mark.getIdMember()), new Mark(mark, idRecipient));
+    if (marks.size() == settings.getNotificationFlushBatch()) {
+      listeners.forEach(Runnable::run);
+    }
+    return true;
+  }
+
+  /**
+   * Check if an interest read from the database has a mark that isn't written yet.
+   *
+   * @param interestDTO the interest read.
+   * @return true if the notification of this version of the interest is already seen.
+   */
+  @Override
+  public boolean isPending(InterestDTO interestDTO) {
+    Mark mark = marks.get(key(interestDTO.getIdObject(), interestDTO.getIdMember()));
+    return mark != null && Objects.equals(mark.interest.getVersion(), interestDTO.getVersion());
+  }
+
+  /**
+   * Get the number of marks not written yet of the notifications received by a member.
+   *
+   * @param idRecipient the member.
+   * @return the number of notifications seen but still unread in the database.
+   */
+  @Override
+  public int getPendingCount(int idRecipient) {
+    int count = 0;
+    for (Mark mark : marks.values()) {
+      if (mark.idRecipient == idRecipient) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Get at most NotificationFlushBatch marks to write. They stay visible until they are removed.
+   *
+   * @return the marks to write.
+   */
+  @Override
+  public List<InterestDTO> getPending() {
+    return marks.values().stream()
+        .limit(Math.max(1, configuration.getSettings().getNotificationFlushBatch()))
+        .map(mark -> mark.interest)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Remove the written marks, a mark replaced in the meantime is kept.
+   *
+   * @param written the marks returned by getPending and written.
+   */
+  @Override
+  public void remove(List<InterestDTO> written) {
+    for (InterestDTO interestDTO : written) {
+      marks.computeIfPresent(key(interestDTO.getIdObject(), interestDTO.getIdMember()),
+          (key, mark) -> mark.interest == interestDTO ? null : mark);
+    }
+  }
+
+  /**
+   * Drop the mark of an interest notified again, its new notification is unread. Called after the
+   * commit of the notification.
+   *
+   * @param interestDTO the interest notified again.
+   */
+  @Override
+  public void discard(InterestDTO interestDTO) {
+    marks.remove(key(interestDTO.getIdObject(), interestDTO.getIdMember()));
+  }
+
+  /**
+   * Get the number of marks not written yet.
+   *
+   * @return the number of marks.
+   */
+  @Override
+  public int size() {
+    return marks.size();
+  }
+
+  /**
+   * Register a listener called when NotificationFlushBatch marks wait.
+   *
+   * @param listener the listener, it must not block.
+   */
+  @Override
+  public void subscribe(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Refuse the next marks, the callers write them at once. Called before the last flush.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+  }
+
+  private static long key(int idObject, int idMember) {
+    return ((long) idObject << 32) | (idMember & 0xFFFFFFFFL);
+  }
+
+  /**
+   * A mark and the member that received the notification.
+   */
+  private static final class Mark {
+
+    private final InterestDTO interest;
+    private final int idRecipient;
+
+    private Mark(InterestDTO interest, int idRecipient) {
+      this.interest = interest;
+      this.idRecipient = idRecipient;
+    }
+  }
+}
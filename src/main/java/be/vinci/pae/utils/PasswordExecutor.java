@@ -0,0 +1,36 @@
+package be.vinci.pae.utils;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+public interface PasswordExecutor {
+
+  /**
+   * Run a bcrypt computation on the password threads and wait for its result. It must not be
+   * called inside a transaction, the connection would be held for the whole wait.
+   *
+   * @param computation the check or the hash of a password.
+   * @param <T>         the type of the result.
+   * @return the result of the computation.
+   */
+  <T> T execute(Callable<T> computation);
+
+  /**
+   * Take the place of a login before it reads the member, a burst of logins is refused before it
+   * reaches the database. The place must be released at the end of the login.
+   */
+  void acquire();
+
+  /**
+   * Release the place of a login.
+   */
+  void release();
+
+  /**
+   * Get the threads, the queued computations, the average time of a computation and the number of
+   * rejections.
+   *
+   * @return the state of the executor.
+   */
+  Map<String, Number> getStatistics();
+}
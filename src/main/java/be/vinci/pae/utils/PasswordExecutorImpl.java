@@ -0,0 +1,168 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.exceptions.FatalException;
+import be.vinci.pae.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run the bcrypt computations on PasswordThreads daemon threads. A computation is refused with a
+ * 503 when more than PasswordQueueSize computations already wait, or when the wait estimated from
+ * the average time of the last computations is over PasswordMaxWaitMillis. The logins take their
+ * place before reading the database : a burst of logins gets fast refusals instead of a queue that
+ * only grows.
+ */
+public class PasswordExecutorImpl implements PasswordExecutor {
+
+  // weight of the last computation in the average time
+  private static final double SMOOTHING = 0.2;
+
+  // the computations queued or running
+  private final AtomicInteger pending = new AtomicInteger();
+  // the logins in progress, each of them needs at least one computation
+  private final AtomicInteger logins = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private double averageNanos;
+  private ThreadPoolExecutor executor;
+
+  @Inject
+  private Configuration configuration;
+
+  /**
+   * Start the password threads, their number follows the reloads of the configuration.
+   */
+  @PostConstruct
+  public void init() {
+    int threads = configuration.getSettings().getPasswordThreads();
+    AtomicInteger count = new AtomicInteger();
+    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+      Thread thread = new Thread(runnable, "password-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    configuration.subscribe(this::applyThreads);
+  }
+
+  /**
+   * Resize the password threads, the core size can never be above the maximum size.
+   *
+   * @param settings the settings of the reload.
+   */
+  private synchronized void applyThreads(Settings settings) {
+    int threads = settings.getPasswordThreads();
+    if (threads > executor.getMaximumPoolSize()) {
+      executor.setMaximumPoolSize(threads);
+      executor.setCorePoolSize(threads);
+    } else {
+      executor.setCorePoolSize(threads);
+      executor.setMaximumPoolSize(threads);
+    }
+  }
+
+  /**
+   * Run a bcrypt computation on the password threads and wait for its result. It must not be
+   * called inside a transaction, the connection would be held for the whole wait.
+   *
+   * @param computation the check or the hash of a password.
+   * @param <T>         the type of the result.
+   * @return the result of the computation.
+   */
+  @Override
+  public <T> T execute(Callable<T> computation) {
+    try {
+      checkCapacity(pending.getAndIncrement());
+      return executor.submit(() -> {
+        long start = System.nanoTime();
+        try {
+          return computation.call();
+        } finally {
+          record(System.nanoTime() - start);
+        }
+      }).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FatalException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new FatalException(e.getCause());
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  /**
+   * Take the place of a login before it reads the member, a burst of logins is refused before it
+   * reaches the database. The place must be released at the end of the login.
+   */
+  @Override
+  public void acquire() {
+    try {
+      checkCapacity(logins.getAndIncrement());
+    } catch (ServiceUnavailableException e) {
+      logins.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * Release the place of a login.
+   */
+  @Override
+  public void release() {
+    logins.decrementAndGet();
+  }
+
+  /**
+   * Refuse a computation if too many computations wait or if it would wait too long.
+   *
+   * @param ahead the computations queued or running before this one.
+   */
+  private void checkCapacity(int ahead) {
+    Settings settings = configuration.getSettings();
+    int threads = settings.getPasswordThreads();
+    long estimatedNanos = (long) ((ahead / threads + 1) * getAverageNanos());
+    if (ahead >= threads + settings.getPasswordQueueSize()
+        || estimatedNanos > TimeUnit.MILLISECONDS.toNanos(settings.getPasswordMaxWaitMillis())) {
+      rejected.increment();
+      throw new ServiceUnavailableException(
+          "Trop de connexions en cours, veuillez réessayer plus tard",
+          settings.getRetryAfterSeconds());
+    }
+  }
+
+  /**
+   * Get the threads, the queued computations, the average time of a computation and the number of
+   * rejections.
+   *
+   * @return the state of the executor.
+   */
+  @Override
+  public Map<String, Number> getStatistics() {
+    Map<String, Number> statistics = new LinkedHashMap<>();
+    statistics.put("threads", executor.getMaximumPoolSize());
+    statistics.put("queued", executor.getQueue().size());
+    statistics.put("averageSeconds", getAverageNanos() / 1e9);
+    statistics.put("rejected", rejected.sum());
+    return statistics;
+  }
+
+  private synchronized double getAverageNanos() {
+    return averageNanos;
+  }
+
+  private synchronized void record(long nanos) {
+    averageNanos = averageNanos == 0 ? nanos : averageNanos + SMOOTHING * (nanos - averageNanos);
+  }
+}
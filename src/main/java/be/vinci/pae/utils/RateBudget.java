@@ -0,0 +1,53 @@
+package be.vinci.pae.utils;
+
+/**
+ * Immutable budget of a rate limit : the number of requests by second and the number of requests
+ * that can be sent at once after a pause.
+ */
+public final class RateBudget {
+
+  private final double perSecond;
+  private final int burst;
+
+  /**
+   * Make a budget.
+   *
+   * @param perSecond the number of requests by second, 0 or less for no limit.
+   * @param burst     the number of requests that can be sent at once.
+   */
+  public RateBudget(double perSecond, int burst) {
+    this.perSecond = perSecond;
+    this.burst = Math.max(1, burst);
+  }
+
+  /**
+   * Parse a budget written as "perSecond/burst", ie "20/50".
+   *
+   * @param value the budget.
+   * @return the budget.
+   */
+  public static RateBudget parse(String value) {
+    String[] parts = value.trim().split("/");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Budget invalide : " + value);
+    }
+    return new RateBudget(Double.parseDouble(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+  }
+
+  public double getPerSecond() {
+    return perSecond;
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  public boolean isUnlimited() {
+    return perSecond <= 0;
+  }
+
+  @Override
+  public String toString() {
+    return perSecond + "/" + burst;
+  }
+}
@@ -0,0 +1,107 @@
+package be.vinci.pae.utils;
+
+/**
+ * Durations of the request handled by the current thread. The DAL adds its time to it, the
+ * metrics listener resets it when a request starts and reads it at the end. One instance is
+ * reused by each thread, nothing is allocated per request.
+ */
+public class RequestTimings {
+
+  private static final ThreadLocal<RequestTimings> timings =
+      ThreadLocal.withInitial(RequestTimings::new);
+
+  private long startNanos;
+  private long transactionStartNanos;
+  private long databaseNanos;
+  private long poolWaitNanos;
+  private long writeStartNanos;
+
+  /**
+   * Get the timings of the current thread.
+   *
+   * @return the timings.
+   */
+  public static RequestTimings current() {
+    return timings.get();
+  }
+
+  /**
+   * Forget the previous request and start a new one.
+   */
+  public void start() {
+    startNanos = System.nanoTime();
+    databaseNanos = 0;
+    poolWaitNanos = 0;
+    writeStartNanos = 0;
+  }
+
+  /**
+   * Mark the start of the writing of the response.
+   */
+  public void startWrite() {
+    writeStartNanos = System.nanoTime();
+  }
+
+  /**
+   * Add the time spent waiting for a connection of the pool.
+   *
+   * @param nanos the waiting time in nanoseconds.
+   */
+  public void addPoolWait(long nanos) {
+    poolWaitNanos += nanos;
+  }
+
+  /**
+   * Mark the start of a transaction.
+   */
+  public void startTransaction() {
+    transactionStartNanos = System.nanoTime();
+  }
+
+  /**
+   * Add the time since the start of the transaction to the database time, nothing if no
+   * transaction was started.
+   */
+  public void endTransaction() {
+    if (transactionStartNanos != 0) {
+      databaseNanos += System.nanoTime() - transactionStartNanos;
+      transactionStartNanos = 0;
+    }
+  }
+
+  /**
+   * Get the time since the start of the request.
+   *
+   * @return the elapsed time in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  /**
+   * Get the time since the start of the writing of the response.
+   *
+   * @return the writing time in nanoseconds, 0 if the writing didn't start.
+   */
+  public long getWriteNanos() {
+    return writeStartNanos == 0 ? 0 : System.nanoTime() - writeStartNanos;
+  }
+
+  /**
+   * Get the time spent in transactions.
+   *
+   * @return the database time in nanoseconds.
+   */
+  public long getDatabaseNanos() {
+    return databaseNanos;
+  }
+
+  /**
+   * Get the time spent waiting for connections.
+   *
+   * @return the pool wait time in nanoseconds.
+   */
+  public long getPoolWaitNanos() {
+    return poolWaitNanos;
+  }
+}
@@ -0,0 +1,513 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.dal.services.DALBackendService;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Immutable snapshot of the configuration file, the values are parsed once. The tunable settings
+ * can be replaced by a reload, the other ones are kept for the life of the server.
+ */
+public final class Settings {
+
+  // only read to build the snapshot of a reload
+  private final Properties startup;
+
+  private final String baseUri;
+  private final String dbUrl;
+  private final String dbUser;
+  private final String dbPassword;
+  private final String jwtSecret;
+  private final String imagePath;
+  private final int poolInitialSize;
+  private final int workerThreads;
+  private final int outboxThreads;
+  private final int logFileSize;
+  private final int logFileCount;
+  private final int logBufferSize;
+  private final String logOverflowPolicy;
+
+  private final int poolMaxTotal;
+  private final int poolMaxIdle;
+  private final int poolMinIdle;
+  private final int poolMaxWaitMillis;
+  private final int admissionMaxInflight;
+  private final int admissionAdminPercent;
+  private final int admissionInitialLimit;
+  private final int admissionMaxWaitMillis;
+  private final int admissionLatencyFactor;
+  private final int retryAfterSeconds;
+  private final int passwordCost;
+  private final int passwordThreads;
+  private final int passwordQueueSize;
+  private final int passwordMaxWaitMillis;
+  private final RateBudget rateLimit;
+  private final Map<String, RateBudget> rateLimitRoutes;
+  private final Set<String> trustedProxies;
+  private final int cacheMaxTtlSeconds;
+  private final long cacheMaxBytes;
+  private final int slowQueryMillis;
+  private final int statementTimeoutMillis;
+  private final Map<String, Integer> statementTimeouts;
+  private final int maintenanceTimeoutMillis;
+  private final int recordingMaxSeconds;
+  private final int warmupRounds;
+  private final int archiveAfterDays;
+  private final int archiveIntervalMinutes;
+  private final int archiveBatchSize;
+  private final int outboxBatchSize;
+  private final int outboxPollMillis;
+  private final int outboxLeaseSeconds;
+  private final int outboxMaxAttempts;
+  private final int imageGcIntervalMinutes;
+  private final int imageGcGraceMinutes;
+  private final boolean imageGcDryRun;
+  private final int notificationFlushMillis;
+  private final int notificationFlushBatch;
+  private final Level logLevel;
+
+  /**
+   * Parse all the settings of a configuration file.
+   *
+   * @param properties the properties of the file.
+   */
+  public Settings(Properties properties) {
+    this(properties, properties);
+  }
+
+  /**
+   * Parse the settings read at startup and the tunable ones from different files.
+   *
+   * @param startup  the properties of the file read at startup.
+   * @param tunables the properties of the reloaded file.
+   */
+  private Settings(Properties startup, Properties tunables) {
+    this.startup = new Properties();
+    this.startup.putAll(startup);
+    baseUri = startup.getProperty("BaseUri");
+    dbUrl = startup.getProperty("dbUrl");
+    dbUser = startup.getProperty("dbUser");
+    dbPassword = startup.getProperty("dbPassword");
+    jwtSecret = startup.getProperty("JWTSecret");
+    imagePath = startup.getProperty("ImagePath");
+    poolInitialSize = getInt(startup, "PoolInitialSize", 8);
+    workerThreads = getInt(startup, "WorkerThreads", 64);
+    outboxThreads = getInt(startup, "OutboxThreads", 2);
+    logFileSize = getInt(startup, "LogFileSize", 10 * 1024 * 1024);
+    logFileCount = getInt(startup, "LogFileCount", 5);
+    logBufferSize = getInt(startup, "LogBufferSize", 8192);
+    logOverflowPolicy = startup.getProperty("LogOverflowPolicy", "DROP_NEWEST");
+
+    poolMaxTotal = getInt(tunables, "PoolMaxTotal", 8);
+    poolMaxIdle = getInt(tunables, "PoolMaxIdle", 8);
+    poolMinIdle = getInt(tunables, "PoolMinIdle", 0);
+    poolMaxWaitMillis = getInt(tunables, "PoolMaxWaitMillis", 1000);
+    // the workers above the limit are left to answer 503 at once
+    admissionMaxInflight = getInt(tunables, "AdmissionMaxInflight", 48);
+    admissionAdminPercent = getInt(tunables, "AdmissionAdminPercent", 25);
+    admissionInitialLimit = getInt(tunables, "AdmissionInitialLimit", 16);
+    admissionMaxWaitMillis = getInt(tunables, "AdmissionMaxWaitMillis", 100);
+    admissionLatencyFactor = getInt(tunables, "AdmissionLatencyFactor", 4);
+    retryAfterSeconds = getInt(tunables, "RetryAfterSeconds", 1);
+    // the cost of the existing hashes, a higher cost rehashes the passwords on login
+    passwordCost = getInt(tunables, "PasswordCost", 10);
+    // bcrypt only uses the CPU, more threads than cores would only slow down each login
+    passwordThreads = getInt(tunables, "PasswordThreads",
+        Runtime.getRuntime().availableProcessors());
+    passwordQueueSize = getInt(tunables, "PasswordQueueSize", 32);
+    passwordMaxWaitMillis = getInt(tunables, "PasswordMaxWaitMillis", 1000);
+    // a page of offers loads the pictures of the offers at once
+    rateLimit = RateBudget.parse(tunables.getProperty("RateLimit", "20/50"));
+    // the navbar asks for the count on each page, a client polling it in a loop is slowed down
+    rateLimitRoutes = getBudgets(tunables, "RateLimitRoutes",
+        "GET /interest/notificationCount=2/10");
+    // the load balancers in front of the nodes, the address of their client is forwarded
+    trustedProxies = getList(tunables, "TrustedProxies", "");
+    cacheMaxTtlSeconds = getInt(tunables, "CacheMaxTtlSeconds", Integer.MAX_VALUE);
+    cacheMaxBytes = getInt(tunables, "CacheMaxBytes", 8 * 1024 * 1024);
+    slowQueryMillis = getInt(tunables, "SlowQueryMillis", 200);
+    statementTimeoutMillis = getInt(tunables, "StatementTimeoutMillis", 10000);
+    // the searches with a pattern scan the offers or the members, they are stopped earlier
+    statementTimeouts = getTimeouts(tunables, "StatementTimeouts", "search=3000");
+    // the archival, the rebuilds of the counters and the image collector read whole tables
+    maintenanceTimeoutMillis = getInt(tunables, "MaintenanceTimeoutMillis", 10 * 60 * 1000);
+    recordingMaxSeconds = getInt(tunables, "RecordingMaxSeconds", 600);
+    // the driver prepares a statement on the server after its fifth execution on a connection
+    warmupRounds = getInt(tunables, "WarmupRounds", 5);
+    // a finished offer stays in the listings for a year before it is archived
+    archiveAfterDays = getInt(tunables, "ArchiveAfterDays", 365);
+    archiveIntervalMinutes = getInt(tunables, "ArchiveIntervalMinutes", 60);
+    // each batch moves its rows to another partition in its own transaction
+    archiveBatchSize = getInt(tunables, "ArchiveBatchSize", 1000);
+    outboxBatchSize = getInt(tunables, "OutboxBatchSize", 20);
+    outboxPollMillis = getInt(tunables, "OutboxPollMillis", 500);
+    // an event still claimed after its lease is taken again, ie by another node
+    outboxLeaseSeconds = getInt(tunables, "OutboxLeaseSeconds", 60);
+    outboxMaxAttempts = getInt(tunables, "OutboxMaxAttempts", 5);
+    imageGcIntervalMinutes = getInt(tunables, "ImageGcIntervalMinutes", 24 * 60);
+    // an uploaded picture is written before the row that references it is committed
+    imageGcGraceMinutes = getInt(tunables, "ImageGcGraceMinutes", 60);
+    // the collector only reports the orphaned images until it is told to delete them
+    imageGcDryRun = Boolean.parseBoolean(tunables.getProperty("ImageGcDryRun", "true").trim());
+    // the notifications marked as seen are written by batches, 0 writes each of them at once
+    notificationFlushMillis = getInt(tunables, "NotificationFlushMillis", 200);
+    notificationFlushBatch = getInt(tunables, "NotificationFlushBatch", 100);
+    logLevel = Level.parse(tunables.getProperty("LogLevel", "INFO"));
+  }
+
+  /**
+   * Make the snapshot of a reload : the tunable settings are taken from the reloaded file, the
+   * other ones are those of this snapshot.
+   *
+   * @param reloaded the properties of the reloaded file.
+   * @return a new snapshot.
+   */
+  public Settings withTunables(Properties reloaded) {
+    return new Settings(startup, reloaded);
+  }
+
+  /**
+   * Get the tunable settings by their name in the configuration file.
+   *
+   * @return the tunable settings.
+   */
+  public Map<String, Object> getTunables() {
+    Map<String, Object> tunables = new LinkedHashMap<>();
+    tunables.put("PoolMaxTotal", poolMaxTotal);
+    tunables.put("PoolMaxIdle", poolMaxIdle);
+    tunables.put("PoolMinIdle", poolMinIdle);
+    tunables.put("PoolMaxWaitMillis", poolMaxWaitMillis);
+    tunables.put("AdmissionMaxInflight", admissionMaxInflight);
+    tunables.put("AdmissionAdminPercent", admissionAdminPercent);
+    tunables.put("AdmissionInitialLimit", admissionInitialLimit);
+    tunables.put("AdmissionMaxWaitMillis", admissionMaxWaitMillis);
+    tunables.put("AdmissionLatencyFactor", admissionLatencyFactor);
+    tunables.put("RetryAfterSeconds", retryAfterSeconds);
+    tunables.put("PasswordCost", passwordCost);
+    tunables.put("PasswordThreads", passwordThreads);
+    tunables.put("PasswordQueueSize", passwordQueueSize);
+    tunables.put("PasswordMaxWaitMillis", passwordMaxWaitMillis);
+    tunables.put("RateLimit", rateLimit.toString());
+    tunables.put("RateLimitRoutes", rateLimitRoutes.toString());
+    tunables.put("TrustedProxies", String.join(",", trustedProxies));
+    tunables.put("CacheMaxTtlSeconds", cacheMaxTtlSeconds);
+    tunables.put("CacheMaxBytes", cacheMaxBytes);
+    tunables.put("SlowQueryMillis", slowQueryMillis);
+    tunables.put("StatementTimeoutMillis", statementTimeoutMillis);
+    tunables.put("StatementTimeouts", statementTimeouts.toString());
+    tunables.put("MaintenanceTimeoutMillis", maintenanceTimeoutMillis);
+    tunables.put("RecordingMaxSeconds", recordingMaxSeconds);
+    tunables.put("WarmupRounds", warmupRounds);
+    tunables.put("ArchiveAfterDays", archiveAfterDays);
+    tunables.put("ArchiveIntervalMinutes", archiveIntervalMinutes);
+    tunables.put("ArchiveBatchSize", archiveBatchSize);
+    tunables.put("OutboxBatchSize", outboxBatchSize);
+    tunables.put("OutboxPollMillis", outboxPollMillis);
+    tunables.put("OutboxLeaseSeconds", outboxLeaseSeconds);
+    tunables.put("OutboxMaxAttempts", outboxMaxAttempts);
+    tunables.put("ImageGcIntervalMinutes", imageGcIntervalMinutes);
+    tunables.put("ImageGcGraceMinutes", imageGcGraceMinutes);
+    tunables.put("ImageGcDryRun", imageGcDryRun);
+    tunables.put("NotificationFlushMillis", notificationFlushMillis);
+    tunables.put("NotificationFlushBatch", notificationFlushBatch);
+    tunables.put("LogLevel", logLevel.getName());
+    return tunables;
+  }
+
+  public String getBaseUri() {
+    return baseUri;
+  }
+
+  public String getDbUrl() {
+    return dbUrl;
+  }
+
+  public String getDbUser() {
+    return dbUser;
+  }
+
+  public String getDbPassword() {
+    return dbPassword;
+  }
+
+  public String getJwtSecret() {
+    return jwtSecret;
+  }
+
+  public String getImagePath() {
+    return imagePath;
+  }
+
+  public int getPoolInitialSize() {
+    return poolInitialSize;
+  }
+
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public int getOutboxThreads() {
+    return outboxThreads;
+  }
+
+  public int getLogFileSize() {
+    return logFileSize;
+  }
+
+  public int getLogFileCount() {
+    return logFileCount;
+  }
+
+  public int getLogBufferSize() {
+    return logBufferSize;
+  }
+
+  public String getLogOverflowPolicy() {
+    return logOverflowPolicy;
+  }
+
+  public int getPoolMaxTotal() {
+    return poolMaxTotal;
+  }
+
+  public int getPoolMaxIdle() {
+    return poolMaxIdle;
+  }
+
+  public int getPoolMinIdle() {
+    return poolMinIdle;
+  }
+
+  public int getPoolMaxWaitMillis() {
+    return poolMaxWaitMillis;
+  }
+
+  public int getAdmissionMaxInflight() {
+    return admissionMaxInflight;
+  }
+
+  public int getAdmissionAdminPercent() {
+    return admissionAdminPercent;
+  }
+
+  public int getAdmissionInitialLimit() {
+    return admissionInitialLimit;
+  }
+
+  public int getAdmissionMaxWaitMillis() {
+    return admissionMaxWaitMillis;
+  }
+
+  public int getAdmissionLatencyFactor() {
+    return admissionLatencyFactor;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+  public int getPasswordCost() {
+    return passwordCost;
+  }
+
+  public int getPasswordThreads() {
+    return passwordThreads;
+  }
+
+  public int getPasswordQueueSize() {
+    return passwordQueueSize;
+  }
+
+  public int getPasswordMaxWaitMillis() {
+    return passwordMaxWaitMillis;
+  }
+
+  public RateBudget getRateLimit() {
+    return rateLimit;
+  }
+
+  /**
+   * Get the budget of the rate limit of a route.
+   *
+   * @param route the method and the template of the route, ie "GET /offers/".
+   * @return the budget of the route or the default budget.
+   */
+  public RateBudget getRateLimit(String route) {
+    return rateLimitRoutes.getOrDefault(route, rateLimit);
+  }
+
+  public Set<String> getTrustedProxies() {
+    return trustedProxies;
+  }
+
+  public int getCacheMaxTtlSeconds() {
+    return cacheMaxTtlSeconds;
+  }
+
+  public long getCacheMaxBytes() {
+    return cacheMaxBytes;
+  }
+
+  public int getSlowQueryMillis() {
+    return slowQueryMillis;
+  }
+
+  /**
+   * Get the timeout of the statements of a class of queries. The maintenance jobs have their own
+   * timeout unless StatementTimeouts sets one.
+   *
+   * @param queryClass the class of the queries, ie "search".
+   * @return the timeout of the class or the default timeout, 0 for no timeout.
+   */
+  public int getStatementTimeoutMillis(String queryClass) {
+    return statementTimeouts.getOrDefault(queryClass,
+        DALBackendService.MAINTENANCE_QUERIES.equals(queryClass) ? maintenanceTimeoutMillis
+            : statementTimeoutMillis);
+  }
+
+  public int getRecordingMaxSeconds() {
+    return recordingMaxSeconds;
+  }
+
+  public int getWarmupRounds() {
+    return warmupRounds;
+  }
+
+  public int getArchiveAfterDays() {
+    return archiveAfterDays;
+  }
+
+  public int getArchiveIntervalMinutes() {
+    return archiveIntervalMinutes;
+  }
+
+  public int getArchiveBatchSize() {
+    return archiveBatchSize;
+  }
+
+  public int getOutboxBatchSize() {
+    return outboxBatchSize;
+  }
+
+  public int getOutboxPollMillis() {
+    return outboxPollMillis;
+  }
+
+  public int getOutboxLeaseSeconds() {
+    return outboxLeaseSeconds;
+  }
+
+  public int getOutboxMaxAttempts() {
+    return outboxMaxAttempts;
+  }
+
+  public int getImageGcIntervalMinutes() {
+    return imageGcIntervalMinutes;
+  }
+
+  public int getImageGcGraceMinutes() {
+    return imageGcGraceMinutes;
+  }
+
+  public boolean isImageGcDryRun() {
+    return imageGcDryRun;
+  }
+
+  public int getNotificationFlushMillis() {
+    return notificationFlushMillis;
+  }
+
+  public int getNotificationFlushBatch() {
+    return notificationFlushBatch;
+  }
+
+  public Level getLogLevel() {
+    return logLevel;
+  }
+
+  /**
+   * Parse the budgets of the routes, written as "route=perSecond/burst" separated by commas.
+   *
+   * @param properties   the properties of the file.
+   * @param key          the name of the setting.
+   * @param defaultValue the value if the setting is missing.
+   * @return the budgets by route.
+   */
+  private static Map<String, RateBudget> getBudgets(Properties properties, String key,
+      String defaultValue) {
+    Map<String, RateBudget> budgets = new LinkedHashMap<>();
+    for (String entry : properties.getProperty(key, defaultValue).split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      int separator = entry.lastIndexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Budget invalide : " + entry);
+      }
+      budgets.put(entry.substring(0, separator).trim(),
+          RateBudget.parse(entry.substring(separator + 1)));
+    }
+    return Collections.unmodifiableMap(budgets);
+  }
+
+  /**
+   * Parse a list of values separated by commas.
+   *
+   * @param properties   the properties of the file.
+   * @param key          the name of the setting.
+   * @param defaultValue the value if the setting is missing.
+   * @return the values, in their order in the file.
+   */
+  private static Set<String> getList(Properties properties, String key, String defaultValue) {
+    Set<String> values = new LinkedHashSet<>();
+    for (String entry : properties.getProperty(key, defaultValue).split(",")) {
+      if (!entry.isBlank()) {
+        values.add(entry.trim());
+      }
+    }
+    return Collections.unmodifiableSet(values);
+  }
+
+  /**
+   * Parse the timeouts of the classes of queries, written as "class=millis" separated by commas.
+   *
+   * @param properties   the properties of the file.
+   * @param key          the name of the setting.
+   * @param defaultValue the value if the setting is missing.
+   * @return the timeouts by class of queries.
+   */
+  private static Map<String, Integer> getTimeouts(Properties properties, String key,
+      String defaultValue) {
+    Map<String, Integer> timeouts = new LinkedHashMap<>();
+    for (String entry : properties.getProperty(key, defaultValue).split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      int separator = entry.indexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Timeout invalide : " + entry);
+      }
+      timeouts.put(entry.substring(0, separator).trim(),
+          Integer.parseInt(entry.substring(separator + 1).trim()));
+    }
+    return Collections.unmodifiableMap(timeouts);
+  }
+
+  /**
+   * Parse an integer setting.
+   *
+   * @param properties   the properties of the file.
+   * @param key          the name of the setting.
+   * @param defaultValue the value if the setting is missing.
+   * @return the value of the setting.
+   */
+  private static int getInt(Properties properties, String key, int defaultValue) {
+    String value = properties.getProperty(key);
+    return value == null ? defaultValue : Integer.parseInt(value.trim());
+  }
+}
@@ -0,0 +1,27 @@
+package be.vinci.pae.utils;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+public interface SingleFlight {
+
+  /**
+   * Run a read, or wait for the identical read already running and share its result or its
+   * exception. The result is shared between the callers, it must not be modified.
+   *
+   * @param key         the method and the arguments of the read, ie "getOfferById:3".
+   * @param tag         the tag of the read data, a read running when its tag is invalidated is not
+   *                    joined anymore.
+   * @param computation the read.
+   * @param <T>         the type of the result.
+   * @return the result of the read.
+   */
+  <T> T execute(String key, String tag, Supplier<T> computation);
+
+  /**
+   * Get the reads running and the number of callers that waited for another one.
+   *
+   * @return the state of the reads.
+   */
+  Map<String, Number> getStatistics();
+}
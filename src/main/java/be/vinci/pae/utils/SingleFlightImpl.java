@@ -0,0 +1,115 @@
+package be.vinci.pae.utils;
+
+import be.vinci.pae.dal.services.InvalidationBus;
+import be.vinci.pae.exceptions.FatalException;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesce the identical reads that run at the same time : the first caller reads the database on
+ * its own thread and the next ones wait for its result. A read is forgotten as soon as it ends, so
+ * nothing is kept after it, and a read running when its tag is invalidated is detached : the
+ * callers that come after the write start a new read instead of getting the old data.
+ */
+public class SingleFlightImpl implements SingleFlight {
+
+  private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+  private final LongAdder coalesced = new LongAdder();
+
+  @Inject
+  private InvalidationBus invalidationBus;
+
+  /**
+   * Detach the reads of the tags changed on this node or on the others.
+   */
+  @PostConstruct
+  public void subscribe() {
+    invalidationBus.subscribe(tags -> flights.values().removeIf(
+        flight -> tags.contains(InvalidationBus.ALL) || tags.contains(flight.tag)));
+  }
+
+  /**
+   * Run a read, or wait for the identical read already running and share its result or its
+   * exception. The result is shared between the callers, it must not be modified.
+   *
+   * @param key         the method and the arguments of the read, ie "getOfferById:3".
+   * @param tag         the tag of the read data, a read running when its tag is invalidated is not
+   *                    joined anymore.
+   * @param computation the read.
+   * @param <T>         the type of the result.
+   * @return the result of the read.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, String tag, Supplier<T> computation) {
+    Flight flight = new Flight(tag);
+    Flight running = flights.putIfAbsent(key, flight);
+    if (running != null) {
+      coalesced.increment();
+      return (T) running.await();
+    }
+    try {
+      T result = computation.get();
+      flight.result.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      // a newer read may have replaced this one after an invalidation
+      flights.remove(key, flight);
+    }
+  }
+
+  /**
+   * Get the reads running and the number of callers that waited for another one.
+   *
+   * @return the state of the reads.
+   */
+  @Override
+  public Map<String, Number> getStatistics() {
+    Map<String, Number> statistics = new LinkedHashMap<>();
+    statistics.put("flights", flights.size());
+    statistics.put("coalesced", coalesced.sum());
+    return statistics;
+  }
+
+  private static class Flight {
+
+    private final String tag;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    Flight(String tag) {
+      this.tag = tag;
+    }
+
+    /**
+     * Wait for the end of the read and throw its exception again if it failed.
+     *
+     * @return the result of the read.
+     */
+    Object await() {
+      try {
+        return result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new FatalException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw new FatalException(e.getCause());
+      }
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package be.vinci.pae.utils;
 
+import be.vinci.pae.exceptions.BusinessException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -12,14 +13,23 @@ public class WebExceptionMapper implements ExceptionMapper<Throwable> {
 
   @Override
   public Response toResponse(Throwable exception) {
-    Logger.getLogger("Log").log(Level.WARNING, exception.getMessage(), exception);
+    int status = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+    Response.ResponseBuilder response = Response.status(status);
     if (exception instanceof WebApplicationException) {
-      return Response.status(((WebApplicationException) exception).getResponse().getStatus())
-          .entity(exception.getMessage())
-          .build();
+      // keeps the status and the headers, ie Retry-After
+      Response exceptionResponse = ((WebApplicationException) exception).getResponse();
+      status = exceptionResponse.getStatus();
+      response = Response.fromResponse(exceptionResponse);
+    }
+    // client errors and business outcomes are expected : one line without the stack trace
+    if (exception instanceof BusinessException
+        || status < Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+      Logger.getLogger("Log").log(Level.INFO, status + " " + exception.getMessage());
+    } else {
+      Logger.getLogger("Log").log(Level.SEVERE, exception.getMessage(), exception);
     }
 
-    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+    return response
         .entity(exception.getMessage())
         .build();
   }
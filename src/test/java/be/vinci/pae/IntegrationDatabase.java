@@ -0,0 +1,80 @@
+package be.vinci.pae;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import be.vinci.pae.utils.Settings;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Database of the integration tests, loaded with the schema and the data of the demo.
+ */
+public class IntegrationDatabase {
+
+  public static final String PASSWORD = "secret";
+
+  private static ServiceLocator locator;
+  private static Configuration configuration;
+  private static String passwordHash;
+
+  /**
+   * Get the locator of the services bound to the integration database, the configuration is read
+   * from the file given by the "config" system property, integration.properties by default.
+   *
+   * @return the locator.
+   */
+  public static synchronized ServiceLocator getLocator() {
+    if (locator == null) {
+      configuration = new ConfigurationImpl(System.getProperty("config", "integration.properties"));
+      passwordHash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt());
+      locator = ServiceLocatorUtilities.bind(new IntegrationBinder(configuration));
+    }
+    return locator;
+  }
+
+  /**
+   * Get the settings of the integration tests.
+   *
+   * @return the settings.
+   */
+  public static Settings getSettings() {
+    getLocator();
+    return configuration.getSettings();
+  }
+
+  /**
+   * Recreate the schema and load the data of the demo, the password of every member is set to
+   * {@link #PASSWORD}.
+   */
+  public static void reset() {
+    Settings settings = getSettings();
+    try (Connection connection = DriverManager.getConnection(settings.getDbUrl(),
+        settings.getDbUser(), settings.getDbPassword());
+        Statement statement = connection.createStatement();
+        PreparedStatement password = connection.prepareStatement(
+            "UPDATE donnamis.members SET password = ?")) {
+      // the pooled connections keep plans that return the status types of the previous schema,
+      // they are closed and the pool validates them before lending them again
+      statement.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+          + "WHERE datname = current_database() AND pid <> pg_backend_pid()");
+      statement.execute(Files.readString(Path.of("init.sql")));
+      statement.execute(Files.readString(Path.of("seed.sql")));
+      password.setString(1, passwordHash);
+      password.executeUpdate();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Impossible de charger la base de données de test", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package be.vinci.pae;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.dal.services.StatementCounter;
+import java.util.function.Supplier;
+
+/**
+ * Assertions on the number of statements and round trips to the database done by a call.
+ */
+public class QueryBudget {
+
+  /**
+   * Call a UCC method and check it prepared at most the given number of statements.
+   *
+   * @param maxStatements the maximum number of statements.
+   * @param call          the call to the UCC method.
+   * @param <T>           the type returned by the call.
+   * @return the value returned by the call.
+   */
+  public static <T> T assertStatements(int maxStatements, Supplier<T> call) {
+    return assertBudget(maxStatements, Integer.MAX_VALUE, call);
+  }
+
+  /**
+   * Call a UCC method and check it did at most the given number of round trips.
+   *
+   * @param maxRoundTrips the maximum number of round trips.
+   * @param call          the call to the UCC method.
+   * @param <T>           the type returned by the call.
+   * @return the value returned by the call.
+   */
+  public static <T> T assertRoundTrips(int maxRoundTrips, Supplier<T> call) {
+    return assertBudget(Integer.MAX_VALUE, maxRoundTrips, call);
+  }
+
+  /**
+   * Call a UCC method and check it stayed within the given budget of statements and round trips.
+   *
+   * @param maxStatements the maximum number of statements.
+   * @param maxRoundTrips the maximum number of round trips.
+   * @param call          the call to the UCC method.
+   * @param <T>           the type returned by the call.
+   * @return the value returned by the call.
+   */
+  public static <T> T assertBudget(int maxStatements, int maxRoundTrips, Supplier<T> call) {
+    StatementCounter counter = StatementCounter.current();
+    counter.reset();
+    T result = call.get();
+    long statements = counter.getStatements();
+    long roundTrips = counter.getRoundTrips();
+    assertAll(
+        () -> assertTrue(statements <= maxStatements,
+            "expected at most " + maxStatements + " statements but " + statements
+                + " were prepared"),
+        () -> assertTrue(roundTrips <= maxRoundTrips,
+            "expected at most " + maxRoundTrips + " round trips but " + roundTrips
+                + " were done")
+    );
+    return result;
+  }
+}
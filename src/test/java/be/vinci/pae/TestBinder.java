@@ -10,6 +10,8 @@ import be.vinci.pae.business.factories.ObjectFactory;
 import be.vinci.pae.business.factories.ObjectFactoryImpl;
 import be.vinci.pae.business.factories.OfferFactory;
 import be.vinci.pae.business.factories.OfferFactoryImpl;
+import be.vinci.pae.business.factories.OutboxEventFactory;
+import be.vinci.pae.business.factories.OutboxEventFactoryImpl;
 import be.vinci.pae.business.factories.RatingFactory;
 import be.vinci.pae.business.factories.RatingFactoryImpl;
 import be.vinci.pae.business.factories.TypeFactory;
@@ -22,6 +24,8 @@ import be.vinci.pae.business.ucc.ObjectUCC;
 import be.vinci.pae.business.ucc.ObjectUCCImpl;
 import be.vinci.pae.business.ucc.OfferUCC;
 import be.vinci.pae.business.ucc.OfferUCCImpl;
+import be.vinci.pae.business.ucc.OutboxUCC;
+import be.vinci.pae.business.ucc.OutboxUCCImpl;
 import be.vinci.pae.business.ucc.RatingUCC;
 import be.vinci.pae.business.ucc.RatingUCCImpl;
 import be.vinci.pae.business.ucc.TypeUCC;
@@ -36,12 +40,30 @@ import be.vinci.pae.dal.dao.ObjectDAO;
 import be.vinci.pae.dal.dao.ObjectDAOImpl;
 import be.vinci.pae.dal.dao.OfferDAO;
 import be.vinci.pae.dal.dao.OfferDAOImpl;
+import be.vinci.pae.dal.dao.OutboxDAO;
+import be.vinci.pae.dal.dao.OutboxDAOImpl;
 import be.vinci.pae.dal.dao.RatingDAO;
 import be.vinci.pae.dal.dao.RatingDAOImpl;
 import be.vinci.pae.dal.dao.TypeDAO;
 import be.vinci.pae.dal.dao.TypeDAOImpl;
 import be.vinci.pae.dal.services.DALService;
 import be.vinci.pae.dal.services.DALServiceImpl;
+import be.vinci.pae.dal.services.InvalidationBus;
+import be.vinci.pae.dal.services.InvalidationBusImpl;
+import be.vinci.pae.ihm.manager.LastOffersFeed;
+import be.vinci.pae.ihm.manager.LastOffersFeedImpl;
+import be.vinci.pae.ihm.manager.NotificationHubImpl;
+import be.vinci.pae.ihm.manager.ResponseCache;
+import be.vinci.pae.ihm.manager.ResponseCacheImpl;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import be.vinci.pae.utils.NotificationHub;
+import be.vinci.pae.utils.NotificationSeenBuffer;
+import be.vinci.pae.utils.NotificationSeenBufferImpl;
+import be.vinci.pae.utils.PasswordExecutor;
+import be.vinci.pae.utils.PasswordExecutorImpl;
+import be.vinci.pae.utils.SingleFlight;
+import be.vinci.pae.utils.SingleFlightImpl;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.ext.Provider;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -52,6 +74,8 @@ public class TestBinder extends AbstractBinder {
 
   @Override
   protected void configure() {
+    bind(new ConfigurationImpl("test.properties")).to(Configuration.class);
+
     bind(MemberFactoryImpl.class).to(MemberFactory.class).in(Singleton.class);
     bind(TypeFactoryImpl.class).to(TypeFactory.class).in(Singleton.class);
     bind(InterestFactoryImpl.class).to(InterestFactory.class).in(Singleton.class);
@@ -60,8 +84,13 @@ public class TestBinder extends AbstractBinder {
     bind(ObjectFactoryImpl.class).to(ObjectFactory.class).in(Singleton.class);
     bind(OfferFactoryImpl.class).to(OfferFactory.class).in(Singleton.class);
     bind(RatingFactoryImpl.class).to(RatingFactory.class).in(Singleton.class);
+    bind(OutboxEventFactoryImpl.class).to(OutboxEventFactory.class).in(Singleton.class);
 
     bind(Mockito.mock(DALServiceImpl.class)).to(DALService.class);
+    bind(Mockito.mock(InvalidationBusImpl.class)).to(InvalidationBus.class);
+    bind(PasswordExecutorImpl.class).to(PasswordExecutor.class).in(Singleton.class);
+    bind(SingleFlightImpl.class).to(SingleFlight.class).in(Singleton.class);
+    bind(NotificationSeenBufferImpl.class).to(NotificationSeenBuffer.class).in(Singleton.class);
 
     bind(MemberUCCImpl.class).to(MemberUCC.class).in(Singleton.class);
     bind(TypeUCCImpl.class).to(TypeUCC.class).in(Singleton.class);
@@ -69,6 +98,7 @@ public class TestBinder extends AbstractBinder {
     bind(ObjectUCCImpl.class).to(ObjectUCC.class).in(Singleton.class);
     bind(OfferUCCImpl.class).to(OfferUCC.class).in(Singleton.class);
     bind(RatingUCCImpl.class).to(RatingUCC.class).in(Singleton.class);
+    bind(OutboxUCCImpl.class).to(OutboxUCC.class).in(Singleton.class);
 
     bind(Mockito.mock(AddressDAOImpl.class)).to(AddressDAO.class);
     bind(Mockito.mock(TypeDAOImpl.class)).to(TypeDAO.class);
@@ -77,5 +107,10 @@ public class TestBinder extends AbstractBinder {
     bind(Mockito.mock(ObjectDAOImpl.class)).to(ObjectDAO.class);
     bind(Mockito.mock(OfferDAOImpl.class)).to(OfferDAO.class);
     bind(Mockito.mock(RatingDAOImpl.class)).to(RatingDAO.class);
+    bind(Mockito.mock(OutboxDAOImpl.class)).to(OutboxDAO.class);
+
+    bind(Mockito.mock(NotificationHubImpl.class)).to(NotificationHub.class);
+    bind(Mockito.mock(LastOffersFeedImpl.class)).to(LastOffersFeed.class);
+    bind(Mockito.mock(ResponseCacheImpl.class)).to(ResponseCache.class);
   }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package be.vinci.pae.business.ucc;
+
+import static be.vinci.pae.QueryBudget.assertBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
+import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
+import be.vinci.pae.business.factories.InterestFactory;
+import be.vinci.pae.exceptions.ConflictException;
+import be.vinci.pae.exceptions.NotFoundException;
+import java.time.LocalDate;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InterestUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private InterestUCC interestUCC;
+  private MemberUCC memberUCC;
+  private OfferUCC offerUCC;
+  private ObjectUCC objectUCC;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.interestUCC = locator.getService(InterestUCC.class);
+    this.memberUCC = locator.getService(MemberUCC.class);
+    this.offerUCC = locator.getService(OfferUCC.class);
+    this.objectUCC = locator.getService(ObjectUCC.class);
+  }
+
+  @AfterEach
+  void flushSeenMarks() {
+    // the buffer is shared by the tests of the class
+    interestUCC.flushNotificationsShown();
+  }
+
+  @DisplayName("Test the budget of getInterest")
+  @Test
+  public void testGetInterestBudget() {
+    assertEquals(3, assertBudget(4, 6, () -> interestUCC.getInterest(3, 3)).getIdMember());
+  }
+
+  @DisplayName("Test the budget of addOne on an object without interest")
+  @Test
+  public void testAddOneBudget() {
+    InterestDTO interestDTO = locator.getService(InterestFactory.class).getInterestDTO();
+    interestDTO.setIdObject(5);
+    interestDTO.setAvailabilityDate(LocalDate.now());
+    interestDTO.setIsCalled(false);
+    interestDTO.setObject(objectUCC.getObject(5));
+    interestDTO.setOffer(offerUCC.getLastOffer(5));
+    MemberDTO member = memberUCC.getMember(3);
+    assertEquals(InterestStatus.PUBLISHED,
+        assertBudget(12, 15, () -> interestUCC.addOne(interestDTO, member)).getStatus());
+  }
+
+  @DisplayName("Test an object offered again gets back its archived interests")
+  @Test
+  public void testInterestsRestoredWithNewOffer() {
+    MemberDTO owner = memberUCC.getMember(4);
+    offerUCC.cancelOffer(offerUCC.getOfferById(3), owner);
+    assertEquals(2, offerUCC.archiveOffers().get("interests"));
+    assertEquals(OfferStatus.INTERESTED,
+        offerUCC.addOffer(offerUCC.getLastOffer(3), owner).getStatus());
+    assertEquals(5, interestUCC.getInterest(3, 5).getIdMember());
+
+    InterestDTO interestDTO = locator.getService(InterestFactory.class).getInterestDTO();
+    interestDTO.setIdObject(3);
+    interestDTO.setAvailabilityDate(LocalDate.now());
+    interestDTO.setIsCalled(false);
+    interestDTO.setObject(objectUCC.getObject(3));
+    interestDTO.setOffer(offerUCC.getLastOffer(3));
+    MemberDTO member = memberUCC.getMember(5);
+    assertThrows(ConflictException.class, () -> interestUCC.addOne(interestDTO, member));
+    // the moves between the partitions kept the counters right
+    assertEquals(0, interestUCC.rebuildNotificationCounters());
+    assertEquals(0, offerUCC.rebuildOffersCount());
+  }
+
+  @DisplayName("Test the unread notifications of the archived interests are cleared")
+  @Test
+  public void testArchivedInterestsHaveNoNotification() {
+    MemberDTO owner = memberUCC.getMember(4);
+    offerUCC.cancelOffer(offerUCC.getOfferById(3), owner);
+    final int unread = interestUCC.getNotificationCount(owner);
+    assertTrue(interestUCC.getNotifications(owner).stream()
+        .anyMatch(interestDTO -> interestDTO.getIdObject() == 3));
+    assertEquals(2, offerUCC.archiveOffers().get("interests"));
+
+    // the list, the count and the mark agree on the archived interests
+    assertTrue(interestUCC.getNotifications(owner).stream()
+        .noneMatch(interestDTO -> interestDTO.getIdObject() == 3));
+    assertEquals(unread - 2, interestUCC.getNotificationCount(owner));
+    assertThrows(NotFoundException.class, () -> interestUCC.markNotificationShown(3, owner, 5));
+    assertEquals(0, interestUCC.rebuildNotificationCounters());
+  }
+
+  @DisplayName("Test a notification seen then sent again is counted as it is listed")
+  @Test
+  public void testSeenMarkDiscardedWhenNotifiedAgain() {
+    MemberDTO owner = memberUCC.getMember(4);
+    final int unread = interestUCC.getNotificationCount(owner);
+    interestUCC.markNotificationShown(3, owner, 5);
+    assertEquals(unread - 1, interestUCC.getNotificationCount(owner));
+
+    // the assigned member is notified in place of the owner while the mark waits for its flush
+    InterestDTO interestDTO = interestUCC.getInterest(3, 5);
+    interestDTO.setOffer(offerUCC.getLastOffer(3));
+    interestUCC.assignOffer(interestDTO, owner);
+    assertEquals(unread - 1, interestUCC.getNotificationCount(owner));
+    assertEquals(interestUCC.getNotifications(owner).size(),
+        interestUCC.getNotificationCount(owner));
+    MemberDTO assigned = memberUCC.getMember(5);
+    assertEquals(interestUCC.getNotifications(assigned).size(),
+        interestUCC.getNotificationCount(assigned));
+  }
+
+  @DisplayName("Test the budget of assignOffer")
+  @Test
+  public void testAssignOfferBudget() {
+    InterestDTO interestDTO = interestUCC.getInterest(3, 3);
+    interestDTO.setOffer(offerUCC.getLastOffer(3));
+    MemberDTO owner = memberUCC.getMember(4);
+    assertEquals(InterestStatus.ASSIGNED,
+        assertBudget(14, 17, () -> interestUCC.assignOffer(interestDTO, owner)).getStatus());
+  }
+
+  @DisplayName("Test the budget of getNotificationCount")
+  @Test
+  public void testGetNotificationCountBudget() {
+    MemberDTO member = memberUCC.getMember(5);
+    assertTrue(assertBudget(1, 2, () -> interestUCC.getNotificationCount(member)) > 0);
+  }
+
+  @DisplayName("Test the budget of rebuildNotificationCounters")
+  @Test
+  public void testRebuildNotificationCountersBudget() {
+    assertEquals(0, assertBudget(2, 3, () -> interestUCC.rebuildNotificationCounters()));
+  }
+
+  @DisplayName("Test the budget of getAllInterests")
+  @Test
+  public void testGetAllInterestsBudget() {
+    MemberDTO offeror = memberUCC.getMember(5);
+    assertEquals(3, assertBudget(12, 17, () -> interestUCC.getAllInterests(4, offeror)).size());
+  }
+
+  @DisplayName("Test the budget of getNotifications")
+  @Test
+  public void testGetNotificationsBudget() {
+    MemberDTO member = memberUCC.getMember(5);
+    assertFalse(assertBudget(25, 34, () -> interestUCC.getNotifications(member)).isEmpty());
+  }
+
+  @DisplayName("Test the budget of getInterestedCount")
+  @Test
+  public void testGetInterestedCountBudget() {
+    MemberDTO member = memberUCC.getMember(1);
+    assertEquals(3,
+        assertBudget(4, 6, () -> interestUCC.getInterestedCount(4, member)).get("count")
+            .asInt());
+  }
+
+  @DisplayName("Test the budget of markNotificationShown")
+  @Test
+  public void testMarkNotificationShownBudget() {
+    MemberDTO offeror = memberUCC.getMember(4);
+    assertFalse(assertBudget(7, 10, () -> interestUCC.markNotificationShown(3, offeror, 3))
+        .getIsNotificated());
+  }
+
+  @DisplayName("Test the budget of markAllNotificationsShown")
+  @Test
+  public void testMarkAllNotificationsShownBudget() {
+    MemberDTO member = memberUCC.getMember(5);
+    assertFalse(
+        assertBudget(25, 34, () -> interestUCC.markAllNotificationsShown(member)).isEmpty());
+  }
+
+  @DisplayName("Test the notifications seen are hidden at once and written in one update")
+  @Test
+  public void testFlushNotificationsShownBudget() {
+    MemberDTO offeror = memberUCC.getMember(5);
+    int unread = interestUCC.getNotificationCount(offeror);
+    int[][] interests = {{4, 1}, {4, 3}, {4, 4}, {10, 1}, {10, 3}, {10, 4}, {11, 1}, {11, 3}};
+    for (int[] interest : interests) {
+      interestUCC.markNotificationShown(interest[0], offeror, interest[1]);
+    }
+    assertEquals(unread - interests.length, interestUCC.getNotificationCount(offeror));
+    assertTrue(interestUCC.getNotifications(offeror).stream()
+        .allMatch(interestDTO -> interestDTO.getStatus() != InterestStatus.PUBLISHED));
+
+    assertEquals(interests.length,
+        assertBudget(1, 2, () -> interestUCC.flushNotificationsShown()));
+    assertEquals(unread - interests.length, interestUCC.getNotificationCount(offeror));
+    assertEquals(0, interestUCC.flushNotificationsShown());
+    assertEquals(2, interestUCC.getInterest(4, 1).getVersion());
+  }
+}
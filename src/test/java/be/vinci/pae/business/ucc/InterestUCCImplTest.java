@@ -8,9 +8,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import be.vinci.pae.TestBinder;
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.factories.InterestFactory;
 import be.vinci.pae.business.factories.MemberFactory;
 import be.vinci.pae.business.factories.ObjectFactory;
@@ -24,12 +27,15 @@ import be.vinci.pae.exceptions.ConflictException;
 import be.vinci.pae.exceptions.FatalException;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
+import be.vinci.pae.utils.NotificationHub;
+import be.vinci.pae.utils.NotificationSeenBuffer;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -45,6 +51,7 @@ class InterestUCCImplTest {
   private MemberDAO mockMemberDAO;
   private OfferDAO mockOfferDAO;
   private DALService mockDalService;
+  private NotificationHub mockNotificationHub;
   private ObjectDTO objectDTO;
   private InterestDTO interestDTO;
   private InterestDTO newInterestDTO;
@@ -61,6 +68,7 @@ class InterestUCCImplTest {
     this.mockOfferDAO = locator.getService(OfferDAO.class);
     this.mockMemberDAO = locator.getService(MemberDAO.class);
     this.mockDalService = locator.getService(DALService.class);
+    this.mockNotificationHub = locator.getService(NotificationHub.class);
     ObjectFactory objectFactory = locator.getService(ObjectFactory.class);
     this.objectDTO = objectFactory.getObjectDTO();
     this.objectDTO.setIdObject(10);
@@ -71,7 +79,7 @@ class InterestUCCImplTest {
     this.interestDTO.setObject(objectDTO);
     this.interestDTO.setIdMember(1);
     this.interestDTO.setAvailabilityDate(LocalDate.now());
-    this.interestDTO.setStatus("published");
+    this.interestDTO.setStatus(InterestStatus.PUBLISHED);
     this.interestDTO.setIdObject(objectDTO.getIdObject());
     this.newInterestDTO = interestFactory.getInterestDTO();
     this.objectFactory = locator.getService(ObjectFactory.class);
@@ -80,6 +88,13 @@ class InterestUCCImplTest {
     this.memberFactory = locator.getService(MemberFactory.class);
   }
 
+  @AfterEach
+  void clearSeenMarks() {
+    // the buffer is a singleton of the shared locator
+    NotificationSeenBuffer seenBuffer = locator.getService(NotificationSeenBuffer.class);
+    seenBuffer.remove(seenBuffer.getPending());
+  }
+
   //------------------------------- GET INTEREST InterestUCC---------------------------------------
   @DisplayName("test getInterest with a non existent object and an existent member")
   @Test
@@ -219,7 +234,7 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("given");
+    objectDTO.setStatus(OfferStatus.GIVEN);
     interestDTO.setObject(objectDTO);
     interestDTO.setAvailabilityDate(LocalDate.now());
     Mockito.when(mockInterestDAO.getOne(interestDTO.getIdObject(), interestDTO.getIdMember()))
@@ -242,7 +257,7 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
     interestDTO.setObject(objectDTO);
     interestDTO.setAvailabilityDate(LocalDate.now());
 
@@ -269,12 +284,12 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
     interestDTO.setObject(objectDTO);
     interestDTO.setAvailabilityDate(LocalDate.now());
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
-    offerDTO.setStatus("cancelled");
+    offerDTO.setStatus(OfferStatus.CANCELLED);
 
     Mockito.when(mockInterestDAO.getOne(interestDTO.getIdObject(), interestDTO.getIdMember()))
         .thenReturn(null);
@@ -299,15 +314,15 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
     objectDTO.setVersion(13);
     interestDTO.setObject(objectDTO);
     interestDTO.setAvailabilityDate(LocalDate.now());
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
-    offerDTO.setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
     ObjectDTO objectDTOFromGetOne = objectFactory.getObjectDTO();
-    objectDTOFromGetOne.setStatus("available");
+    objectDTOFromGetOne.setStatus(OfferStatus.AVAILABLE);
     objectDTOFromGetOne.setVersion(14);
     objectDTOFromGetOne.setIdObject(12);
 
@@ -336,15 +351,15 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("interested");
+    objectDTO.setStatus(OfferStatus.INTERESTED);
     objectDTO.setVersion(13);
     interestDTO.setObject(objectDTO);
     interestDTO.setAvailabilityDate(LocalDate.now());
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
-    offerDTO.setStatus("interested");
+    offerDTO.setStatus(OfferStatus.INTERESTED);
     ObjectDTO objectDTOFromGetOne = objectFactory.getObjectDTO();
-    objectDTOFromGetOne.setStatus("interested");
+    objectDTOFromGetOne.setStatus(OfferStatus.INTERESTED);
     objectDTOFromGetOne.setVersion(14);
     objectDTOFromGetOne.setIdObject(12);
 
@@ -373,11 +388,11 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     OfferDTO offerDTO = offerFactory.getOfferDTO();
-    offerDTO.setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
     offerDTO.setVersion(12);
 
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
     objectDTO.setVersion(14);
 
     interestDTO.setObject(objectDTO);
@@ -385,11 +400,11 @@ class InterestUCCImplTest {
     interestDTO.setOffer(offerDTO);
 
     OfferDTO offerDTOFromGetLast = offerFactory.getOfferDTO();
-    offerDTOFromGetLast.setStatus("available");
+    offerDTOFromGetLast.setStatus(OfferStatus.AVAILABLE);
     offerDTOFromGetLast.setVersion(17);
 
     ObjectDTO objectDTOFromGetOne = objectFactory.getObjectDTO();
-    objectDTOFromGetOne.setStatus("available");
+    objectDTOFromGetOne.setStatus(OfferStatus.AVAILABLE);
     objectDTOFromGetOne.setVersion(14);
     objectDTOFromGetOne.setIdObject(12);
 
@@ -418,11 +433,11 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     OfferDTO offerDTO = offerFactory.getOfferDTO();
-    offerDTO.setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
     offerDTO.setVersion(17);
 
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
     objectDTO.setVersion(14);
 
     interestDTO.setObject(objectDTO);
@@ -430,11 +445,11 @@ class InterestUCCImplTest {
     interestDTO.setOffer(offerDTO);
 
     OfferDTO offerDTOFromGetLast = offerFactory.getOfferDTO();
-    offerDTOFromGetLast.setStatus("available");
+    offerDTOFromGetLast.setStatus(OfferStatus.AVAILABLE);
     offerDTOFromGetLast.setVersion(17);
 
     ObjectDTO objectDTOFromGetOne = objectFactory.getObjectDTO();
-    objectDTOFromGetOne.setStatus("available");
+    objectDTOFromGetOne.setStatus(OfferStatus.AVAILABLE);
     objectDTOFromGetOne.setVersion(14);
     objectDTOFromGetOne.setIdObject(12);
 
@@ -459,15 +474,16 @@ class InterestUCCImplTest {
     InterestDTO interestDTOAdded = interestUCC.addOne(interestDTO, authenticatedUser);
 
     assertAll(
-        () -> assertEquals("interested", objectDTOFromGetOne.getStatus()),
-        () -> assertEquals("interested", offerDTOFromGetLast.getStatus()),
+        () -> assertEquals(OfferStatus.INTERESTED, objectDTOFromGetOne.getStatus()),
+        () -> assertEquals(OfferStatus.INTERESTED, offerDTOFromGetLast.getStatus()),
         () -> assertTrue(interestDTOAdded.getIsNotificated()),
         () -> assertEquals(memberDTO, interestDTOAdded.getMember()),
         () -> assertEquals(objectDTOFromGetOne, interestDTOAdded.getObject()),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
-            .commitTransaction()
+            .commitTransaction(),
+        () -> Mockito.verify(mockNotificationHub).publish(interestDTOAdded)
     );
   }
 
@@ -477,11 +493,11 @@ class InterestUCCImplTest {
     MemberDTO authenticatedUser = memberFactory.getMemberDTO();
     authenticatedUser.setMemberId(1);
     OfferDTO offerDTO = offerFactory.getOfferDTO();
-    offerDTO.setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
     offerDTO.setVersion(17);
 
     objectDTO.setIdObject(12);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
     objectDTO.setVersion(14);
 
     interestDTO.setObject(objectDTO);
@@ -489,11 +505,11 @@ class InterestUCCImplTest {
     interestDTO.setOffer(offerDTO);
 
     OfferDTO offerDTOFromGetLast = offerFactory.getOfferDTO();
-    offerDTOFromGetLast.setStatus("available");
+    offerDTOFromGetLast.setStatus(OfferStatus.AVAILABLE);
     offerDTOFromGetLast.setVersion(17);
 
     ObjectDTO objectDTOFromGetOne = objectFactory.getObjectDTO();
-    objectDTOFromGetOne.setStatus("available");
+    objectDTOFromGetOne.setStatus(OfferStatus.AVAILABLE);
     objectDTOFromGetOne.setVersion(14);
     objectDTOFromGetOne.setIdObject(12);
 
@@ -564,23 +580,23 @@ class InterestUCCImplTest {
     );
   }
 
-  @DisplayName("test getAllInterests with null list of published interests")
+  @DisplayName("test getAllInterests with empty list of published interests")
   @Test
-  public void testGetAllInterestsWithNullListInterestPublishedFromDao() {
+  public void testGetAllInterestsWithEmptyListInterestPublishedFromDao() {
     Mockito.when(mockObjectDAO.getOne(objectDTO.getIdObject()))
         .thenReturn(objectDTO);
     Mockito.when(mockInterestDAO.getAllPublished(objectDTO.getIdObject()))
-        .thenReturn(null);
+        .thenReturn(new ArrayList<>());
     objectDTO.setIdOfferor(13);
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(13);
     assertAll(
-        () -> assertThrows(NotFoundException.class,
-            () -> interestUCC.getAllInterests(objectDTO.getIdObject(), memberDTO)),
+        () -> assertTrue(
+            interestUCC.getAllInterests(objectDTO.getIdObject(), memberDTO).isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
-            .rollBackTransaction()
+            .commitTransaction()
     );
   }
 
@@ -644,22 +660,50 @@ class InterestUCCImplTest {
     );
   }
 
+  //  ------------------------- REBUILD NOTIFICATION COUNTERS UCC  ---------------------------  //
+
+  @DisplayName("Test rebuildNotificationCounters with fatal exception from dao")
+  @Test
+  public void testRebuildNotificationCountersThrowFatalException() {
+    Mockito.reset(mockInterestDAO);
+    Mockito.when(mockInterestDAO.rebuildNotificationCounters()).thenThrow(FatalException.class);
+
+    assertAll(
+        () -> assertThrows(FatalException.class, () -> interestUCC.rebuildNotificationCounters()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+    );
+  }
+
+  @DisplayName("Test rebuildNotificationCounters success")
+  @Test
+  public void testRebuildNotificationCountersSuccess() {
+    Mockito.reset(mockInterestDAO);
+    Mockito.when(mockInterestDAO.rebuildNotificationCounters()).thenReturn(2);
+
+    assertAll(
+        () -> assertEquals(2, interestUCC.rebuildNotificationCounters()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
   //  ---------------------------- GET NOTIFICATIONS UCC  -------------------------------  //
 
-  @DisplayName("Test getNotifications with null list of interests returned from dao")
+  @DisplayName("Test getNotifications with empty list of interests returned from dao")
   @Test
-  public void testGetNotificationsWithNullListOfInterestsReturnedFromDao() {
+  public void testGetNotificationsWithEmptyListOfInterestsReturnedFromDao() {
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
 
     Mockito.when(mockInterestDAO.getAllNotifications(memberDTO.getMemberId()))
-        .thenReturn(null);
+        .thenReturn(new ArrayList<>());
 
     assertAll(
-        () -> assertThrows(NotFoundException.class, () -> interestUCC.getNotifications(memberDTO)),
+        () -> assertTrue(interestUCC.getNotifications(memberDTO).isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
   }
 
@@ -692,21 +736,20 @@ class InterestUCCImplTest {
 
   //  ------------------------ MARK ALL NOTIFICATIONS SHOWN UCC  ---------------------------  //
 
-  @DisplayName("Test markAllNotificationsShown with null list of interests returned from dao")
+  @DisplayName("Test markAllNotificationsShown with empty list of interests returned from dao")
   @Test
-  public void testMarkAllNotificationsShownWithNullListOfInterestsReturnedFromDao() {
+  public void testMarkAllNotificationsShownWithEmptyListOfInterestsReturnedFromDao() {
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
 
     Mockito.when(mockInterestDAO.markAllNotificationsShown(memberDTO.getMemberId()))
-        .thenReturn(null);
+        .thenReturn(new ArrayList<>());
 
     assertAll(
-        () -> assertThrows(NotFoundException.class,
-            () -> interestUCC.markAllNotificationsShown(memberDTO)),
+        () -> assertTrue(interestUCC.markAllNotificationsShown(memberDTO).isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
   }
 
@@ -938,6 +981,124 @@ class InterestUCCImplTest {
     );
   }
 
+  //  ------------------------ NOTIFICATIONS SHOWN WRITE-BEHIND  ---------------------------  //
+
+  /**
+   * Mark the notification of a published interest seen by its offeror.
+   *
+   * @return the interest as read from the dao.
+   */
+  private InterestDTO markPublishedInterestShown() {
+    MemberDTO offeror = memberFactory.getMemberDTO();
+    offeror.setMemberId(35);
+    InterestDTO notificated = interestFactory.getInterestDTO();
+    notificated.setIdObject(objectDTO.getIdObject());
+    notificated.setIdMember(1);
+    notificated.setStatus(InterestStatus.PUBLISHED);
+    notificated.setIsNotificated(true);
+    notificated.setVersion(4);
+    Mockito.when(mockObjectDAO.getOne(objectDTO.getIdObject())).thenReturn(objectDTO);
+    Mockito.when(mockInterestDAO.getOne(objectDTO.getIdObject(), 1)).thenReturn(notificated);
+    interestUCC.markNotificationShown(objectDTO.getIdObject(), offeror, 1);
+    InterestDTO read = interestFactory.getInterestDTO();
+    read.setIdObject(objectDTO.getIdObject());
+    read.setIdMember(1);
+    read.setStatus(InterestStatus.PUBLISHED);
+    read.setIsNotificated(true);
+    read.setVersion(4);
+    return read;
+  }
+
+  @DisplayName("Test markNotificationShown is seen at once and written later")
+  @Test
+  public void testMarkNotificationShownIsBuffered() {
+    InterestDTO read = markPublishedInterestShown();
+    MemberDTO offeror = memberFactory.getMemberDTO();
+    offeror.setMemberId(35);
+    List<InterestDTO> notifications = new ArrayList<>();
+    notifications.add(read);
+    Mockito.when(mockInterestDAO.getAllNotifications(35)).thenReturn(notifications);
+    Mockito.when(mockInterestDAO.getNotificationCount(35)).thenReturn(3);
+
+    assertAll(
+        () -> Mockito.verify(mockInterestDAO, Mockito.never()).updateNotification(Mockito.any()),
+        () -> assertTrue(interestUCC.getNotifications(offeror).isEmpty()),
+        () -> assertEquals(2, interestUCC.getNotificationCount(offeror)),
+        () -> assertThrows(ForbiddenException.class,
+            () -> interestUCC.markNotificationShown(objectDTO.getIdObject(), offeror, 1))
+    );
+  }
+
+  @DisplayName("Test markNotificationShown keeps no mark when its transaction fails")
+  @Test
+  public void testMarkNotificationShownRolledBack() {
+    MemberDTO offeror = memberFactory.getMemberDTO();
+    offeror.setMemberId(35);
+    InterestDTO notificated = interestFactory.getInterestDTO();
+    notificated.setIdObject(objectDTO.getIdObject());
+    notificated.setIdMember(171);
+    notificated.setStatus(InterestStatus.PUBLISHED);
+    notificated.setIsNotificated(true);
+    notificated.setVersion(4);
+    Mockito.when(mockObjectDAO.getOne(objectDTO.getIdObject())).thenReturn(objectDTO);
+    Mockito.when(mockInterestDAO.getOne(objectDTO.getIdObject(), 171)).thenReturn(notificated);
+    // a member of its own, the daos are shared by the test classes
+    Mockito.when(mockMemberDAO.getOne(171)).thenThrow(FatalException.class);
+    NotificationSeenBuffer seenBuffer = locator.getService(NotificationSeenBuffer.class);
+
+    assertAll(
+        () -> assertThrows(FatalException.class,
+            () -> interestUCC.markNotificationShown(objectDTO.getIdObject(), offeror, 171)),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction(),
+        () -> assertEquals(0, seenBuffer.size())
+    );
+  }
+
+  @DisplayName("Test a notification sent again after the mark is not hidden")
+  @Test
+  public void testMarkNotificationShownOnlyHidesItsVersion() {
+    InterestDTO read = markPublishedInterestShown();
+    read.setVersion(5);
+    MemberDTO offeror = memberFactory.getMemberDTO();
+    offeror.setMemberId(35);
+    List<InterestDTO> notifications = new ArrayList<>();
+    notifications.add(read);
+    Mockito.when(mockInterestDAO.getAllNotifications(35)).thenReturn(notifications);
+
+    assertEquals(notifications, interestUCC.getNotifications(offeror));
+  }
+
+  @DisplayName("Test flushNotificationsShown writes the marks in one update")
+  @Test
+  public void testFlushNotificationsShown() {
+    markPublishedInterestShown();
+    Mockito.when(mockInterestDAO.updateNotificationsShown(Mockito.anyList())).thenReturn(1);
+
+    assertAll(
+        () -> assertEquals(1, interestUCC.flushNotificationsShown()),
+        () -> Mockito.verify(mockInterestDAO).updateNotificationsShown(Mockito.argThat(
+            marks -> marks.size() == 1 && marks.get(0).getVersion() == 4)),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> assertEquals(0, interestUCC.flushNotificationsShown()),
+        () -> Mockito.verify(mockInterestDAO).updateNotificationsShown(Mockito.anyList())
+    );
+  }
+
+  @DisplayName("Test flushNotificationsShown keeps the marks when the update fails")
+  @Test
+  public void testFlushNotificationsShownFails() {
+    InterestDTO read = markPublishedInterestShown();
+    NotificationSeenBuffer seenBuffer = locator.getService(NotificationSeenBuffer.class);
+    Mockito.when(mockInterestDAO.updateNotificationsShown(Mockito.anyList()))
+        .thenThrow(FatalException.class);
+
+    assertAll(
+        () -> assertThrows(FatalException.class, () -> interestUCC.flushNotificationsShown()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction(),
+        () -> assertTrue(seenBuffer.isPending(read))
+    );
+  }
+
   //  ----------------------------GET INTERESTED COUNT UCC  -------------------------------  //
 
   @DisplayName("Test getInterestedCount with non existent object")
@@ -1141,7 +1302,7 @@ class InterestUCCImplTest {
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
     offerDTOFromGetLastOne.setObject(newObject);
-    offerDTOFromGetLastOne.setStatus("not_collected");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
@@ -1150,7 +1311,7 @@ class InterestUCCImplTest {
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("prevented");
+    memberDTO.setStatus(MemberStatus.PREVENTED);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
@@ -1181,26 +1342,26 @@ class InterestUCCImplTest {
     ObjectDTO newObject = objectFactory.getObjectDTO();
     newObject.setIdObject(objectDTO.getIdObject());
     newObject.setVersion(26);
-    newObject.setStatus("available");
+    newObject.setStatus(OfferStatus.AVAILABLE);
 
     objectDTO.setVersion(26);
-    objectDTO.setStatus("available");
+    objectDTO.setStatus(OfferStatus.AVAILABLE);
 
     OfferDTO offerDTOFromGetLastOne = offerFactory.getOfferDTO();
     offerDTOFromGetLastOne.setObject(newObject);
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
-    offerDTOFromGetLastOne.setStatus("available");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.AVAILABLE);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
     offerDTO.setIdOffer(18);
     offerDTO.setVersion(14);
-    offerDTO.setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("valid");
+    memberDTO.setStatus(MemberStatus.VALID);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
@@ -1231,26 +1392,26 @@ class InterestUCCImplTest {
     ObjectDTO newObject = objectFactory.getObjectDTO();
     newObject.setIdObject(objectDTO.getIdObject());
     newObject.setVersion(26);
-    newObject.setStatus("not_collected");
+    newObject.setStatus(OfferStatus.NOT_COLLECTED);
 
     objectDTO.setVersion(26);
-    objectDTO.setStatus("not_collected");
+    objectDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTOFromGetLastOne = offerFactory.getOfferDTO();
     offerDTOFromGetLastOne.setObject(newObject);
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
-    offerDTOFromGetLastOne.setStatus("not_collected");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
     offerDTO.setIdOffer(18);
     offerDTO.setVersion(14);
-    offerDTO.setStatus("not_collected");
+    offerDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("valid");
+    memberDTO.setStatus(MemberStatus.VALID);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
@@ -1284,26 +1445,26 @@ class InterestUCCImplTest {
     ObjectDTO newObject = objectFactory.getObjectDTO();
     newObject.setIdObject(objectDTO.getIdObject());
     newObject.setVersion(26);
-    newObject.setStatus("interested");
+    newObject.setStatus(OfferStatus.INTERESTED);
 
     objectDTO.setVersion(26);
-    objectDTO.setStatus("interested");
+    objectDTO.setStatus(OfferStatus.INTERESTED);
 
     OfferDTO offerDTOFromGetLastOne = offerFactory.getOfferDTO();
     offerDTOFromGetLastOne.setObject(newObject);
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
-    offerDTOFromGetLastOne.setStatus("interested");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.INTERESTED);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
     offerDTO.setIdOffer(18);
     offerDTO.setVersion(14);
-    offerDTO.setStatus("interested");
+    offerDTO.setStatus(OfferStatus.INTERESTED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("valid");
+    memberDTO.setStatus(MemberStatus.VALID);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
@@ -1337,31 +1498,31 @@ class InterestUCCImplTest {
     ObjectDTO newObject = objectFactory.getObjectDTO();
     newObject.setIdObject(objectDTO.getIdObject());
     newObject.setVersion(26);
-    newObject.setStatus("not_collected");
+    newObject.setStatus(OfferStatus.NOT_COLLECTED);
 
     objectDTO.setVersion(26);
-    objectDTO.setStatus("not_collected");
+    objectDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTOFromGetLastOne = offerFactory.getOfferDTO();
     offerDTOFromGetLastOne.setObject(newObject);
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
-    offerDTOFromGetLastOne.setStatus("not_collected");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
     offerDTO.setIdOffer(18);
     offerDTO.setVersion(14);
-    offerDTO.setStatus("not_collected");
+    offerDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("valid");
+    memberDTO.setStatus(MemberStatus.VALID);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
     interestDTO.setOffer(offerDTO);
-    interestDTO.setStatus("assigned");
+    interestDTO.setStatus(InterestStatus.ASSIGNED);
     interestDTO.setMember(memberDTO);
 
     Mockito.when(mockInterestDAO.getOne(interestDTO.getIdObject(), memberDTO.getMemberId()))
@@ -1390,31 +1551,31 @@ class InterestUCCImplTest {
     ObjectDTO newObject = objectFactory.getObjectDTO();
     newObject.setIdObject(objectDTO.getIdObject());
     newObject.setVersion(26);
-    newObject.setStatus("not_collected");
+    newObject.setStatus(OfferStatus.NOT_COLLECTED);
 
     objectDTO.setVersion(26);
-    objectDTO.setStatus("not_collected");
+    objectDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTOFromGetLastOne = offerFactory.getOfferDTO();
     offerDTOFromGetLastOne.setObject(newObject);
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
-    offerDTOFromGetLastOne.setStatus("not_collected");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
     offerDTO.setIdOffer(18);
     offerDTO.setVersion(14);
-    offerDTO.setStatus("not_collected");
+    offerDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("valid");
+    memberDTO.setStatus(MemberStatus.VALID);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
     interestDTO.setOffer(offerDTO);
-    interestDTO.setStatus("published");
+    interestDTO.setStatus(InterestStatus.PUBLISHED);
     interestDTO.setVersion(12);
     interestDTO.setMember(memberDTO);
 
@@ -1452,31 +1613,31 @@ class InterestUCCImplTest {
     ObjectDTO newObject = objectFactory.getObjectDTO();
     newObject.setIdObject(objectDTO.getIdObject());
     newObject.setVersion(26);
-    newObject.setStatus("not_collected");
+    newObject.setStatus(OfferStatus.NOT_COLLECTED);
 
     objectDTO.setVersion(26);
-    objectDTO.setStatus("not_collected");
+    objectDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTOFromGetLastOne = offerFactory.getOfferDTO();
     offerDTOFromGetLastOne.setObject(newObject);
     offerDTOFromGetLastOne.setIdOffer(18);
     offerDTOFromGetLastOne.setVersion(14);
-    offerDTOFromGetLastOne.setStatus("not_collected");
+    offerDTOFromGetLastOne.setStatus(OfferStatus.NOT_COLLECTED);
 
     OfferDTO offerDTO = offerFactory.getOfferDTO();
     offerDTO.setObject(interestDTO.getObject());
     offerDTO.setIdOffer(18);
     offerDTO.setVersion(14);
-    offerDTO.setStatus("not_collected");
+    offerDTO.setStatus(OfferStatus.NOT_COLLECTED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(3);
-    memberDTO.setStatus("valid");
+    memberDTO.setStatus(MemberStatus.VALID);
 
     interestDTO.setIdMember(memberDTO.getMemberId());
     interestDTO.getObject().setIdOfferor(memberDTO.getMemberId());
     interestDTO.setOffer(offerDTO);
-    interestDTO.setStatus("published");
+    interestDTO.setStatus(InterestStatus.PUBLISHED);
     interestDTO.setVersion(12);
     interestDTO.setMember(memberDTO);
 
@@ -1503,11 +1664,12 @@ class InterestUCCImplTest {
 
     assertAll(
         () -> assertTrue(interestDTOAssigned.getIsNotificated()),
-        () -> assertEquals("assigned", interestDTOAssigned.getStatus()),
-        () -> assertEquals("assigned", offerDTOFromGetLastOne.getStatus()),
-        () -> assertEquals("assigned", newObject.getStatus()),
+        () -> assertEquals(InterestStatus.ASSIGNED, interestDTOAssigned.getStatus()),
+        () -> assertEquals(OfferStatus.ASSIGNED, offerDTOFromGetLastOne.getStatus()),
+        () -> assertEquals(OfferStatus.ASSIGNED, newObject.getStatus()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(mockNotificationHub).publish(interestDTOAssigned)
     );
   }
 
@@ -0,0 +1,129 @@
+package be.vinci.pae.business.ucc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.exceptions.ServiceUnavailableException;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A burst of logins on the integration database, with a member that reads its profile at the
+ * same time. The logins that can't be checked in time must be refused fast and the reads must not
+ * wait for the connections behind bcrypt.
+ */
+class LoginThroughputIT {
+
+  private static final int CLIENTS = 32;
+  private static final long DURATION_MILLIS = 3000;
+  private static final long READ_PAUSE_MILLIS = 10;
+  private static final long MAX_READ_MILLIS = 200;
+  private static final long MAX_REJECTION_MILLIS = 50;
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private MemberUCC memberUCC;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.memberUCC = locator.getService(MemberUCC.class);
+  }
+
+  @DisplayName("Test the throughput of the logins and the reads during a burst of logins")
+  @Test
+  public void testLoginBurst() throws InterruptedException {
+    // bcrypt is compiled and its average time measured before the burst, like at startup
+    for (int i = 0; i < 5; i++) {
+      memberUCC.login("bazz", IntegrationDatabase.PASSWORD);
+    }
+    // the server has loaded JAX-RS before its first 503
+    assertEquals(503, new ServiceUnavailableException("", 1).getResponse().getStatus());
+    ConcurrentLinkedQueue<Long> logins = new ConcurrentLinkedQueue<>();
+    ConcurrentLinkedQueue<Long> rejections = new ConcurrentLinkedQueue<>();
+    ConcurrentLinkedQueue<Long> reads = new ConcurrentLinkedQueue<>();
+    AtomicInteger failedReads = new AtomicInteger();
+    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+
+    List<Thread> clients = new ArrayList<>();
+    for (int i = 0; i < CLIENTS; i++) {
+      clients.add(new Thread(() -> {
+        while (System.nanoTime() < end) {
+          long start = System.nanoTime();
+          try {
+            memberUCC.login("bazz", IntegrationDatabase.PASSWORD);
+            logins.add(elapsedMillis(start));
+          } catch (ServiceUnavailableException e) {
+            rejections.add(elapsedMillis(start));
+            // the client waits as told before trying again
+            sleep(TimeUnit.SECONDS.toMillis(Long.parseLong(
+                e.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER))));
+          }
+        }
+      }));
+    }
+    clients.add(new Thread(() -> {
+      while (System.nanoTime() < end) {
+        long start = System.nanoTime();
+        try {
+          memberUCC.getMember(3);
+          reads.add(elapsedMillis(start));
+        } catch (RuntimeException e) {
+          failedReads.incrementAndGet();
+        }
+        sleep(READ_PAUSE_MILLIS);
+      }
+    }));
+    for (Thread client : clients) {
+      client.start();
+    }
+    for (Thread client : clients) {
+      client.join();
+    }
+
+    long loginP99 = p99(new ArrayList<>(logins));
+    long readP99 = p99(new ArrayList<>(reads));
+    long rejectionP99 = p99(new ArrayList<>(rejections));
+    Logger.getLogger("Log").log(Level.INFO, "{0,number,0.0} logins/s (p99 {1,number,#} ms), "
+            + "{2} rejected (p99 {3,number,#} ms), {4} reads (p99 {5,number,#} ms)",
+        new Object[]{logins.size() * 1000.0 / DURATION_MILLIS, loginP99, rejections.size(),
+            rejectionP99, reads.size(), readP99});
+    assertTrue(logins.size() > 0, "some logins must succeed");
+    assertTrue(loginP99 <= 2 * IntegrationDatabase.getSettings().getPasswordMaxWaitMillis(),
+        "the wait of the logins must be bounded");
+    assertEquals(0, failedReads.get(), "the reads must not wait for a connection");
+    assertTrue(readP99 <= MAX_READ_MILLIS, "the reads must stay fast");
+    assertTrue(rejectionP99 <= MAX_REJECTION_MILLIS, "the rejections must be fast");
+  }
+
+  private static long elapsedMillis(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static long p99(List<Long> latencies) {
+    if (latencies.isEmpty()) {
+      return 0;
+    }
+    Collections.sort(latencies);
+    return latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+  }
+}
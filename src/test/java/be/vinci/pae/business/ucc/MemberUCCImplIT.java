@@ -0,0 +1,120 @@
+package be.vinci.pae.business.ucc;
+
+import static be.vinci.pae.QueryBudget.assertBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.business.domain.dto.AddressDTO;
+import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
+import be.vinci.pae.business.factories.AddressFactory;
+import be.vinci.pae.business.factories.MemberFactory;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MemberUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private MemberUCC memberUCC;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.memberUCC = locator.getService(MemberUCC.class);
+  }
+
+  @DisplayName("Test the budget of login")
+  @Test
+  public void testLoginBudget() {
+    assertEquals("bazz",
+        assertBudget(1, 2, () -> memberUCC.login("bazz", IntegrationDatabase.PASSWORD))
+            .getUsername());
+  }
+
+  @DisplayName("Test the budget of login of a prevented member")
+  @Test
+  public void testLoginPreventedBudget() {
+    MemberDTO memberDTO = memberUCC.getMember(1);
+    memberDTO.setPassword(null);
+    memberUCC.preventMember(memberDTO);
+    // the password is checked between the read of the member and the update of its status
+    assertEquals(MemberStatus.VALID,
+        assertBudget(3, 5, () -> memberUCC.login("caro", IntegrationDatabase.PASSWORD))
+            .getStatus());
+  }
+
+  @DisplayName("Test the budget of updateProfilPicture")
+  @Test
+  public void testUpdateProfilPictureBudget() {
+    Integer version = memberUCC.getMember(3).getVersion();
+    assertEquals(IntegrationDatabase.getSettings().getImagePath() + "bazz.png",
+        assertBudget(2, 3, () -> memberUCC.updateProfilPicture("bazz.png", 3, version))
+            .getImage());
+  }
+
+  @DisplayName("Test the budget of getMember")
+  @Test
+  public void testGetMemberBudget() {
+    assertEquals(3, assertBudget(1, 2, () -> memberUCC.getMember(3)).getMemberId());
+  }
+
+  @DisplayName("Test the budget of register")
+  @Test
+  public void testRegisterBudget() {
+    AddressDTO addressDTO = locator.getService(AddressFactory.class).getAddressDTO();
+    addressDTO.setBuildingNumber("12");
+    addressDTO.setStreet("Rue de la Loi");
+    addressDTO.setPostcode("1000");
+    addressDTO.setCommune("Bruxelles");
+    MemberDTO memberDTO = locator.getService(MemberFactory.class).getMemberDTO();
+    memberDTO.setUsername("nouveau");
+    memberDTO.setLastname("Nouveau");
+    memberDTO.setFirstname("Membre");
+    memberDTO.setPassword(IntegrationDatabase.PASSWORD);
+    memberDTO.setAddress(addressDTO);
+    assertEquals(MemberStatus.PENDING,
+        assertBudget(3, 4, () -> memberUCC.register(memberDTO)).getStatus());
+  }
+
+  @DisplayName("Test the budget of getPicture")
+  @Test
+  public void testGetPictureBudget() throws IOException {
+    File file = new File(IntegrationDatabase.getSettings().getImagePath() + "member-picture.png");
+    ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", file);
+    memberUCC.updateProfilPicture(file.getName(), 3, memberUCC.getMember(3).getVersion());
+    assertNotNull(assertBudget(1, 2, () -> memberUCC.getPicture(3)));
+  }
+
+  @DisplayName("Test the budget of searchMembers")
+  @Test
+  public void testSearchMembersBudget() {
+    assertFalse(assertBudget(1, 2, () -> memberUCC.searchMembers("", "")).isEmpty());
+  }
+
+  @DisplayName("Test the budget of updateMember")
+  @Test
+  public void testUpdateMemberBudget() {
+    MemberDTO memberDTO = memberUCC.getMember(3);
+    memberDTO.setPassword(null);
+    memberDTO.setLastname("Nouveau");
+    assertEquals("Nouveau",
+        assertBudget(5, 6, () -> memberUCC.updateMember(memberDTO)).getLastname());
+  }
+
+  @DisplayName("Test the budget of preventMember with an assigned interest")
+  @Test
+  public void testPreventMemberBudget() {
+    MemberDTO memberDTO = memberUCC.getMember(1);
+    memberDTO.setPassword(null);
+    assertEquals(MemberStatus.PREVENTED,
+        assertBudget(6, 8, () -> memberUCC.preventMember(memberDTO)).getStatus());
+  }
+}
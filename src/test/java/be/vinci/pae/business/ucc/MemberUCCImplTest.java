@@ -5,23 +5,28 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import be.vinci.pae.TestBinder;
 import be.vinci.pae.business.domain.Member;
 import be.vinci.pae.business.domain.MemberImpl;
 import be.vinci.pae.business.domain.dto.AddressDTO;
 import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.MemberStatus;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
 import be.vinci.pae.business.factories.AddressFactory;
 import be.vinci.pae.business.factories.MemberFactory;
 import be.vinci.pae.dal.dao.AddressDAO;
 import be.vinci.pae.dal.dao.MemberDAO;
+import be.vinci.pae.dal.dao.OutboxDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ConflictException;
 import be.vinci.pae.exceptions.FatalException;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
 import be.vinci.pae.exceptions.UnauthorizedException;
-import be.vinci.pae.utils.Config;
+import be.vinci.pae.utils.Configuration;
 import java.util.List;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
@@ -38,14 +43,15 @@ class MemberUCCImplTest {
   private final String badUsername = "test";
   private final String passwd1 = "rayan123";
   private final String badPassword = "test";
-  private final String statusValid = "valid";
-  private final String statusDenied = "denied";
-  private final String statusPending = "pending";
+  private final MemberStatus statusValid = MemberStatus.VALID;
+  private final MemberStatus statusDenied = MemberStatus.DENIED;
+  private final MemberStatus statusPending = MemberStatus.PENDING;
   private MemberUCC memberUCC;
   private MemberDAO mockMemberDAO;
   private AddressDAO mockAddressDAO;
   private Member mockMember;
   private DALService mockDalService;
+  private InvalidationBus mockInvalidationBus;
   private AddressFactory addressFactory;
   private MemberFactory memberFactory;
 
@@ -82,12 +88,12 @@ class MemberUCCImplTest {
 
   @BeforeEach
   void initAll() {
-    Config.load("test.properties");
-    this.pathImage = Config.getProperty("ImagePath");
+    this.pathImage = locator.getService(Configuration.class).getSettings().getImagePath();
     this.memberUCC = locator.getService(MemberUCC.class);
     this.mockMemberDAO = locator.getService(MemberDAO.class);
     this.mockAddressDAO = locator.getService(AddressDAO.class);
     this.mockDalService = locator.getService(DALService.class);
+    this.mockInvalidationBus = locator.getService(InvalidationBus.class);
     this.addressFactory = locator.getService(AddressFactory.class);
     this.memberFactory = locator.getService(MemberFactory.class);
     this.mockMember = Mockito.mock(MemberImpl.class);
@@ -224,22 +230,66 @@ class MemberUCCImplTest {
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(12);
     memberDTO.setUsername("marc");
-    memberDTO.setStatus("prevented");
+    memberDTO.setStatus(MemberStatus.PREVENTED);
     Member member = (Member) memberDTO;
-    memberDTO.setPassword(member.hashPassword(passwd1));
+    memberDTO.setPassword(member.hashPassword(passwd1, 10));
 
     Mockito.when(mockMemberDAO.getOne(memberDTO.getUsername())).thenReturn(memberDTO);
     Mockito.when(mockMemberDAO.updateOne(memberDTO)).thenReturn(memberDTO);
 
+    Mockito.reset(mockInvalidationBus);
     MemberDTO memberDTOLogin = memberUCC.login(memberDTO.getUsername(), passwd1);
     assertAll(
-        () -> assertEquals("valid", memberDTOLogin.getStatus()),
+        () -> assertEquals(MemberStatus.VALID, memberDTOLogin.getStatus()),
         () -> assertNull(memberDTOLogin.getPassword()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(mockInvalidationBus).publish("members")
+    );
+  }
+
+  @DisplayName("Test login function with a password hashed with another cost")
+  @Test
+  public void testLoginRehashesThePassword() {
+    MemberDTO memberDTO = memberFactory.getMemberDTO();
+    memberDTO.setMemberId(13);
+    memberDTO.setUsername("lowcost");
+    memberDTO.setStatus(statusValid);
+    Member member = (Member) memberDTO;
+    String oldHash = member.hashPassword(passwd1, 4);
+    memberDTO.setPassword(oldHash);
+
+    Mockito.when(mockMemberDAO.getOne(memberDTO.getUsername())).thenReturn(memberDTO);
+    Mockito.when(mockMemberDAO.updatePassword(Mockito.eq(13), Mockito.eq(oldHash),
+        Mockito.anyString())).thenReturn(true);
+
+    MemberDTO memberDTOLogin = memberUCC.login(memberDTO.getUsername(), passwd1);
+    assertAll(
+        () -> Mockito.verify(mockMemberDAO).updatePassword(Mockito.eq(13), Mockito.eq(oldHash),
+            Mockito.anyString()),
+        () -> assertTrue(memberDTOLogin.getPassword().startsWith("$2a$10$")),
+        () -> assertTrue(member.checkPassword(passwd1))
     );
   }
 
+  @DisplayName("Test login function with a password hashed with another cost and changed since")
+  @Test
+  public void testLoginKeepsAPasswordChangedDuringTheRehash() {
+    MemberDTO memberDTO = memberFactory.getMemberDTO();
+    memberDTO.setMemberId(14);
+    memberDTO.setUsername("changed");
+    memberDTO.setStatus(statusValid);
+    Member member = (Member) memberDTO;
+    String oldHash = member.hashPassword(passwd1, 4);
+    memberDTO.setPassword(oldHash);
+
+    Mockito.when(mockMemberDAO.getOne(memberDTO.getUsername())).thenReturn(memberDTO);
+    Mockito.when(mockMemberDAO.updatePassword(Mockito.eq(14), Mockito.eq(oldHash),
+        Mockito.anyString())).thenReturn(false);
+
+    assertEquals(oldHash, memberUCC.login(memberDTO.getUsername(), passwd1).getPassword());
+  }
+
   @DisplayName("Test login function with username and password fields empty")
   @Test
   public void testLoginFunctionUsernameAndPasswordAreEmpty() {
@@ -300,13 +350,15 @@ class MemberUCCImplTest {
     Mockito.when(mockMemberDAO.updateProfilPicture(pathImage + "test", memberDTO.getMemberId()))
         .thenReturn(memberDTOWithNewProfilPic);
 
+    Mockito.reset(mockInvalidationBus);
     assertAll(
         () -> assertEquals(memberDTOWithNewProfilPic, memberUCC
             .updateProfilPicture(pathImage + "test", memberDTO.getMemberId(), 1)),
         () -> assertNotEquals(memberDTO.getImage(), memberUCC
             .updateProfilPicture(pathImage + "test", memberDTO.getMemberId(), 1).getImage()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(mockInvalidationBus, Mockito.atLeastOnce()).publish("members")
     );
   }
 
@@ -337,6 +389,52 @@ class MemberUCCImplTest {
     );
   }
 
+  @DisplayName("Test updateProfilPicture deletes the replaced picture after the commit")
+  @Test
+  public void testUpdateProfilPictureQueuesTheDeleteOfTheReplacedPicture() {
+    OutboxDAO mockOutboxDAO = locator.getService(OutboxDAO.class);
+    Mockito.reset(mockOutboxDAO);
+    MemberDTO memberDTO = memberFactory.getMemberDTO();
+    memberDTO.setMemberId(2);
+    memberDTO.setVersion(1);
+    memberDTO.setImage(pathImage + "old.jpg");
+
+    MemberDTO memberDTOWithNewProfilPic = memberFactory.getMemberDTO();
+    memberDTOWithNewProfilPic.setMemberId(2);
+    memberDTOWithNewProfilPic.setImage(pathImage + "test");
+
+    Mockito.when(mockMemberDAO.getOne(memberDTO.getMemberId())).thenReturn(memberDTO);
+    Mockito.when(mockMemberDAO.updateProfilPicture(pathImage + "test", memberDTO.getMemberId()))
+        .thenReturn(memberDTOWithNewProfilPic);
+
+    memberUCC.updateProfilPicture(pathImage + "test", memberDTO.getMemberId(), 1);
+
+    assertAll(
+        () -> Mockito.verify(mockOutboxDAO)
+            .addEvent(OutboxEventDTO.DELETE_IMAGE, pathImage + "old.jpg"),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
+  @DisplayName("Test updateProfilPicture keeps a picture written over the old one")
+  @Test
+  public void testUpdateProfilPictureWithTheSamePath() {
+    OutboxDAO mockOutboxDAO = locator.getService(OutboxDAO.class);
+    Mockito.reset(mockOutboxDAO);
+    MemberDTO memberDTO = memberFactory.getMemberDTO();
+    memberDTO.setMemberId(2);
+    memberDTO.setVersion(1);
+    memberDTO.setImage(pathImage + "test");
+
+    Mockito.when(mockMemberDAO.getOne(memberDTO.getMemberId())).thenReturn(memberDTO);
+    Mockito.when(mockMemberDAO.updateProfilPicture(pathImage + "test", memberDTO.getMemberId()))
+        .thenReturn(memberDTO);
+
+    memberUCC.updateProfilPicture(pathImage + "test", memberDTO.getMemberId(), 1);
+
+    Mockito.verify(mockOutboxDAO, Mockito.never()).addEvent(Mockito.any(), Mockito.any());
+  }
+
   @DisplayName("Test updateProfilPicture with versions that don't match")
   @Test
   public void testUpdateProfilPictureWithDifferentsVersions() {
@@ -540,10 +638,9 @@ class MemberUCCImplTest {
 
     Mockito.when(mockMemberDAO.getAll("", "denied")).thenReturn(allDeniedMemberDTOList);
     assertAll(
-        () -> assertThrows(NotFoundException.class, () -> memberUCC
-            .searchMembers("", "denied")),
+        () -> assertTrue(memberUCC.searchMembers("", "denied").isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
 
   }
@@ -595,20 +692,6 @@ class MemberUCCImplTest {
     );
   }
 
-  @DisplayName("Test searchMembers with a null list received from DAO")
-  @Test
-  public void testSearchMembersNullListReturnedFromDAO() {
-
-    Mockito.when(mockMemberDAO.getAll("", "denied")).thenReturn(null);
-    assertAll(
-        () -> assertThrows(NotFoundException.class, () -> memberUCC
-            .searchMembers("", "denied")),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
-    );
-
-  }
-
   //  -----------------------------  UPDATE MEMBER UCC  -----------------------------------  //
 
   @DisplayName("Test updateMember success")
@@ -636,7 +719,33 @@ class MemberUCCImplTest {
         () -> assertEquals(existentMemberInDBUpdated, memberDTOToTest),
         () -> assertNotEquals(existentMemberInDB.getUsername(), memberDTOToTest.getUsername()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(mockInvalidationBus, Mockito.atLeastOnce()).publish("members")
+    );
+  }
+
+  @DisplayName("Test updateMember hashes the new password for the DAO")
+  @Test
+  public void testUpdateMemberHashesThePassword() {
+    MemberDTO existentMemberInDB = getMemberNewMember();
+    existentMemberInDB.setMemberId(5);
+
+    MemberDTO memberUpdated = getMemberNewMember();
+    memberUpdated.setMemberId(5);
+    memberUpdated.setPassword(passwd1);
+    Mockito.when(mockAddressDAO.getAddressByMemberId(5))
+        .thenReturn(existentMemberInDB.getAddress());
+    Mockito.when(mockMemberDAO.getOne(5)).thenReturn(existentMemberInDB);
+    Mockito.when(mockMemberDAO.getOne(memberUpdated.getUsername())).thenReturn(null);
+    Mockito.when(mockMemberDAO.updateOne(memberUpdated)).thenReturn(memberUpdated);
+    Mockito.when(mockAddressDAO.updateOne(memberUpdated.getAddress()))
+        .thenReturn(existentMemberInDB.getAddress());
+
+    memberUCC.updateMember(memberUpdated);
+    assertAll(
+        () -> assertNotEquals(passwd1, memberUpdated.getPassword()),
+        () -> assertTrue(((Member) memberUpdated).checkPassword(passwd1)),
+        () -> Mockito.verify(mockMemberDAO).updateOne(memberUpdated)
     );
   }
 
@@ -920,21 +1029,23 @@ class MemberUCCImplTest {
     memberFromGetOne.setVersion(13);
     memberFromGetOne.getAddress().setIdMember(memberExistent.getMemberId());
     memberFromGetOne.setMemberId(memberExistent.getMemberId());
-    memberFromGetOne.setStatus("prevented");
+    memberFromGetOne.setStatus(MemberStatus.PREVENTED);
 
     Mockito.when(mockMemberDAO.getOne(memberExistent.getMemberId())).thenReturn(memberFromGetOne);
     Mockito.when(mockMemberDAO.updateOne(memberExistent)).thenReturn(memberFromGetOne);
     Mockito.when(mockAddressDAO.getAddressByMemberId(memberFromGetOne.getMemberId()))
         .thenReturn(memberFromGetOne.getAddress());
 
+    Mockito.reset(mockInvalidationBus);
     MemberDTO memberDTOUpdated = memberUCC.preventMember(memberExistent);
 
     assertAll(
-        () -> assertEquals("prevented", memberExistent.getStatus()),
-        () -> assertEquals("prevented", memberDTOUpdated.getStatus()),
+        () -> assertEquals(MemberStatus.PREVENTED, memberExistent.getStatus()),
+        () -> assertEquals(MemberStatus.PREVENTED, memberDTOUpdated.getStatus()),
         () -> assertEquals(memberFromGetOne, memberDTOUpdated),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(mockInvalidationBus).publish("members")
     );
   }
 
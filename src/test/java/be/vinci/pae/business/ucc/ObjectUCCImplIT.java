@@ -0,0 +1,88 @@
+package be.vinci.pae.business.ucc;
+
+import static be.vinci.pae.QueryBudget.assertBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.business.domain.dto.ObjectDTO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ObjectUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private ObjectUCC objectUCC;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.objectUCC = locator.getService(ObjectUCC.class);
+  }
+
+  @DisplayName("Test the budget of getObject")
+  @Test
+  public void testGetObjectBudget() {
+    assertEquals(3, assertBudget(2, 4, () -> objectUCC.getObject(3)).getIdObject());
+  }
+
+  @DisplayName("Test the budget of getPicture")
+  @Test
+  public void testGetPictureBudget() throws IOException {
+    File file = new File(IntegrationDatabase.getSettings().getImagePath() + "object-picture.png");
+    ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", file);
+    objectUCC.updateObjectPicture(file.getName(), 2, 3, objectUCC.getObject(2).getVersion());
+    assertNotNull(assertBudget(2, 4, () -> objectUCC.getPicture(2)));
+  }
+
+  @DisplayName("Test the budget of getAllObjectMember")
+  @Test
+  public void testGetAllObjectMemberBudget() {
+    assertEquals(7, assertBudget(8, 9, () -> objectUCC.getAllObjectMember(5)).size());
+  }
+
+  @DisplayName("Test getAllObjectMember of a member without object is an empty list")
+  @Test
+  public void testGetAllObjectMemberWithoutObject() {
+    assertTrue(objectUCC.getAllObjectMember(2).isEmpty());
+  }
+
+  @DisplayName("Test the budget of updateOne")
+  @Test
+  public void testUpdateOneBudget() {
+    ObjectDTO objectDTO = objectUCC.getObject(2);
+    objectDTO.setDescription("Une autre description");
+    assertEquals("Une autre description",
+        assertBudget(4, 6, () -> objectUCC.updateOne(objectDTO)).getDescription());
+  }
+
+  @DisplayName("Test the budget of updateObjectPicture")
+  @Test
+  public void testUpdateObjectPictureBudget() {
+    int version = objectUCC.getObject(2).getVersion();
+    assertEquals(IntegrationDatabase.getSettings().getImagePath() + "object.png",
+        assertBudget(6, 9, () -> objectUCC.updateObjectPicture("object.png", 2, 3, version))
+            .getImage());
+  }
+
+  @DisplayName("Test the budget of forEachReferencedImage")
+  @Test
+  public void testForEachReferencedImageBudget() {
+    List<String> images = assertBudget(2, 3, () -> {
+      List<String> references = new ArrayList<>();
+      objectUCC.forEachReferencedImage(references::add);
+      return references;
+    });
+    assertEquals(12, images.size());
+    assertTrue(images.contains("img\\objects\\2.jpg"));
+  }
+}
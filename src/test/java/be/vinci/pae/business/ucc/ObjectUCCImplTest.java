@@ -3,17 +3,20 @@ package be.vinci.pae.business.ucc;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import be.vinci.pae.TestBinder;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
 import be.vinci.pae.business.factories.ObjectFactory;
 import be.vinci.pae.business.factories.OfferFactory;
 import be.vinci.pae.dal.dao.ObjectDAO;
+import be.vinci.pae.dal.dao.OutboxDAO;
 import be.vinci.pae.dal.services.DALService;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
-import be.vinci.pae.utils.Config;
 import java.util.ArrayList;
 import java.util.List;
 import org.glassfish.hk2.api.ServiceLocator;
@@ -46,19 +49,18 @@ class ObjectUCCImplTest {
     this.objectDTO.setIdObject(1);
     this.objectDTO.setDescription("the description");
     this.objectDTO.setIdOfferor(1);
-    this.objectDTO.setStatus("available");
+    this.objectDTO.setStatus(OfferStatus.AVAILABLE);
     this.objectDTO.setImage(this.pathImage);
     this.objectDTO.setVersion(1);
     this.objectDTOUpdated = objectFactory.getObjectDTO();
     this.objectDTOUpdated.setIdObject(1);
     this.objectDTOUpdated.setDescription("the description2");
     this.objectDTOUpdated.setIdOfferor(1);
-    this.objectDTOUpdated.setStatus("available");
+    this.objectDTOUpdated.setStatus(OfferStatus.AVAILABLE);
     this.objectDTOUpdated.setVersion(1);
     OfferFactory offerFactory = locator.getService(OfferFactory.class);
     this.offerDTO = offerFactory.getOfferDTO();
     this.offerDTO.setObject(objectDTO);
-    Config.load("test.properties");
   }
 
   @DisplayName("test getObject with an existent id")
@@ -103,10 +105,9 @@ class ObjectUCCImplTest {
     List<ObjectDTO> allObjectsList = new ArrayList<>();
     Mockito.when(mockObjectDAO.getAllObjectOfMember(inexistentId)).thenReturn(allObjectsList);
     assertAll(
-        () -> assertThrows(NotFoundException.class,
-            () -> objectUCC.getAllObjectMember(inexistentId)),
+        () -> assertTrue(objectUCC.getAllObjectMember(inexistentId).isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).commitTransaction()
     );
   }
 
@@ -116,9 +117,9 @@ class ObjectUCCImplTest {
     List<ObjectDTO> allObjectsList = new ArrayList<>();
     Mockito.when(mockObjectDAO.getAllObjectOfMember(1)).thenReturn(allObjectsList);
     assertAll(
-        () -> assertThrows(NotFoundException.class, () -> objectUCC.getAllObjectMember(1)),
+        () -> assertTrue(objectUCC.getAllObjectMember(1).isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).commitTransaction()
     );
   }
 
@@ -217,6 +218,25 @@ class ObjectUCCImplTest {
     );
   }
 
+  @DisplayName("test updateObjectPicture deletes the replaced image after the commit")
+  @Test
+  public void testUpdateObjectPictureQueuesTheDeleteOfTheReplacedImage() {
+    OutboxDAO mockOutboxDAO = locator.getService(OutboxDAO.class);
+    Mockito.reset(mockOutboxDAO);
+    objectDTO.setImage("C:/img2.png");
+    objectDTOUpdated.setImage(pathImage);
+    Mockito.when(mockObjectDAO.getOne(objectDTO.getIdObject())).thenReturn(objectDTO);
+    Mockito.when(mockObjectDAO.updateObjectPicture(pathImage, objectDTO.getIdObject()))
+        .thenReturn(objectDTOUpdated);
+    assertAll(
+        () -> assertEquals(objectDTOUpdated,
+            objectUCC.updateObjectPicture(pathImage, objectDTO.getIdObject(),
+                objectDTO.getIdOfferor(), 1)),
+        () -> Mockito.verify(mockOutboxDAO).addEvent(OutboxEventDTO.DELETE_IMAGE, "C:/img2.png"),
+        () -> Mockito.verify(mockDalService, Mockito.atLeast(1)).commitTransaction()
+    );
+  }
+
   @DisplayName("test updateObjectPicture with non-existent object")
   @Test
   public void testUpdateObjectPictureWithNonExistentObject() {
@@ -0,0 +1,89 @@
+package be.vinci.pae.business.ucc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.dal.services.QueryStatistics;
+import be.vinci.pae.utils.SingleFlight;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Many members read the same offer at the same time, like after a link is shared. The identical
+ * reads must share their statements instead of each taking a connection.
+ */
+class OfferStampedeIT {
+
+  private static final int CLIENTS = 16;
+  private static final int READS = 50;
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private OfferUCC offerUCC;
+  private QueryStatistics queryStatistics;
+  private SingleFlight singleFlight;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.offerUCC = locator.getService(OfferUCC.class);
+    this.queryStatistics = locator.getService(QueryStatistics.class);
+    this.singleFlight = locator.getService(SingleFlight.class);
+  }
+
+  @DisplayName("Test the identical reads of an offer at the same time share their statements")
+  @Test
+  public void testStampedeOnOneOffer() throws InterruptedException {
+    offerUCC.getOfferById(3);
+    // counted before the reads, the statements of the other tests are kept in the statistics
+    final long statementsBefore = countStatements();
+    final long coalescedBefore = singleFlight.getStatistics().get("coalesced").longValue();
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger wrongOffers = new AtomicInteger();
+    List<Thread> clients = new ArrayList<>();
+    for (int i = 0; i < CLIENTS; i++) {
+      clients.add(new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        for (int read = 0; read < READS; read++) {
+          if (offerUCC.getOfferById(3).getIdOffer() != 3) {
+            wrongOffers.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Thread client : clients) {
+      client.start();
+    }
+    start.countDown();
+    for (Thread client : clients) {
+      client.join();
+    }
+
+    long statements = countStatements() - statementsBefore;
+    long coalesced = singleFlight.getStatistics().get("coalesced").longValue() - coalescedBefore;
+    Logger.getLogger("Log").log(Level.INFO, "{0} reads, {1} statements, {2} coalesced",
+        new Object[]{CLIENTS * READS, statements, coalesced});
+    assertEquals(0, wrongOffers.get());
+    assertTrue(coalesced > 0, "some reads must wait for an identical one");
+    assertTrue(statements < CLIENTS * READS, "the coalesced reads must not query the database");
+  }
+
+  private long countStatements() {
+    return queryStatistics.getStatistics().stream()
+        .mapToLong(statistics -> ((Number) statistics.get("count")).longValue())
+        .sum();
+  }
+}
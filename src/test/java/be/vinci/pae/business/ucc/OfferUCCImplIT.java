@@ -0,0 +1,187 @@
+package be.vinci.pae.business.ucc;
+
+import static be.vinci.pae.QueryBudget.assertBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.business.domain.dto.MemberDTO;
+import be.vinci.pae.business.domain.dto.ObjectDTO;
+import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
+import be.vinci.pae.business.domain.dto.TypeDTO;
+import be.vinci.pae.business.factories.ObjectFactory;
+import be.vinci.pae.business.factories.OfferFactory;
+import be.vinci.pae.business.factories.TypeFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OfferUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private OfferUCC offerUCC;
+  private MemberUCC memberUCC;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.offerUCC = locator.getService(OfferUCC.class);
+    this.memberUCC = locator.getService(MemberUCC.class);
+  }
+
+  @DisplayName("Test the budget of getLastOffers")
+  @Test
+  public void testGetLastOffersBudget() {
+    assertFalse(assertBudget(1, 2, () -> offerUCC.getLastOffers()).isEmpty());
+  }
+
+  @DisplayName("Test the budget of getOfferById")
+  @Test
+  public void testGetOfferByIdBudget() {
+    assertEquals(3, assertBudget(1, 2, () -> offerUCC.getOfferById(3)).getIdOffer());
+  }
+
+  @DisplayName("Test the budget of addOffer")
+  @Test
+  public void testAddOfferBudget() {
+    OfferDTO offerDTO = offerUCC.getLastOffer(1);
+    MemberDTO owner = memberUCC.getMember(3);
+    assertEquals(OfferStatus.AVAILABLE,
+        assertBudget(6, 7, () -> offerUCC.addOffer(offerDTO, owner)).getStatus());
+  }
+
+  @DisplayName("Test the budget of updateOffer")
+  @Test
+  public void testUpdateOfferBudget() {
+    OfferDTO offerDTO = offerUCC.getOfferById(13);
+    offerDTO.setTimeSlot("Le soir");
+    assertEquals("Le soir",
+        assertBudget(4, 5, () -> offerUCC.updateOffer(offerDTO)).getTimeSlot());
+  }
+
+  @DisplayName("Test the budget of getOffers")
+  @Test
+  public void testGetOffersBudget() {
+    assertFalse(assertBudget(1, 2, () -> offerUCC.getOffers("a", 5, "", null, "")).isEmpty());
+  }
+
+  @DisplayName("Test the budget of getLastOffer")
+  @Test
+  public void testGetLastOfferBudget() {
+    assertEquals(3, assertBudget(1, 2, () -> offerUCC.getLastOffer(3)).getIdOffer());
+  }
+
+  @DisplayName("Test the budget of getOfferHistory and the previous date of a repost")
+  @Test
+  public void testGetOfferHistoryBudget() {
+    OfferDTO offerDTO = offerUCC.getLastOffer(1);
+    int idRepost = offerUCC.addOffer(offerDTO, memberUCC.getMember(3)).getIdOffer();
+    List<OfferDTO> history = assertBudget(1, 2, () -> offerUCC.getOfferHistory(1));
+    assertEquals(2, history.size());
+    assertNull(history.get(0).getOldDate());
+    assertEquals(idRepost, history.get(1).getIdOffer());
+    LocalDate firstDate = offerDTO.getDate();
+    assertEquals(firstDate, history.get(1).getOldDate());
+    assertEquals(firstDate, offerUCC.getOfferById(idRepost).getOldDate());
+  }
+
+  @DisplayName("Test the archival of the finished offers and of their interests")
+  @Test
+  public void testArchiveOffers() {
+    offerUCC.giveOffer(offerUCC.getOfferById(9), memberUCC.getMember(5));
+    // one row by batch : 3 batches of offers and 2 of interests, each in its transaction
+    Map<String, Integer> archived = assertBudget(9, 14, () -> offerUCC.archiveOffers());
+    assertEquals(2, archived.get("offers"));
+    assertEquals(1, archived.get("interests"));
+    assertTrue(offerUCC.getOffers("", 0, "", null, "").stream()
+        .noneMatch(o -> o.getObject().getIdObject() == 1 || o.getObject().getIdObject() == 9));
+    assertEquals(1, offerUCC.getOfferHistory(1).size());
+    assertEquals(OfferStatus.CANCELLED, offerUCC.getOfferById(1).getStatus());
+    assertEquals(1, offerUCC.getGivenOffers(1).size());
+    assertEquals(Map.of("offers", 0, "interests", 0), offerUCC.archiveOffers());
+
+    int idRepost = offerUCC.addOffer(offerUCC.getLastOffer(1), memberUCC.getMember(3))
+        .getIdOffer();
+    assertTrue(offerUCC.getOffers("", 0, "", null, "").stream()
+        .anyMatch(o -> o.getIdOffer() == idRepost));
+    assertEquals(2, offerUCC.getOfferHistory(1).size());
+  }
+
+  @DisplayName("Test the budget of getGivenOffers")
+  @Test
+  public void testGetGivenOffersBudget() {
+    offerUCC.giveOffer(offerUCC.getOfferById(9), memberUCC.getMember(5));
+    assertEquals(1, assertBudget(1, 2, () -> offerUCC.getGivenOffers(1)).size());
+  }
+
+  @DisplayName("Test the budget of getGivenAndAssignedOffers")
+  @Test
+  public void testGetGivenAndAssignedOffersBudget() {
+    MemberDTO receiver = memberUCC.getMember(3);
+    assertEquals(1,
+        assertBudget(1, 2, () -> offerUCC.getGivenAndAssignedOffers(receiver, "")).size());
+  }
+
+  @DisplayName("Test the budget of cancelOffer with an assigned interest")
+  @Test
+  public void testCancelOfferBudget() {
+    OfferDTO offerDTO = offerUCC.getOfferById(9);
+    MemberDTO owner = memberUCC.getMember(5);
+    assertEquals(OfferStatus.CANCELLED,
+        assertBudget(7, 8, () -> offerUCC.cancelOffer(offerDTO, owner)).getStatus());
+  }
+
+  @DisplayName("Test the budget of notCollectedOffer")
+  @Test
+  public void testNotCollectedOfferBudget() {
+    OfferDTO offerDTO = offerUCC.getOfferById(12);
+    MemberDTO owner = memberUCC.getMember(1);
+    assertEquals(OfferStatus.NOT_COLLECTED,
+        assertBudget(8, 9, () -> offerUCC.notCollectedOffer(offerDTO, owner)).getStatus());
+  }
+
+  @DisplayName("Test the budget of giveOffer")
+  @Test
+  public void testGiveOfferBudget() {
+    OfferDTO offerDTO = offerUCC.getOfferById(9);
+    MemberDTO owner = memberUCC.getMember(5);
+    assertEquals(OfferStatus.GIVEN,
+        assertBudget(8, 9, () -> offerUCC.giveOffer(offerDTO, owner)).getStatus());
+  }
+
+  @DisplayName("Test the budget of getOffersCount")
+  @Test
+  public void testGetOffersCountBudget() {
+    assertEquals(7,
+        assertBudget(1, 2, () -> offerUCC.getOffersCount(5)).get("nbOffers"));
+  }
+
+  @DisplayName("Test the budget of rebuildOffersCount")
+  @Test
+  public void testRebuildOffersCountBudget() {
+    assertEquals(0, assertBudget(2, 3, () -> offerUCC.rebuildOffersCount()));
+  }
+
+  @DisplayName("Test the budget of addObject")
+  @Test
+  public void testAddObjectBudget() {
+    TypeDTO typeDTO = locator.getService(TypeFactory.class).getTypeDTO();
+    typeDTO.setIdType(3);
+    ObjectDTO objectDTO = locator.getService(ObjectFactory.class).getObjectDTO();
+    objectDTO.setType(typeDTO);
+    objectDTO.setDescription("Une lampe");
+    objectDTO.setIdOfferor(3);
+    OfferDTO offerDTO = locator.getService(OfferFactory.class).getOfferDTO();
+    offerDTO.setObject(objectDTO);
+    offerDTO.setTimeSlot("Le matin");
+    assertEquals(OfferStatus.AVAILABLE,
+        assertBudget(4, 5, () -> offerUCC.addObject(offerDTO)).getStatus());
+  }
+}
@@ -8,9 +8,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import be.vinci.pae.TestBinder;
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.MemberDTO;
 import be.vinci.pae.business.domain.dto.ObjectDTO;
 import be.vinci.pae.business.domain.dto.OfferDTO;
+import be.vinci.pae.business.domain.dto.OfferStatus;
 import be.vinci.pae.business.domain.dto.TypeDTO;
 import be.vinci.pae.business.factories.InterestFactory;
 import be.vinci.pae.business.factories.MemberFactory;
@@ -23,14 +25,22 @@ import be.vinci.pae.dal.dao.ObjectDAO;
 import be.vinci.pae.dal.dao.OfferDAO;
 import be.vinci.pae.dal.dao.TypeDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.FatalException;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
+import be.vinci.pae.utils.NotificationHub;
+import be.vinci.pae.utils.SingleFlight;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,6 +64,8 @@ class OfferUCCImplTest {
   private InterestFactory interestFactory;
   private InterestDAO interestDAO;
   private MemberFactory memberFactory;
+  private NotificationHub notificationHub;
+  private InvalidationBus invalidationBus;
 
 
   private OfferDTO getNewOffer() {
@@ -88,6 +100,8 @@ class OfferUCCImplTest {
     this.interestFactory = locator.getService(InterestFactory.class);
     this.interestDAO = locator.getService(InterestDAO.class);
     this.memberFactory = locator.getService(MemberFactory.class);
+    this.notificationHub = locator.getService(NotificationHub.class);
+    this.invalidationBus = locator.getService(InvalidationBus.class);
   }
 
   //  ----------------------------  GET LAST OFFERS UCC  -------------------------------  //
@@ -96,9 +110,9 @@ class OfferUCCImplTest {
   public void testGetAllLastOffersWithDAOReturningEmptyListOfOffers() {
     Mockito.when(offerDAO.getAllLast()).thenReturn(new ArrayList<>());
     assertAll(
-        () -> assertThrows(NotFoundException.class, () -> offerUCC.getLastOffers()),
+        () -> assertTrue(offerUCC.getLastOffers().isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
   }
 
@@ -148,20 +162,49 @@ class OfferUCCImplTest {
     );
   }
 
+  @DisplayName("Test concurrent getOfferById with the same id read the database once")
+  @Test
+  public void testGetOfferByIdConcurrentReadsCoalesced() throws Exception {
+    OfferDTO offerDTO = getNewOffer();
+    CountDownLatch release = new CountDownLatch(1);
+    Mockito.when(offerDAO.getOne(42)).thenAnswer(invocation -> {
+      release.await();
+      return offerDTO;
+    });
+    SingleFlight singleFlight = locator.getService(SingleFlight.class);
+    long coalesced = singleFlight.getStatistics().get("coalesced").longValue();
+    ExecutorService callers = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<OfferDTO>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(callers.submit(() -> offerUCC.getOfferById(42)));
+      }
+      while (singleFlight.getStatistics().get("coalesced").longValue() < coalesced + 3) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+      for (Future<OfferDTO> result : results) {
+        assertEquals(offerDTO, result.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+    Mockito.verify(offerDAO, Mockito.times(1)).getOne(42);
+  }
+
   //  ----------------------------  GET OFFERS UCC  -------------------------------  //
 
   @DisplayName("Test getOffers with non offer returned")
   @Test
   public void testGetOffersWithEmptyListOfOffersReturned() {
-    Mockito.when(offerDAO.getAll("", 0, "", "", ""))
+    Mockito.when(offerDAO.getAll("", 0, "", null, ""))
         .thenReturn(new ArrayList<>());
     assertAll(
-        () -> assertThrows(NotFoundException.class, () -> offerUCC
-            .getOffers("", 0, "", "", "")),
+        () -> assertTrue(offerUCC.getOffers("", 0, "", null, "").isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
-            .rollBackTransaction()
+            .commitTransaction()
     );
   }
 
@@ -181,9 +224,9 @@ class OfferUCCImplTest {
 
     List<OfferDTO> offerDTOS = List.of(offerDTO1, offerDTO2, offerDTO3);
 
-    Mockito.when(offerDAO.getAll("", 0, "", "", "")).thenReturn(offerDTOS);
+    Mockito.when(offerDAO.getAll("", 0, "", null, "")).thenReturn(offerDTOS);
     assertAll(
-        () -> assertEquals(offerDTOS, offerUCC.getOffers("", 0, "", "", "")),
+        () -> assertEquals(offerDTOS, offerUCC.getOffers("", 0, "", null, "")),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
@@ -197,22 +240,22 @@ class OfferUCCImplTest {
     OfferDTO offerDTO1 = getNewOffer();
     offerDTO1.setIdOffer(4);
     offerDTO1.getObject().setIdObject(55);
-    offerDTO1.getObject().setStatus("given");
+    offerDTO1.getObject().setStatus(OfferStatus.GIVEN);
     OfferDTO offerDTO2 = getNewOffer();
     offerDTO2.setIdOffer(5);
     offerDTO2.getObject().setIdObject(56);
-    offerDTO2.getObject().setStatus("given");
+    offerDTO2.getObject().setStatus(OfferStatus.GIVEN);
     OfferDTO offerDTO3 = getNewOffer();
     offerDTO3.setIdOffer(6);
     offerDTO3.getObject().setIdObject(57);
-    offerDTO3.getObject().setStatus("available");
+    offerDTO3.getObject().setStatus(OfferStatus.AVAILABLE);
     offerDTO3.getObject().setIdOfferor(33);
 
     List<OfferDTO> offerDTOS = List.of(offerDTO1, offerDTO2);
 
-    Mockito.when(offerDAO.getAll("given", 0, "", "", "")).thenReturn(offerDTOS);
+    Mockito.when(offerDAO.getAll("given", 0, "", null, "")).thenReturn(offerDTOS);
     assertAll(
-        () -> assertEquals(offerDTOS, offerUCC.getOffers("given", 0, "", "", "")),
+        () -> assertEquals(offerDTOS, offerUCC.getOffers("given", 0, "", null, "")),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
@@ -226,26 +269,26 @@ class OfferUCCImplTest {
     OfferDTO offerDTO1 = getNewOffer();
     offerDTO1.setIdOffer(4);
     offerDTO1.getObject().setIdObject(55);
-    offerDTO1.getObject().setStatus("given");
+    offerDTO1.getObject().setStatus(OfferStatus.GIVEN);
     offerDTO1.getObject().setIdOfferor(13);
 
     OfferDTO offerDTO2 = getNewOffer();
     offerDTO2.setIdOffer(5);
     offerDTO2.getObject().setIdObject(56);
-    offerDTO2.getObject().setStatus("given");
+    offerDTO2.getObject().setStatus(OfferStatus.GIVEN);
     offerDTO2.getObject().setIdOfferor(13);
 
     OfferDTO offerDTO3 = getNewOffer();
     offerDTO3.setIdOffer(6);
     offerDTO3.getObject().setIdObject(57);
-    offerDTO3.getObject().setStatus("available");
+    offerDTO3.getObject().setStatus(OfferStatus.AVAILABLE);
     offerDTO3.getObject().setIdOfferor(10);
 
     List<OfferDTO> offerDTOS = List.of(offerDTO1, offerDTO2);
 
-    Mockito.when(offerDAO.getAll("given", 13, "", "", "")).thenReturn(offerDTOS);
+    Mockito.when(offerDAO.getAll("given", 13, "", null, "")).thenReturn(offerDTOS);
     assertAll(
-        () -> assertEquals(offerDTOS, offerUCC.getOffers("given", 13, "", "", "")),
+        () -> assertEquals(offerDTOS, offerUCC.getOffers("given", 13, "", null, "")),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
@@ -373,7 +416,7 @@ class OfferUCCImplTest {
   public void testCancelOfferWithNonExistentOffer() {
     OfferDTO mockOfferDTO = getNewOffer();
     mockOfferDTO.setIdOffer(2);
-    mockOfferDTO.setStatus("given");
+    mockOfferDTO.setStatus(OfferStatus.GIVEN);
     mockOfferDTO.getObject().setIdOfferor(2);
 
     MemberDTO mockMember = memberFactory.getMemberDTO();
@@ -394,7 +437,7 @@ class OfferUCCImplTest {
   public void testCancelOfferWithNotSameIdMemberVersion() {
     OfferDTO mockOfferDTO = getNewOffer();
     mockOfferDTO.setIdOffer(2);
-    mockOfferDTO.setStatus("available");
+    mockOfferDTO.setStatus(OfferStatus.AVAILABLE);
     mockOfferDTO.getObject().setIdOfferor(2);
 
     MemberDTO mockMember = memberFactory.getMemberDTO();
@@ -402,7 +445,7 @@ class OfferUCCImplTest {
 
     OfferDTO offerDTOFromDao = getNewOffer();
     offerDTOFromDao.setIdOffer(2);
-    offerDTOFromDao.setStatus("available");
+    offerDTOFromDao.setStatus(OfferStatus.AVAILABLE);
     offerDTOFromDao.getObject().setIdOfferor(2);
 
     Mockito.when(offerDAO.getOne(mockOfferDTO.getIdOffer())).thenReturn(offerDTOFromDao);
@@ -422,7 +465,7 @@ class OfferUCCImplTest {
     MemberDTO mockMember = memberFactory.getMemberDTO();
 
     mockOfferDTO.setIdOffer(2);
-    mockOfferDTO.setStatus("given");
+    mockOfferDTO.setStatus(OfferStatus.GIVEN);
     mockMember.setMemberId(2);
     mockOfferDTO.getObject().setIdOfferor(2);
 
@@ -443,7 +486,7 @@ class OfferUCCImplTest {
     MemberDTO mockMember = memberFactory.getMemberDTO();
 
     mockOfferDTO.setIdOffer(2);
-    mockOfferDTO.setStatus("cancelled");
+    mockOfferDTO.setStatus(OfferStatus.CANCELLED);
     mockMember.setMemberId(2);
     mockOfferDTO.getObject().setIdOfferor(2);
 
@@ -462,7 +505,7 @@ class OfferUCCImplTest {
   public void testCancelOfferWithNotSameOfferVersion() {
     OfferDTO mockOfferDTO = getNewOffer();
     mockOfferDTO.setIdOffer(2);
-    mockOfferDTO.setStatus("available");
+    mockOfferDTO.setStatus(OfferStatus.AVAILABLE);
     mockOfferDTO.getObject().setIdOfferor(2);
     mockOfferDTO.setVersion(6);
 
@@ -471,7 +514,7 @@ class OfferUCCImplTest {
 
     OfferDTO offerDTOFromDao = getNewOffer();
     offerDTOFromDao.setIdOffer(2);
-    offerDTOFromDao.setStatus("available");
+    offerDTOFromDao.setStatus(OfferStatus.AVAILABLE);
     offerDTOFromDao.getObject().setIdOfferor(2);
     offerDTOFromDao.setVersion(9);
 
@@ -490,7 +533,7 @@ class OfferUCCImplTest {
   public void testCancelOfferWithNotSameObjectOfferVersion() {
     OfferDTO mockOfferDTO = getNewOffer();
     mockOfferDTO.setIdOffer(2);
-    mockOfferDTO.setStatus("available");
+    mockOfferDTO.setStatus(OfferStatus.AVAILABLE);
     mockOfferDTO.getObject().setIdOfferor(2);
     mockOfferDTO.setVersion(6);
     mockOfferDTO.getObject().setVersion(16);
@@ -500,7 +543,7 @@ class OfferUCCImplTest {
 
     OfferDTO offerDTOFromDao = getNewOffer();
     offerDTOFromDao.setIdOffer(2);
-    offerDTOFromDao.setStatus("available");
+    offerDTOFromDao.setStatus(OfferStatus.AVAILABLE);
     offerDTOFromDao.getObject().setIdOfferor(2);
     offerDTOFromDao.setVersion(6);
     offerDTOFromDao.getObject().setVersion(13);
@@ -519,12 +562,12 @@ class OfferUCCImplTest {
   @Test
   public void testCancelOfferSuccessWithoutInterestAssigned() {
     OfferDTO offerDTO = getNewOffer();
-    offerDTO.setStatus("available");
-    offerDTO.getObject().setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
+    offerDTO.getObject().setStatus(OfferStatus.AVAILABLE);
     offerDTO.getObject().setIdOfferor(5);
 
     OfferDTO offerDTOFromDAO = getNewOffer();
-    offerDTOFromDAO.setStatus("cancelled");
+    offerDTOFromDAO.setStatus(OfferStatus.CANCELLED);
 
     MemberDTO mockMember = memberFactory.getMemberDTO();
     mockMember.setMemberId(5);
@@ -539,11 +582,12 @@ class OfferUCCImplTest {
 
     OfferDTO offerDTOUpdated = offerUCC.cancelOffer(offerDTO, mockMember);
     assertAll(
-        () -> assertEquals("cancelled", offerDTOUpdated.getStatus()),
-        () -> assertEquals("cancelled", offerDTOUpdated.getObject().getStatus()),
+        () -> assertEquals(OfferStatus.CANCELLED, offerDTOUpdated.getStatus()),
+        () -> assertEquals(OfferStatus.CANCELLED, offerDTOUpdated.getObject().getStatus()),
         () -> assertEquals(offerDTOUpdated, offerDTOFromDAO),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(invalidationBus, Mockito.atLeastOnce()).publish("offers")
     );
   }
 
@@ -551,13 +595,13 @@ class OfferUCCImplTest {
   @Test
   public void testCancelOfferSuccessWithInterestAssigned() {
     OfferDTO offerDTO = getNewOffer();
-    offerDTO.setStatus("available");
-    offerDTO.getObject().setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
+    offerDTO.getObject().setStatus(OfferStatus.AVAILABLE);
 
     OfferDTO offerDTOFromDAO = getNewOffer();
     offerDTOFromDAO.setObject(offerDTO.getObject());
-    offerDTOFromDAO.setStatus("cancelled");
-    offerDTOFromDAO.getObject().setStatus("cancelled");
+    offerDTOFromDAO.setStatus(OfferStatus.CANCELLED);
+    offerDTOFromDAO.getObject().setStatus(OfferStatus.CANCELLED);
 
     MemberDTO mockMember = memberFactory.getMemberDTO();
     mockMember.setMemberId(5);
@@ -579,12 +623,13 @@ class OfferUCCImplTest {
 
     OfferDTO offerDTOUpdated = offerUCC.cancelOffer(offerDTO, mockMember);
     assertAll(
-        () -> assertEquals("cancelled", offerDTOUpdated.getStatus()),
-        () -> assertEquals("cancelled", offerDTOUpdated.getObject().getStatus()),
+        () -> assertEquals(OfferStatus.CANCELLED, offerDTOUpdated.getStatus()),
+        () -> assertEquals(OfferStatus.CANCELLED, offerDTOUpdated.getObject().getStatus()),
         () -> assertEquals(offerDTOUpdated, offerDTOFromDAO),
-        () -> assertEquals("published", interestDTO.getStatus()),
+        () -> assertEquals(InterestStatus.PUBLISHED, interestDTO.getStatus()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(notificationHub).publish(interestDTO)
     );
   }
 
@@ -597,10 +642,9 @@ class OfferUCCImplTest {
     Mockito.when(offerDAO.getAllGivenOffers(2)).thenReturn(listOffers);
 
     assertAll(
-        () -> assertThrows(NotFoundException.class,
-            () -> offerUCC.getGivenOffers(2)),
+        () -> assertTrue(offerUCC.getGivenOffers(2).isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
   }
 
@@ -608,11 +652,11 @@ class OfferUCCImplTest {
   @Test
   public void testGetGivenOffersSuccess() {
     OfferDTO offerGiven = getNewOffer();
-    offerGiven.setStatus("given");
-    offerGiven.getObject().setStatus("given");
+    offerGiven.setStatus(OfferStatus.GIVEN);
+    offerGiven.getObject().setStatus(OfferStatus.GIVEN);
     OfferDTO offerAvailable = getNewOffer();
-    offerAvailable.setStatus("available");
-    offerAvailable.getObject().setStatus("available");
+    offerAvailable.setStatus(OfferStatus.AVAILABLE);
+    offerAvailable.getObject().setStatus(OfferStatus.AVAILABLE);
 
     List<OfferDTO> listOffers = new ArrayList<>();
     listOffers.add(offerGiven);
@@ -758,19 +802,19 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.setIdOffer(3);
     offerDTO.getObject().setIdObject(3);
-    offerDTO.setStatus("cancelled");
+    offerDTO.setStatus(OfferStatus.CANCELLED);
 
     OfferDTO offerDTOFromDAO = getNewOffer();
     offerDTOFromDAO.setIdOffer(3);
     offerDTOFromDAO.getObject().setIdObject(3);
-    offerDTOFromDAO.setStatus("cancelled");
+    offerDTOFromDAO.setStatus(OfferStatus.CANCELLED);
 
     ObjectDTO objectDTO = offerDTO.getObject();
 
     InterestDTO interestDTO = interestFactory.getInterestDTO();
     interestDTO.setIdMember(3);
     interestDTO.setObject(objectDTO);
-    interestDTO.setStatus("published");
+    interestDTO.setStatus(InterestStatus.PUBLISHED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     offerDTO.getObject().setIdOfferor(2);
@@ -798,12 +842,12 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.setIdOffer(3);
     offerDTO.getObject().setIdObject(3);
-    offerDTO.setStatus("assigned");
+    offerDTO.setStatus(OfferStatus.ASSIGNED);
 
     OfferDTO offerDTOFromDAO = getNewOffer();
     offerDTOFromDAO.setIdOffer(3);
     offerDTOFromDAO.getObject().setIdObject(3);
-    offerDTOFromDAO.setStatus("assigned");
+    offerDTOFromDAO.setStatus(OfferStatus.ASSIGNED);
 
     ObjectDTO objectDTO = offerDTO.getObject();
 
@@ -811,7 +855,7 @@ class OfferUCCImplTest {
     interestDTO.setIdObject(objectDTO.getIdObject());
     interestDTO.setIdMember(3);
     interestDTO.setObject(objectDTO);
-    interestDTO.setStatus("published");
+    interestDTO.setStatus(InterestStatus.PUBLISHED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     offerDTO.getObject().setIdOfferor(2);
@@ -833,11 +877,12 @@ class OfferUCCImplTest {
     OfferDTO offerDTOUpdated = offerUCC.giveOffer(offerDTO, memberDTO);
 
     assertAll(
-        () -> assertEquals("received", interestDTO.getStatus()),
-        () -> assertEquals("given", offerDTOUpdated.getStatus()),
-        () -> assertEquals("given", offerDTOUpdated.getObject().getStatus()),
+        () -> assertEquals(InterestStatus.RECEIVED, interestDTO.getStatus()),
+        () -> assertEquals(OfferStatus.GIVEN, offerDTOUpdated.getStatus()),
+        () -> assertEquals(OfferStatus.GIVEN, offerDTOUpdated.getObject().getStatus()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(notificationHub).publish(interestDTO)
     );
   }
 
@@ -871,7 +916,8 @@ class OfferUCCImplTest {
         () -> assertEquals(offerDTO.getObject().getType(),
             offerFromAdd.getObject().getType()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(invalidationBus, Mockito.atLeastOnce()).publish("types")
     );
   }
 
@@ -1155,19 +1201,19 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.setIdOffer(3);
     offerDTO.getObject().setIdObject(3);
-    offerDTO.setStatus("cancelled");
+    offerDTO.setStatus(OfferStatus.CANCELLED);
 
     OfferDTO offerDTOFromDAO = getNewOffer();
     offerDTOFromDAO.setIdOffer(3);
     offerDTOFromDAO.getObject().setIdObject(3);
-    offerDTOFromDAO.setStatus("cancelled");
+    offerDTOFromDAO.setStatus(OfferStatus.CANCELLED);
 
     ObjectDTO objectDTO = offerDTO.getObject();
 
     InterestDTO interestDTO = interestFactory.getInterestDTO();
     interestDTO.setIdMember(3);
     interestDTO.setObject(objectDTO);
-    interestDTO.setStatus("published");
+    interestDTO.setStatus(InterestStatus.PUBLISHED);
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(2);
@@ -1196,13 +1242,13 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.setIdOffer(3);
     offerDTO.getObject().setIdObject(3);
-    offerDTO.setStatus("assigned");
+    offerDTO.setStatus(OfferStatus.ASSIGNED);
     offerDTO.getObject().setIdOfferor(2);
 
     OfferDTO offerDTOFromDAO = getNewOffer();
     offerDTOFromDAO.setIdOffer(3);
     offerDTOFromDAO.getObject().setIdObject(3);
-    offerDTOFromDAO.setStatus("assigned");
+    offerDTOFromDAO.setStatus(OfferStatus.ASSIGNED);
     offerDTOFromDAO.getObject().setIdOfferor(2);
 
     ObjectDTO objectDTO = offerDTO.getObject();
@@ -1211,7 +1257,7 @@ class OfferUCCImplTest {
     InterestDTO interestDTO = interestFactory.getInterestDTO();
     interestDTO.setIdMember(3);
     interestDTO.setObject(objectDTO);
-    interestDTO.setStatus("published");
+    interestDTO.setStatus(InterestStatus.PUBLISHED);
     interestDTO.setIdObject(objectDTO.getIdObject());
 
     MemberDTO memberDTO = memberFactory.getMemberDTO();
@@ -1237,9 +1283,9 @@ class OfferUCCImplTest {
     OfferDTO offerDTOUpdated = offerUCC.notCollectedOffer(offerDTO, memberDTO);
 
     assertAll(
-        () -> assertEquals("not_collected", interestDTO.getStatus()),
-        () -> assertEquals("not_collected", offerDTOUpdated.getStatus()),
-        () -> assertEquals("not_collected", offerDTOUpdated.getObject().getStatus()),
+        () -> assertEquals(InterestStatus.NOT_COLLECTED, interestDTO.getStatus()),
+        () -> assertEquals(OfferStatus.NOT_COLLECTED, offerDTOUpdated.getStatus()),
+        () -> assertEquals(OfferStatus.NOT_COLLECTED, offerDTOUpdated.getObject().getStatus()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
@@ -1276,6 +1322,94 @@ class OfferUCCImplTest {
     );
   }
 
+  //  ---------------------------- REBUILD OFFERS COUNT UCC  -------------------------------  //
+
+  @DisplayName("Test rebuildOffersCount with a database error")
+  @Test
+  public void testRebuildOffersCountWithDatabaseError() {
+    Mockito.reset(offerDAO);
+    Mockito.when(offerDAO.rebuildOffersCount()).thenThrow(FatalException.class);
+
+    assertAll(
+        () -> assertThrows(FatalException.class, () -> offerUCC.rebuildOffersCount()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+    );
+  }
+
+  @DisplayName("Test rebuildOffersCount success")
+  @Test
+  public void testRebuildOffersCountSuccess() {
+    Mockito.reset(offerDAO);
+    Mockito.when(offerDAO.rebuildOffersCount()).thenReturn(2);
+
+    assertAll(
+        () -> assertEquals(2, offerUCC.rebuildOffersCount()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
+  //  ---------------------------- ARCHIVE OFFERS UCC  -------------------------------  //
+
+  @DisplayName("Test archiveOffers success")
+  @Test
+  public void testArchiveOffersSuccess() {
+    Mockito.reset(offerDAO, interestDAO, invalidationBus);
+    Mockito.when(offerDAO.archiveOffers(Mockito.any(), Mockito.anyInt())).thenReturn(3);
+    Mockito.when(interestDAO.archiveInterests(Mockito.anyInt())).thenReturn(5);
+
+    assertAll(
+        () -> assertEquals(Map.of("offers", 3, "interests", 5), offerUCC.archiveOffers()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(invalidationBus).publish("offers")
+    );
+  }
+
+  @DisplayName("Test archiveOffers runs batches until one isn't full")
+  @Test
+  public void testArchiveOffersByBatches() {
+    Mockito.reset(offerDAO, interestDAO, invalidationBus);
+    Mockito.when(offerDAO.archiveOffers(Mockito.any(), Mockito.eq(1000)))
+        .thenReturn(1000, 1000, 3);
+    Mockito.when(interestDAO.archiveInterests(1000)).thenReturn(1000, 0);
+
+    assertAll(
+        () -> assertEquals(Map.of("offers", 2003, "interests", 1000), offerUCC.archiveOffers()),
+        () -> Mockito.verify(offerDAO, Mockito.times(3))
+            .archiveOffers(Mockito.any(), Mockito.eq(1000)),
+        () -> Mockito.verify(interestDAO, Mockito.times(2)).archiveInterests(1000),
+        () -> Mockito.verify(invalidationBus, Mockito.times(3)).publish("offers")
+    );
+  }
+
+  @DisplayName("Test archiveOffers with nothing to archive")
+  @Test
+  public void testArchiveOffersWithNothingToArchive() {
+    Mockito.reset(offerDAO, interestDAO, invalidationBus);
+    Mockito.when(offerDAO.archiveOffers(Mockito.any(), Mockito.anyInt())).thenReturn(0);
+    Mockito.when(interestDAO.archiveInterests(Mockito.anyInt())).thenReturn(0);
+
+    assertAll(
+        () -> assertEquals(Map.of("offers", 0, "interests", 0), offerUCC.archiveOffers()),
+        () -> Mockito.verify(invalidationBus, Mockito.never()).publish("offers")
+    );
+  }
+
+  @DisplayName("Test archiveOffers with a database error")
+  @Test
+  public void testArchiveOffersWithDatabaseError() {
+    Mockito.reset(offerDAO, interestDAO, invalidationBus);
+    Mockito.when(offerDAO.archiveOffers(Mockito.any(), Mockito.anyInt()))
+        .thenThrow(FatalException.class);
+
+    assertAll(
+        () -> assertThrows(FatalException.class, () -> offerUCC.archiveOffers()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction(),
+        () -> Mockito.verify(invalidationBus, Mockito.never()).publish("offers")
+    );
+  }
+
   //  ---------------------------- GET LAST OFFER UCC  -------------------------------  //
 
   @DisplayName("Test getLastOffer with none offer returned from dao")
@@ -1306,6 +1440,37 @@ class OfferUCCImplTest {
     );
   }
 
+  //  ---------------------------- GET OFFER HISTORY UCC  -------------------------------  //
+
+  @DisplayName("Test getOfferHistory with none offer returned from dao")
+  @Test
+  public void testGetOfferHistoryWithNoneOfferReturnedFromDao() {
+    int idObject = 3;
+    Mockito.when(offerDAO.getHistory(idObject)).thenReturn(List.of());
+
+    assertAll(
+        () -> assertThrows(NotFoundException.class, () -> offerUCC.getOfferHistory(idObject)),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+    );
+  }
+
+  @DisplayName("Test getOfferHistory success")
+  @Test
+  public void testGetOfferHistorySuccess() {
+    OfferDTO firstOffer = getNewOffer();
+    OfferDTO repost = getNewOffer();
+    repost.setOldDate(firstOffer.getDate());
+    List<OfferDTO> history = List.of(firstOffer, repost);
+    Mockito.when(offerDAO.getHistory(4)).thenReturn(history);
+
+    assertAll(
+        () -> assertEquals(history, offerUCC.getOfferHistory(4)),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
   //  ---------------------------- ADD OFFER UCC  -------------------------------  //
 
   @DisplayName("Test addOffer with no one existing offer")
@@ -1348,7 +1513,7 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.getObject().setIdObject(3);
     offerDTO.getObject().setIdOfferor(13);
-    offerDTO.setStatus("available");
+    offerDTO.setStatus(OfferStatus.AVAILABLE);
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(13);
     Mockito.when(offerDAO.getLastObjectOffer(offerDTO.getObject().getIdObject()))
@@ -1367,7 +1532,7 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.getObject().setIdObject(3);
     offerDTO.getObject().setIdOfferor(13);
-    offerDTO.setStatus("cancelled");
+    offerDTO.setStatus(OfferStatus.CANCELLED);
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(13);
     Mockito.when(offerDAO.getLastObjectOffer(offerDTO.getObject().getIdObject()))
@@ -1380,12 +1545,13 @@ class OfferUCCImplTest {
     OfferDTO offerDTOAdded = offerUCC.addOffer(offerDTO, memberDTO);
 
     assertAll(
-        () -> assertEquals("available",
+        () -> assertEquals(OfferStatus.AVAILABLE,
             offerDTOAdded.getObject().getStatus()),
-        () -> assertEquals("available",
+        () -> assertEquals(OfferStatus.AVAILABLE,
             offerDTOAdded.getStatus()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction(),
+        () -> Mockito.verify(invalidationBus, Mockito.atLeastOnce()).publish("offers")
     );
   }
 
@@ -1395,7 +1561,7 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.getObject().setIdObject(3);
     offerDTO.getObject().setIdOfferor(13);
-    offerDTO.setStatus("cancelled");
+    offerDTO.setStatus(OfferStatus.CANCELLED);
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(13);
     Mockito.when(offerDAO.getLastObjectOffer(offerDTO.getObject().getIdObject()))
@@ -1408,10 +1574,11 @@ class OfferUCCImplTest {
     OfferDTO offerDTOAdded = offerUCC.addOffer(offerDTO, memberDTO);
 
     assertAll(
-        () -> assertEquals("interested",
+        () -> assertEquals(OfferStatus.INTERESTED,
             offerDTOAdded.getObject().getStatus()),
-        () -> assertEquals("interested",
+        () -> assertEquals(OfferStatus.INTERESTED,
             offerDTOAdded.getStatus()),
+        () -> Mockito.verify(interestDAO).restoreInterests(3),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
@@ -1423,7 +1590,7 @@ class OfferUCCImplTest {
     OfferDTO offerDTO = getNewOffer();
     offerDTO.getObject().setIdObject(3);
     offerDTO.getObject().setIdOfferor(13);
-    offerDTO.setStatus("not_collected");
+    offerDTO.setStatus(OfferStatus.NOT_COLLECTED);
     MemberDTO memberDTO = memberFactory.getMemberDTO();
     memberDTO.setMemberId(13);
     Mockito.when(offerDAO.getLastObjectOffer(offerDTO.getObject().getIdObject()))
@@ -1436,9 +1603,9 @@ class OfferUCCImplTest {
     OfferDTO offerDTOAdded = offerUCC.addOffer(offerDTO, memberDTO);
 
     assertAll(
-        () -> assertEquals("interested",
+        () -> assertEquals(OfferStatus.INTERESTED,
             offerDTOAdded.getObject().getStatus()),
-        () -> assertEquals("interested",
+        () -> assertEquals(OfferStatus.INTERESTED,
             offerDTOAdded.getStatus()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
@@ -1456,10 +1623,9 @@ class OfferUCCImplTest {
         .thenReturn(new ArrayList<>());
 
     assertAll(
-        () -> assertThrows(NotFoundException.class,
-            () -> offerUCC.getGivenAndAssignedOffers(memberDTO, "")),
+        () -> assertTrue(offerUCC.getGivenAndAssignedOffers(memberDTO, "").isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
-        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
     );
   }
 
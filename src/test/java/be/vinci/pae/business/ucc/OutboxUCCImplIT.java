@@ -0,0 +1,114 @@
+package be.vinci.pae.business.ucc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.dal.dao.OutboxDAO;
+import be.vinci.pae.dal.services.DALService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OutboxUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private OutboxUCC outboxUCC;
+  private OutboxDAO outboxDAO;
+  private DALService dalService;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.outboxUCC = locator.getService(OutboxUCC.class);
+    this.outboxDAO = locator.getService(OutboxDAO.class);
+    this.dalService = locator.getService(DALService.class);
+  }
+
+  private void addEvents(int count) {
+    dalService.startTransaction();
+    for (int i = 0; i < count; i++) {
+      outboxDAO.addEvent(OutboxEventDTO.DELETE_IMAGE, "image-" + i);
+    }
+    dalService.commitTransaction();
+  }
+
+  @DisplayName("Test that a worker skips the events locked by another one")
+  @Test
+  public void testClaimEventsSkipsLockedEvents() throws Exception {
+    addEvents(10);
+    CountDownLatch claimed = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    // another node claims 4 events and keeps its transaction open
+    CompletableFuture<List<OutboxEventDTO>> otherNode = CompletableFuture.supplyAsync(() -> {
+      dalService.startTransaction();
+      final List<OutboxEventDTO> events = outboxDAO.claimEvents(4, 60, 5);
+      claimed.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      dalService.commitTransaction();
+      return events;
+    });
+    assertTrue(claimed.await(5, TimeUnit.SECONDS));
+    List<OutboxEventDTO> events = outboxUCC.claimEvents();
+    release.countDown();
+
+    Set<Long> ids = new HashSet<>();
+    otherNode.get(5, TimeUnit.SECONDS).forEach(event -> ids.add(event.getIdEvent()));
+    events.forEach(event -> ids.add(event.getIdEvent()));
+    assertEquals(6, events.size());
+    assertEquals(10, ids.size());
+    assertTrue(outboxUCC.claimEvents().isEmpty(), "the claimed events are leased");
+  }
+
+  @DisplayName("Test the retries of a failed event until it is given up")
+  @Test
+  public void testFailedEventIsRetriedThenGivenUp() {
+    addEvents(1);
+    OutboxEventDTO event = outboxUCC.claimEvents().get(0);
+    assertEquals(1, event.getAttempts());
+    outboxUCC.failEvent(event, "error");
+    assertTrue(outboxUCC.claimEvents().isEmpty(), "a failed event waits before its retry");
+
+    dalService.startTransaction();
+    outboxDAO.retryEvent(event.getIdEvent(), "error", 0);
+    assertEquals(2, outboxDAO.claimEvents(10, 0, 5).get(0).getAttempts());
+    assertTrue(outboxDAO.claimEvents(10, 0, 2).isEmpty(), "an event given up is kept aside");
+    dalService.commitTransaction();
+  }
+
+  @DisplayName("Test that a completed event is removed")
+  @Test
+  public void testCompleteEvent() {
+    addEvents(1);
+    OutboxEventDTO event = outboxUCC.claimEvents().get(0);
+    outboxUCC.completeEvent(event.getIdEvent());
+    dalService.startTransaction();
+    assertTrue(outboxDAO.claimEvents(10, 0, 100).isEmpty());
+    dalService.commitTransaction();
+  }
+
+  @DisplayName("Test that a new picture queues the delete of the old one")
+  @Test
+  public void testUpdateProfilPictureQueuesTheDelete() {
+    MemberUCC memberUCC = locator.getService(MemberUCC.class);
+    memberUCC.updateProfilPicture("first.png", 3, memberUCC.getMember(3).getVersion());
+    memberUCC.updateProfilPicture("second.png", 3, memberUCC.getMember(3).getVersion());
+    List<OutboxEventDTO> events = outboxUCC.claimEvents();
+    assertEquals(1, events.size());
+    assertEquals(OutboxEventDTO.DELETE_IMAGE, events.get(0).getKind());
+    assertEquals(IntegrationDatabase.getSettings().getImagePath() + "first.png",
+        events.get(0).getPayload());
+  }
+}
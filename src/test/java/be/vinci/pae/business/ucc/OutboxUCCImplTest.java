@@ -0,0 +1,107 @@
+package be.vinci.pae.business.ucc;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.TestBinder;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.business.factories.OutboxEventFactory;
+import be.vinci.pae.dal.dao.OutboxDAO;
+import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.exceptions.FatalException;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.Settings;
+import java.util.List;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class OutboxUCCImplTest {
+
+  private final ServiceLocator locator = ServiceLocatorUtilities.bind(new TestBinder());
+  private OutboxUCC outboxUCC;
+  private OutboxDAO mockOutboxDAO;
+  private DALService mockDalService;
+  private Settings settings;
+  private OutboxEventDTO outboxEventDTO;
+
+  @BeforeEach
+  void initAll() {
+    this.outboxUCC = locator.getService(OutboxUCC.class);
+    this.mockOutboxDAO = locator.getService(OutboxDAO.class);
+    Mockito.reset(mockOutboxDAO);
+    this.mockDalService = locator.getService(DALService.class);
+    this.settings = locator.getService(Configuration.class).getSettings();
+    this.outboxEventDTO = locator.getService(OutboxEventFactory.class).getOutboxEventDTO();
+    this.outboxEventDTO.setIdEvent(7L);
+    this.outboxEventDTO.setKind(OutboxEventDTO.DELETE_IMAGE);
+    this.outboxEventDTO.setPayload("img\\objects\\1.png");
+    this.outboxEventDTO.setAttempts(1);
+  }
+
+  @DisplayName("Test claimEvents with the batch, the lease and the attempts of the settings")
+  @Test
+  public void testClaimEventsSuccess() {
+    Mockito.when(mockOutboxDAO.claimEvents(settings.getOutboxBatchSize(),
+            settings.getOutboxLeaseSeconds(), settings.getOutboxMaxAttempts()))
+        .thenReturn(List.of(outboxEventDTO));
+    assertAll(
+        () -> assertEquals(List.of(outboxEventDTO), outboxUCC.claimEvents()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).startTransaction(),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
+  @DisplayName("Test claimEvents with a database error")
+  @Test
+  public void testClaimEventsWithDatabaseError() {
+    Mockito.when(mockOutboxDAO.claimEvents(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+        .thenThrow(FatalException.class);
+    assertAll(
+        () -> assertThrows(FatalException.class, () -> outboxUCC.claimEvents()),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).rollBackTransaction()
+    );
+  }
+
+  @DisplayName("Test completeEvent deletes the event")
+  @Test
+  public void testCompleteEventSuccess() {
+    outboxUCC.completeEvent(7L);
+    assertAll(
+        () -> Mockito.verify(mockOutboxDAO).deleteEvent(7L),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
+  @DisplayName("Test failEvent doubles the delay of each attempt")
+  @Test
+  public void testFailEventBeforeTheLastAttempt() {
+    outboxEventDTO.setAttempts(3);
+    assertAll(
+        () -> assertFalse(outboxUCC.failEvent(outboxEventDTO, "error")),
+        () -> Mockito.verify(mockOutboxDAO).retryEvent(7L, "error", 8),
+        () -> Mockito.verify(mockDalService, Mockito.atLeastOnce()).commitTransaction()
+    );
+  }
+
+  @DisplayName("Test failEvent at the last attempt gives up the event")
+  @Test
+  public void testFailEventAtTheLastAttempt() {
+    outboxEventDTO.setAttempts(settings.getOutboxMaxAttempts());
+    assertTrue(outboxUCC.failEvent(outboxEventDTO, "error"));
+  }
+
+  @DisplayName("Test failEvent with a long history keeps the delay bounded")
+  @Test
+  public void testFailEventWithManyAttempts() {
+    outboxEventDTO.setAttempts(40);
+    outboxUCC.failEvent(outboxEventDTO, "error");
+    Mockito.verify(mockOutboxDAO).retryEvent(7L, "error", 300);
+  }
+}
@@ -0,0 +1,111 @@
+package be.vinci.pae.business.ucc;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.QueryCancellation;
+import be.vinci.pae.exceptions.ServiceUnavailableException;
+import be.vinci.pae.utils.Settings;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The searches blocked by a lock held by another session must be stopped by their timeout or by
+ * the cancellation of their request, and their transaction rolled back without losing the
+ * connection.
+ */
+class QueryCancellationIT {
+
+  private static final long CANCEL_AFTER_MILLIS = 200;
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private OfferUCC offerUCC;
+  private MemberUCC memberUCC;
+  private DALService dalService;
+  private Connection lockConnection;
+
+  @BeforeEach
+  void initAll() throws SQLException {
+    IntegrationDatabase.reset();
+    this.offerUCC = locator.getService(OfferUCC.class);
+    this.memberUCC = locator.getService(MemberUCC.class);
+    this.dalService = locator.getService(DALService.class);
+    Settings settings = IntegrationDatabase.getSettings();
+    lockConnection = DriverManager.getConnection(settings.getDbUrl(), settings.getDbUser(),
+        settings.getDbPassword());
+    lockConnection.setAutoCommit(false);
+    try (Statement statement = lockConnection.createStatement()) {
+      statement.execute("LOCK TABLE donnamis.offers, donnamis.members IN ACCESS EXCLUSIVE MODE");
+    }
+  }
+
+  @AfterEach
+  void release() throws SQLException {
+    dalService.closeCancellation();
+    lockConnection.rollback();
+    lockConnection.close();
+  }
+
+  @DisplayName("Test a blocked search is stopped by the timeout of the searches")
+  @Test
+  public void testSearchTimeout() throws SQLException {
+    int timeoutMillis = IntegrationDatabase.getSettings().getStatementTimeoutMillis("search");
+    long start = System.nanoTime();
+    ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+        () -> offerUCC.getOffers("a", 0, "", null, ""));
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertAll(
+        () -> assertEquals(503, e.getResponse().getStatus()),
+        () -> assertTrue(elapsedMillis >= timeoutMillis, "stopped before its timeout"),
+        () -> assertTrue(elapsedMillis < 2L * timeoutMillis, "stopped too late")
+    );
+    lockConnection.rollback();
+    // the transaction was rolled back, the connection is usable again
+    assertFalse(offerUCC.getOffers("a", 0, "", null, "").isEmpty());
+  }
+
+  @DisplayName("Test a blocked search is stopped when its request is cancelled")
+  @Test
+  public void testCancelRunningSearch() throws SQLException {
+    QueryCancellation cancellation = dalService.openCancellation();
+    CompletableFuture.runAsync(cancellation::cancel,
+        CompletableFuture.delayedExecutor(CANCEL_AFTER_MILLIS, TimeUnit.MILLISECONDS));
+    long start = System.nanoTime();
+    assertThrows(ServiceUnavailableException.class, () -> memberUCC.searchMembers("a", ""));
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertTrue(
+        elapsedMillis < IntegrationDatabase.getSettings().getStatementTimeoutMillis("search"),
+        "the search must stop at the cancellation, not at its timeout");
+    // the next transactions of the cancelled request don't take a connection
+    assertThrows(ServiceUnavailableException.class, () -> offerUCC.getOfferById(3));
+    dalService.closeCancellation();
+    lockConnection.rollback();
+    assertFalse(memberUCC.searchMembers("a", "").isEmpty());
+  }
+
+  @DisplayName("Test a blocked maintenance job is not stopped by the default timeout")
+  @Test
+  public void testMaintenanceOutlivesDefaultTimeout() throws Exception {
+    CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(
+        () -> offerUCC.rebuildOffersCount());
+    Thread.sleep(IntegrationDatabase.getSettings().getStatementTimeoutMillis("default")
+        + CANCEL_AFTER_MILLIS);
+    assertFalse(rebuild.isDone(), "the maintenance job must wait for the lock");
+    lockConnection.rollback();
+    assertEquals(0, rebuild.get(5, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,46 @@
+package be.vinci.pae.business.ucc;
+
+import static be.vinci.pae.QueryBudget.assertBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import be.vinci.pae.IntegrationDatabase;
+import be.vinci.pae.business.domain.dto.RatingDTO;
+import be.vinci.pae.business.factories.RatingFactory;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RatingUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private RatingUCC ratingUCC;
+  private RatingDTO ratingDTO;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.ratingUCC = locator.getService(RatingUCC.class);
+    OfferUCC offerUCC = locator.getService(OfferUCC.class);
+    MemberUCC memberUCC = locator.getService(MemberUCC.class);
+    offerUCC.giveOffer(offerUCC.getOfferById(9), memberUCC.getMember(5));
+    this.ratingDTO = locator.getService(RatingFactory.class).getRatingDTO();
+    this.ratingDTO.setIdObject(9);
+    this.ratingDTO.setIdMember(1);
+    this.ratingDTO.setRating(4);
+    this.ratingDTO.setComment("Très bon état");
+  }
+
+  @DisplayName("Test the budget of getOne")
+  @Test
+  public void testGetOneBudget() {
+    ratingUCC.addRating(ratingDTO);
+    assertEquals(4, assertBudget(2, 3, () -> ratingUCC.getOne(9)).getRating());
+  }
+
+  @DisplayName("Test the budget of addRating")
+  @Test
+  public void testAddRatingBudget() {
+    assertEquals(1, assertBudget(4, 5, () -> ratingUCC.addRating(ratingDTO)).getIdMember());
+  }
+}
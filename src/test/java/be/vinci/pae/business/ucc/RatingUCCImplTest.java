@@ -6,12 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import be.vinci.pae.TestBinder;
 import be.vinci.pae.business.domain.dto.InterestDTO;
+import be.vinci.pae.business.domain.dto.InterestStatus;
 import be.vinci.pae.business.domain.dto.RatingDTO;
 import be.vinci.pae.business.factories.InterestFactory;
 import be.vinci.pae.business.factories.RatingFactory;
 import be.vinci.pae.dal.dao.InterestDAO;
 import be.vinci.pae.dal.dao.RatingDAO;
 import be.vinci.pae.dal.services.DALService;
+import be.vinci.pae.dal.services.InvalidationBus;
 import be.vinci.pae.exceptions.ForbiddenException;
 import be.vinci.pae.exceptions.NotFoundException;
 import org.glassfish.hk2.api.ServiceLocator;
@@ -29,6 +31,7 @@ class RatingUCCImplTest {
   private RatingDTO ratingDTO;
   private InterestDTO interestDTO;
   private DALService mockDalService;
+  private InvalidationBus mockInvalidationBus;
   private final int nonExistingId = 1000;
   private final ServiceLocator locator = ServiceLocatorUtilities.bind(new TestBinder());
 
@@ -38,6 +41,7 @@ class RatingUCCImplTest {
     this.mockRatingDAO = locator.getService(RatingDAO.class);
     this.mockInterestDAO = locator.getService(InterestDAO.class);
     this.mockDalService = locator.getService(DALService.class);
+    this.mockInvalidationBus = locator.getService(InvalidationBus.class);
     RatingFactory ratingFactory = locator.getService(RatingFactory.class);
     this.ratingDTO = ratingFactory.getRatingDTO();
     this.ratingDTO.setIdObject(1);
@@ -46,7 +50,7 @@ class RatingUCCImplTest {
     this.ratingDTO.setComment("Not the best object.");
     InterestFactory interestFactory = locator.getService(InterestFactory.class);
     this.interestDTO = interestFactory.getInterestDTO();
-    this.interestDTO.setStatus("received");
+    this.interestDTO.setStatus(InterestStatus.RECEIVED);
   }
 
   @DisplayName("Test getOne with existing id")
@@ -120,7 +124,7 @@ class RatingUCCImplTest {
   @DisplayName("Test addRating with interest for this object and member but not received")
   @Test
   public void testAddRatingWithInterestForThisObjectAndMemberButNotReceived() {
-    this.interestDTO.setStatus("published");
+    this.interestDTO.setStatus(InterestStatus.PUBLISHED);
     Mockito.when(mockRatingDAO.getOne(this.ratingDTO.getIdObject())).thenReturn(null);
     Mockito.when(
         mockInterestDAO.getOne(this.ratingDTO.getIdObject(), this.ratingDTO.getIdMember())
@@ -147,7 +151,8 @@ class RatingUCCImplTest {
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
-            .commitTransaction()
+            .commitTransaction(),
+        () -> Mockito.verify(mockInvalidationBus).publish("rating:1")
     );
   }
 
@@ -0,0 +1,40 @@
+package be.vinci.pae.business.ucc;
+
+import static be.vinci.pae.QueryBudget.assertBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import be.vinci.pae.IntegrationDatabase;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TypeUCCImplIT {
+
+  private final ServiceLocator locator = IntegrationDatabase.getLocator();
+  private TypeUCC typeUCC;
+
+  @BeforeEach
+  void initAll() {
+    IntegrationDatabase.reset();
+    this.typeUCC = locator.getService(TypeUCC.class);
+  }
+
+  @DisplayName("Test the budget of getType by id")
+  @Test
+  public void testGetTypeByIdBudget() {
+    assertEquals(4, assertBudget(1, 2, () -> typeUCC.getType(4)).getIdType());
+  }
+
+  @DisplayName("Test the budget of getType by name")
+  @Test
+  public void testGetTypeByNameBudget() {
+    assertEquals(4, assertBudget(1, 2, () -> typeUCC.getType("Jouets")).getIdType());
+  }
+
+  @DisplayName("Test the budget of getAllDefaultTypes")
+  @Test
+  public void testGetAllDefaultTypesBudget() {
+    assertEquals(12, assertBudget(1, 2, () -> typeUCC.getAllDefaultTypes()).size());
+  }
+}
@@ -4,6 +4,7 @@ package be.vinci.pae.business.ucc;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import be.vinci.pae.TestBinder;
 import be.vinci.pae.business.domain.dto.TypeDTO;
@@ -139,11 +140,11 @@ class TypeUCCImplTest {
   public void testGetAllDefaultTypesWithoutDefaultTypesInTheDB() {
     Mockito.when(mockTypeDAO.getAllDefaultTypes()).thenReturn(new ArrayList<>());
     assertAll(
-        () -> assertThrows(NotFoundException.class, () -> typeUCC.getAllDefaultTypes()),
+        () -> assertTrue(typeUCC.getAllDefaultTypes().isEmpty()),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
             .startTransaction(),
         () -> Mockito.verify(mockDalService, Mockito.atLeast(1))
-            .rollBackTransaction()
+            .commitTransaction()
     );
   }
 }
\ No newline at end of file
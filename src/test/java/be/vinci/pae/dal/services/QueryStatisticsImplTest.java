@@ -0,0 +1,19 @@
+package be.vinci.pae.dal.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class QueryStatisticsImplTest {
+
+  @DisplayName("Test the strings and the arrays of a slow query are not logged")
+  @Test
+  public void testRedact() {
+    Object[] parameters = {3, "$2a$10$REyKoIXhQSTuSgC4Qj9T5", null, true,
+        LocalDate.of(2022, 4, 1), new Integer[]{1, 2}};
+    assertEquals("[3, <string:28>, null, true, 2022-04-01, <array>]",
+        QueryStatisticsImpl.redact(parameters));
+  }
+}
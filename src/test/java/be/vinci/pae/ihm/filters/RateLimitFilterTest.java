@@ -0,0 +1,48 @@
+package be.vinci.pae.ihm.filters;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimitFilterTest {
+
+  private static final Set<String> PROXIES = Set.of("10.0.0.1", "10.0.0.2");
+
+  @DisplayName("Test the address of a client behind a trusted proxy")
+  @Test
+  public void testClientBehindTrustedProxy() {
+    assertAll(
+        () -> assertEquals("203.0.113.7",
+            RateLimitFilter.getClientAddress("10.0.0.1", "203.0.113.7", PROXIES)),
+        () -> assertEquals("203.0.113.7",
+            RateLimitFilter.getClientAddress("10.0.0.1", " 203.0.113.7 , 10.0.0.2", PROXIES))
+    );
+  }
+
+  @DisplayName("Test the addresses forged by a client are ignored")
+  @Test
+  public void testForgedForwardedFor() {
+    assertAll(
+        () -> assertEquals("203.0.113.7",
+            RateLimitFilter.getClientAddress("10.0.0.1", "198.51.100.1, 203.0.113.7", PROXIES)),
+        () -> assertEquals("198.51.100.9",
+            RateLimitFilter.getClientAddress("198.51.100.9", "203.0.113.7", PROXIES))
+    );
+  }
+
+  @DisplayName("Test the address of the peer without a usable X-Forwarded-For")
+  @Test
+  public void testPeerAddress() {
+    assertAll(
+        () -> assertEquals("10.0.0.1",
+            RateLimitFilter.getClientAddress("10.0.0.1", null, PROXIES)),
+        () -> assertEquals("10.0.0.1",
+            RateLimitFilter.getClientAddress("10.0.0.1", "", PROXIES)),
+        () -> assertEquals("10.0.0.1",
+            RateLimitFilter.getClientAddress("10.0.0.1", "203.0.113.7", Set.of()))
+    );
+  }
+}
@@ -0,0 +1,115 @@
+package be.vinci.pae.ihm.manager;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlImplTest {
+
+  private static final String ROUTE = "GET /offers/";
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private ServiceLocator locator;
+  private AdmissionControl admissionControl;
+
+  @BeforeEach
+  void initAll() throws IOException {
+    Path properties = Files.createTempFile("admission", ".properties");
+    Files.writeString(properties, "AdmissionMaxInflight=48\nAdmissionInitialLimit=4\n"
+        + "AdmissionMaxWaitMillis=0\nAdmissionLatencyFactor=2\n");
+    Configuration configuration = new ConfigurationImpl(properties.toString());
+    // a locator of its own, the default one may still hold the bindings of another test class
+    locator = ServiceLocatorUtilities.bind("admissionControl", new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(AdmissionControlImpl.class).to(AdmissionControl.class).in(Singleton.class);
+      }
+    });
+    admissionControl = locator.getService(AdmissionControl.class);
+    Files.delete(properties);
+  }
+
+  @AfterEach
+  void shutdown() {
+    // the next test gets new route limits
+    locator.shutdown();
+  }
+
+  @DisplayName("Test the initial limit of a route and the rejection over it")
+  @Test
+  public void testRejectedOverLimit() {
+    for (int i = 0; i < 4; i++) {
+      assertTrue(admissionControl.acquire(ROUTE, false));
+    }
+    assertAll(
+        () -> assertFalse(admissionControl.acquire(ROUTE, false)),
+        () -> assertEquals(4, limit()),
+        () -> assertEquals(1L, admissionControl.getLimits().get(ROUTE).get("rejected"))
+    );
+  }
+
+  @DisplayName("Test the limit of a route shrinks by 10% on each slow request, down to 1")
+  @Test
+  public void testLimitShrinksOnSlowRequests() {
+    request(FAST);
+    request(SLOW);
+    assertEquals(3, limit());
+    for (int i = 0; i < 30; i++) {
+      request(SLOW);
+    }
+    assertAll(
+        () -> assertEquals(1, limit()),
+        () -> assertTrue(admissionControl.acquire(ROUTE, false)),
+        () -> assertFalse(admissionControl.acquire(ROUTE, false))
+    );
+  }
+
+  @DisplayName("Test the limit of a route grows while it is busy and fast")
+  @Test
+  public void testLimitGrowsWhenBusy() {
+    for (int i = 0; i < 3; i++) {
+      assertTrue(admissionControl.acquire(ROUTE, false));
+    }
+    for (int i = 0; i < 100; i++) {
+      request(FAST);
+    }
+    // 4 requests in flight use more than half of the limit until it reaches 8
+    assertEquals(8, limit());
+  }
+
+  @DisplayName("Test the limit of an idle route doesn't grow")
+  @Test
+  public void testLimitStableWhenIdle() {
+    for (int i = 0; i < 100; i++) {
+      request(FAST);
+    }
+    assertEquals(4, limit());
+  }
+
+  private void request(long nanos) {
+    assertTrue(admissionControl.acquire(ROUTE, false));
+    admissionControl.release(ROUTE, nanos);
+  }
+
+  private int limit() {
+    return admissionControl.getLimits().get(ROUTE).get("limit").intValue();
+  }
+}
@@ -0,0 +1,145 @@
+package be.vinci.pae.ihm.manager;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Overload a simulated database of 4 connections with 64 clients, with and without the admission
+ * control. The admitted requests must keep a bounded p99 and the rejected ones must be fast.
+ */
+class AdmissionControlLoadIT {
+
+  private static final String ROUTE = "GET /offers/";
+  private static final int CONNECTIONS = 4;
+  private static final long QUERY_MILLIS = 5;
+  private static final int CLIENTS = 64;
+  private static final long DURATION_MILLIS = 3000;
+  private static final long MAX_WAIT_MILLIS = 20;
+
+  private final Semaphore database = new Semaphore(CONNECTIONS, true);
+  private AdmissionControl admissionControl;
+
+  @BeforeEach
+  void initAll() throws IOException {
+    Path properties = Files.createTempFile("admission", ".properties");
+    Files.writeString(properties, "AdmissionMaxInflight=48\nAdmissionInitialLimit=16\n"
+        + "AdmissionMaxWaitMillis=" + MAX_WAIT_MILLIS + "\nAdmissionLatencyFactor=2\n");
+    Configuration configuration = new ConfigurationImpl(properties.toString());
+    ServiceLocator locator = ServiceLocatorUtilities.bind(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(AdmissionControlImpl.class).to(AdmissionControl.class).in(Singleton.class);
+      }
+    });
+    admissionControl = locator.getService(AdmissionControl.class);
+    Files.delete(properties);
+  }
+
+  @DisplayName("Test the p99 of the admitted requests under overload")
+  @Test
+  public void testBoundedP99UnderOverload() throws InterruptedException {
+    List<Long> unlimited = run(false, new ConcurrentLinkedQueue<>());
+    ConcurrentLinkedQueue<Long> rejected = new ConcurrentLinkedQueue<>();
+    List<Long> admitted = run(true, rejected);
+
+    long unlimitedP99 = p99(unlimited);
+    long admittedP99 = p99(admitted);
+    long rejectedP99 = p99(new ArrayList<>(rejected));
+    Logger.getLogger("Log").log(Level.INFO, "unlimited p99 {0,number,#} ms ({1} requests), "
+            + "admitted p99 {2,number,#} ms ({3} requests), rejected p99 {4,number,#} ms ({5} "
+            + "requests)",
+        new Object[]{unlimitedP99, unlimited.size(), admittedP99, admitted.size(), rejectedP99,
+            rejected.size()});
+    assertTrue(admittedP99 * 2 < unlimitedP99, "the admitted p99 must be bounded");
+    assertTrue(rejectedP99 <= MAX_WAIT_MILLIS * 3, "the rejections must be fast");
+  }
+
+  /**
+   * Send requests from all the clients during the duration of the test.
+   *
+   * @param limited  true to go through the admission control.
+   * @param rejected the latencies of the rejected requests.
+   * @return the latencies in milliseconds of the requests that reached the database.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  private List<Long> run(boolean limited, ConcurrentLinkedQueue<Long> rejected)
+      throws InterruptedException {
+    ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+    List<Thread> clients = new ArrayList<>();
+    for (int i = 0; i < CLIENTS; i++) {
+      Thread client = new Thread(() -> {
+        while (System.nanoTime() < end) {
+          long start = System.nanoTime();
+          if (limited && !admissionControl.acquire(ROUTE, false)) {
+            rejected.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            // the client waits a little before trying again
+            sleep(QUERY_MILLIS);
+            continue;
+          }
+          long admittedAt = System.nanoTime();
+          query();
+          if (limited) {
+            admissionControl.release(ROUTE, System.nanoTime() - admittedAt);
+          }
+          latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+      });
+      client.start();
+      clients.add(client);
+    }
+    for (Thread client : clients) {
+      client.join();
+    }
+    return new ArrayList<>(latencies);
+  }
+
+  /**
+   * Run a query on the simulated database, it waits for one of the connections.
+   */
+  private void query() {
+    database.acquireUninterruptibly();
+    try {
+      sleep(QUERY_MILLIS);
+    } finally {
+      database.release();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static long p99(List<Long> latencies) {
+    if (latencies.isEmpty()) {
+      return 0;
+    }
+    Collections.sort(latencies);
+    return latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+  }
+}
@@ -0,0 +1,116 @@
+package be.vinci.pae.ihm.manager;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.business.ucc.ObjectUCC;
+import be.vinci.pae.business.ucc.ObjectUCCImpl;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class ImageGcImplTest {
+
+  @TempDir
+  Path imagePath;
+  private ServiceLocator locator;
+  private ImageGc imageGc;
+  private Path referenced;
+  private Path orphan;
+  private Path recent;
+  private Path orphanProfil;
+
+  @BeforeEach
+  void initAll() throws IOException {
+    Path properties = imagePath.resolve("imageGc.properties");
+    Files.writeString(properties, "ImagePath=" + imagePath.toString().replace("\\", "\\\\")
+        + "/\nImageGcGraceMinutes=60\n");
+    Configuration configuration = new ConfigurationImpl(properties.toString());
+    ObjectUCC objectUCC = Mockito.mock(ObjectUCCImpl.class);
+    Mockito.doAnswer(invocation -> {
+      Consumer<String> consumer = invocation.getArgument(0);
+      consumer.accept("img\\objects\\1.JPG");
+      consumer.accept("img\\profils\\5.png");
+      return null;
+    }).when(objectUCC).forEachReferencedImage(Mockito.any());
+    locator = ServiceLocatorUtilities.bind(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(objectUCC).to(ObjectUCC.class);
+        bind(ImageImpl.class).to(Image.class).in(Singleton.class);
+        bind(ImageGcImpl.class).to(ImageGc.class).in(Singleton.class);
+      }
+    });
+    imageGc = locator.getService(ImageGc.class);
+
+    FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+    referenced = createImage("objects", "1.jpg", old);
+    orphan = createImage("objects", "2.png", old);
+    recent = createImage("objects", "3.png", FileTime.from(Instant.now()));
+    orphanProfil = createImage("profils", "4.png", old);
+  }
+
+  private Path createImage(String directory, String name, FileTime modified) throws IOException {
+    Path path = imagePath.resolve("img").resolve(directory).resolve(name);
+    Files.createDirectories(path.getParent());
+    Files.write(path, new byte[10]);
+    Files.setLastModifiedTime(path, modified);
+    return path;
+  }
+
+  @AfterEach
+  void shutdown() {
+    locator.shutdown();
+  }
+
+  @DisplayName("Test a dry run only reports the old orphaned images")
+  @Test
+  public void testDryRun() {
+    Map<String, Object> report = imageGc.collect(true);
+    assertAll(
+        () -> assertEquals(4L, report.get("scanned")),
+        () -> assertEquals(1L, report.get("recent")),
+        () -> assertEquals(2L, report.get("orphans")),
+        () -> assertEquals(20L, report.get("orphanBytes")),
+        () -> assertEquals(0L, report.get("deleted")),
+        () -> assertTrue(((List<?>) report.get("files")).contains("img\\objects\\2.png")),
+        () -> assertTrue(Files.exists(orphan)),
+        () -> assertTrue(Files.exists(orphanProfil))
+    );
+  }
+
+  @DisplayName("Test a collection deletes the old orphaned images only")
+  @Test
+  public void testCollect() {
+    Map<String, Object> report = imageGc.collect(false);
+    assertAll(
+        () -> assertEquals(2L, report.get("deleted")),
+        () -> assertEquals(0L, report.get("failed")),
+        () -> assertFalse(Files.exists(orphan)),
+        () -> assertFalse(Files.exists(orphanProfil)),
+        () -> assertTrue(Files.exists(referenced), "the case of a reference is ignored"),
+        () -> assertTrue(Files.exists(recent), "a recent upload may not be committed yet")
+    );
+  }
+}
@@ -0,0 +1,89 @@
+package be.vinci.pae.ihm.manager;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.business.domain.OutboxEventImpl;
+import be.vinci.pae.business.domain.dto.OutboxEventDTO;
+import be.vinci.pae.business.ucc.OutboxUCC;
+import be.vinci.pae.business.ucc.OutboxUCCImpl;
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class OutboxWorkerImplTest {
+
+  @TempDir
+  Path imagePath;
+  private ServiceLocator locator;
+  private OutboxWorker outboxWorker;
+  private OutboxUCC outboxUCC;
+
+  @BeforeEach
+  void initAll() throws IOException {
+    Path properties = imagePath.resolve("outboxWorker.properties");
+    Files.writeString(properties, "ImagePath=" + imagePath.toString().replace("\\", "\\\\")
+        + "/\nOutboxThreads=1\nOutboxPollMillis=60000\n");
+    Configuration configuration = new ConfigurationImpl(properties.toString());
+    outboxUCC = Mockito.mock(OutboxUCCImpl.class);
+    locator = ServiceLocatorUtilities.bind("outboxWorker", new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(outboxUCC).to(OutboxUCC.class);
+        bind(ImageImpl.class).to(Image.class).in(Singleton.class);
+        bind(OutboxWorkerImpl.class).to(OutboxWorker.class).in(Singleton.class);
+      }
+    });
+    outboxWorker = locator.getService(OutboxWorker.class);
+  }
+
+  @AfterEach
+  void shutdown() {
+    locator.shutdown();
+  }
+
+  @DisplayName("Test a replaced picture is deleted from ImagePath")
+  @Test
+  public void testDeleteImage() throws IOException {
+    // the picture as it is stored by the member and written by writeImageOnDisk
+    String storedImage = "img\\profils\\12.png";
+    Files.createDirectories(imagePath.resolve("img").resolve("profils"));
+    Path file = Paths.get(imagePath + "/" + storedImage);
+    Files.write(file, new byte[10]);
+    assertTrue(Files.exists(file));
+
+    OutboxEventDTO event = new OutboxEventImpl();
+    event.setIdEvent(1L);
+    event.setKind(OutboxEventDTO.DELETE_IMAGE);
+    event.setPayload(storedImage);
+    event.setAttempts(0);
+    Mockito.when(outboxUCC.claimEvents()).thenReturn(List.of(event), List.of());
+
+    outboxWorker.start();
+    Mockito.verify(outboxUCC, Mockito.timeout(5000)).completeEvent(1L);
+    Map<String, Number> statistics = outboxWorker.getStatistics();
+    assertAll(
+        () -> assertFalse(Files.exists(file)),
+        () -> assertEquals(1L, statistics.get("done")),
+        () -> assertEquals(0L, statistics.get("failed"))
+    );
+  }
+}
@@ -0,0 +1,123 @@
+package be.vinci.pae.ihm.manager;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterImplTest {
+
+  private static final String ROUTE = "GET /offers/";
+  private static final String POLLED_ROUTE = "GET /interest/notificationCount";
+
+  private ServiceLocator locator;
+  private RateLimiter rateLimiter;
+
+  @BeforeEach
+  void initAll() throws IOException {
+    Path properties = Files.createTempFile("rateLimit", ".properties");
+    Files.writeString(properties, "RateLimit=10/5\n"
+        + "RateLimitRoutes=" + POLLED_ROUTE + "=1/2, GET /auth/me=0/1\n");
+    Configuration configuration = new ConfigurationImpl(properties.toString());
+    locator = ServiceLocatorUtilities.bind(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(RateLimiterImpl.class).to(RateLimiter.class).in(Singleton.class);
+      }
+    });
+    rateLimiter = locator.getService(RateLimiter.class);
+    Files.delete(properties);
+  }
+
+  @AfterEach
+  void shutdown() {
+    // the next test gets new buckets
+    locator.shutdown();
+  }
+
+  @DisplayName("Test the burst of a client and the wait before the next token")
+  @Test
+  public void testBurstThenLimited() {
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, rateLimiter.acquire(ROUTE, "member:1"));
+    }
+    long waitNanos = rateLimiter.acquire(ROUTE, "member:1");
+    assertAll(
+        () -> assertTrue(waitNanos > 0 && waitNanos <= TimeUnit.MILLISECONDS.toNanos(100)),
+        () -> assertEquals(1L, rateLimiter.getStatistics().get("limited"))
+    );
+  }
+
+  @DisplayName("Test the token given back after the wait")
+  @Test
+  public void testRefill() throws InterruptedException {
+    for (int i = 0; i < 5; i++) {
+      rateLimiter.acquire(ROUTE, "member:1");
+    }
+    long waitNanos = rateLimiter.acquire(ROUTE, "member:1");
+    TimeUnit.NANOSECONDS.sleep(waitNanos);
+    assertEquals(0, rateLimiter.acquire(ROUTE, "member:1"));
+  }
+
+  @DisplayName("Test the buckets of the clients and of the routes are separated")
+  @Test
+  public void testSeparatedBuckets() {
+    for (int i = 0; i < 5; i++) {
+      rateLimiter.acquire(ROUTE, "member:1");
+    }
+    assertAll(
+        () -> assertEquals(0, rateLimiter.acquire(ROUTE, "member:2")),
+        () -> assertEquals(0, rateLimiter.acquire(ROUTE, "address:127.0.0.1")),
+        () -> assertEquals(0, rateLimiter.acquire(POLLED_ROUTE, "member:1"))
+    );
+  }
+
+  @DisplayName("Test the budget of a route set in RateLimitRoutes")
+  @Test
+  public void testRouteBudget() {
+    assertAll(
+        () -> assertEquals(0, rateLimiter.acquire(POLLED_ROUTE, "member:1")),
+        () -> assertEquals(0, rateLimiter.acquire(POLLED_ROUTE, "member:1")),
+        () -> assertTrue(rateLimiter.acquire(POLLED_ROUTE, "member:1")
+            > TimeUnit.MILLISECONDS.toNanos(500))
+    );
+  }
+
+  @DisplayName("Test a route without limit")
+  @Test
+  public void testUnlimitedRoute() {
+    for (int i = 0; i < 100; i++) {
+      assertEquals(0, rateLimiter.acquire("GET /auth/me", "member:1"));
+    }
+    assertEquals(0L, rateLimiter.getStatistics().get("buckets"));
+  }
+
+  @DisplayName("Test the full buckets are dropped")
+  @Test
+  public void testIdleBucketsDropped() throws InterruptedException {
+    for (int i = 0; i < 1000; i++) {
+      rateLimiter.acquire(ROUTE, "address:10.0.0." + i);
+    }
+    // one token of each bucket is given back after 100 ms
+    TimeUnit.MILLISECONDS.sleep(150);
+    for (int i = 0; i < 100_000; i++) {
+      rateLimiter.acquire(ROUTE, "member:1");
+    }
+    assertTrue(rateLimiter.getStatistics().get("buckets").longValue() < 1000);
+  }
+}
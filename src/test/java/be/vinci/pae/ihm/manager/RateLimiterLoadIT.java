@@ -0,0 +1,91 @@
+package be.vinci.pae.ihm.manager;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.utils.Configuration;
+import be.vinci.pae.utils.ConfigurationImpl;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measure the time the rate limiter adds to a request, with many clients and threads.
+ */
+class RateLimiterLoadIT {
+
+  private static final int THREADS = 8;
+  private static final int CLIENTS = 10_000;
+  private static final int REQUESTS = 2_000_000;
+  // a request through Jersey takes more than 100 us, the coverage agent doubles the time here
+  private static final long MAX_NANOS_BY_REQUEST = 2000;
+
+  private RateLimiter rateLimiter;
+
+  @BeforeEach
+  void initAll() throws IOException {
+    Path properties = Files.createTempFile("rateLimit", ".properties");
+    Files.writeString(properties, "RateLimit=20/50\n");
+    Configuration configuration = new ConfigurationImpl(properties.toString());
+    ServiceLocator locator = ServiceLocatorUtilities.bind(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(RateLimiterImpl.class).to(RateLimiter.class).in(Singleton.class);
+      }
+    });
+    rateLimiter = locator.getService(RateLimiter.class);
+    Files.delete(properties);
+  }
+
+  @DisplayName("Test the time of a request through the rate limiter")
+  @Test
+  public void testOverhead() throws InterruptedException {
+    String[] clients = new String[CLIENTS];
+    for (int i = 0; i < CLIENTS; i++) {
+      clients[i] = "member:" + i;
+    }
+    // compiled before the measure, like on a running server
+    run(clients);
+    long start = System.nanoTime();
+    run(clients);
+    long nanosByRequest = (System.nanoTime() - start) / REQUESTS;
+    Logger.getLogger("Log").log(Level.INFO, "{0,number,#} ns by request, {1}",
+        new Object[]{nanosByRequest, rateLimiter.getStatistics()});
+    assertTrue(nanosByRequest <= MAX_NANOS_BY_REQUEST, "the rate limiter must stay negligible");
+  }
+
+  /**
+   * Send the requests from all the threads, each thread goes through the clients in its own order.
+   *
+   * @param clients the keys of the clients.
+   * @throws InterruptedException if the test is interrupted.
+   */
+  private void run(String[] clients) throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int offset = t * 7919;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < REQUESTS / THREADS; i++) {
+          rateLimiter.acquire("GET /offers/", clients[(offset + i) % CLIENTS]);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package be.vinci.pae.utils;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import be.vinci.pae.business.domain.InterestImpl;
+import be.vinci.pae.business.domain.dto.InterestDTO;
+import jakarta.inject.Singleton;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class NotificationSeenBufferImplTest {
+
+  private ServiceLocator locator;
+  private Configuration configuration;
+  private NotificationSeenBuffer seenBuffer;
+
+  @BeforeEach
+  void initAll() {
+    configuration = Mockito.mock(Configuration.class);
+    useSettings("200", "2");
+    locator = ServiceLocatorUtilities.bind(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(configuration).to(Configuration.class);
+        bind(NotificationSeenBufferImpl.class).to(NotificationSeenBuffer.class)
+            .in(Singleton.class);
+      }
+    });
+    seenBuffer = locator.getService(NotificationSeenBuffer.class);
+  }
+
+  @AfterEach
+  void shutdown() {
+    // the next test gets a new buffer
+    locator.shutdown();
+  }
+
+  private void useSettings(String flushMillis, String flushBatch) {
+    Properties properties = new Properties();
+    properties.setProperty("NotificationFlushMillis", flushMillis);
+    properties.setProperty("NotificationFlushBatch", flushBatch);
+    Mockito.when(configuration.getSettings()).thenReturn(new Settings(properties));
+  }
+
+  private static InterestDTO mark(int idObject, int idMember, int version) {
+    InterestDTO mark = new InterestImpl();
+    mark.setIdObject(idObject);
+    mark.setIdMember(idMember);
+    mark.setVersion(version);
+    return mark;
+  }
+
+  @DisplayName("Test the marks are counted by recipient and the listeners told of a full batch")
+  @Test
+  public void testAdd() {
+    AtomicInteger fullBatches = new AtomicInteger();
+    seenBuffer.subscribe(fullBatches::incrementAndGet);
+    seenBuffer.add(mark(1, 2, 0), 7);
+    seenBuffer.add(mark(3, 2, 0), 2);
+    seenBuffer.add(mark(4, 5, 0), 7);
+
+    assertAll(
+        () -> assertEquals(1, fullBatches.get()),
+        () -> assertEquals(2, seenBuffer.getPendingCount(7)),
+        () -> assertEquals(1, seenBuffer.getPendingCount(2)),
+        () -> assertEquals(2, seenBuffer.getPending().size()),
+        () -> assertTrue(seenBuffer.isPending(mark(1, 2, 0))),
+        () -> assertFalse(seenBuffer.isPending(mark(1, 2, 1)))
+    );
+  }
+
+  @DisplayName("Test a mark replaced during its flush is kept")
+  @Test
+  public void testRemoveKeepsReplacedMarks() {
+    seenBuffer.add(mark(1, 2, 0), 7);
+    List<InterestDTO> written = seenBuffer.getPending();
+    seenBuffer.add(mark(1, 2, 1), 7);
+    seenBuffer.remove(written);
+
+    assertAll(
+        () -> assertEquals(1, seenBuffer.size()),
+        () -> assertTrue(seenBuffer.isPending(mark(1, 2, 1)))
+    );
+  }
+
+  @DisplayName("Test the mark of an interest notified again is no longer counted")
+  @Test
+  public void testDiscard() {
+    seenBuffer.add(mark(1, 2, 0), 7);
+    seenBuffer.add(mark(3, 2, 0), 7);
+    seenBuffer.discard(mark(1, 2, 1));
+
+    assertAll(
+        () -> assertEquals(1, seenBuffer.getPendingCount(7)),
+        () -> assertFalse(seenBuffer.isPending(mark(1, 2, 0))),
+        () -> assertTrue(seenBuffer.isPending(mark(3, 2, 0)))
+    );
+  }
+
+  @DisplayName("Test the marks are refused when they are written at once or the buffer is closed")
+  @Test
+  public void testAddRefused() {
+    useSettings("0", "2");
+    boolean writeThrough = seenBuffer.add(mark(1, 2, 0), 7);
+    useSettings("200", "2");
+    seenBuffer.close();
+
+    assertAll(
+        () -> assertFalse(writeThrough),
+        () -> assertFalse(seenBuffer.add(mark(1, 2, 0), 7)),
+        () -> assertEquals(0, seenBuffer.size())
+    );
+  }
+}
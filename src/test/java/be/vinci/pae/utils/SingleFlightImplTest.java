@@ -0,0 +1,157 @@
+package be.vinci.pae.utils;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import be.vinci.pae.dal.services.InvalidationBus;
+import be.vinci.pae.exceptions.NotFoundException;
+import jakarta.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+class SingleFlightImplTest {
+
+  private static final int CALLERS = 8;
+
+  private ServiceLocator locator;
+  private SingleFlight singleFlight;
+  private Consumer<Set<String>> invalidationListener;
+  private ExecutorService callers;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void initAll() {
+    InvalidationBus invalidationBus = Mockito.mock(InvalidationBus.class);
+    locator = ServiceLocatorUtilities.bind(new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(invalidationBus).to(InvalidationBus.class);
+        bind(SingleFlightImpl.class).to(SingleFlight.class).in(Singleton.class);
+      }
+    });
+    singleFlight = locator.getService(SingleFlight.class);
+    ArgumentCaptor<Consumer<Set<String>>> listener = ArgumentCaptor.forClass(Consumer.class);
+    Mockito.verify(invalidationBus).subscribe(listener.capture());
+    invalidationListener = listener.getValue();
+    callers = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @AfterEach
+  void shutdown() {
+    callers.shutdownNow();
+    // the next test gets a new single flight
+    locator.shutdown();
+  }
+
+  @DisplayName("Test the identical reads running at the same time share one computation")
+  @Test
+  public void testConcurrentReadsShareOneComputation() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger computations = new AtomicInteger();
+    Object offer = new Object();
+    List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(callers.submit(() -> singleFlight.execute("getOfferById:1", "offers", () -> {
+        computations.incrementAndGet();
+        await(release);
+        return offer;
+      })));
+    }
+    waitForCoalesced(CALLERS - 1);
+    release.countDown();
+    for (Future<Object> result : results) {
+      assertSame(offer, result.get(5, TimeUnit.SECONDS));
+    }
+    assertAll(
+        () -> assertEquals(1, computations.get()),
+        () -> assertEquals(0, singleFlight.getStatistics().get("flights").intValue())
+    );
+  }
+
+  @DisplayName("Test the exception of a read is thrown to all its callers")
+  @Test
+  public void testConcurrentReadsShareTheException() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(callers.submit(() -> singleFlight.execute("getOfferById:0", "offers", () -> {
+        await(release);
+        throw new NotFoundException("Aucune offres");
+      })));
+    }
+    waitForCoalesced(CALLERS - 1);
+    release.countDown();
+    for (Future<Object> result : results) {
+      ExecutionException e = assertThrows(ExecutionException.class,
+          () -> result.get(5, TimeUnit.SECONDS));
+      assertEquals(NotFoundException.class, e.getCause().getClass());
+    }
+  }
+
+  @DisplayName("Test a finished read is not kept and the different keys are not coalesced")
+  @Test
+  public void testNoResultKept() {
+    AtomicInteger computations = new AtomicInteger();
+    singleFlight.execute("getOfferById:1", "offers", computations::incrementAndGet);
+    singleFlight.execute("getOfferById:1", "offers", computations::incrementAndGet);
+    singleFlight.execute("getLastOffer:1", "offers", computations::incrementAndGet);
+    assertAll(
+        () -> assertEquals(3, computations.get()),
+        () -> assertEquals(0, singleFlight.getStatistics().get("coalesced").intValue())
+    );
+  }
+
+  @DisplayName("Test a read running during an invalidation of its tag is not joined anymore")
+  @Test
+  public void testInvalidationDetachesTheRunningRead() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    final Future<Object> before = callers.submit(() -> singleFlight.execute("getOfferById:1",
+        "offers", () -> {
+          await(release);
+          return "before";
+        }));
+    while (singleFlight.getStatistics().get("flights").intValue() == 0) {
+      Thread.sleep(1);
+    }
+    invalidationListener.accept(Set.of("rating:1"));
+    assertEquals(1, singleFlight.getStatistics().get("flights").intValue());
+    invalidationListener.accept(Set.of("offers"));
+    assertEquals("after", singleFlight.execute("getOfferById:1", "offers", () -> "after"));
+    release.countDown();
+    assertEquals("before", before.get(5, TimeUnit.SECONDS));
+  }
+
+  private void waitForCoalesced(int callers) throws InterruptedException {
+    while (singleFlight.getStatistics().get("coalesced").intValue() < callers) {
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}